@@ -21,23 +21,29 @@ import com.saasovation.agilepm.port.adapter.persistence.LevelDBDatabasePath;
 import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.common.domain.model.DomainEventSubscriber;
-import com.saasovation.common.event.EventStore;
 import com.saasovation.common.notification.NotificationPublisher;
 import com.saasovation.common.notification.PublishedNotificationTrackerStore;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
+import com.saasovation.common.port.adapter.notification.NotificationPublisherScheduler;
 import com.saasovation.common.port.adapter.notification.SlothMQNotificationPublisher;
 import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBEventStore;
 import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBProvider;
 import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBPublishedNotificationTrackerStore;
+import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBReceivedMessageStore;
 import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBUnitOfWork;
 
 public class ApplicationServiceLifeCycle {
 
+    private static final int EXPECTED_RECEIVED_MESSAGES_PER_WINDOW = 100000;
+    private static final long RECEIVED_MESSAGE_WINDOW_MILLIS = 24L * 60L * 60L * 1000L;
+
     private static final DB database;
-    private static final EventStore eventStore;
+    private static final LevelDBEventStore eventStore;
+    private static final IdempotentReceiver idempotentReceiver;
     private static NotificationApplicationService notificationApplicationService;
     private static NotificationPublisher notificationPublisher;
-    private static NotificationPublisherTimer timer;
+    private static NotificationPublisherScheduler notificationPublisherScheduler;
     private static PublishedNotificationTrackerStore publishedNotificationTrackerStore;
 
     static {
@@ -48,8 +54,6 @@ public class ApplicationServiceLifeCycle {
 
         eventStore = new LevelDBEventStore(LevelDBDatabasePath.agilePMPath());
 
-        timer = new NotificationPublisherTimer();
-
         publishedNotificationTrackerStore =
                 new LevelDBPublishedNotificationTrackerStore(
                         LevelDBDatabasePath.agilePMPath(),
@@ -69,7 +73,32 @@ public class ApplicationServiceLifeCycle {
 
         notificationApplicationService = new NotificationApplicationService(notificationPublisher);
 
-        timer.start();
+        idempotentReceiver =
+                new IdempotentReceiver(
+                        new LevelDBReceivedMessageStore(LevelDBDatabasePath.agilePMPath()),
+                        RECEIVED_MESSAGE_WINDOW_MILLIS,
+                        EXPECTED_RECEIVED_MESSAGES_PER_WINDOW);
+
+        notificationPublisherScheduler =
+                new NotificationPublisherScheduler(
+                        "agilepm-notification-publisher",
+                        new Runnable() {
+                            public void run() {
+                                notificationApplicationService.publishNotifications();
+                            }
+                        });
+
+        // each committed append wakes the publisher
+        eventStore.registerEventNotifiable(notificationPublisherScheduler);
+
+        notificationPublisherScheduler.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                notificationPublisherScheduler.close();
+            }
+        });
     }
 
     public static void begin() {
@@ -84,6 +113,10 @@ public class ApplicationServiceLifeCycle {
         LevelDBUnitOfWork.start(database);
     }
 
+    public static IdempotentReceiver idempotentReceiver() {
+        return idempotentReceiver;
+    }
+
     public static void fail() {
         LevelDBUnitOfWork.current().rollback();
     }
@@ -120,29 +153,4 @@ public class ApplicationServiceLifeCycle {
                 }
             });
     }
-
-    // TODO: need to monitor this...
-
-    private static class NotificationPublisherTimer extends Thread {
-        public NotificationPublisherTimer() {
-            super();
-        }
-
-        @Override
-        public void run() {
-            while (true) {
-                try {
-                    notificationApplicationService.publishNotifications();
-                } catch (Exception e) {
-                    System.out.println("Problem publishing notifications from ApplicationServiceLifeCycle.");
-                }
-
-                try {
-                    Thread.sleep(100L);
-                } catch (Exception e) {
-                    // ignore
-                }
-            }
-        }
-    }
 }
@@ -14,9 +14,11 @@
 
 package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.sprint.*;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQBacklogItemCommittedListener extends ExchangeListener {
@@ -51,6 +53,11 @@ public class RabbitMQBacklogItemCommittedListener extends ExchangeListener {
                     backlogItemId));
     }
 
+    @Override
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     @Override
     protected String[] listensTo() {
         return new String[] {
@@ -14,11 +14,13 @@
 
 package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.product.InitiateDiscussionCommand;
 import com.saasovation.agilepm.application.product.ProductApplicationService;
 import com.saasovation.agilepm.port.adapter.messaging.ProductDiscussionExclusiveOwnerId;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQDiscussionStartedListener extends ExchangeListener {
@@ -62,6 +64,11 @@ public class RabbitMQDiscussionStartedListener extends ExchangeListener {
                     discussionId));
     }
 
+    @Override
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     @Override
     protected String[] listensTo() {
         return new String[] {
@@ -17,11 +17,13 @@ package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 import java.util.Date;
 import java.util.Properties;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.product.ProductApplicationService;
 import com.saasovation.agilepm.application.product.StartDiscussionInitiationCommand;
 import com.saasovation.agilepm.port.adapter.messaging.ProductDiscussionExclusiveOwnerId;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ConnectionSettings;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.Exchange;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
@@ -82,6 +84,11 @@ public class RabbitMQProductDiscussionRequestedListener
             .close();
     }
 
+    @Override
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     @Override
     protected String[] listensTo() {
         return new String[] {
@@ -14,6 +14,7 @@
 
 package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.product.ProductApplicationService;
 import com.saasovation.agilepm.application.product.RetryProductDiscussionRequestCommand;
 import com.saasovation.agilepm.application.product.TimeOutProductDiscussionRequestCommand;
@@ -21,6 +22,7 @@ import com.saasovation.agilepm.domain.model.product.ProductDiscussionRequestTime
 import com.saasovation.common.notification.Notification;
 import com.saasovation.common.notification.NotificationSerializer;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQProductDiscussionRetryListener extends ExchangeListener {
@@ -63,6 +65,11 @@ public class RabbitMQProductDiscussionRetryListener extends ExchangeListener {
         }
     }
 
+    @Override
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     @Override
     protected String[] listensTo() {
         return new String[] {
@@ -16,11 +16,13 @@ package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
 import java.util.Date;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.team.DisableProductOwnerCommand;
 import com.saasovation.agilepm.application.team.DisableTeamMemberCommand;
 import com.saasovation.agilepm.application.team.TeamApplicationService;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQTeamMemberDisablerListener extends ExchangeListener {
@@ -68,6 +70,10 @@ public class RabbitMQTeamMemberDisablerListener extends ExchangeListener {
         }
     }
 
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     protected String[] listensTo() {
         return new String[] {
                 "com.saasovation.identityaccess.domain.model.access.UserUnassignedFromRole"
@@ -16,15 +16,21 @@ package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
 import java.util.Date;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.team.EnableProductOwnerCommand;
 import com.saasovation.agilepm.application.team.EnableTeamMemberCommand;
 import com.saasovation.agilepm.application.team.TeamApplicationService;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQTeamMemberEnablerListener extends ExchangeListener {
 
+    private static final int ACKNOWLEDGEMENT_BATCH_SIZE = 16;
+    private static final int CONSUMER_COUNT = 4;
+    private static final int PREFETCH_COUNT = 32;
+
     private TeamApplicationService teamApplicationService;
 
     public RabbitMQTeamMemberEnablerListener(
@@ -35,6 +41,16 @@ public class RabbitMQTeamMemberEnablerListener extends ExchangeListener {
         this.teamApplicationService = aTeamApplicationService;
     }
 
+    @Override
+    protected int acknowledgementBatchSize() {
+        return ACKNOWLEDGEMENT_BATCH_SIZE;
+    }
+
+    @Override
+    protected int consumerCount() {
+        return CONSUMER_COUNT;
+    }
+
     @Override
     protected String exchangeName() {
         return Exchanges.IDENTITY_ACCESS_EXCHANGE_NAME;
@@ -79,6 +95,23 @@ public class RabbitMQTeamMemberEnablerListener extends ExchangeListener {
         }
     }
 
+    @Override
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
+    @Override
+    protected boolean isOrderedByKey() {
+        return true;
+    }
+
+    @Override
+    protected String orderingKey(String aType, String aTextMessage) {
+        NotificationReader reader = new NotificationReader(aTextMessage);
+
+        return reader.eventStringValue("tenantId.id");
+    }
+
     @Override
     protected String[] listensTo() {
         return new String[] {
@@ -86,6 +119,11 @@ public class RabbitMQTeamMemberEnablerListener extends ExchangeListener {
                 };
     }
 
+    @Override
+    protected int prefetchCount() {
+        return PREFETCH_COUNT;
+    }
+
     private TeamApplicationService teamApplicationService() {
         return this.teamApplicationService;
     }
@@ -16,10 +16,12 @@ package com.saasovation.agilepm.port.adapter.messaging.rabbitmq;
 
 import java.util.Date;
 
+import com.saasovation.agilepm.application.ApplicationServiceLifeCycle;
 import com.saasovation.agilepm.application.team.ChangeTeamMemberNameCommand;
 import com.saasovation.agilepm.application.team.TeamApplicationService;
 import com.saasovation.common.notification.NotificationReader;
 import com.saasovation.common.port.adapter.messaging.Exchanges;
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ExchangeListener;
 
 public class RabbitMQTeamMemberNameChangedListener extends ExchangeListener {
@@ -52,6 +54,10 @@ public class RabbitMQTeamMemberNameChangedListener extends ExchangeListener {
                     occurredOn));
     }
 
+    protected IdempotentReceiver idempotentReceiver() {
+        return ApplicationServiceLifeCycle.idempotentReceiver();
+    }
+
     protected String[] listensTo() {
         return new String[] {
                 "com.saasovation.identityaccess.domain.model.identity.PersonNameChanged"
@@ -0,0 +1,194 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+
+/**
+ * I am one partition of a PartitionDispatcher's pipeline, such as that
+ * of the FollowStoreEventDispatcher or the ProjectionRebuilder. The
+ * events of any one stream are always queued to the same partition,
+ * and my single worker takes them in order, so each aggregate's events
+ * are dispatched in order while other partitions proceed in parallel.
+ * My queue is bounded, so a follower that runs ahead of me blocks.
+ * When my owner fails a batch I keep it and hand it over again after
+ * a growing pause, taking no later events, until it succeeds or I am
+ * stopped; in the latter case I am left undrained.
+ */
+class DispatchPartition implements Runnable {
+
+    private static final long IDLE_POLL_MILLIS = 100L;
+    private static final long IDLE_WAIT_MILLIS = 10L;
+    private static final long MAXIMUM_RETRY_DELAY_MILLIS = 10000L;
+    private static final long MINIMUM_RETRY_DELAY_MILLIS = 100L;
+
+    private volatile boolean drained;
+    private volatile Throwable lastFailure;
+    private int maximumBatchSize;
+    private AtomicInteger undispatchedCount;
+    private PartitionDispatcher owner;
+    private int partition;
+    private BlockingQueue<DispatchableDomainEvent> queue;
+    private volatile boolean running;
+    private Thread worker;
+
+    DispatchPartition(
+            PartitionDispatcher anOwner,
+            int aPartition,
+            int aQueueCapacity,
+            int aMaximumBatchSize) {
+
+        super();
+
+        this.maximumBatchSize = aMaximumBatchSize;
+        this.owner = anOwner;
+        this.partition = aPartition;
+        this.queue = new ArrayBlockingQueue<DispatchableDomainEvent>(aQueueCapacity);
+        this.undispatchedCount = new AtomicInteger();
+    }
+
+    static long retryDelayAfter(long aRetryDelay) {
+        return Math.min(
+                MAXIMUM_RETRY_DELAY_MILLIS,
+                Math.max(MINIMUM_RETRY_DELAY_MILLIS, aRetryDelay * 2));
+    }
+
+    boolean awaitIdle(long aDeadline) {
+        while (this.undispatchedCount.get() > 0) {
+            if (System.currentTimeMillis() >= aDeadline) {
+                return false;
+            }
+
+            this.pause(IDLE_WAIT_MILLIS);
+        }
+
+        return true;
+    }
+
+    void enqueue(DispatchableDomainEvent aDispatchableDomainEvent) throws InterruptedException {
+        this.undispatchedCount.incrementAndGet();
+
+        try {
+            this.queue.put(aDispatchableDomainEvent);
+
+        } catch (InterruptedException e) {
+            this.undispatchedCount.decrementAndGet();
+
+            throw e;
+        }
+    }
+
+    boolean isDrained() {
+        return this.drained;
+    }
+
+    Throwable lastFailure() {
+        return this.lastFailure;
+    }
+
+    int partition() {
+        return this.partition;
+    }
+
+    @Override
+    public void run() {
+        List<DispatchableDomainEvent> batch = new ArrayList<DispatchableDomainEvent>();
+
+        long retryDelay = 0;
+
+        while (this.running || !this.queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    DispatchableDomainEvent first = this.queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.add(first);
+
+                    this.queue.drainTo(batch, this.maximumBatchSize - 1);
+                }
+
+                this.owner.dispatchPartition(this.partition, batch);
+
+                this.undispatchedCount.addAndGet(-batch.size());
+
+                batch.clear();
+
+                this.lastFailure = null;
+
+                retryDelay = 0;
+
+            } catch (InterruptedException e) {
+                // keep draining until stopped and empty
+            } catch (Throwable t) {
+                this.lastFailure = t;
+
+                if (!this.running) {
+                    return;
+                }
+
+                retryDelay = retryDelayAfter(retryDelay);
+
+                this.pause(retryDelay);
+            }
+        }
+
+        this.drained = true;
+    }
+
+    synchronized void start() {
+        if (!this.running) {
+            this.drained = false;
+            this.running = true;
+
+            this.worker = new Thread(
+                    this,
+                    this.owner.getClass().getSimpleName() + "-partition-" + this.partition);
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+    }
+
+    synchronized void stop() {
+        if (this.running) {
+            this.running = false;
+
+            try {
+                this.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            this.worker = null;
+        }
+    }
+
+    private void pause(long aMillis) {
+        try {
+            Thread.sleep(aMillis);
+        } catch (InterruptedException e) {
+            // retry now
+        }
+    }
+}
@@ -19,97 +19,238 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.sql.DataSource;
 
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.domain.model.DomainEventPublisher;
+import com.saasovation.common.event.sourcing.BatchingEventDispatcher;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.event.sourcing.EventNotifiable;
 import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
-public class FollowStoreEventDispatcher implements EventDispatcher, EventNotifiable {
+/**
+ * I follow the event store and dispatch its events to my registered
+ * EventDispatchers, each of which has its own checkpoint in
+ * tbl_dispatcher_last_event. Events are partitioned by stream name.
+ * With no partitions I dispatch inline on the appending thread, as a
+ * single partition. With partitions, appending only wakes my follower
+ * thread, which queues each event to its stream's partition, and the
+ * partitions dispatch in parallel. A dispatcher's checkpoint for a
+ * partition is committed in the same transaction as the work it did
+ * for the events of that partition. A batch that fails is rolled back
+ * and its checkpoint is left where it was, so the batch is dispatched
+ * again: inline on the next append, or by its partition after a pause.
+ * I read the checkpoints when a dispatcher registers, after a failed
+ * inline dispatch and when resumed, and otherwise keep them in memory.
+ * While paused I dispatch nothing, so that the checkpoints may be
+ * replaced, as the ProjectionRebuilder does. I also publish each event
+ * to the in-process subscribers of the DomainEventPublisher, but only
+ * when dispatching inline. Its subscribers are held per thread, so with
+ * partitions, where my follower thread has none, nothing is delivered
+ * to in-process subscribers; they must be served by a dispatcher.
+ */
+public class FollowStoreEventDispatcher
+        implements EventDispatcher, EventNotifiable, PartitionDispatcher {
+
+    private static final int DISPATCH_BATCH_SIZE = 500;
 
     private DataSource collaborationDataSource;
-    private long lastDispatchedEventId;
-    private List<EventDispatcher> registeredDispatchers;
+    private List<DispatchPartition> dispatchPartitions;
+    private Thread follower;
+    private Throwable followFailure;
+    private Object followLock;
+    private boolean followRequested;
+    private long lastPublishedEventId;
+    private long lastRoutedEventId;
+    private int partitionCount;
+    private boolean paused;
+    private boolean refreshCheckpoints;
+    private List<RegisteredDispatcher> registeredDispatchers;
+    private volatile boolean running;
 
     public FollowStoreEventDispatcher(DataSource aDataSource) {
+        this(aDataSource, 0, 0);
+    }
+
+    public FollowStoreEventDispatcher(
+            DataSource aDataSource,
+            int aPartitionCount,
+            int aQueueCapacity) {
+
         super();
 
+        if (aPartitionCount < 0) {
+            throw new IllegalArgumentException("The partition count must not be negative.");
+        }
+
         this.setCollaborationDataSource(aDataSource);
-        this.setRegisteredDispatchers(new ArrayList<EventDispatcher>());
+        this.setDispatchPartitions(new ArrayList<DispatchPartition>());
+        this.setPartitionCount(Math.max(1, aPartitionCount));
+        this.setRegisteredDispatchers(new CopyOnWriteArrayList<RegisteredDispatcher>());
+
+        this.followLock = new Object();
+
+        this.lastPublishedEventId = this.queryLastDispatchedEventId();
+        this.lastRoutedEventId = this.lastPublishedEventId;
+
+        if (aPartitionCount > 0) {
+            this.startPipeline(aQueueCapacity);
+        }
 
         EventStoreProvider
             .instance()
             .eventStore().registerEventNotifiable(this);
 
-        this.setLastDispatchedEventId(this.queryLastDispatchedEventId());
-
         this.notifyDispatchableEvents();
     }
 
+    public void close() {
+        if (this.isPipelined()) {
+            this.running = false;
+
+            synchronized (this.followLock) {
+                this.followLock.notifyAll();
+            }
+
+            try {
+                this.follower.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            // route what was appended since the follower last ran;
+            // the partitions then drain everything routed
+
+            try {
+                this.follow();
+
+                this.followFailure = null;
+
+            } catch (RuntimeException e) {
+                this.followFailure = e;
+            }
+
+            DispatchPartition undrainedPartition = null;
+
+            for (DispatchPartition dispatchPartition : this.dispatchPartitions()) {
+                dispatchPartition.stop();
+
+                if (!dispatchPartition.isDrained()) {
+                    undrainedPartition = dispatchPartition;
+                }
+            }
+
+            if (undrainedPartition != null) {
+
+                // the checkpoints stay behind the failed batch,
+                // which is dispatched again when next started
+
+                throw new IllegalStateException(
+                        "Cannot drain dispatch partition: "
+                            + undrainedPartition.partition()
+                            + " because: "
+                            + undrainedPartition.lastFailure().getMessage(),
+                        undrainedPartition.lastFailure());
+            }
+
+            this.saveDrainedCheckpoints();
+
+            if (this.followFailure != null) {
+                throw new IllegalStateException(
+                        "Cannot follow event store because: "
+                            + this.followFailure.getMessage(),
+                        this.followFailure);
+            }
+        }
+    }
+
     @Override
     public void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
-        DomainEventPublisher.instance().publish(aDispatchableDomainEvent.domainEvent());
+        List<DispatchableDomainEvent> events = new ArrayList<DispatchableDomainEvent>(1);
 
-        for (EventDispatcher eventDispatcher : this.registeredDispatchers()) {
-           eventDispatcher.dispatch(aDispatchableDomainEvent);
-        }
+        events.add(aDispatchableDomainEvent);
+
+        this.route(events);
     }
 
     @Override
     public void notifyDispatchableEvents() {
+        if (this.isPipelined()) {
+            synchronized (this.followLock) {
+                this.followRequested = true;
 
-        // this could be multi-threaded from here,
-        // but is not for simplicity
+                this.followLock.notifyAll();
+            }
+        } else {
+            this.follow();
+        }
+    }
 
-        // child EventDispatchers should use only
-        // ConnectionProvider.connection() and
-        // not commit. i will commit and close the
-        // connection here
+    public void pause(long aTimeoutMillis) {
 
-        Connection connection =
-                ConnectionProvider
-                    .connection(this.collaborationDataSource());
+        // an inline follow, or the follower's routing, holds
+        // the lock; the partitions must then drain their queues
 
-        try {
-            List<DispatchableDomainEvent> undispatchedEvents =
-                    EventStoreProvider
-                        .instance()
-                        .eventStore()
-                        .eventsSince(this.lastDispatchedEventId());
+        synchronized (this.followLock) {
+            this.paused = true;
+        }
 
-            if (!undispatchedEvents.isEmpty()) {
+        long deadline = System.currentTimeMillis() + aTimeoutMillis;
 
-                for (DispatchableDomainEvent event : undispatchedEvents) {
-                    this.dispatch(event);
-                }
+        for (DispatchPartition dispatchPartition : this.dispatchPartitions()) {
+            if (!dispatchPartition.awaitIdle(deadline)) {
+                this.resume();
 
-                DispatchableDomainEvent withLastEventId =
-                        undispatchedEvents.get(undispatchedEvents.size() - 1);
+                throw new IllegalStateException(
+                        "Cannot pause while dispatch partition: "
+                            + dispatchPartition.partition()
+                            + " has undispatched events.");
+            }
+        }
+    }
 
-                long lastDispatchedEventId = withLastEventId.eventId();
+    @Override
+    public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
+        long[] checkpoints =
+                this.queryCheckpoints().get(
+                        RegisteredDispatcher.nameOf(anEventDispatcher));
 
-                this.setLastDispatchedEventId(lastDispatchedEventId);
+        if (checkpoints == null) {
+            checkpoints = new long[this.partitionCount()];
+        }
 
-                this.saveLastDispatchedEventId(connection, lastDispatchedEventId);
-            }
+        RegisteredDispatcher registeredDispatcher =
+                new RegisteredDispatcher(anEventDispatcher, checkpoints);
 
-            connection.commit();
+        synchronized (this.followLock) {
+            this.registeredDispatchers().add(registeredDispatcher);
 
-        } catch (Throwable t) {
-            throw new IllegalStateException("Cannot dispatch events because: " + t.getMessage(), t);
-        } finally {
-            ConnectionProvider.closeConnection();
+            // catch up the new dispatcher; the others skip
+            // what their own checkpoints show as dispatched
+
+            this.lastRoutedEventId =
+                    Math.min(
+                            this.lastRoutedEventId,
+                            registeredDispatcher.lowestCheckpoint());
         }
+
+        this.notifyDispatchableEvents();
     }
 
-    @Override
-    public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
-        this.registeredDispatchers().add(anEventDispatcher);
+    public void resume() {
+        synchronized (this.followLock) {
+            this.paused = false;
+            this.refreshCheckpoints = true;
+        }
+
+        this.notifyDispatchableEvents();
     }
 
     @Override
@@ -117,6 +258,27 @@ public class FollowStoreEventDispatcher implements EventDispatcher, EventNotifia
         return true;
     }
 
+    @Override
+    public void dispatchPartition(int aPartition, List<DispatchableDomainEvent> anEvents) {
+
+        // child EventDispatchers should use only
+        // ConnectionProvider.connection() and
+        // not commit. i will commit and close the
+        // connection here. a failure leaves the batch to be
+        // dispatched again; the dispatchers that committed
+        // it skip it by their checkpoints
+
+        try {
+            Connection connection = this.connection();
+
+            for (RegisteredDispatcher registeredDispatcher : this.registeredDispatchers()) {
+                this.dispatchPartitionTo(connection, registeredDispatcher, aPartition, anEvents);
+            }
+        } finally {
+            ConnectionProvider.closeConnection();
+        }
+    }
+
     private void close(Statement aStatement, ResultSet aResultSet) {
         this.closeStatement(aStatement);
 
@@ -170,12 +332,270 @@ public class FollowStoreEventDispatcher implements EventDispatcher, EventNotifia
         return connection;
     }
 
-    private long lastDispatchedEventId() {
-        return this.lastDispatchedEventId;
+    private void dispatchPartitionTo(
+            Connection aConnection,
+            RegisteredDispatcher aRegisteredDispatcher,
+            int aPartition,
+            List<DispatchableDomainEvent> anEvents) {
+
+        long checkpoint = aRegisteredDispatcher.checkpoint(aPartition);
+
+        long lastDispatchedEventId = checkpoint;
+
+        EventDispatcher eventDispatcher = aRegisteredDispatcher.eventDispatcher();
+
+        // a batching dispatcher defers its writes until the end
+        // of the batch, just ahead of the checkpoint and commit
+
+        BatchingEventDispatcher batchingEventDispatcher =
+                eventDispatcher instanceof BatchingEventDispatcher ?
+                        (BatchingEventDispatcher) eventDispatcher : null;
+
+        try {
+            if (batchingEventDispatcher != null) {
+                batchingEventDispatcher.beginBatch();
+            }
+
+            for (DispatchableDomainEvent event : anEvents) {
+                if (event.eventId() > lastDispatchedEventId) {
+                    if (eventDispatcher.understands(event)) {
+                        eventDispatcher.dispatch(event);
+                    }
+
+                    lastDispatchedEventId = event.eventId();
+                }
+            }
+
+            if (batchingEventDispatcher != null) {
+                batchingEventDispatcher.endBatch();
+            }
+
+            if (lastDispatchedEventId > checkpoint) {
+                this.saveCheckpoint(
+                        aConnection,
+                        aRegisteredDispatcher.name(),
+                        aPartition,
+                        lastDispatchedEventId);
+
+                aConnection.commit();
+
+                aRegisteredDispatcher.checkpoint(aPartition, lastDispatchedEventId);
+            }
+
+        } catch (Throwable t) {
+            if (batchingEventDispatcher != null) {
+                batchingEventDispatcher.abandonBatch();
+            }
+
+            try {
+                aConnection.rollback();
+            } catch (Throwable t2) {
+                // ignore
+            }
+
+            throw new IllegalStateException(
+                    "Cannot dispatch events to: "
+                        + aRegisteredDispatcher.name()
+                        + " partition: "
+                        + aPartition
+                        + " after event: "
+                        + checkpoint
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+    }
+
+    private List<DispatchPartition> dispatchPartitions() {
+        return this.dispatchPartitions;
+    }
+
+    private void setDispatchPartitions(List<DispatchPartition> aDispatchPartitions) {
+        this.dispatchPartitions = aDispatchPartitions;
+    }
+
+    private void follow() {
+        synchronized (this.followLock) {
+            if (this.paused) {
+                return;
+            }
+
+            if (this.refreshCheckpoints) {
+                this.refreshCheckpoints();
+            }
+
+            EventCursor undispatchedEvents =
+                    EventStoreProvider
+                        .instance()
+                        .eventStore()
+                        .eventCursorSince(
+                                this.lastRoutedEventId,
+                                DISPATCH_BATCH_SIZE);
+
+            try {
+                for (List<DispatchableDomainEvent> page = undispatchedEvents.nextBatch();
+                     !page.isEmpty();
+                     page = undispatchedEvents.nextBatch()) {
+
+                    this.route(page);
+
+                    this.lastRoutedEventId = page.get(page.size() - 1).eventId();
+                }
+
+            } catch (RuntimeException e) {
+
+                // route again from the slowest dispatcher next time,
+                // reading back what a failed commit may have left
+
+                this.refreshCheckpoints = !this.isPipelined();
+
+                this.lastRoutedEventId = this.lowestCheckpoint();
+
+                throw e;
+
+            } finally {
+                undispatchedEvents.close();
+            }
+        }
+    }
+
+    private void followContinuously() {
+        long retryDelay = 0;
+
+        while (this.running) {
+            try {
+                synchronized (this.followLock) {
+                    if (retryDelay > 0) {
+                        this.followLock.wait(retryDelay);
+                    }
+
+                    while (this.running && !this.followRequested && retryDelay == 0) {
+                        this.followLock.wait();
+                    }
+
+                    this.followRequested = false;
+                }
+
+                if (this.running) {
+                    this.follow();
+                }
+
+                this.followFailure = null;
+
+                retryDelay = 0;
+
+            } catch (InterruptedException e) {
+                // continue until closed
+            } catch (Throwable t) {
+
+                // follow again after a pause; close() reports
+                // the failure if it is never overcome
+
+                this.followFailure = t;
+
+                retryDelay = DispatchPartition.retryDelayAfter(retryDelay);
+            }
+        }
+    }
+
+    private boolean isPipelined() {
+        return !this.dispatchPartitions().isEmpty();
+    }
+
+    private long lowestCheckpoint() {
+        long lowest = this.lastPublishedEventId;
+
+        for (RegisteredDispatcher registeredDispatcher : this.registeredDispatchers()) {
+            lowest = Math.min(lowest, registeredDispatcher.lowestCheckpoint());
+        }
+
+        return lowest;
+    }
+
+    private int partitionCount() {
+        return this.partitionCount;
+    }
+
+    private void setPartitionCount(int aPartitionCount) {
+        this.partitionCount = aPartitionCount;
+    }
+
+    private int partitionOf(DispatchableDomainEvent aDispatchableDomainEvent) {
+        String streamName = aDispatchableDomainEvent.streamName();
+
+        if (streamName == null) {
+            return 0;
+        }
+
+        return (streamName.hashCode() & Integer.MAX_VALUE) % this.partitionCount();
     }
 
-    private void setLastDispatchedEventId(long aLastDispatchedEventId) {
-        this.lastDispatchedEventId = aLastDispatchedEventId;
+    private void publish(List<DispatchableDomainEvent> anEvents) {
+
+        // subscribers are held per thread, by the thread that appends,
+        // so a pipeline, routing on its follower, only marks the event
+
+        boolean isPublishing = !this.isPipelined();
+
+        for (DispatchableDomainEvent event : anEvents) {
+            if (event.eventId() > this.lastPublishedEventId) {
+                if (isPublishing) {
+                    DomainEventPublisher.instance().publish(event.domainEvent());
+                }
+
+                this.lastPublishedEventId = event.eventId();
+            }
+        }
+    }
+
+    private Map<String, long[]> queryCheckpoints() {
+
+        Map<String, Map<Integer, Long>> storedCheckpoints =
+                new HashMap<String, Map<Integer, Long>>();
+
+        Connection connection = this.connection();
+        ResultSet result = null;
+        PreparedStatement statement = null;
+
+        try {
+            statement =
+                    connection.prepareStatement(
+                            "select dispatcher_name, partition_id, event_id "
+                            + "from tbl_dispatcher_last_event");
+
+            result = statement.executeQuery();
+
+            while (result.next()) {
+                Map<Integer, Long> partitionCheckpoints =
+                        storedCheckpoints.get(result.getString(1));
+
+                if (partitionCheckpoints == null) {
+                    partitionCheckpoints = new HashMap<Integer, Long>();
+
+                    storedCheckpoints.put(result.getString(1), partitionCheckpoints);
+                }
+
+                partitionCheckpoints.put(result.getInt(2), result.getLong(3));
+            }
+
+            connection.commit();
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Cannot query dispatcher checkpoints because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            this.close(statement, result);
+        }
+
+        Map<String, long[]> checkpoints = new HashMap<String, long[]>();
+
+        for (Map.Entry<String, Map<Integer, Long>> entry : storedCheckpoints.entrySet()) {
+            checkpoints.put(entry.getKey(), this.toPartitionCheckpoints(entry.getValue()));
+        }
+
+        return checkpoints;
     }
 
     private long queryLastDispatchedEventId() {
@@ -195,8 +615,6 @@ public class FollowStoreEventDispatcher implements EventDispatcher, EventNotifia
 
             if (result.next()) {
                 lastHandledEventId = result.getLong(1);
-            } else {
-                this.saveLastDispatchedEventId(connection, 0);
             }
 
             connection.commit();
@@ -213,48 +631,180 @@ public class FollowStoreEventDispatcher implements EventDispatcher, EventNotifia
         return lastHandledEventId;
     }
 
-    private void saveLastDispatchedEventId(
+    private void refreshCheckpoints() {
+
+        // after a failed inline dispatch the stored checkpoints
+        // are the truth, whatever a failed commit left in memory,
+        // and when resumed they may have been replaced
+
+        if (this.registeredDispatchers().isEmpty()) {
+            return;
+        }
+
+        Map<String, long[]> checkpoints = this.queryCheckpoints();
+
+        this.refreshCheckpoints = false;
+
+        long lastPublishedEventId = 0;
+
+        for (long[] partitionCheckpoints : checkpoints.values()) {
+            for (long checkpoint : partitionCheckpoints) {
+                lastPublishedEventId = Math.max(lastPublishedEventId, checkpoint);
+            }
+        }
+
+        this.lastPublishedEventId = lastPublishedEventId;
+
+        for (RegisteredDispatcher registeredDispatcher : this.registeredDispatchers()) {
+            long[] partitionCheckpoints = checkpoints.get(registeredDispatcher.name());
+
+            for (int partition = 0; partition < this.partitionCount(); ++partition) {
+                registeredDispatcher.checkpoint(
+                        partition,
+                        partitionCheckpoints == null ? 0 : partitionCheckpoints[partition]);
+            }
+        }
+
+        this.lastRoutedEventId = this.lowestCheckpoint();
+    }
+
+    private List<RegisteredDispatcher> registeredDispatchers() {
+        return this.registeredDispatchers;
+    }
+
+    private void setRegisteredDispatchers(List<RegisteredDispatcher> aDispatchers) {
+        this.registeredDispatchers = aDispatchers;
+    }
+
+    private void route(List<DispatchableDomainEvent> anEvents) {
+        this.publish(anEvents);
+
+        if (!this.isPipelined()) {
+            this.dispatchPartition(0, anEvents);
+
+            return;
+        }
+
+        try {
+            for (DispatchableDomainEvent event : anEvents) {
+                this.dispatchPartitions().get(this.partitionOf(event)).enqueue(event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while queuing events for dispatch.", e);
+        }
+    }
+
+    private void saveCheckpoint(
             Connection aConnection,
+            String aDispatcherName,
+            int aPartition,
             long aLastDispatchedEventId)
     throws Exception {
 
-        int updated = 0;
-
         PreparedStatement statement = null;
 
         try {
             statement = aConnection.prepareStatement(
-                    "update tbl_dispatcher_last_event set event_id=?");
-            statement.setLong(1, aLastDispatchedEventId);
-            updated = statement.executeUpdate();
+                    "insert into tbl_dispatcher_last_event values(?, ?, ?) "
+                    + "on duplicate key update event_id = values(event_id)");
+            statement.setString(1, aDispatcherName);
+            statement.setInt(2, aPartition);
+            statement.setLong(3, aLastDispatchedEventId);
+            statement.executeUpdate();
 
         } catch (Exception e) {
-            throw new IllegalStateException("Cannot update dispatcher last event.");
+            throw new IllegalStateException(
+                    "Cannot save dispatcher checkpoint because: "
+                        + e.getMessage(),
+                    e);
         } finally {
             this.closeStatement(statement);
         }
+    }
 
-        if (updated == 0) {
+    private void saveDrainedCheckpoints() {
 
-            try {
-                statement = aConnection.prepareStatement(
-                        "insert into tbl_dispatcher_last_event values(?)");
-                statement.setLong(1, aLastDispatchedEventId);
-                statement.executeUpdate();
+        // every partition has now dispatched all routed events, so
+        // each dispatcher may resume all partitions from the last
+        // routed event, even with a different partition count
 
-            } catch (Exception e) {
-                throw new IllegalStateException("Cannot insert dispatcher last event.");
-            } finally {
-                this.closeStatement(statement);
+        try {
+            Connection connection = this.connection();
+
+            for (RegisteredDispatcher registeredDispatcher : this.registeredDispatchers()) {
+                if (registeredDispatcher.lowestCheckpoint() < this.lastRoutedEventId) {
+                    for (int partition = 0; partition < this.partitionCount(); ++partition) {
+                        this.saveCheckpoint(
+                                connection,
+                                registeredDispatcher.name(),
+                                partition,
+                                this.lastRoutedEventId);
+                    }
+
+                    connection.commit();
+                }
             }
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Cannot save drained checkpoints because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            ConnectionProvider.closeConnection();
         }
     }
 
-    private List<EventDispatcher> registeredDispatchers() {
-        return this.registeredDispatchers;
+    private void startPipeline(int aQueueCapacity) {
+        if (aQueueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least 1.");
+        }
+
+        for (int partition = 0; partition < this.partitionCount(); ++partition) {
+            DispatchPartition dispatchPartition =
+                    new DispatchPartition(this, partition, aQueueCapacity, DISPATCH_BATCH_SIZE);
+
+            this.dispatchPartitions().add(dispatchPartition);
+
+            dispatchPartition.start();
+        }
+
+        this.running = true;
+
+        this.follower = new Thread(new Runnable() {
+            public void run() {
+                followContinuously();
+            }
+        }, "FollowStoreEventDispatcher-follower");
+
+        this.follower.setDaemon(true);
+        this.follower.start();
     }
 
-    private void setRegisteredDispatchers(List<EventDispatcher> aDispatchers) {
-        this.registeredDispatchers = aDispatchers;
+    private long[] toPartitionCheckpoints(Map<Integer, Long> aStoredCheckpoints) {
+
+        long[] partitionCheckpoints = new long[this.partitionCount()];
+
+        long lowestCheckpoint = Long.MAX_VALUE;
+
+        boolean sameLayout = aStoredCheckpoints.size() == this.partitionCount();
+
+        for (Map.Entry<Integer, Long> entry : aStoredCheckpoints.entrySet()) {
+            lowestCheckpoint = Math.min(lowestCheckpoint, entry.getValue());
+
+            sameLayout = sameLayout && entry.getKey() < this.partitionCount();
+        }
+
+        // with a different partition layout the streams of a partition
+        // may have moved, so they resume from the slowest stored one
+
+        for (int partition = 0; partition < partitionCheckpoints.length; ++partition) {
+            partitionCheckpoints[partition] =
+                    sameLayout ? aStoredCheckpoints.get(partition) : lowestCheckpoint;
+        }
+
+        return partitionCheckpoints;
     }
 }
@@ -0,0 +1,566 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
+import com.saasovation.collaboration.port.adapter.persistence.view.MySQLCalendarEntryProjection;
+import com.saasovation.collaboration.port.adapter.persistence.view.MySQLCalendarProjection;
+import com.saasovation.collaboration.port.adapter.persistence.view.MySQLDiscussionProjection;
+import com.saasovation.collaboration.port.adapter.persistence.view.MySQLForumProjection;
+import com.saasovation.collaboration.port.adapter.persistence.view.MySQLPostProjection;
+import com.saasovation.common.event.sourcing.BatchingEventDispatcher;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
+import com.saasovation.common.event.sourcing.EventDispatcher;
+import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
+
+/**
+ * I rebuild the tbl_vw_* view tables from the event store without
+ * taking them away from readers. I create shadow copies of the view
+ * tables in a separate schema, and replay the whole event log into
+ * them through the projections I am given, which are not registered
+ * with any live dispatcher. The events are partitioned by stream name
+ * across parallel workers, each of which uses the batched projection
+ * path and commits once per batch.
+ *
+ * When the replay is complete I pause the live FollowStoreEventDispatcher,
+ * fill a shadow tbl_dispatcher_last_event with its other dispatchers'
+ * checkpoints and the projections' reset to the last event I replayed,
+ * and swap all of the shadow tables in with a single RENAME TABLE. MySQL
+ * does not run DDL in a transaction, but the RENAME TABLE is atomic, so
+ * views and checkpoints change together. The resumed dispatcher reads
+ * the new checkpoints and re-dispatches anything appended during the
+ * rebuild, which is safe because the projections are idempotent. Any
+ * other process dispatching to the views must be stopped meanwhile.
+ */
+public class ProjectionRebuilder implements PartitionDispatcher {
+
+    private static final String CHECKPOINT_TABLE = "tbl_dispatcher_last_event";
+    private static final long PAUSE_TIMEOUT_MILLIS = 60000L;
+    private static final int REPLAY_BATCH_SIZE = 1000;
+    private static final String SHADOW_SCHEMA_SUFFIX = "_rebuild";
+    private static final String VIEW_TABLE_PATTERN = "tbl_vw_%";
+
+    private DataSource collaborationDataSource;
+    private EventStore eventStore;
+    private AtomicReference<Throwable> failure;
+    private FollowStoreEventDispatcher liveEventDispatcher;
+    private String liveSchema;
+    private int partitionCount;
+    private List<EventDispatcher> projections;
+    private int queueCapacity;
+    private String shadowSchema;
+
+    public static void main(String[] anArguments) throws Exception {
+        int partitionCount =
+                anArguments.length > 0 ?
+                        Integer.parseInt(anArguments[0]) :
+                        Runtime.getRuntime().availableProcessors();
+
+        ClassPathXmlApplicationContext applicationContext =
+                new ClassPathXmlApplicationContext("applicationContext-collaboration.xml");
+
+        try {
+            List<EventDispatcher> projections = new ArrayList<EventDispatcher>();
+
+            projections.add(new MySQLCalendarEntryProjection());
+            projections.add(new MySQLCalendarProjection());
+            projections.add(new MySQLDiscussionProjection());
+            projections.add(new MySQLForumProjection());
+            projections.add(new MySQLPostProjection());
+
+            ProjectionRebuilder rebuilder =
+                    new ProjectionRebuilder(
+                            (DataSource) applicationContext.getBean("collaborationDataSource"),
+                            EventStoreProvider.instance().eventStore(),
+                            (FollowStoreEventDispatcher) applicationContext.getBean("followStoreEventDispatcher"),
+                            projections,
+                            partitionCount,
+                            REPLAY_BATCH_SIZE * 10);
+
+            rebuilder.rebuild();
+
+        } finally {
+            applicationContext.close();
+        }
+    }
+
+    public ProjectionRebuilder(
+            DataSource aDataSource,
+            EventStore anEventStore,
+            FollowStoreEventDispatcher aLiveEventDispatcher,
+            List<EventDispatcher> aProjections,
+            int aPartitionCount,
+            int aQueueCapacity) {
+
+        super();
+
+        if (aPartitionCount < 1) {
+            throw new IllegalArgumentException("The partition count must be at least 1.");
+        }
+
+        if (aQueueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least 1.");
+        }
+
+        this.setCollaborationDataSource(aDataSource);
+        this.setEventStore(anEventStore);
+        this.setLiveEventDispatcher(aLiveEventDispatcher);
+        this.setPartitionCount(aPartitionCount);
+        this.setProjections(new ArrayList<EventDispatcher>(aProjections));
+        this.setQueueCapacity(aQueueCapacity);
+
+        this.failure = new AtomicReference<Throwable>();
+    }
+
+    @Override
+    public void dispatchPartition(int aPartition, List<DispatchableDomainEvent> anEvents) {
+        if (this.failure.get() != null) {
+            return;
+        }
+
+        Connection connection = null;
+
+        try {
+            connection = ConnectionProvider.connection(this.collaborationDataSource());
+
+            // the projections use unqualified table names
+
+            connection.setCatalog(this.shadowSchema());
+
+            for (EventDispatcher projection : this.projections()) {
+                this.dispatchTo(projection, anEvents);
+            }
+
+            connection.commit();
+
+        } catch (Throwable t) {
+            this.failure.compareAndSet(null, t);
+
+            this.rollback(connection);
+
+        } finally {
+            this.restoreCatalog(connection);
+
+            ConnectionProvider.closeConnection();
+        }
+    }
+
+    public long rebuild() {
+        this.failure.set(null);
+
+        List<String> viewTables = this.prepareShadowTables();
+
+        long lastReplayedEventId = 0;
+
+        try {
+            lastReplayedEventId = this.replay();
+
+            Throwable replayFailure = this.failure.get();
+
+            if (replayFailure != null) {
+                throw new IllegalStateException(
+                        "Cannot replay events because: "
+                            + replayFailure.getMessage(),
+                        replayFailure);
+            }
+
+            // the live dispatcher writes neither views nor
+            // checkpoints while they are swapped
+
+            this.liveEventDispatcher().pause(PAUSE_TIMEOUT_MILLIS);
+
+            try {
+                this.prepareShadowCheckpoints(lastReplayedEventId);
+
+                this.swapShadowTables(viewTables);
+
+            } finally {
+                this.liveEventDispatcher().resume();
+            }
+
+        } finally {
+            this.execute("drop database if exists " + this.shadowSchema());
+        }
+
+        return lastReplayedEventId;
+    }
+
+    private void close(Statement aStatement) {
+        if (aStatement != null) {
+            try {
+                aStatement.close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    private DataSource collaborationDataSource() {
+        return this.collaborationDataSource;
+    }
+
+    private void setCollaborationDataSource(DataSource aDataSource) {
+        this.collaborationDataSource = aDataSource;
+    }
+
+    private void dispatchTo(
+            EventDispatcher aProjection,
+            List<DispatchableDomainEvent> anEvents) {
+
+        BatchingEventDispatcher batchingProjection =
+                aProjection instanceof BatchingEventDispatcher ?
+                        (BatchingEventDispatcher) aProjection : null;
+
+        try {
+            if (batchingProjection != null) {
+                batchingProjection.beginBatch();
+            }
+
+            for (DispatchableDomainEvent event : anEvents) {
+                if (aProjection.understands(event)) {
+                    aProjection.dispatch(event);
+                }
+            }
+
+            if (batchingProjection != null) {
+                batchingProjection.endBatch();
+            }
+
+        } catch (RuntimeException e) {
+            if (batchingProjection != null) {
+                batchingProjection.abandonBatch();
+            }
+
+            throw e;
+        }
+    }
+
+    private EventStore eventStore() {
+        return this.eventStore;
+    }
+
+    private void setEventStore(EventStore anEventStore) {
+        this.eventStore = anEventStore;
+    }
+
+    private void execute(String aStatement) {
+        Connection connection = ConnectionProvider.connection(this.collaborationDataSource());
+        Statement statement = null;
+
+        try {
+            statement = connection.createStatement();
+
+            statement.execute(aStatement);
+
+            connection.commit();
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Cannot execute: "
+                        + aStatement
+                        + " because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            this.close(statement);
+
+            ConnectionProvider.closeConnection();
+        }
+    }
+
+    private FollowStoreEventDispatcher liveEventDispatcher() {
+        return this.liveEventDispatcher;
+    }
+
+    private void setLiveEventDispatcher(FollowStoreEventDispatcher aLiveEventDispatcher) {
+        this.liveEventDispatcher = aLiveEventDispatcher;
+    }
+
+    private String liveSchema() {
+        return this.liveSchema;
+    }
+
+    private int partitionCount() {
+        return this.partitionCount;
+    }
+
+    private void setPartitionCount(int aPartitionCount) {
+        this.partitionCount = aPartitionCount;
+    }
+
+    private int partitionOf(DispatchableDomainEvent aDispatchableDomainEvent) {
+        String streamName = aDispatchableDomainEvent.streamName();
+
+        if (streamName == null) {
+            return 0;
+        }
+
+        return (streamName.hashCode() & Integer.MAX_VALUE) % this.partitionCount();
+    }
+
+    private void prepareShadowCheckpoints(long aLastReplayedEventId) {
+
+        Set<String> projectionNames = new HashSet<String>();
+
+        for (EventDispatcher projection : this.projections()) {
+            projectionNames.add(RegisteredDispatcher.nameOf(projection));
+        }
+
+        Connection connection = ConnectionProvider.connection(this.collaborationDataSource());
+        PreparedStatement query = null;
+        PreparedStatement insert = null;
+        ResultSet result = null;
+
+        try {
+            insert =
+                    connection.prepareStatement(
+                            "insert into " + this.shadowSchema() + "." + CHECKPOINT_TABLE
+                            + " values(?, ?, ?)");
+
+            // the other dispatchers keep their checkpoints
+
+            query =
+                    connection.prepareStatement(
+                            "select dispatcher_name, partition_id, event_id from "
+                            + this.liveSchema() + "." + CHECKPOINT_TABLE);
+
+            result = query.executeQuery();
+
+            while (result.next()) {
+                if (!projectionNames.contains(result.getString(1))) {
+                    insert.setString(1, result.getString(1));
+                    insert.setInt(2, result.getInt(2));
+                    insert.setLong(3, result.getLong(3));
+                    insert.executeUpdate();
+                }
+            }
+
+            // one row; other partitions resume from the lowest row
+
+            for (String projectionName : projectionNames) {
+                insert.setString(1, projectionName);
+                insert.setInt(2, 0);
+                insert.setLong(3, aLastReplayedEventId);
+                insert.executeUpdate();
+            }
+
+            connection.commit();
+
+        } catch (Exception e) {
+            this.rollback(connection);
+
+            throw new IllegalStateException(
+                    "Cannot prepare projection checkpoints because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            if (result != null) {
+                try {
+                    result.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+
+            this.close(query);
+            this.close(insert);
+
+            ConnectionProvider.closeConnection();
+        }
+    }
+
+    private List<String> prepareShadowTables() {
+
+        List<String> viewTables = new ArrayList<String>();
+
+        Connection connection = ConnectionProvider.connection(this.collaborationDataSource());
+        ResultSet result = null;
+
+        try {
+            this.liveSchema = connection.getCatalog();
+            this.shadowSchema = this.liveSchema + SHADOW_SCHEMA_SUFFIX;
+
+            result = connection.getMetaData().getTables(this.liveSchema, null, VIEW_TABLE_PATTERN, null);
+
+            while (result.next()) {
+                viewTables.add(result.getString("TABLE_NAME"));
+            }
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Cannot find the view tables because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            if (result != null) {
+                try {
+                    result.close();
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+
+            ConnectionProvider.closeConnection();
+        }
+
+        this.execute("drop database if exists " + this.shadowSchema());
+        this.execute("create database " + this.shadowSchema());
+
+        for (String viewTable : viewTables) {
+            this.execute(
+                    "create table " + this.shadowSchema() + "." + viewTable
+                    + " like " + this.liveSchema() + "." + viewTable);
+        }
+
+        this.execute(
+                "create table " + this.shadowSchema() + "." + CHECKPOINT_TABLE
+                + " like " + this.liveSchema() + "." + CHECKPOINT_TABLE);
+
+        return viewTables;
+    }
+
+    private int queueCapacity() {
+        return this.queueCapacity;
+    }
+
+    private void setQueueCapacity(int aQueueCapacity) {
+        this.queueCapacity = aQueueCapacity;
+    }
+
+    private List<EventDispatcher> projections() {
+        return this.projections;
+    }
+
+    private void setProjections(List<EventDispatcher> aProjections) {
+        this.projections = aProjections;
+    }
+
+    private long replay() {
+
+        List<DispatchPartition> dispatchPartitions = new ArrayList<DispatchPartition>();
+
+        for (int partition = 0; partition < this.partitionCount(); ++partition) {
+            DispatchPartition dispatchPartition =
+                    new DispatchPartition(this, partition, this.queueCapacity(), REPLAY_BATCH_SIZE);
+
+            dispatchPartitions.add(dispatchPartition);
+
+            dispatchPartition.start();
+        }
+
+        long lastReplayedEventId = 0;
+
+        EventCursor events = this.eventStore().eventCursorSince(0, REPLAY_BATCH_SIZE);
+
+        try {
+            for (List<DispatchableDomainEvent> page = events.nextBatch();
+                 !page.isEmpty() && this.failure.get() == null;
+                 page = events.nextBatch()) {
+
+                for (DispatchableDomainEvent event : page) {
+                    dispatchPartitions.get(this.partitionOf(event)).enqueue(event);
+                }
+
+                lastReplayedEventId = page.get(page.size() - 1).eventId();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            this.failure.compareAndSet(null, e);
+
+        } finally {
+            events.close();
+
+            // drain the queued events
+
+            for (DispatchPartition dispatchPartition : dispatchPartitions) {
+                dispatchPartition.stop();
+            }
+        }
+
+        return lastReplayedEventId;
+    }
+
+    private void restoreCatalog(Connection aConnection) {
+        if (aConnection != null) {
+            try {
+                aConnection.setCatalog(this.liveSchema());
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    private void rollback(Connection aConnection) {
+        if (aConnection != null) {
+            try {
+                aConnection.rollback();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    private String shadowSchema() {
+        return this.shadowSchema;
+    }
+
+    private void swapShadowTables(List<String> aViewTables) {
+
+        // a single RENAME TABLE is atomic, so readers see either
+        // all of the old views and checkpoints or all of the new
+
+        List<String> tables = new ArrayList<String>(aViewTables);
+
+        tables.add(CHECKPOINT_TABLE);
+
+        StringBuilder renames = new StringBuilder("rename table ");
+
+        String separator = "";
+
+        for (String table : tables) {
+            renames
+                .append(separator)
+                .append(this.liveSchema()).append('.').append(table)
+                .append(" to ")
+                .append(this.shadowSchema()).append('.').append(table).append("_retired")
+                .append(", ")
+                .append(this.shadowSchema()).append('.').append(table)
+                .append(" to ")
+                .append(this.liveSchema()).append('.').append(table);
+
+            separator = ", ";
+        }
+
+        this.execute(renames.toString());
+    }
+}
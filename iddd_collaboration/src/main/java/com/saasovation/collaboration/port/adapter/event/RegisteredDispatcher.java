@@ -0,0 +1,71 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.saasovation.common.event.sourcing.EventDispatcher;
+
+/**
+ * I am an EventDispatcher registered with the FollowStoreEventDispatcher,
+ * along with its checkpoint in each dispatch partition. Each partition's
+ * checkpoint is written only by that partition's worker, in the same
+ * transaction as the dispatched events, and so stays behind any batch
+ * that failed until that batch is dispatched again.
+ */
+class RegisteredDispatcher {
+
+    private AtomicLongArray checkpoints;
+    private EventDispatcher eventDispatcher;
+    private String name;
+
+    RegisteredDispatcher(EventDispatcher anEventDispatcher, long[] aCheckpoints) {
+        super();
+
+        this.checkpoints = new AtomicLongArray(aCheckpoints);
+        this.eventDispatcher = anEventDispatcher;
+        this.name = nameOf(anEventDispatcher);
+    }
+
+    static String nameOf(EventDispatcher anEventDispatcher) {
+        return anEventDispatcher.getClass().getName();
+    }
+
+    long checkpoint(int aPartition) {
+        return this.checkpoints.get(aPartition);
+    }
+
+    void checkpoint(int aPartition, long anEventId) {
+        this.checkpoints.set(aPartition, anEventId);
+    }
+
+    EventDispatcher eventDispatcher() {
+        return this.eventDispatcher;
+    }
+
+    long lowestCheckpoint() {
+        long lowest = Long.MAX_VALUE;
+
+        for (int idx = 0; idx < this.checkpoints.length(); ++idx) {
+            lowest = Math.min(lowest, this.checkpoints.get(idx));
+        }
+
+        return lowest;
+    }
+
+    String name() {
+        return this.name;
+    }
+}
@@ -15,15 +15,28 @@
 package com.saasovation.collaboration.port.adapter.persistence;
 
 import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
+import com.saasovation.common.event.sourcing.SnapshotStore;
+import com.saasovation.common.event.sourcing.Snapshotter;
 import com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb.LevelDBEventStore;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb.LevelDBJournal;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb.LevelDBSnapshotStore;
 import com.saasovation.common.port.adapter.persistence.eventsourcing.mysql.MySQLJDBCEventStore;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.mysql.MySQLJDBCSnapshotStore;
 
 public class EventStoreProvider {
 
     private static final boolean FOR_LEVELDB = true;
     private static final boolean FOR_MYSQL = false;
 
+    // coalesce concurrent LevelDB appends into one synced write
+    private static final boolean LEVELDB_GROUP_COMMIT = false;
+    private static final long LEVELDB_GROUP_COMMIT_WINDOW_MILLIS = 2L;
+    private static final int LEVELDB_GROUP_COMMIT_MAXIMUM_ENTRIES = 1000;
+
     private EventStore eventStore;
+    private SnapshotStore snapshotStore;
+    private Snapshotter snapshotter;
 
     public static EventStoreProvider instance() {
         return new EventStoreProvider();
@@ -33,25 +46,49 @@ public class EventStoreProvider {
         return this.eventStore;
     }
 
+    public SnapshotStore snapshotStore() {
+        return this.snapshotStore;
+    }
+
     protected EventStoreProvider() {
+        this(SnapshotPolicy.never());
+    }
+
+    protected EventStoreProvider(SnapshotPolicy aSnapshotPolicy) {
         super();
 
         this.initializeLevelDB();
 
         this.initializeMySQL();
+
+        this.snapshotter = new Snapshotter(this.eventStore(), this.snapshotStore(), aSnapshotPolicy);
+    }
+
+    protected Snapshotter snapshotter() {
+        return this.snapshotter;
     }
 
     private void initializeLevelDB() {
         if (FOR_LEVELDB) {
-            this.eventStore =
-                    LevelDBEventStore
-                            .instance(this.getClass().getResource("/").getPath() + "/data/leveldb/iddd_collaboration_es");
+            String dataPath = this.getClass().getResource("/").getPath() + "/data/leveldb/";
+
+            this.eventStore = LevelDBEventStore.instance(dataPath + "iddd_collaboration_es");
+
+            if (LEVELDB_GROUP_COMMIT) {
+                LevelDBJournal.instance().startGroupCommit(
+                        LEVELDB_GROUP_COMMIT_WINDOW_MILLIS,
+                        LEVELDB_GROUP_COMMIT_MAXIMUM_ENTRIES);
+            }
+
+            this.snapshotStore = LevelDBSnapshotStore.instance(dataPath + "iddd_collaboration_ss");
         }
     }
 
     private void initializeMySQL() {
         if (FOR_MYSQL) {
             this.eventStore = MySQLJDBCEventStore.instance();
+
+            this.snapshotStore = MySQLJDBCSnapshotStore.instance();
         }
     }
 }
@@ -23,24 +23,29 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.event.sourcing.EventStream;
 import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
 
 public class EventStoreCalendarEntryRepository
         extends EventStoreProvider
         implements CalendarEntryRepository {
 
+    private static final int EVENTS_BETWEEN_SNAPSHOTS = 50;
+
     public EventStoreCalendarEntryRepository() {
-        super();
+        super(SnapshotPolicy.everyEvents(EVENTS_BETWEEN_SNAPSHOTS));
     }
 
     @Override
     public CalendarEntry calendarEntryOfId(Tenant aTenant, CalendarEntryId aCalendarEntryId) {
-        // snapshots not currently supported; always use version 1
-
         EventStreamId eventId = new EventStreamId(aTenant.id(), aCalendarEntryId.id());
 
-        EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+        CalendarEntry calendarEntry = this.snapshotter().restoredAggregateOf(CalendarEntry.class, eventId);
 
-        CalendarEntry calendarEntry = new CalendarEntry(eventStream.events(), eventStream.version());
+        if (calendarEntry == null) {
+            EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+
+            calendarEntry = new CalendarEntry(eventStream.events(), eventStream.version());
+        }
 
         return calendarEntry;
     }
@@ -59,5 +64,7 @@ public class EventStoreCalendarEntryRepository
                         aCalendarEntry.mutatedVersion());
 
         this.eventStore().appendWith(eventId, aCalendarEntry.mutatingEvents());
+
+        this.snapshotter().snapshotIfNecessary(eventId, aCalendarEntry);
     }
 }
@@ -23,24 +23,29 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.event.sourcing.EventStream;
 import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
 
 public class EventStoreCalendarRepository
         extends EventStoreProvider
         implements CalendarRepository {
 
+    private static final int EVENTS_BETWEEN_SNAPSHOTS = 100;
+
     public EventStoreCalendarRepository() {
-        super();
+        super(SnapshotPolicy.everyEvents(EVENTS_BETWEEN_SNAPSHOTS));
     }
 
     @Override
     public Calendar calendarOfId(Tenant aTenant, CalendarId aCalendarId) {
-        // snapshots not currently supported; always use version 1
-
         EventStreamId eventId = new EventStreamId(aTenant.id(), aCalendarId.id());
 
-        EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+        Calendar calendar = this.snapshotter().restoredAggregateOf(Calendar.class, eventId);
 
-        Calendar calendar = new Calendar(eventStream.events(), eventStream.version());
+        if (calendar == null) {
+            EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+
+            calendar = new Calendar(eventStream.events(), eventStream.version());
+        }
 
         return calendar;
     }
@@ -59,5 +64,7 @@ public class EventStoreCalendarRepository
                         aCalendar.mutatedVersion());
 
         this.eventStore().appendWith(eventId, aCalendar.mutatingEvents());
+
+        this.snapshotter().snapshotIfNecessary(eventId, aCalendar);
     }
 }
@@ -23,26 +23,31 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.event.sourcing.EventStream;
 import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
 
 public class EventStoreDiscussionRepository
         extends EventStoreProvider
         implements DiscussionRepository {
 
+    private static final int EVENTS_BETWEEN_SNAPSHOTS = 100;
+
     public EventStoreDiscussionRepository() {
-        super();
+        super(SnapshotPolicy.everyEvents(EVENTS_BETWEEN_SNAPSHOTS));
     }
 
     @Override
     public Discussion discussionOfId(Tenant aTenant, DiscussionId aDiscussionId) {
-        // snapshots not currently supported; always use version 1
-
         EventStreamId eventId = new EventStreamId(aTenant.id(), aDiscussionId.id());
 
-        EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+        Discussion discussion = this.snapshotter().restoredAggregateOf(Discussion.class, eventId);
 
-        Discussion Discussion = new Discussion(eventStream.events(), eventStream.version());
+        if (discussion == null) {
+            EventStream eventStream = this.eventStore().eventStreamSince(eventId);
 
-        return Discussion;
+            discussion = new Discussion(eventStream.events(), eventStream.version());
+        }
+
+        return discussion;
     }
 
     @Override
@@ -59,5 +64,7 @@ public class EventStoreDiscussionRepository
                         aDiscussion.mutatedVersion());
 
         this.eventStore().appendWith(eventId, aDiscussion.mutatingEvents());
+
+        this.snapshotter().snapshotIfNecessary(eventId, aDiscussion);
     }
 }
@@ -23,24 +23,29 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.event.sourcing.EventStream;
 import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
 
 public class EventStoreForumRepository
         extends EventStoreProvider
         implements ForumRepository {
 
+    private static final int EVENTS_BETWEEN_SNAPSHOTS = 100;
+
     public EventStoreForumRepository() {
-        super();
+        super(SnapshotPolicy.everyEvents(EVENTS_BETWEEN_SNAPSHOTS));
     }
 
     @Override
     public Forum forumOfId(Tenant aTenant, ForumId aForumId) {
-        // snapshots not currently supported; always use version 1
-
         EventStreamId eventId = new EventStreamId(aTenant.id(), aForumId.id());
 
-        EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+        Forum forum = this.snapshotter().restoredAggregateOf(Forum.class, eventId);
 
-        Forum forum = new Forum(eventStream.events(), eventStream.version());
+        if (forum == null) {
+            EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+
+            forum = new Forum(eventStream.events(), eventStream.version());
+        }
 
         return forum;
     }
@@ -59,5 +64,7 @@ public class EventStoreForumRepository
                         aForum.mutatedVersion());
 
         this.eventStore().appendWith(eventId, aForum.mutatingEvents());
+
+        this.snapshotter().snapshotIfNecessary(eventId, aForum);
     }
 }
@@ -23,26 +23,31 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
 import com.saasovation.common.event.sourcing.EventStream;
 import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
 
 public class EventStorePostRepository
         extends EventStoreProvider
         implements PostRepository {
 
+    private static final int EVENTS_BETWEEN_SNAPSHOTS = 50;
+
     public EventStorePostRepository() {
-        super();
+        super(SnapshotPolicy.everyEvents(EVENTS_BETWEEN_SNAPSHOTS));
     }
 
     @Override
     public Post postOfId(Tenant aTenantId, PostId aPostId) {
-        // snapshots not currently supported; always use version 1
-
         EventStreamId eventId = new EventStreamId(aTenantId.id(), aPostId.id());
 
-        EventStream eventStream = this.eventStore().eventStreamSince(eventId);
+        Post post = this.snapshotter().restoredAggregateOf(Post.class, eventId);
 
-        Post Post = new Post(eventStream.events(), eventStream.version());
+        if (post == null) {
+            EventStream eventStream = this.eventStore().eventStreamSince(eventId);
 
-        return Post;
+            post = new Post(eventStream.events(), eventStream.version());
+        }
+
+        return post;
     }
 
     @Override
@@ -59,5 +64,7 @@ public class EventStorePostRepository
                         aPost.mutatedVersion());
 
         this.eventStore().appendWith(eventId, aPost.mutatingEvents());
+
+        this.snapshotter().snapshotIfNecessary(eventId, aPost);
     }
 }
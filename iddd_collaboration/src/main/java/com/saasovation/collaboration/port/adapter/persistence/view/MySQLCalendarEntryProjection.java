@@ -14,7 +14,6 @@
 
 package com.saasovation.collaboration.port.adapter.persistence.view;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import com.saasovation.collaboration.domain.model.calendar.CalendarEntryDescriptionChanged;
@@ -29,23 +28,17 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.port.adapter.persistence.AbstractProjection;
-import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
 public class MySQLCalendarEntryProjection
         extends AbstractProjection
         implements EventDispatcher {
 
-    private static final Class<?> understoodEventTypes[] = {
-        CalendarEntryDescriptionChanged.class,
-        CalendarEntryParticipantInvited.class,
-        CalendarEntryParticipantUninvited.class,
-        CalendarEntryRelocated.class,
-        CalendarEntryRescheduled.class,
-        CalendarEntryScheduled.class
-    };
+    public MySQLCalendarEntryProjection() {
+        super();
+    }
 
     public MySQLCalendarEntryProjection(EventDispatcher aParentEventDispatcher) {
-        super();
+        this();
 
         aParentEventDispatcher.registerEventDispatcher(this);
     }
@@ -60,18 +53,9 @@ public class MySQLCalendarEntryProjection
         throw new UnsupportedOperationException("Cannot register additional dispatchers.");
     }
 
-    @Override
-    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
-        return this.understandsAnyOf(
-                aDispatchableDomainEvent.domainEvent().getClass(),
-                understoodEventTypes);
-    }
-
     protected void when(CalendarEntryDescriptionChanged anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_calendar_entry set description=? "
                         + " where calendar_entry_id = ?");
 
@@ -86,10 +70,8 @@ public class MySQLCalendarEntryProjection
     }
 
     protected void when(CalendarEntryParticipantUninvited anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "delete from tbl_vw_calendar_entry_invitee "
                         + "where tenant_id = ? and calendar_entry_id = ? and participant_identity = ?");
 
@@ -101,10 +83,8 @@ public class MySQLCalendarEntryProjection
     }
 
     protected void when(CalendarEntryRelocated anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_calendar_entry set location=? "
                         + " where calendar_entry_id = ?");
 
@@ -115,10 +95,8 @@ public class MySQLCalendarEntryProjection
     }
 
     protected void when(CalendarEntryRescheduled anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_calendar_entry "
                         + "set alarm_alarm_units = ?, alarm_alarm_units_type = ?, "
                         + "repetition_ends = ?, repetition_type = ?, "
@@ -138,8 +116,6 @@ public class MySQLCalendarEntryProjection
     }
 
     protected void when(CalendarEntryScheduled anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select calendar_entry_id from tbl_vw_calendar_entry "
@@ -150,7 +126,7 @@ public class MySQLCalendarEntryProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_calendar_entry( "
                         + "calendar_entry_id, alarm_alarm_units, alarm_alarm_units_type, "
                         + "calendar_id, description, location, "
@@ -187,8 +163,6 @@ public class MySQLCalendarEntryProjection
             Participant aParticipant)
     throws Exception {
 
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select id from tbl_vw_calendar_entry_invitee "
@@ -200,7 +174,7 @@ public class MySQLCalendarEntryProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_calendar_entry_invitee( "
                         + "id, calendar_entry_id, "
                         + "participant_email_address, participant_identity, participant_name, "
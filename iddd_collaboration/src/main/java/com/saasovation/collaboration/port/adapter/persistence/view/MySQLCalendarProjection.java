@@ -14,7 +14,6 @@
 
 package com.saasovation.collaboration.port.adapter.persistence.view;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import com.saasovation.collaboration.domain.model.calendar.CalendarCreated;
@@ -28,22 +27,17 @@ import com.saasovation.collaboration.domain.model.tenant.Tenant;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.port.adapter.persistence.AbstractProjection;
-import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
 public class MySQLCalendarProjection
         extends AbstractProjection
         implements EventDispatcher {
 
-    private static final Class<?> understoodEventTypes[] = {
-        CalendarCreated.class,
-        CalendarDescriptionChanged.class,
-        CalendarRenamed.class,
-        CalendarShared.class,
-        CalendarUnshared.class
-    };
+    public MySQLCalendarProjection() {
+        super();
+    }
 
     public MySQLCalendarProjection(EventDispatcher aParentEventDispatcher) {
-        super();
+        this();
 
         aParentEventDispatcher.registerEventDispatcher(this);
     }
@@ -58,16 +52,7 @@ public class MySQLCalendarProjection
         throw new UnsupportedOperationException("Cannot register additional dispatchers.");
     }
 
-    @Override
-    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
-        return this.understandsAnyOf(
-                aDispatchableDomainEvent.domainEvent().getClass(),
-                understoodEventTypes);
-    }
-
     protected void when(CalendarCreated anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select calendar_id from tbl_vw_calendar "
@@ -78,7 +63,7 @@ public class MySQLCalendarProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_calendar("
                         + "calendar_id, description, name, "
                         + "owner_email_address, owner_identity, owner_name, "
@@ -101,10 +86,8 @@ public class MySQLCalendarProjection
     }
 
     protected void when(CalendarDescriptionChanged anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_calendar set description=? "
                         + "where calendar_id = ?");
 
@@ -115,10 +98,8 @@ public class MySQLCalendarProjection
     }
 
     protected void when(CalendarRenamed anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_calendar set name=? "
                         + "where calendar_id = ?");
 
@@ -133,10 +114,8 @@ public class MySQLCalendarProjection
     }
 
     protected void when(CalendarUnshared anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "delete from tbl_vw_calendar_sharer "
                         + "where tenant_id=? and calendar_id=? and participant_identity=?");
 
@@ -153,8 +132,6 @@ public class MySQLCalendarProjection
             CalendarSharer aCalendarSharer)
     throws Exception {
 
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select id from tbl_vw_calendar_sharer "
@@ -166,7 +143,7 @@ public class MySQLCalendarProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_calendar_sharer("
                         + "id, calendar_id, "
                         + "participant_email_address, participant_identity, participant_name, "
@@ -14,7 +14,6 @@
 
 package com.saasovation.collaboration.port.adapter.persistence.view;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import com.saasovation.collaboration.domain.model.forum.DiscussionClosed;
@@ -23,20 +22,17 @@ import com.saasovation.collaboration.domain.model.forum.DiscussionStarted;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.port.adapter.persistence.AbstractProjection;
-import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
 public class MySQLDiscussionProjection
         extends AbstractProjection
         implements EventDispatcher {
 
-    private static final Class<?> understoodEventTypes[] = {
-        DiscussionClosed.class,
-        DiscussionReopened.class,
-        DiscussionStarted.class
-    };
+    public MySQLDiscussionProjection() {
+        super();
+    }
 
     public MySQLDiscussionProjection(EventDispatcher aParentEventDispatcher) {
-        super();
+        this();
 
         aParentEventDispatcher.registerEventDispatcher(this);
     }
@@ -51,18 +47,9 @@ public class MySQLDiscussionProjection
         throw new UnsupportedOperationException("Cannot register additional dispatchers.");
     }
 
-    @Override
-    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
-        return this.understandsAnyOf(
-                aDispatchableDomainEvent.domainEvent().getClass(),
-                understoodEventTypes);
-    }
-
     protected void when(DiscussionClosed anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_discussion "
                         + "set closed=1 "
                         + "where tenant_id = ? and discussion_id = ?");
@@ -74,10 +61,8 @@ public class MySQLDiscussionProjection
     }
 
     protected void when(DiscussionReopened anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_discussion "
                         + "set closed=0 "
                         + "where tenant_id = ? and discussion_id = ?");
@@ -89,8 +74,6 @@ public class MySQLDiscussionProjection
     }
 
     protected void when(DiscussionStarted anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select discussion_id from tbl_vw_discussion "
@@ -101,7 +84,7 @@ public class MySQLDiscussionProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_discussion( "
                         + "discussion_id, author_email_address, author_identity, author_name, "
                         + "closed, exclusive_owner, forum_id, "
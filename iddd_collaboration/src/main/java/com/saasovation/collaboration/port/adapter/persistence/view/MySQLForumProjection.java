@@ -14,7 +14,6 @@
 
 package com.saasovation.collaboration.port.adapter.persistence.view;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import com.saasovation.collaboration.domain.model.forum.ForumClosed;
@@ -26,23 +25,17 @@ import com.saasovation.collaboration.domain.model.forum.ForumSubjectChanged;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.port.adapter.persistence.AbstractProjection;
-import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
 public class MySQLForumProjection
         extends AbstractProjection
         implements EventDispatcher {
 
-    private static final Class<?> understoodEventTypes[] = {
-        ForumClosed.class,
-        ForumDescriptionChanged.class,
-        ForumModeratorChanged.class,
-        ForumReopened.class,
-        ForumStarted.class,
-        ForumSubjectChanged.class
-    };
+    public MySQLForumProjection() {
+        super();
+    }
 
     public MySQLForumProjection(EventDispatcher aParentEventDispatcher) {
-        super();
+        this();
 
         aParentEventDispatcher.registerEventDispatcher(this);
     }
@@ -57,18 +50,9 @@ public class MySQLForumProjection
         throw new UnsupportedOperationException("Cannot register additional dispatchers.");
     }
 
-    @Override
-    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
-        return this.understandsAnyOf(
-                aDispatchableDomainEvent.domainEvent().getClass(),
-                understoodEventTypes);
-    }
-
     protected void when(ForumClosed anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_forum "
                         + "set closed=1 "
                         + "where tenant_id = ? and forum_id = ?");
@@ -80,10 +64,8 @@ public class MySQLForumProjection
     }
 
     protected void when(ForumDescriptionChanged anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_forum "
                         + "set description=? "
                         + "where tenant_id = ? and forum_id = ?");
@@ -96,10 +78,8 @@ public class MySQLForumProjection
     }
 
     protected void when(ForumModeratorChanged anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_forum "
                         + "set moderator_email_address=?, moderator_identity=?, moderator_name=?  "
                         + "where tenant_id = ? and forum_id = ?");
@@ -114,10 +94,8 @@ public class MySQLForumProjection
     }
 
     protected void when(ForumReopened anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_forum "
                         + "set closed=0 "
                         + "where tenant_id = ? and forum_id = ?");
@@ -129,8 +107,6 @@ public class MySQLForumProjection
     }
 
     protected void when(ForumStarted anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select forum_id from tbl_vw_forum "
@@ -141,7 +117,7 @@ public class MySQLForumProjection
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_forum( "
                         + "forum_id, closed, "
                         + "creator_email_address, creator_identity, creator_name, "
@@ -167,10 +143,8 @@ public class MySQLForumProjection
     }
 
     protected void when(ForumSubjectChanged anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_forum "
                         + "set subject=? "
                         + "where tenant_id = ? and forum_id = ?");
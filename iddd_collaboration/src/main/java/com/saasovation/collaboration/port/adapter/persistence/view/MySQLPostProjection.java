@@ -14,7 +14,6 @@
 
 package com.saasovation.collaboration.port.adapter.persistence.view;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import com.saasovation.collaboration.domain.model.forum.PostContentAltered;
@@ -22,17 +21,15 @@ import com.saasovation.collaboration.domain.model.forum.PostedToDiscussion;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
 import com.saasovation.common.event.sourcing.EventDispatcher;
 import com.saasovation.common.port.adapter.persistence.AbstractProjection;
-import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
 
 public class MySQLPostProjection extends AbstractProjection implements EventDispatcher {
 
-    private static final Class<?> understoodEventTypes[] = {
-        PostContentAltered.class,
-        PostedToDiscussion.class
-    };
+    public MySQLPostProjection() {
+        super();
+    }
 
     public MySQLPostProjection(EventDispatcher aParentEventDispatcher) {
-        super();
+        this();
 
         aParentEventDispatcher.registerEventDispatcher(this);
     }
@@ -47,18 +44,9 @@ public class MySQLPostProjection extends AbstractProjection implements EventDisp
         throw new UnsupportedOperationException("Cannot register additional dispatchers.");
     }
 
-    @Override
-    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
-        return this.understandsAnyOf(
-                aDispatchableDomainEvent.domainEvent().getClass(),
-                understoodEventTypes);
-    }
-
     protected void when(PostContentAltered anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "update tbl_vw_post "
                         + "set body_text=?, subject=?, changed_on=? "
                         + "where tenant_id = ? and forum_id = ?");
@@ -73,8 +61,6 @@ public class MySQLPostProjection extends AbstractProjection implements EventDisp
     }
 
     protected void when(PostedToDiscussion anEvent) throws Exception {
-        Connection connection = ConnectionProvider.connection();
-
         // idempotent operation
         if (this.exists(
                 "select post_id from tbl_vw_post "
@@ -85,7 +71,7 @@ public class MySQLPostProjection extends AbstractProjection implements EventDisp
         }
 
         PreparedStatement statement =
-                connection.prepareStatement(
+                this.prepareStatement(
                         "insert into tbl_vw_post( "
                         + "post_id, "
                         + "author_email_address, author_identity, author_name, "
@@ -14,22 +14,64 @@
 
 package com.saasovation.collaboration.port.adapter.service;
 
-import org.jboss.resteasy.client.ClientRequest;
-import org.jboss.resteasy.client.ClientResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import com.saasovation.collaboration.domain.model.collaborator.Collaborator;
 import com.saasovation.collaboration.domain.model.tenant.Tenant;
+import com.saasovation.common.media.OvationsMediaType;
 
 public class HttpUserInRoleAdapter implements UserInRoleAdapter {
 
     private static final String HOST = "localhost";
-    private static final String PORT = "8081";
+    private static final int MAXIMUM_CACHED_PER_TENANT = 1000;
+    private static final int PORT = 8081;
     private static final String PROTOCOL = "http";
     private static final String URL_TEMPLATE =
             "/idovation/tenants/{tenantId}/users/{username}/inRole/{role}";
 
+    private Semaphore bulkhead;
+    private int connectTimeout;
+    private String host;
+    private ConcurrentMap<String, FutureTask<UserInRoleResponse>> inFlightRequests;
+    private int port;
+    private int readTimeout;
+    private Map<String, Map<String, UserInRoleResponse>> tenantResponses;
+
     public HttpUserInRoleAdapter() {
+        this(HOST, PORT, 2000, 5000, 20);
+    }
+
+    public HttpUserInRoleAdapter(
+            String aHost,
+            int aPort,
+            int aConnectTimeout,
+            int aReadTimeout,
+            int aMaximumConcurrentRequests) {
+
         super();
+
+        this.bulkhead = new Semaphore(aMaximumConcurrentRequests, true);
+        this.connectTimeout = aConnectTimeout;
+        this.host = aHost;
+        this.inFlightRequests = new ConcurrentHashMap<String, FutureTask<UserInRoleResponse>>();
+        this.port = aPort;
+        this.readTimeout = aReadTimeout;
+        this.tenantResponses = new HashMap<String, Map<String, UserInRoleResponse>>();
     }
 
     public <T extends Collaborator> T toCollaborator(
@@ -41,18 +83,16 @@ public class HttpUserInRoleAdapter implements UserInRoleAdapter {
         T collaborator = null;
 
         try {
-            ClientRequest request =
-                    this.buildRequest(aTenant, anIdentity, aRoleName);
-
-            ClientResponse<String> response = request.get(String.class);
+            UserInRoleResponse response =
+                    this.userInRoleResponse(aTenant, anIdentity, aRoleName);
 
-            if (response.getStatus() == 200) {
+            if (response.status() == 200) {
                 collaborator =
                     new CollaboratorTranslator()
                         .toCollaboratorFromRepresentation(
-                            response.getEntity(),
+                            response.representation(),
                             aCollaboratorClass);
-            } else if (response.getStatus() == 204) {
+            } else if (response.status() == 204) {
                 ; // not an error, return null
             } else {
                 throw new IllegalStateException(
@@ -61,7 +101,7 @@ public class HttpUserInRoleAdapter implements UserInRoleAdapter {
                         + " in role: "
                         + aRoleName
                         + " with resulting status: "
-                        + response.getStatus());
+                        + response.status());
             }
 
         } catch (Throwable t) {
@@ -72,28 +112,239 @@ public class HttpUserInRoleAdapter implements UserInRoleAdapter {
         return collaborator;
     }
 
-    private ClientRequest buildRequest(
-            Tenant aTenant,
-            String anIdentity,
-            String aRoleName) {
-
-        ClientRequest request =
-            new ClientRequest(this.buildURLFor(URL_TEMPLATE));
-
-        request.pathParameter("tenantId", aTenant.id());
-        request.pathParameter("username", anIdentity);
-        request.pathParameter("role", aRoleName);
-
-        return request;
-    }
-
     private String buildURLFor(String aTemplate) {
         String url =
             PROTOCOL
             + "://"
-            + HOST + ":" + PORT
+            + this.host + ":" + this.port
             + aTemplate;
 
         return url;
     }
+
+    private UserInRoleResponse cachedResponse(String aTenantId, String aPath) {
+        synchronized (this.tenantResponses) {
+            Map<String, UserInRoleResponse> responses = this.tenantResponses.get(aTenantId);
+
+            return responses == null ? null : responses.get(aPath);
+        }
+    }
+
+    private void cacheResponse(String aTenantId, String aPath, UserInRoleResponse aResponse) {
+        synchronized (this.tenantResponses) {
+            Map<String, UserInRoleResponse> responses = this.tenantResponses.get(aTenantId);
+
+            if (responses == null) {
+                responses = new LinkedHashMap<String, UserInRoleResponse>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, UserInRoleResponse> anEldest) {
+                        return this.size() > MAXIMUM_CACHED_PER_TENANT;
+                    }
+                };
+
+                this.tenantResponses.put(aTenantId, responses);
+            }
+
+            responses.put(aPath, aResponse);
+        }
+    }
+
+    private String encoded(String aPathSegment) throws IOException {
+        return URLEncoder.encode(aPathSegment, "UTF-8").replace("+", "%20");
+    }
+
+    private UserInRoleResponse requestUserInRole(
+            String aTenantId,
+            String aPath,
+            UserInRoleResponse aStaleResponse)
+    throws Exception {
+
+        // a slow service makes callers fail fast rather than pile up
+        if (!this.bulkhead.tryAcquire(this.connectTimeout, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException(
+                    "Too many concurrent requests to: " + this.host + ":" + this.port);
+        }
+
+        try {
+            HttpURLConnection connection =
+                    (HttpURLConnection) new URL(this.buildURLFor(aPath)).openConnection();
+
+            connection.setConnectTimeout(this.connectTimeout);
+            connection.setReadTimeout(this.readTimeout);
+            connection.setRequestProperty("Accept", OvationsMediaType.ID_OVATION_TYPE);
+
+            if (aStaleResponse != null && aStaleResponse.eTag() != null) {
+                connection.setRequestProperty("If-None-Match", aStaleResponse.eTag());
+            }
+
+            int status = connection.getResponseCode();
+
+            // fully read so that the connection is kept alive for reuse
+            String representation = this.readFully(connection, status);
+
+            long maxAge = this.maxAgeOf(connection.getHeaderField("Cache-Control"));
+
+            UserInRoleResponse response = null;
+
+            if (status == 304 && aStaleResponse != null) {
+                response = aStaleResponse.refreshedFor(maxAge);
+            } else {
+                response =
+                        new UserInRoleResponse(
+                                status,
+                                representation,
+                                connection.getHeaderField("ETag"),
+                                maxAge);
+            }
+
+            if (response.isCacheable()) {
+                this.cacheResponse(aTenantId, aPath, response);
+            }
+
+            return response;
+
+        } finally {
+            this.bulkhead.release();
+        }
+    }
+
+    private long maxAgeOf(String aCacheControl) {
+        long maxAge = 0;
+
+        if (aCacheControl != null) {
+            for (String directive : aCacheControl.split(",")) {
+                directive = directive.trim().toLowerCase();
+
+                if (directive.equals("no-cache") || directive.equals("no-store")) {
+                    return 0;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        maxAge = Long.parseLong(directive.substring("max-age=".length()).trim());
+                    } catch (NumberFormatException e) {
+                        maxAge = 0;
+                    }
+                }
+            }
+        }
+
+        return maxAge;
+    }
+
+    private String readFully(HttpURLConnection aConnection, int aStatus) throws IOException {
+        InputStream input =
+                aStatus >= 400
+                    ? aConnection.getErrorStream()
+                    : aConnection.getInputStream();
+
+        if (input == null) {
+            return null;
+        }
+
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int count = 0;
+
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+
+            return output.toString("UTF-8");
+
+        } finally {
+            input.close();
+        }
+    }
+
+    private UserInRoleResponse userInRoleResponse(
+            final Tenant aTenant,
+            String anIdentity,
+            String aRoleName)
+    throws Exception {
+
+        final String path =
+                URL_TEMPLATE
+                    .replace("{tenantId}", this.encoded(aTenant.id()))
+                    .replace("{username}", this.encoded(anIdentity))
+                    .replace("{role}", this.encoded(aRoleName));
+
+        final UserInRoleResponse cachedResponse = this.cachedResponse(aTenant.id(), path);
+
+        if (cachedResponse != null && !cachedResponse.isExpired()) {
+            return cachedResponse;
+        }
+
+        // concurrent requests for the same user in role share one request
+        FutureTask<UserInRoleResponse> request =
+                new FutureTask<UserInRoleResponse>(new Callable<UserInRoleResponse>() {
+                    public UserInRoleResponse call() throws Exception {
+                        return requestUserInRole(aTenant.id(), path, cachedResponse);
+                    }
+                });
+
+        FutureTask<UserInRoleResponse> inFlightRequest =
+                this.inFlightRequests.putIfAbsent(path, request);
+
+        if (inFlightRequest == null) {
+            inFlightRequest = request;
+
+            try {
+                request.run();
+            } finally {
+                this.inFlightRequests.remove(path, request);
+            }
+        }
+
+        try {
+            return inFlightRequest.get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private static final class UserInRoleResponse {
+
+        private String eTag;
+        private long expiresOn;
+        private long maxAge;
+        private String representation;
+        private int status;
+
+        UserInRoleResponse(int aStatus, String aRepresentation, String anETag, long aMaxAge) {
+            super();
+
+            this.eTag = anETag;
+            this.expiresOn = System.currentTimeMillis() + aMaxAge * 1000L;
+            this.maxAge = aMaxAge;
+            this.representation = aRepresentation;
+            this.status = aStatus;
+        }
+
+        String eTag() {
+            return this.eTag;
+        }
+
+        boolean isCacheable() {
+            return (this.status == 200 || this.status == 204)
+                    && (this.maxAge > 0 || this.eTag != null);
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= this.expiresOn;
+        }
+
+        UserInRoleResponse refreshedFor(long aMaxAge) {
+            return new UserInRoleResponse(this.status, this.representation, this.eTag, aMaxAge);
+        }
+
+        String representation() {
+            return this.representation;
+        }
+
+        int status() {
+            return this.status;
+        }
+    }
 }
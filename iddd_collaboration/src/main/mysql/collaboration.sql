@@ -4,8 +4,10 @@ USE iddd_collaboration;
 SET FOREIGN_KEY_CHECKS=0;
 
 CREATE TABLE `tbl_dispatcher_last_event` (
+    `dispatcher_name` varchar(250) NOT NULL,
+    `partition_id` int(11) NOT NULL,
     `event_id` bigint(20) NOT NULL,
-    PRIMARY KEY (`event_id`)
+    PRIMARY KEY (`dispatcher_name`,`partition_id`)
 ) ENGINE=InnoDB;
 
 CREATE TABLE `tbl_es_event_store` (
@@ -19,6 +21,14 @@ CREATE TABLE `tbl_es_event_store` (
     PRIMARY KEY (`event_id`)
 ) ENGINE=InnoDB;
 
+CREATE TABLE `tbl_es_snapshot_store` (
+    `stream_name` varchar(250) NOT NULL,
+    `snapshot_body` mediumtext NOT NULL,
+    `snapshot_type` varchar(250) NOT NULL,
+    `stream_version` int(11) NOT NULL,
+    PRIMARY KEY (`stream_name`)
+) ENGINE=InnoDB;
+
 CREATE TABLE `tbl_vw_calendar` (
     `calendar_id` varchar(36) NOT NULL,
     `description` varchar(500),
@@ -27,6 +27,7 @@ public class StorageCleaner extends EventStoreProvider {
     private static final String[] tablesToClean = {
         "tbl_dispatcher_last_event",
         "tbl_es_event_store",
+        "tbl_es_snapshot_store",
         "tbl_vw_calendar",
         "tbl_vw_calendar_sharer",
         "tbl_vw_calendar_entry",
@@ -47,6 +48,8 @@ public class StorageCleaner extends EventStoreProvider {
     public void clean() {
         this.eventStore().purge();
 
+        this.snapshotStore().purge();
+
         Connection connection = ConnectionProvider.connection(this.dataSource);
         PreparedStatement statement = null;
 
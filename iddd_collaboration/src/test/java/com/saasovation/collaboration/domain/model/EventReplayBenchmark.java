@@ -0,0 +1,184 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.domain.model;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.saasovation.collaboration.domain.model.calendar.Alarm;
+import com.saasovation.collaboration.domain.model.calendar.AlarmUnitsType;
+import com.saasovation.collaboration.domain.model.calendar.CalendarEntry;
+import com.saasovation.collaboration.domain.model.calendar.CalendarEntryDescriptionChanged;
+import com.saasovation.collaboration.domain.model.calendar.CalendarEntryId;
+import com.saasovation.collaboration.domain.model.calendar.CalendarEntryRelocated;
+import com.saasovation.collaboration.domain.model.calendar.CalendarEntryScheduled;
+import com.saasovation.collaboration.domain.model.calendar.CalendarId;
+import com.saasovation.collaboration.domain.model.calendar.Repetition;
+import com.saasovation.collaboration.domain.model.calendar.TimeSpan;
+import com.saasovation.collaboration.domain.model.collaborator.Creator;
+import com.saasovation.collaboration.domain.model.collaborator.Moderator;
+import com.saasovation.collaboration.domain.model.collaborator.Owner;
+import com.saasovation.collaboration.domain.model.collaborator.Participant;
+import com.saasovation.collaboration.domain.model.forum.Forum;
+import com.saasovation.collaboration.domain.model.forum.ForumDescriptionChanged;
+import com.saasovation.collaboration.domain.model.forum.ForumId;
+import com.saasovation.collaboration.domain.model.forum.ForumStarted;
+import com.saasovation.collaboration.domain.model.forum.ForumSubjectChanged;
+import com.saasovation.collaboration.domain.model.tenant.Tenant;
+import com.saasovation.common.domain.model.DomainEvent;
+
+/**
+ * Replays long event streams into Forum and CalendarEntry through
+ * EventSourcedRootEntity's mutator dispatch. The reflective methods
+ * repeat the former String-keyed Method.invoke() dispatch as a
+ * baseline. Run with: gradle :iddd_collaboration:jmh -Pjmh.args='EventReplay'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventReplayBenchmark {
+
+    private static final int EVENTS_REPLAYED = 100000;
+
+    private List<DomainEvent> calendarEntryEvents;
+    private Constructor<CalendarEntry> calendarEntryConstructor;
+    private List<DomainEvent> forumEvents;
+    private Constructor<Forum> forumConstructor;
+    private Map<String, Method> reflectiveMutators;
+
+    @Setup
+    public void setUp() throws Exception {
+        Tenant tenant = new Tenant("01234567");
+        ForumId forumId = new ForumId("forum-1");
+
+        this.forumEvents = new ArrayList<DomainEvent>(EVENTS_REPLAYED);
+
+        this.forumEvents.add(
+                new ForumStarted(
+                        tenant, forumId,
+                        new Creator("jdoe", "John Doe", "jdoe@saasovation.com"),
+                        new Moderator("zdoe", "Zoe Doe", "zdoe@saasovation.com"),
+                        "A Subject", "A description.", null));
+
+        for (int idx = 1; idx < EVENTS_REPLAYED; ++idx) {
+            if (idx % 2 == 0) {
+                this.forumEvents.add(new ForumSubjectChanged(tenant, forumId, "Subject " + idx, null));
+            } else {
+                this.forumEvents.add(new ForumDescriptionChanged(tenant, forumId, "Description " + idx, null));
+            }
+        }
+
+        CalendarId calendarId = new CalendarId("calendar-1");
+        CalendarEntryId calendarEntryId = new CalendarEntryId("entry-1");
+        Date now = new Date();
+        Date later = new Date(now.getTime() + 3600000L);
+
+        this.calendarEntryEvents = new ArrayList<DomainEvent>(EVENTS_REPLAYED);
+
+        this.calendarEntryEvents.add(
+                new CalendarEntryScheduled(
+                        tenant, calendarId, calendarEntryId,
+                        "A description.", "A location.",
+                        new Owner("jdoe", "John Doe", "jdoe@saasovation.com"),
+                        new TimeSpan(now, later),
+                        Repetition.doesNotRepeatInstance(later),
+                        new Alarm(AlarmUnitsType.Minutes, 15),
+                        new HashSet<Participant>()));
+
+        for (int idx = 1; idx < EVENTS_REPLAYED; ++idx) {
+            if (idx % 2 == 0) {
+                this.calendarEntryEvents.add(
+                        new CalendarEntryRelocated(tenant, calendarId, calendarEntryId, "Location " + idx));
+            } else {
+                this.calendarEntryEvents.add(
+                        new CalendarEntryDescriptionChanged(tenant, calendarId, calendarEntryId, "Description " + idx));
+            }
+        }
+
+        this.forumConstructor = Forum.class.getDeclaredConstructor();
+        this.forumConstructor.setAccessible(true);
+
+        this.calendarEntryConstructor = CalendarEntry.class.getDeclaredConstructor();
+        this.calendarEntryConstructor.setAccessible(true);
+
+        this.reflectiveMutators = new HashMap<String, Method>();
+    }
+
+    @Benchmark
+    public Forum replayForum() {
+        return new Forum(this.forumEvents, this.forumEvents.size());
+    }
+
+    @Benchmark
+    public Forum replayForumReflectively() throws Exception {
+        Forum forum = this.forumConstructor.newInstance();
+
+        this.replayReflectively(forum, this.forumEvents);
+
+        return forum;
+    }
+
+    @Benchmark
+    public CalendarEntry replayCalendarEntry() {
+        return new CalendarEntry(this.calendarEntryEvents, this.calendarEntryEvents.size());
+    }
+
+    @Benchmark
+    public CalendarEntry replayCalendarEntryReflectively() throws Exception {
+        CalendarEntry calendarEntry = this.calendarEntryConstructor.newInstance();
+
+        this.replayReflectively(calendarEntry, this.calendarEntryEvents);
+
+        return calendarEntry;
+    }
+
+    private void replayReflectively(Object aRoot, List<DomainEvent> anEvents) throws Exception {
+        for (DomainEvent event : anEvents) {
+            String key = aRoot.getClass().getName() + ":" + event.getClass().getName();
+
+            Method mutator = this.reflectiveMutators.get(key);
+
+            if (mutator == null) {
+                mutator = aRoot.getClass().getDeclaredMethod("when", event.getClass());
+                mutator.setAccessible(true);
+
+                this.reflectiveMutators.put(key, mutator);
+            }
+
+            mutator.invoke(aRoot, event);
+        }
+    }
+}
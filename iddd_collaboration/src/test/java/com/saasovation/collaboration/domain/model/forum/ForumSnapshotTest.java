@@ -0,0 +1,141 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.domain.model.forum;
+
+import java.util.UUID;
+
+import junit.framework.TestCase;
+
+import com.saasovation.collaboration.domain.model.collaborator.Creator;
+import com.saasovation.collaboration.domain.model.collaborator.Moderator;
+import com.saasovation.collaboration.domain.model.tenant.Tenant;
+import com.saasovation.common.domain.model.DomainEventPublisher;
+import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.event.sourcing.EventStream;
+import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.event.sourcing.Snapshot;
+import com.saasovation.common.event.sourcing.SnapshotPolicy;
+import com.saasovation.common.event.sourcing.SnapshotStore;
+import com.saasovation.common.event.sourcing.Snapshotter;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.hashmap.HashMapEventStore;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.hashmap.HashMapSnapshotStore;
+
+public class ForumSnapshotTest extends TestCase {
+
+    private EventStore eventStore;
+    private Snapshotter snapshotter;
+    private SnapshotStore snapshotStore;
+
+    public ForumSnapshotTest() {
+        super();
+    }
+
+    public void testSnapshotRoundTrip() throws Exception {
+        Forum forum =
+            new Forum(
+                    new Tenant("01234567"),
+                    new ForumId(UUID.randomUUID().toString().toUpperCase()),
+                    new Creator("jdoe", "John Doe", "jdoe@saasovation.com"),
+                    new Moderator("jdoe", "John Doe", "jdoe@saasovation.com"),
+                    "John Doe Does DDD",
+                    "A set of discussions about DDD for anonymous developers.",
+                    "exclusive-owner");
+
+        forum.assignModerator(new Moderator("zdoe", "Zoe Doe", "zdoe@saasovation.com"));
+        forum.changeSubject("Zoe Doe Moderates DDD");
+
+        EventStreamId eventId = this.save(forum);
+
+        Snapshot snapshot = this.snapshotStore.snapshotOf(eventId.streamName());
+
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.streamVersion());
+        assertEquals(Forum.class.getName(), snapshot.snapshotType());
+        assertFalse(snapshot.snapshotBody().contains("mutatingEvents"));
+        assertFalse(snapshot.snapshotBody().contains("unmutatedVersion"));
+
+        forum = this.snapshotter.restoredAggregateOf(Forum.class, eventId);
+
+        forum.changeDescription("Discussions about DDD moderated by Zoe Doe.");
+        forum.close();
+
+        eventId = this.save(forum);
+
+        Forum restored = this.snapshotter.restoredAggregateOf(Forum.class, eventId);
+
+        EventStream eventStream = this.eventStore.fullEventStreamFor(eventId);
+
+        Forum replayed = new Forum(eventStream.events(), eventStream.version());
+
+        assertEquals(replayed.unmutatedVersion(), restored.unmutatedVersion());
+        assertEquals(replayed.mutatedVersion(), restored.mutatedVersion());
+        assertEquals(replayed.tenant(), restored.tenant());
+        assertEquals(replayed.forumId(), restored.forumId());
+        assertEquals(replayed.creator(), restored.creator());
+        assertEquals(replayed.moderator(), restored.moderator());
+        assertEquals(replayed.subject(), restored.subject());
+        assertEquals(replayed.description(), restored.description());
+        assertEquals(replayed.exclusiveOwner(), restored.exclusiveOwner());
+        assertTrue(restored.isClosed());
+        assertTrue(restored.mutatingEvents().isEmpty());
+
+        // the restored aggregate records new events like a replayed one
+
+        restored.reopen();
+
+        assertEquals(1, restored.mutatingEvents().size());
+        assertFalse(restored.isClosed());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        DomainEventPublisher.instance().reset();
+
+        this.eventStore = HashMapEventStore.instance();
+
+        this.snapshotStore = HashMapSnapshotStore.instance();
+
+        this.snapshotter =
+                new Snapshotter(
+                        this.eventStore,
+                        this.snapshotStore,
+                        SnapshotPolicy.everyEvents(3));
+
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.snapshotStore.purge();
+
+        this.eventStore.purge();
+
+        super.tearDown();
+    }
+
+    private EventStreamId save(Forum aForum) {
+        EventStreamId eventId =
+                new EventStreamId(
+                        aForum.tenant().id(),
+                        aForum.forumId().id(),
+                        aForum.mutatedVersion());
+
+        this.eventStore.appendWith(eventId, aForum.mutatingEvents());
+
+        this.snapshotter.snapshotIfNecessary(eventId, aForum);
+
+        return eventId;
+    }
+}
@@ -0,0 +1,336 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+/**
+ * I am a DataSource over an in-memory tbl_dispatcher_last_event, which
+ * understands only the statements that the FollowStoreEventDispatcher
+ * and the ProjectionRebuilder issue against it. Writes are kept per
+ * connection until committed, and are discarded by a rollback. I keep
+ * the rebuilder's shadow checkpoint table too, and swap it in when it
+ * is renamed; every other statement executed is only recorded.
+ */
+class CheckpointTableDataSource implements InvocationHandler {
+
+    static final String SCHEMA = "iddd_collaboration";
+
+    private static final String CHECKPOINT_TABLE = "tbl_dispatcher_last_event";
+    private static final String SHADOW_CHECKPOINT_TABLE = SCHEMA + "_rebuild." + CHECKPOINT_TABLE;
+
+    private Map<String, Map<Integer, Long>> checkpoints;
+    private List<String> executedStatements;
+    private Map<String, Map<Integer, Long>> shadowCheckpoints;
+    private List<String> viewTables;
+
+    CheckpointTableDataSource(String... aViewTables) {
+        super();
+
+        this.checkpoints = new TreeMap<String, Map<Integer, Long>>();
+        this.executedStatements = new ArrayList<String>();
+        this.shadowCheckpoints = new TreeMap<String, Map<Integer, Long>>();
+        this.viewTables = Arrays.asList(aViewTables);
+    }
+
+    DataSource dataSource() {
+        return (DataSource) proxy(DataSource.class, this);
+    }
+
+    synchronized long checkpoint(String aDispatcherName, int aPartition) {
+        Map<Integer, Long> partitionCheckpoints = this.checkpoints.get(aDispatcherName);
+
+        if (partitionCheckpoints == null || !partitionCheckpoints.containsKey(aPartition)) {
+            return 0;
+        }
+
+        return partitionCheckpoints.get(aPartition);
+    }
+
+    synchronized void checkpoint(String aDispatcherName, int aPartition, long anEventId) {
+        checkpointIn(this.checkpoints, aDispatcherName, aPartition, anEventId);
+    }
+
+    synchronized int partitionsOf(String aDispatcherName) {
+        Map<Integer, Long> partitionCheckpoints = this.checkpoints.get(aDispatcherName);
+
+        return partitionCheckpoints == null ? 0 : partitionCheckpoints.size();
+    }
+
+    synchronized List<String> executedStatements() {
+        return new ArrayList<String>(this.executedStatements);
+    }
+
+    @Override
+    public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+        if (aMethod.getName().equals("getConnection")) {
+            return proxy(Connection.class, new FakeConnection());
+        }
+
+        return defaultValueOf(aMethod);
+    }
+
+    private static void checkpointIn(
+            Map<String, Map<Integer, Long>> aCheckpoints,
+            String aDispatcherName,
+            int aPartition,
+            long anEventId) {
+
+        Map<Integer, Long> partitionCheckpoints = aCheckpoints.get(aDispatcherName);
+
+        if (partitionCheckpoints == null) {
+            partitionCheckpoints = new TreeMap<Integer, Long>();
+
+            aCheckpoints.put(aDispatcherName, partitionCheckpoints);
+        }
+
+        partitionCheckpoints.put(aPartition, anEventId);
+    }
+
+    private static Object defaultValueOf(Method aMethod) {
+        Class<?> type = aMethod.getReturnType();
+
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+
+        return null;
+    }
+
+    private static Object proxy(Class<?> anInterface, InvocationHandler aHandler) {
+        return Proxy.newProxyInstance(
+                CheckpointTableDataSource.class.getClassLoader(),
+                new Class<?>[] { anInterface },
+                aHandler);
+    }
+
+    private synchronized void execute(String aSql) {
+        this.executedStatements.add(aSql);
+
+        if (aSql.startsWith("create table " + SHADOW_CHECKPOINT_TABLE)) {
+            this.shadowCheckpoints.clear();
+        } else if (aSql.startsWith("rename table") && aSql.contains(CHECKPOINT_TABLE)) {
+            Map<String, Map<Integer, Long>> retiredCheckpoints = this.checkpoints;
+
+            this.checkpoints = this.shadowCheckpoints;
+            this.shadowCheckpoints = retiredCheckpoints;
+        }
+    }
+
+    private synchronized List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<Object[]>();
+
+        for (Map.Entry<String, Map<Integer, Long>> entry : this.checkpoints.entrySet()) {
+            for (Map.Entry<Integer, Long> partitionEntry : entry.getValue().entrySet()) {
+                rows.add(new Object[] { entry.getKey(), partitionEntry.getKey(), partitionEntry.getValue() });
+            }
+        }
+
+        return rows;
+    }
+
+    private class FakeConnection implements InvocationHandler {
+
+        private List<Object[]> pendingWrites = new ArrayList<Object[]>();
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            String name = aMethod.getName();
+
+            if (name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, new FakeStatement(this, (String) anArguments[0]));
+            } else if (name.equals("createStatement")) {
+                return proxy(Statement.class, new FakeStatement(this, null));
+            } else if (name.equals("getCatalog")) {
+                return SCHEMA;
+            } else if (name.equals("getMetaData")) {
+                return proxy(DatabaseMetaData.class, new FakeMetaData());
+            } else if (name.equals("commit")) {
+                this.commit();
+
+                return null;
+            } else if (name.equals("rollback") || name.equals("close")) {
+                this.pendingWrites.clear();
+
+                return null;
+            }
+
+            return defaultValueOf(aMethod);
+        }
+
+        private void commit() {
+            synchronized (CheckpointTableDataSource.this) {
+                for (Object[] write : this.pendingWrites) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Map<Integer, Long>> table = (Map<String, Map<Integer, Long>>) write[0];
+
+                    if (write.length == 2) {
+                        table.remove(write[1]);
+                    } else {
+                        checkpointIn(table, (String) write[1], (Integer) write[2], (Long) write[3]);
+                    }
+                }
+            }
+
+            this.pendingWrites.clear();
+        }
+    }
+
+    private class FakeMetaData implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            if (aMethod.getName().equals("getTables")) {
+                List<Object[]> rows = new ArrayList<Object[]>();
+
+                for (String viewTable : viewTables) {
+                    rows.add(new Object[] { viewTable });
+                }
+
+                return proxy(ResultSet.class, new FakeResultSet(rows));
+            }
+
+            return defaultValueOf(aMethod);
+        }
+    }
+
+    private class FakeStatement implements InvocationHandler {
+
+        private FakeConnection connection;
+        private Map<Integer, Object> parameters;
+        private String sql;
+
+        FakeStatement(FakeConnection aConnection, String aSql) {
+            super();
+
+            this.connection = aConnection;
+            this.parameters = new HashMap<Integer, Object>();
+            this.sql = aSql;
+        }
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            String name = aMethod.getName();
+
+            if (name.startsWith("set") && anArguments != null && anArguments.length == 2) {
+                this.parameters.put((Integer) anArguments[0], anArguments[1]);
+
+                return null;
+            } else if (name.equals("execute")) {
+                CheckpointTableDataSource.this.execute((String) anArguments[0]);
+
+                return Boolean.FALSE;
+            } else if (name.equals("executeQuery")) {
+                return this.executeQuery();
+            } else if (name.equals("executeUpdate")) {
+                return this.executeUpdate();
+            }
+
+            return defaultValueOf(aMethod);
+        }
+
+        private ResultSet executeQuery() {
+            List<Object[]> rows = rows();
+
+            if (this.sql.startsWith("select max(event_id)")) {
+                long max = 0;
+
+                for (Object[] row : rows) {
+                    max = Math.max(max, (Long) row[2]);
+                }
+
+                rows = new ArrayList<Object[]>();
+                rows.add(new Object[] { max });
+            }
+
+            return (ResultSet) proxy(ResultSet.class, new FakeResultSet(rows));
+        }
+
+        private int executeUpdate() {
+            Map<String, Map<Integer, Long>> table =
+                    this.sql.contains(SHADOW_CHECKPOINT_TABLE) ?
+                            shadowCheckpoints : checkpoints;
+
+            if (this.sql.startsWith("insert into ")) {
+                this.connection.pendingWrites.add(
+                        new Object[] { table, this.parameters.get(1), this.parameters.get(2), this.parameters.get(3) });
+            } else if (this.sql.startsWith("delete from ")) {
+                this.connection.pendingWrites.add(new Object[] { table, this.parameters.get(1) });
+            } else {
+                throw new UnsupportedOperationException("Unsupported statement: " + this.sql);
+            }
+
+            return 1;
+        }
+    }
+
+    private static class FakeResultSet implements InvocationHandler {
+
+        private int index;
+        private List<Object[]> rows;
+
+        FakeResultSet(List<Object[]> aRows) {
+            super();
+
+            this.index = -1;
+            this.rows = aRows;
+        }
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            String name = aMethod.getName();
+
+            if (name.equals("next")) {
+                return ++this.index < this.rows.size();
+            } else if (name.startsWith("get") && anArguments != null && anArguments.length == 1) {
+
+                // columns by label are only ever the first
+
+                int column = anArguments[0] instanceof Integer ? (Integer) anArguments[0] : 1;
+
+                Object value = this.rows.get(this.index)[column - 1];
+
+                if (name.equals("getLong")) {
+                    return ((Number) value).longValue();
+                } else if (name.equals("getInt")) {
+                    return ((Number) value).intValue();
+                }
+
+                return value;
+            }
+
+            return defaultValueOf(aMethod);
+        }
+    }
+}
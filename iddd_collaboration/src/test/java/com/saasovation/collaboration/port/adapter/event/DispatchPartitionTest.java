@@ -0,0 +1,186 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+
+public class DispatchPartitionTest extends TestCase {
+
+    public DispatchPartitionTest() {
+        super();
+    }
+
+    public void testDispatchesInQueuedOrder() throws Exception {
+        RecordingPartitionDispatcher owner = new RecordingPartitionDispatcher(0);
+
+        DispatchPartition dispatchPartition = new DispatchPartition(owner, 3, 10, 4);
+
+        dispatchPartition.start();
+
+        for (long eventId = 1; eventId <= 50; ++eventId) {
+            dispatchPartition.enqueue(this.eventOf(eventId));
+        }
+
+        dispatchPartition.stop();
+
+        assertTrue(dispatchPartition.isDrained());
+        assertNull(dispatchPartition.lastFailure());
+        assertEquals(50, owner.dispatchedEventIds().size());
+
+        for (int idx = 0; idx < 50; ++idx) {
+            assertEquals(idx + 1L, owner.dispatchedEventIds().get(idx).longValue());
+        }
+
+        for (List<Long> batch : owner.batches()) {
+            assertTrue(batch.size() <= 4);
+        }
+
+        assertEquals(3, owner.partition());
+    }
+
+    public void testRetriesFailedBatchBeforeLaterEvents() throws Exception {
+        RecordingPartitionDispatcher owner = new RecordingPartitionDispatcher(2);
+
+        DispatchPartition dispatchPartition = new DispatchPartition(owner, 0, 100, 5);
+
+        for (long eventId = 1; eventId <= 12; ++eventId) {
+            dispatchPartition.enqueue(this.eventOf(eventId));
+        }
+
+        dispatchPartition.start();
+
+        while (owner.dispatchedEventIds().size() < 12) {
+            Thread.sleep(10L);
+        }
+
+        dispatchPartition.stop();
+
+        assertTrue(dispatchPartition.isDrained());
+        assertNull(dispatchPartition.lastFailure());
+        assertEquals(2, owner.attempts().size() - owner.batches().size());
+
+        // the failed batch was offered again, unchanged
+
+        assertEquals(owner.attempts().get(0), owner.attempts().get(1));
+        assertEquals(owner.attempts().get(0), owner.batches().get(0));
+
+        assertEquals(12, owner.dispatchedEventIds().size());
+
+        for (int idx = 0; idx < 12; ++idx) {
+            assertEquals(idx + 1L, owner.dispatchedEventIds().get(idx).longValue());
+        }
+    }
+
+    public void testStoppedWhileFailingIsNotDrained() throws Exception {
+        RecordingPartitionDispatcher owner = new RecordingPartitionDispatcher(Integer.MAX_VALUE);
+
+        DispatchPartition dispatchPartition = new DispatchPartition(owner, 0, 100, 5);
+
+        dispatchPartition.start();
+
+        for (long eventId = 1; eventId <= 7; ++eventId) {
+            dispatchPartition.enqueue(this.eventOf(eventId));
+        }
+
+        while (owner.attempts().isEmpty()) {
+            Thread.sleep(10L);
+        }
+
+        dispatchPartition.stop();
+
+        assertFalse(dispatchPartition.isDrained());
+        assertNotNull(dispatchPartition.lastFailure());
+        assertTrue(owner.dispatchedEventIds().isEmpty());
+    }
+
+    public void testRetryDelayGrowsToMaximum() throws Exception {
+        long retryDelay = DispatchPartition.retryDelayAfter(0);
+
+        assertTrue(retryDelay > 0);
+
+        long nextRetryDelay = DispatchPartition.retryDelayAfter(retryDelay);
+
+        assertEquals(retryDelay * 2, nextRetryDelay);
+
+        long maximumRetryDelay = DispatchPartition.retryDelayAfter(1000000L);
+
+        assertEquals(maximumRetryDelay, DispatchPartition.retryDelayAfter(maximumRetryDelay));
+    }
+
+    private DispatchableDomainEvent eventOf(long anEventId) {
+        return new DispatchableDomainEvent(
+                anEventId,
+                new TestableDomainEvent(anEventId, "event" + anEventId),
+                "stream");
+    }
+
+    private static class RecordingPartitionDispatcher implements PartitionDispatcher {
+
+        private List<List<Long>> attempts = new ArrayList<List<Long>>();
+        private List<List<Long>> batches = new ArrayList<List<Long>>();
+        private List<Long> dispatchedEventIds = new ArrayList<Long>();
+        private int failuresRemaining;
+        private int partition = -1;
+
+        RecordingPartitionDispatcher(int aFailures) {
+            super();
+
+            this.failuresRemaining = aFailures;
+        }
+
+        @Override
+        public synchronized void dispatchPartition(int aPartition, List<DispatchableDomainEvent> anEvents) {
+            List<Long> batch = new ArrayList<Long>();
+
+            for (DispatchableDomainEvent event : anEvents) {
+                batch.add(event.eventId());
+            }
+
+            this.attempts.add(batch);
+            this.partition = aPartition;
+
+            if (this.failuresRemaining > 0) {
+                --this.failuresRemaining;
+
+                throw new IllegalStateException("Testing a failed batch.");
+            }
+
+            this.batches.add(batch);
+            this.dispatchedEventIds.addAll(batch);
+        }
+
+        synchronized List<List<Long>> attempts() {
+            return new ArrayList<List<Long>>(this.attempts);
+        }
+
+        synchronized List<List<Long>> batches() {
+            return new ArrayList<List<Long>>(this.batches);
+        }
+
+        synchronized List<Long> dispatchedEventIds() {
+            return new ArrayList<Long>(this.dispatchedEventIds);
+        }
+
+        synchronized int partition() {
+            return this.partition;
+        }
+    }
+}
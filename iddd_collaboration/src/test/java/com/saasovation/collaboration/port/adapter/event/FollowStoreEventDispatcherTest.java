@@ -0,0 +1,362 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.domain.model.DomainEventPublisher;
+import com.saasovation.common.domain.model.DomainEventSubscriber;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventDispatcher;
+import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
+
+public class FollowStoreEventDispatcherTest extends TestCase {
+
+    private static final int STREAMS = 5;
+    private static final int EVENTS_PER_STREAM = 8;
+
+    private CheckpointTableDataSource checkpointTable;
+    private EventStore eventStore;
+
+    public FollowStoreEventDispatcherTest() {
+        super();
+    }
+
+    public void testPartitionedDispatchKeepsStreamOrder() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource(), 3, 4);
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        this.appendEvents();
+
+        dispatcher.close();
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 1);
+
+        for (int partition = 0; partition < 3; ++partition) {
+            assertEquals(
+                    STREAMS * EVENTS_PER_STREAM,
+                    this.checkpointTable.checkpoint(RecordingEventDispatcher.class.getName(), partition));
+        }
+    }
+
+    public void testInlineDispatchPublishesToSubscribers() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource());
+
+        new RecordingEventDispatcher(dispatcher);
+
+        List<TestableDomainEvent> publishedEvents = this.subscribeToPublishedEvents();
+
+        this.appendEvents();
+
+        dispatcher.close();
+
+        assertEquals(STREAMS * EVENTS_PER_STREAM, publishedEvents.size());
+    }
+
+    public void testPipelinedDispatchDoesNotPublishToSubscribers() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource(), 3, 4);
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        List<TestableDomainEvent> publishedEvents = this.subscribeToPublishedEvents();
+
+        this.appendEvents();
+
+        dispatcher.close();
+
+        // closing routes the rest on this thread, but still publishes none
+        assertTrue(publishedEvents.isEmpty());
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 1);
+    }
+
+    public void testResumesFromStoredCheckpoint() throws Exception {
+        this.appendEvents();
+
+        this.checkpointTable.checkpoint(RecordingEventDispatcher.class.getName(), 0, 25L);
+
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource());
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 26);
+
+        assertEquals(
+                STREAMS * EVENTS_PER_STREAM,
+                this.checkpointTable.checkpoint(RecordingEventDispatcher.class.getName(), 0));
+    }
+
+    public void testFailedBatchIsDispatchedAgain() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource(), 2, 100);
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        FailingEventDispatcher failing = new FailingEventDispatcher(dispatcher, 2);
+
+        this.appendEvents();
+
+        dispatcher.close();
+
+        assertTrue(failing.failures() >= 2);
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 1);
+        this.assertDispatchedOnceInStreamOrder(failing, 1);
+
+        for (int partition = 0; partition < 2; ++partition) {
+            assertEquals(
+                    STREAMS * EVENTS_PER_STREAM,
+                    this.checkpointTable.checkpoint(FailingEventDispatcher.class.getName(), partition));
+        }
+    }
+
+    public void testUndrainedDispatcherResumesFromCheckpoint() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource(), 2, 100);
+
+        FailingEventDispatcher failing = new FailingEventDispatcher(dispatcher, Integer.MAX_VALUE);
+
+        this.appendEvents();
+
+        while (failing.failures() == 0) {
+            Thread.sleep(10L);
+        }
+
+        try {
+            dispatcher.close();
+
+            fail("The undrained partition must be reported.");
+
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertTrue(failing.dispatchedEvents().isEmpty());
+
+        for (int partition = 0; partition < 2; ++partition) {
+            assertEquals(0, this.checkpointTable.checkpoint(FailingEventDispatcher.class.getName(), partition));
+        }
+
+        // the restarted dispatcher is given every event again
+
+        dispatcher = new FollowStoreEventDispatcher(this.checkpointTable.dataSource());
+
+        FailingEventDispatcher recovered = new FailingEventDispatcher(dispatcher, 0);
+
+        this.assertDispatchedOnceInStreamOrder(recovered, 1);
+    }
+
+    public void testPausedUntilResumedFromStoredCheckpoint() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource());
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        dispatcher.pause(1000L);
+
+        this.appendEvents();
+
+        assertTrue(recorder.dispatchedEvents().isEmpty());
+
+        // replaced while paused, and read when resumed
+
+        this.checkpointTable.checkpoint(RecordingEventDispatcher.class.getName(), 0, 25L);
+
+        dispatcher.resume();
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 26);
+    }
+
+    public void testPauseWaitsForPartitionsToDrain() throws Exception {
+        FollowStoreEventDispatcher dispatcher =
+                new FollowStoreEventDispatcher(this.checkpointTable.dataSource(), 3, 4);
+
+        RecordingEventDispatcher recorder = new RecordingEventDispatcher(dispatcher);
+
+        this.appendEvents();
+
+        dispatcher.pause(10000L);
+
+        int dispatchedWhenPaused = recorder.dispatchedEvents().size();
+
+        Thread.sleep(200L);
+
+        assertEquals(dispatchedWhenPaused, recorder.dispatchedEvents().size());
+
+        dispatcher.resume();
+
+        dispatcher.close();
+
+        this.assertDispatchedOnceInStreamOrder(recorder, 1);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.checkpointTable = new CheckpointTableDataSource();
+
+        this.eventStore = EventStoreProvider.instance().eventStore();
+
+        this.eventStore.purge();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.eventStore.registerEventNotifiable(null);
+
+        DomainEventPublisher.instance().reset();
+
+        this.eventStore.purge();
+
+        ConnectionProvider.closeConnection();
+
+        super.tearDown();
+    }
+
+    private void appendEvents() {
+
+        // interleave the streams, one event per append
+
+        for (int version = 1; version <= EVENTS_PER_STREAM; ++version) {
+            for (int stream = 0; stream < STREAMS; ++stream) {
+                List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+                events.add(new TestableDomainEvent(version, "stream" + stream));
+
+                this.eventStore.appendWith(new EventStreamId("stream" + stream, version), events);
+            }
+        }
+    }
+
+    private void assertDispatchedOnceInStreamOrder(
+            RecordingEventDispatcher aRecorder,
+            long aFirstEventId) {
+
+        long lastEventId = STREAMS * EVENTS_PER_STREAM;
+
+        List<DispatchableDomainEvent> dispatchedEvents = aRecorder.dispatchedEvents();
+
+        assertEquals(lastEventId - aFirstEventId + 1, dispatchedEvents.size());
+
+        Map<String, Long> lastEventIdsOfStreams = new HashMap<String, Long>();
+
+        for (DispatchableDomainEvent event : dispatchedEvents) {
+            assertTrue(event.eventId() >= aFirstEventId);
+
+            Long lastEventIdOfStream = lastEventIdsOfStreams.get(event.streamName());
+
+            if (lastEventIdOfStream != null) {
+                assertTrue(event.eventId() > lastEventIdOfStream);
+            }
+
+            lastEventIdsOfStreams.put(event.streamName(), event.eventId());
+        }
+    }
+
+    private List<TestableDomainEvent> subscribeToPublishedEvents() {
+        final List<TestableDomainEvent> publishedEvents = new ArrayList<TestableDomainEvent>();
+
+        DomainEventPublisher.instance().reset();
+
+        DomainEventPublisher
+            .instance()
+            .subscribe(new DomainEventSubscriber<TestableDomainEvent>() {
+                public void handleEvent(TestableDomainEvent aDomainEvent) {
+                    publishedEvents.add(aDomainEvent);
+                }
+                public Class<TestableDomainEvent> subscribedToEventType() {
+                    return TestableDomainEvent.class;
+                }
+            });
+
+        return publishedEvents;
+    }
+
+    private static class RecordingEventDispatcher implements EventDispatcher {
+
+        private List<DispatchableDomainEvent> dispatchedEvents;
+
+        RecordingEventDispatcher(EventDispatcher aParentEventDispatcher) {
+            super();
+
+            this.dispatchedEvents = new ArrayList<DispatchableDomainEvent>();
+
+            aParentEventDispatcher.registerEventDispatcher(this);
+        }
+
+        @Override
+        public synchronized void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            this.dispatchedEvents.add(aDispatchableDomainEvent);
+        }
+
+        @Override
+        public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
+            throw new UnsupportedOperationException("Cannot register additional dispatchers.");
+        }
+
+        @Override
+        public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
+            return true;
+        }
+
+        synchronized List<DispatchableDomainEvent> dispatchedEvents() {
+            return new ArrayList<DispatchableDomainEvent>(this.dispatchedEvents);
+        }
+    }
+
+    private static class FailingEventDispatcher extends RecordingEventDispatcher {
+
+        private int failures;
+        private int failuresRemaining;
+
+        FailingEventDispatcher(EventDispatcher aParentEventDispatcher, int aFailures) {
+            super(aParentEventDispatcher);
+
+            this.failuresRemaining = aFailures;
+        }
+
+        @Override
+        public synchronized void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            if (this.failuresRemaining > 0) {
+                --this.failuresRemaining;
+                ++this.failures;
+
+                throw new IllegalStateException("Testing a failed dispatch.");
+            }
+
+            super.dispatch(aDispatchableDomainEvent);
+        }
+
+        synchronized int failures() {
+            return this.failures;
+        }
+    }
+}
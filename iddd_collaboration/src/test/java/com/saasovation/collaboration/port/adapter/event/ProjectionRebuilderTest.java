@@ -0,0 +1,257 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import com.saasovation.collaboration.port.adapter.persistence.EventStoreProvider;
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventDispatcher;
+import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.event.sourcing.EventStreamId;
+import com.saasovation.common.port.adapter.persistence.ConnectionProvider;
+
+public class ProjectionRebuilderTest extends TestCase {
+
+    private static final String SHADOW_SCHEMA = CheckpointTableDataSource.SCHEMA + "_rebuild";
+    private static final int STREAMS = 4;
+    private static final int EVENTS_PER_STREAM = 10;
+
+    private CheckpointTableDataSource checkpointTable;
+    private EventStore eventStore;
+    private FollowStoreEventDispatcher liveEventDispatcher;
+    private RecordingProjection liveProjection;
+    private OtherEventDispatcher otherEventDispatcher;
+
+    public ProjectionRebuilderTest() {
+        super();
+    }
+
+    public void testRebuildReplaysAndSwapsViewsWithCheckpoints() throws Exception {
+        long lastEventId = STREAMS * EVENTS_PER_STREAM;
+
+        // a stale checkpoint of the projection being rebuilt
+
+        this.checkpointTable.checkpoint(RecordingProjection.class.getName(), 0, 10L);
+
+        RecordingProjection projection = new RecordingProjection();
+
+        long lastReplayedEventId = this.rebuilderOf(projection).rebuild();
+
+        assertEquals(lastEventId, lastReplayedEventId);
+
+        // replayed in order within each stream
+
+        List<DispatchableDomainEvent> replayedEvents = projection.dispatchedEvents();
+
+        assertEquals(lastEventId, replayedEvents.size());
+
+        Map<String, Long> lastEventIdsOfStreams = new HashMap<String, Long>();
+
+        for (DispatchableDomainEvent event : replayedEvents) {
+            Long lastEventIdOfStream = lastEventIdsOfStreams.get(event.streamName());
+
+            if (lastEventIdOfStream != null) {
+                assertTrue(event.eventId() > lastEventIdOfStream);
+            }
+
+            lastEventIdsOfStreams.put(event.streamName(), event.eventId());
+        }
+
+        // the views and checkpoints are swapped in one statement
+
+        List<String> statements = this.checkpointTable.executedStatements();
+
+        String rename = null;
+
+        for (String statement : statements) {
+            if (statement.startsWith("rename table")) {
+                assertNull(rename);
+
+                rename = statement;
+            }
+        }
+
+        assertNotNull(rename);
+        assertTrue(rename.contains(SHADOW_SCHEMA + ".tbl_vw_forum to "));
+        assertTrue(rename.contains(SHADOW_SCHEMA + ".tbl_vw_post to "));
+        assertTrue(rename.contains(SHADOW_SCHEMA + ".tbl_dispatcher_last_event to "));
+        assertTrue(statements.contains(
+                "create table " + SHADOW_SCHEMA + ".tbl_vw_forum like "
+                + CheckpointTableDataSource.SCHEMA + ".tbl_vw_forum"));
+        assertEquals("drop database if exists " + SHADOW_SCHEMA, statements.get(statements.size() - 1));
+
+        assertEquals(lastEventId, this.checkpointTable.checkpoint(RecordingProjection.class.getName(), 0));
+        assertEquals(1, this.checkpointTable.partitionsOf(RecordingProjection.class.getName()));
+        assertEquals(lastEventId, this.checkpointTable.checkpoint(OtherEventDispatcher.class.getName(), 0));
+
+        // the live dispatcher was resumed
+
+        this.appendEvent("stream0", EVENTS_PER_STREAM + 1);
+
+        assertEquals(lastEventId + 1, this.checkpointTable.checkpoint(RecordingProjection.class.getName(), 0));
+        assertEquals(lastEventId + 1, this.checkpointTable.checkpoint(OtherEventDispatcher.class.getName(), 0));
+        assertEquals(lastEventId + 1, this.otherEventDispatcher.dispatchedEvents().size());
+    }
+
+    public void testFailedReplayLeavesViewsAndCheckpoints() throws Exception {
+        long lastEventId = STREAMS * EVENTS_PER_STREAM;
+
+        RecordingProjection projection = new FailingProjection();
+
+        try {
+            this.rebuilderOf(projection).rebuild();
+
+            fail("The failed replay must be reported.");
+
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        List<String> statements = this.checkpointTable.executedStatements();
+
+        for (String statement : statements) {
+            assertFalse(statement.startsWith("rename table"));
+        }
+
+        assertEquals("drop database if exists " + SHADOW_SCHEMA, statements.get(statements.size() - 1));
+
+        assertEquals(lastEventId, this.checkpointTable.checkpoint(RecordingProjection.class.getName(), 0));
+
+        // the live dispatcher was never paused
+
+        this.appendEvent("stream0", EVENTS_PER_STREAM + 1);
+
+        assertEquals(lastEventId + 1, this.liveProjection.dispatchedEvents().size());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.checkpointTable = new CheckpointTableDataSource("tbl_vw_forum", "tbl_vw_post");
+
+        this.eventStore = EventStoreProvider.instance().eventStore();
+
+        this.eventStore.purge();
+
+        this.liveEventDispatcher = new FollowStoreEventDispatcher(this.checkpointTable.dataSource());
+
+        this.liveProjection = new RecordingProjection(this.liveEventDispatcher);
+
+        this.otherEventDispatcher = new OtherEventDispatcher(this.liveEventDispatcher);
+
+        for (int version = 1; version <= EVENTS_PER_STREAM; ++version) {
+            for (int stream = 0; stream < STREAMS; ++stream) {
+                this.appendEvent("stream" + stream, version);
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.eventStore.registerEventNotifiable(null);
+
+        this.eventStore.purge();
+
+        ConnectionProvider.closeConnection();
+
+        super.tearDown();
+    }
+
+    private void appendEvent(String aStreamName, int aVersion) {
+        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+        events.add(new TestableDomainEvent(aVersion, aStreamName));
+
+        this.eventStore.appendWith(new EventStreamId(aStreamName, aVersion), events);
+    }
+
+    private ProjectionRebuilder rebuilderOf(RecordingProjection aProjection) {
+        List<EventDispatcher> projections = new ArrayList<EventDispatcher>();
+
+        projections.add(aProjection);
+
+        return new ProjectionRebuilder(
+                this.checkpointTable.dataSource(),
+                this.eventStore,
+                this.liveEventDispatcher,
+                projections,
+                3,
+                8);
+    }
+
+    private static class RecordingProjection implements EventDispatcher {
+
+        private List<DispatchableDomainEvent> dispatchedEvents;
+
+        RecordingProjection() {
+            super();
+
+            this.dispatchedEvents = new ArrayList<DispatchableDomainEvent>();
+        }
+
+        RecordingProjection(EventDispatcher aParentEventDispatcher) {
+            this();
+
+            aParentEventDispatcher.registerEventDispatcher(this);
+        }
+
+        @Override
+        public synchronized void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            this.dispatchedEvents.add(aDispatchableDomainEvent);
+        }
+
+        @Override
+        public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
+            throw new UnsupportedOperationException("Cannot register additional dispatchers.");
+        }
+
+        @Override
+        public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
+            return true;
+        }
+
+        synchronized List<DispatchableDomainEvent> dispatchedEvents() {
+            return new ArrayList<DispatchableDomainEvent>(this.dispatchedEvents);
+        }
+    }
+
+    private static class FailingProjection extends RecordingProjection {
+
+        FailingProjection() {
+            super();
+        }
+
+        @Override
+        public void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            throw new IllegalStateException("Testing a failed replay.");
+        }
+    }
+
+    private static class OtherEventDispatcher extends RecordingProjection {
+
+        OtherEventDispatcher(EventDispatcher aParentEventDispatcher) {
+            super(aParentEventDispatcher);
+        }
+    }
+}
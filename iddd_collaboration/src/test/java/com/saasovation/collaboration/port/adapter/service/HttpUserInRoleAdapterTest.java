@@ -0,0 +1,243 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.collaboration.port.adapter.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import com.saasovation.collaboration.domain.model.collaborator.Author;
+import com.saasovation.collaboration.domain.model.tenant.Tenant;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class HttpUserInRoleAdapterTest extends TestCase {
+
+    private static final String USER_IN_ROLE_REPRESENTATION =
+            "{"
+            + "\"role\":\"Author\",\"username\":\"jdoe\","
+            + "\"tenantId\":\"T-12345\","
+            + "\"firstName\":\"John\",\"lastName\":\"Doe\","
+            + "\"emailAddress\":\"jdoe@saasovation.com\""
+            + "}";
+
+    private String cacheControl;
+    private String eTag;
+    private CountDownLatch release;
+    private AtomicInteger requests;
+    private AtomicInteger revalidations;
+    private HttpServer server;
+    private int status;
+
+    public HttpUserInRoleAdapterTest() {
+        super();
+    }
+
+    public void testResponseCachedForMaxAge() throws Exception {
+        this.cacheControl = "no-transform, max-age=60";
+
+        HttpUserInRoleAdapter adapter = this.adapter(5);
+
+        Author author = this.author(adapter, "jdoe");
+
+        assertEquals("jdoe", author.identity());
+        assertEquals("John Doe", author.name());
+        assertEquals("jdoe", this.author(adapter, "jdoe").identity());
+        assertEquals(1, this.requests.get());
+    }
+
+    public void testExpiredResponseRevalidatedWithETag() throws Exception {
+        this.cacheControl = "max-age=0";
+        this.eTag = "\"1\"";
+
+        HttpUserInRoleAdapter adapter = this.adapter(5);
+
+        assertEquals("jdoe", this.author(adapter, "jdoe").identity());
+        assertEquals("jdoe", this.author(adapter, "jdoe").identity());
+
+        assertEquals(2, this.requests.get());
+        assertEquals(1, this.revalidations.get());
+    }
+
+    public void testUncacheableResponseRequestedAgain() throws Exception {
+        this.status = 204;
+
+        HttpUserInRoleAdapter adapter = this.adapter(5);
+
+        assertNull(this.author(adapter, "jdoe"));
+        assertNull(this.author(adapter, "jdoe"));
+        assertEquals(2, this.requests.get());
+    }
+
+    public void testConcurrentRequestsCoalesced() throws Exception {
+        this.release = new CountDownLatch(1);
+
+        final HttpUserInRoleAdapter adapter = this.adapter(5);
+
+        final List<Author> authors = new ArrayList<Author>();
+
+        List<Thread> threads = new ArrayList<Thread>();
+
+        for (int idx = 0; idx < 5; ++idx) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    Author author = author(adapter, "jdoe");
+
+                    synchronized (authors) {
+                        authors.add(author);
+                    }
+                }
+            };
+
+            threads.add(thread);
+
+            thread.start();
+        }
+
+        Thread.sleep(300L);
+
+        this.release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join(5000L);
+        }
+
+        assertEquals(5, authors.size());
+        assertEquals(1, this.requests.get());
+    }
+
+    public void testBulkheadRejectsWhenFull() throws Exception {
+        this.release = new CountDownLatch(1);
+
+        final HttpUserInRoleAdapter adapter = this.adapter(1);
+
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                author(adapter, "jdoe");
+            }
+        };
+
+        thread.start();
+
+        Thread.sleep(300L);
+
+        try {
+            this.author(adapter, "zoe");
+
+            fail("Should have been rejected by the bulkhead.");
+
+        } catch (IllegalStateException e) {
+            // expected
+        } finally {
+            this.release.countDown();
+        }
+
+        thread.join(5000L);
+
+        assertEquals(1, this.requests.get());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.requests = new AtomicInteger();
+        this.revalidations = new AtomicInteger();
+        this.status = 200;
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.createContext("/idovation/tenants/", new HttpHandler() {
+            public void handle(HttpExchange anExchange) throws IOException {
+                respond(anExchange);
+            }
+        });
+        this.server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.server.stop(0);
+
+        super.tearDown();
+    }
+
+    private HttpUserInRoleAdapter adapter(int aMaximumConcurrentRequests) {
+        return new HttpUserInRoleAdapter(
+                "localhost",
+                this.server.getAddress().getPort(),
+                200,
+                5000,
+                aMaximumConcurrentRequests);
+    }
+
+    private Author author(HttpUserInRoleAdapter anAdapter, String anIdentity) {
+        return anAdapter.toCollaborator(
+                new Tenant("T-12345"),
+                anIdentity,
+                "Author",
+                Author.class);
+    }
+
+    private void respond(HttpExchange anExchange) throws IOException {
+        this.requests.incrementAndGet();
+
+        try {
+            if (this.release != null) {
+                this.release.await(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            // fall through
+        }
+
+        if (this.cacheControl != null) {
+            anExchange.getResponseHeaders().add("Cache-Control", this.cacheControl);
+        }
+
+        if (this.eTag != null) {
+            anExchange.getResponseHeaders().add("ETag", this.eTag);
+
+            if (this.eTag.equals(anExchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                this.revalidations.incrementAndGet();
+                anExchange.sendResponseHeaders(304, -1);
+                anExchange.close();
+                return;
+            }
+        }
+
+        if (this.status == 204) {
+            anExchange.sendResponseHeaders(204, -1);
+        } else {
+            byte[] body = USER_IN_ROLE_REPRESENTATION.getBytes("UTF-8");
+            anExchange.sendResponseHeaders(this.status, body.length);
+            OutputStream output = anExchange.getResponseBody();
+            output.write(body);
+            output.close();
+        }
+
+        anExchange.close();
+    }
+}
@@ -0,0 +1,137 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.domain.model;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * I am an immutable table of the one-argument DomainEvent handler
+ * methods of a given name, such as when(), declared by a type and
+ * its superclasses. I am built once per type and keyed by event
+ * Class, and I invoke through MethodHandles rather than reflection.
+ * Since I never change after construction I may be shared freely
+ * between threads.
+ */
+public final class DomainEventDispatchTable {
+
+    private static final MethodType DISPATCH_TYPE =
+            MethodType.methodType(void.class, Object.class, DomainEvent.class);
+
+    private final Map<Class<?>, MethodHandle> handlers;
+    private final String methodName;
+    private final Class<?> targetType;
+
+    public static DomainEventDispatchTable of(Class<?> aTargetType, String aMethodName) {
+        Map<Class<?>, MethodHandle> handlers = new HashMap<Class<?>, MethodHandle>();
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        // subclass methods are found first and win over any they hide
+
+        for (Class<?> type = aTargetType; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (isHandler(method, aMethodName) && !handlers.containsKey(method.getParameterTypes()[0])) {
+                    handlers.put(method.getParameterTypes()[0], handleFor(lookup, method));
+                }
+            }
+        }
+
+        return new DomainEventDispatchTable(aTargetType, aMethodName, handlers);
+    }
+
+    public boolean dispatch(Object aTarget, DomainEvent aDomainEvent) throws Throwable {
+        MethodHandle handler = this.handlers.get(aDomainEvent.getClass());
+
+        if (handler == null) {
+            return false;
+        }
+
+        handler.invokeExact(aTarget, aDomainEvent);
+
+        return true;
+    }
+
+    public String methodName() {
+        return this.methodName;
+    }
+
+    public Class<?> targetType() {
+        return this.targetType;
+    }
+
+    public boolean understands(Class<?> anEventType) {
+        return this.handlers.containsKey(anEventType);
+    }
+
+    public Set<Class<?>> understoodEventTypes() {
+        return this.handlers.keySet();
+    }
+
+    @Override
+    public String toString() {
+        return "DomainEventDispatchTable [targetType=" + targetType.getName()
+                + ", methodName=" + methodName + ", understoodEventTypes=" + handlers.size() + "]";
+    }
+
+    private static MethodHandle handleFor(MethodHandles.Lookup aLookup, Method aMethod) {
+        try {
+            // handlers are normally protected, and a Lookup cannot
+            // see into the declaring class, so unreflect it instead
+
+            aMethod.setAccessible(true);
+
+            return aLookup.unreflect(aMethod).asType(DISPATCH_TYPE);
+
+        } catch (Exception e) {
+            throw new IllegalArgumentException(
+                    "I do not understand "
+                            + aMethod.getName()
+                            + "("
+                            + aMethod.getParameterTypes()[0].getSimpleName()
+                            + ") because: "
+                            + e.getClass().getSimpleName() + ">>>" + e.getMessage(),
+                    e);
+        }
+    }
+
+    private static boolean isHandler(Method aMethod, String aMethodName) {
+        return aMethod.getName().equals(aMethodName)
+                && aMethod.getParameterTypes().length == 1
+                && DomainEvent.class.isAssignableFrom(aMethod.getParameterTypes()[0])
+                && !Modifier.isStatic(aMethod.getModifiers())
+                && !aMethod.isBridge()
+                && !aMethod.isSynthetic();
+    }
+
+    private DomainEventDispatchTable(
+            Class<?> aTargetType,
+            String aMethodName,
+            Map<Class<?>, MethodHandle> aHandlers) {
+
+        super();
+
+        this.handlers = Collections.unmodifiableMap(aHandlers);
+        this.methodName = aMethodName;
+        this.targetType = aTargetType;
+    }
+}
@@ -14,12 +14,8 @@
 
 package com.saasovation.common.domain.model;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.saasovation.common.AssertionConcern;
 
@@ -27,11 +23,17 @@ public abstract class EventSourcedRootEntity extends AssertionConcern {
 
     private static final String MUTATOR_METHOD_NAME = "when";
 
-    private static Map<String, Method> mutatorMethods =
-            new HashMap<String, Method>();
+    private static final ClassValue<DomainEventDispatchTable> mutatorTables =
+            new ClassValue<DomainEventDispatchTable>() {
+                @Override
+                protected DomainEventDispatchTable computeValue(Class<?> aRootType) {
+                    return DomainEventDispatchTable.of(aRootType, MUTATOR_METHOD_NAME);
+                }
+            };
 
-    private List<DomainEvent> mutatingEvents;
-    private int unmutatedVersion;
+    // transient: the event stream, not a snapshot, owns these
+    private transient List<DomainEvent> mutatingEvents;
+    private transient int unmutatedVersion;
 
     public int mutatedVersion() {
         return this.unmutatedVersion() + 1;
@@ -45,6 +47,26 @@ public abstract class EventSourcedRootEntity extends AssertionConcern {
         return this.unmutatedVersion;
     }
 
+    public void mutateFromSnapshot(
+            List<DomainEvent> anEventStreamTail,
+            int aStreamVersion) {
+
+        if (this.mutatingEvents() == null) {
+            // restored without running a constructor
+            this.setMutatingEvents(new ArrayList<DomainEvent>(2));
+        }
+
+        if (!this.mutatingEvents().isEmpty()) {
+            throw new IllegalStateException("Cannot mutate from snapshot with pending events.");
+        }
+
+        for (DomainEvent event : anEventStreamTail) {
+            this.mutateWhen(event);
+        }
+
+        this.setUnmutatedVersion(aStreamVersion);
+    }
+
     protected EventSourcedRootEntity(
             List<DomainEvent> anEventStream,
             int aStreamVersion) {
@@ -73,109 +95,36 @@ public abstract class EventSourcedRootEntity extends AssertionConcern {
 
     protected void mutateWhen(DomainEvent aDomainEvent) {
 
-        Class<? extends EventSourcedRootEntity> rootType = this.getClass();
-
-        Class<? extends DomainEvent> eventType = aDomainEvent.getClass();
-
-        String key = rootType.getName() + ":" + eventType.getName();
-
-        Method mutatorMethod = mutatorMethods.get(key);
+        DomainEventDispatchTable mutators = mutatorTables.get(this.getClass());
 
-        if (mutatorMethod == null) {
-            mutatorMethod = this.cacheMutatorMethodFor(key, rootType, eventType);
-        }
+        boolean mutated = false;
 
         try {
-            mutatorMethod.invoke(this, aDomainEvent);
-
-        } catch (InvocationTargetException e) {
-            if (e.getCause() != null) {
-                throw new RuntimeException(
-                        "Method "
-                                + MUTATOR_METHOD_NAME
-                                + "("
-                                + eventType.getSimpleName()
-                                + ") failed. See cause: "
-                                + e.getMessage(),
-                        e.getCause());
-            }
+            mutated = mutators.dispatch(this, aDomainEvent);
 
+        } catch (Throwable t) {
             throw new RuntimeException(
                     "Method "
                             + MUTATOR_METHOD_NAME
                             + "("
-                            + eventType.getSimpleName()
+                            + aDomainEvent.getClass().getSimpleName()
                             + ") failed. See cause: "
-                            + e.getMessage(),
-                    e);
+                            + t.getMessage(),
+                    t);
+        }
 
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(
-                    "Method "
+        if (!mutated) {
+            throw new IllegalArgumentException(
+                    "I do not understand "
                             + MUTATOR_METHOD_NAME
                             + "("
-                            + eventType.getSimpleName()
-                            + ") failed because of illegal access. See cause: "
-                            + e.getMessage(),
-                    e);
+                            + aDomainEvent.getClass().getSimpleName()
+                            + ") because: "
+                            + this.getClass().getSimpleName()
+                            + " declares no such method.");
         }
     }
 
-    private Method cacheMutatorMethodFor(
-            String aKey,
-            Class<? extends EventSourcedRootEntity> aRootType,
-            Class<? extends DomainEvent> anEventType) {
-
-        synchronized (mutatorMethods) {
-            try {
-                Method method = this.hiddenOrPublicMethod(aRootType, anEventType);
-
-                method.setAccessible(true);
-
-                mutatorMethods.put(aKey, method);
-
-                return method;
-
-            } catch (Exception e) {
-                throw new IllegalArgumentException(
-                        "I do not understand "
-                                + MUTATOR_METHOD_NAME
-                                + "("
-                                + anEventType.getSimpleName()
-                                + ") because: "
-                                + e.getClass().getSimpleName() + ">>>" + e.getMessage(),
-                        e);
-            }
-        }
-    }
-
-    private Method hiddenOrPublicMethod(
-            Class<? extends EventSourcedRootEntity> aRootType,
-            Class<? extends DomainEvent> anEventType)
-    throws Exception {
-
-        Method method = null;
-
-        try {
-
-            // assume protected or private...
-
-            method = aRootType.getDeclaredMethod(
-                    MUTATOR_METHOD_NAME,
-                    anEventType);
-
-        } catch (Exception e) {
-
-            // then public...
-
-            method = aRootType.getMethod(
-                    MUTATOR_METHOD_NAME,
-                    anEventType);
-        }
-
-        return method;
-    }
-
     private void setMutatingEvents(List<DomainEvent> aMutatingEventsList) {
         this.mutatingEvents = aMutatingEventsList;
     }
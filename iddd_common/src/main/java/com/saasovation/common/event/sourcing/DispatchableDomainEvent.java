@@ -20,12 +20,18 @@ public class DispatchableDomainEvent {
 
     private DomainEvent domainEvent;
     private long eventId;
+    private String streamName;
 
-    public DispatchableDomainEvent(long anEventId, DomainEvent aDomainEvent) {
+    public DispatchableDomainEvent(long anEventId, DomainEvent aDomainEvent, String aStreamName) {
         super();
 
         this.domainEvent = aDomainEvent;
         this.eventId = anEventId;
+        this.streamName = aStreamName;
+    }
+
+    public DispatchableDomainEvent(long anEventId, DomainEvent aDomainEvent) {
+        this(anEventId, aDomainEvent, null);
     }
 
     public DomainEvent domainEvent() {
@@ -35,4 +41,8 @@ public class DispatchableDomainEvent {
     public long eventId() {
         return this.eventId;
     }
+
+    public String streamName() {
+        return this.streamName;
+    }
 }
@@ -24,6 +24,8 @@ public interface EventStore {
 
     public void close();
 
+    public EventCursor eventCursorSince(long aLastReceivedEvent, int aBatchSizeHint);
+
     public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent);
 
     public EventStream eventStreamSince(EventStreamId anIdentity);
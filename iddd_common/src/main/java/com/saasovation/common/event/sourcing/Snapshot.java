@@ -0,0 +1,91 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.event.sourcing;
+
+public final class Snapshot {
+
+    private String snapshotBody;
+    private String snapshotType;
+    private String streamName;
+    private int streamVersion;
+
+    public Snapshot(
+            String aStreamName,
+            int aStreamVersion,
+            String aSnapshotType,
+            String aSnapshotBody) {
+
+        super();
+
+        this.setSnapshotBody(aSnapshotBody);
+        this.setSnapshotType(aSnapshotType);
+        this.setStreamName(aStreamName);
+        this.setStreamVersion(aStreamVersion);
+    }
+
+    public String snapshotBody() {
+        return this.snapshotBody;
+    }
+
+    public String snapshotType() {
+        return this.snapshotType;
+    }
+
+    public String streamName() {
+        return this.streamName;
+    }
+
+    public int streamVersion() {
+        return this.streamVersion;
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot [streamName=" + streamName + ", streamVersion=" + streamVersion
+                + ", snapshotType=" + snapshotType + "]";
+    }
+
+    private void setSnapshotBody(String aSnapshotBody) {
+        if (aSnapshotBody == null || aSnapshotBody.isEmpty()) {
+            throw new IllegalArgumentException("The snapshot body is required.");
+        }
+
+        this.snapshotBody = aSnapshotBody;
+    }
+
+    private void setSnapshotType(String aSnapshotType) {
+        if (aSnapshotType == null || aSnapshotType.isEmpty()) {
+            throw new IllegalArgumentException("The snapshot type is required.");
+        }
+
+        this.snapshotType = aSnapshotType;
+    }
+
+    private void setStreamName(String aStreamName) {
+        if (aStreamName == null || aStreamName.isEmpty()) {
+            throw new IllegalArgumentException("The stream name is required.");
+        }
+
+        this.streamName = aStreamName;
+    }
+
+    private void setStreamVersion(int aStreamVersion) {
+        if (aStreamVersion <= 0) {
+            throw new IllegalArgumentException("The stream version must be greater than zero.");
+        }
+
+        this.streamVersion = aStreamVersion;
+    }
+}
@@ -0,0 +1,70 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.event.sourcing;
+
+/**
+ * I am a policy that decides when an aggregate's state is
+ * snapshot. Each repository holds one of me for the type of
+ * aggregate it stores, so busy types may snapshot more often.
+ */
+public final class SnapshotPolicy {
+
+    private static final SnapshotPolicy NEVER = new SnapshotPolicy(0);
+
+    private int eventsBetweenSnapshots;
+
+    public static SnapshotPolicy everyEvents(int anEventsBetweenSnapshots) {
+        if (anEventsBetweenSnapshots <= 0) {
+            throw new IllegalArgumentException("The events between snapshots must be greater than zero.");
+        }
+
+        return new SnapshotPolicy(anEventsBetweenSnapshots);
+    }
+
+    public static SnapshotPolicy never() {
+        return NEVER;
+    }
+
+    public int eventsBetweenSnapshots() {
+        return this.eventsBetweenSnapshots;
+    }
+
+    public boolean isSnapshotting() {
+        return this.eventsBetweenSnapshots() > 0;
+    }
+
+    public boolean shouldSnapshot(int aPriorStreamVersion, int aCurrentStreamVersion) {
+        if (!this.isSnapshotting()) {
+            return false;
+        }
+
+        // one append may cross a threshold without landing on it
+
+        int interval = this.eventsBetweenSnapshots();
+
+        return (aCurrentStreamVersion / interval) > (aPriorStreamVersion / interval);
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotPolicy [eventsBetweenSnapshots=" + eventsBetweenSnapshots + "]";
+    }
+
+    private SnapshotPolicy(int anEventsBetweenSnapshots) {
+        super();
+
+        this.eventsBetweenSnapshots = anEventsBetweenSnapshots;
+    }
+}
@@ -0,0 +1,163 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.event.sourcing;
+
+import java.util.List;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.domain.model.EventSourcedRootEntity;
+import com.saasovation.common.serializer.ObjectSerializer;
+
+/**
+ * I am a helper for event sourced repositories. I restore an
+ * aggregate from its latest snapshot plus the tail of its event
+ * stream, and I snapshot an aggregate after it is saved when my
+ * SnapshotPolicy says it is time.
+ */
+public class Snapshotter {
+
+    private EventStore eventStore;
+    private ObjectSerializer serializer;
+    private SnapshotPolicy snapshotPolicy;
+    private SnapshotStore snapshotStore;
+
+    public Snapshotter(
+            EventStore anEventStore,
+            SnapshotStore aSnapshotStore,
+            SnapshotPolicy aSnapshotPolicy) {
+
+        super();
+
+        this.setEventStore(anEventStore);
+        this.setSerializer(ObjectSerializer.instance());
+        this.setSnapshotPolicy(aSnapshotPolicy);
+        this.setSnapshotStore(aSnapshotStore);
+    }
+
+    public <T extends EventSourcedRootEntity> T restoredAggregateOf(
+            Class<T> anAggregateType,
+            EventStreamId anIdentity) {
+
+        if (!this.isSnapshotting()) {
+            return null;
+        }
+
+        Snapshot snapshot = this.snapshotStore().snapshotOf(anIdentity.streamName());
+
+        if (snapshot == null || !snapshot.snapshotType().equals(anAggregateType.getName())) {
+            return null;
+        }
+
+        T aggregate = null;
+
+        try {
+            aggregate = this.serializer().deserialize(snapshot.snapshotBody(), anAggregateType);
+        } catch (Exception e) {
+            // the aggregate's shape changed since the snapshot
+            // was taken; a full replay is always correct
+            return null;
+        }
+
+        // read from the snapshot's own version so that the tail is
+        // never empty, which the event store treats as no stream
+
+        EventStream eventStream =
+                this.eventStore()
+                    .eventStreamSince(
+                            anIdentity.withStreamVersion(snapshot.streamVersion()));
+
+        List<DomainEvent> events = eventStream.events();
+
+        aggregate.mutateFromSnapshot(
+                events.subList(1, events.size()),
+                eventStream.version());
+
+        return aggregate;
+    }
+
+    public void snapshotIfNecessary(
+            EventStreamId anIdentity,
+            EventSourcedRootEntity anAggregate) {
+
+        if (!this.isSnapshotting()) {
+            return;
+        }
+
+        int priorVersion = anAggregate.unmutatedVersion();
+
+        int currentVersion = priorVersion + anAggregate.mutatingEvents().size();
+
+        if (this.snapshotPolicy().shouldSnapshot(priorVersion, currentVersion)) {
+            try {
+                Snapshot snapshot =
+                        new Snapshot(
+                                anIdentity.streamName(),
+                                currentVersion,
+                                anAggregate.getClass().getName(),
+                                this.serializer().serialize(anAggregate));
+
+                this.snapshotStore().save(snapshot);
+
+            } catch (Exception e) {
+                // the events are already appended, so a missing
+                // snapshot only costs a longer replay next time
+            }
+        }
+    }
+
+    public SnapshotPolicy snapshotPolicy() {
+        return this.snapshotPolicy;
+    }
+
+    private EventStore eventStore() {
+        return this.eventStore;
+    }
+
+    private void setEventStore(EventStore anEventStore) {
+        if (anEventStore == null) {
+            throw new IllegalArgumentException("The event store is required.");
+        }
+
+        this.eventStore = anEventStore;
+    }
+
+    private boolean isSnapshotting() {
+        return this.snapshotStore() != null && this.snapshotPolicy().isSnapshotting();
+    }
+
+    private ObjectSerializer serializer() {
+        return this.serializer;
+    }
+
+    private void setSerializer(ObjectSerializer aSerializer) {
+        this.serializer = aSerializer;
+    }
+
+    private void setSnapshotPolicy(SnapshotPolicy aSnapshotPolicy) {
+        if (aSnapshotPolicy == null) {
+            throw new IllegalArgumentException("The snapshot policy is required.");
+        }
+
+        this.snapshotPolicy = aSnapshotPolicy;
+    }
+
+    private SnapshotStore snapshotStore() {
+        return this.snapshotStore;
+    }
+
+    private void setSnapshotStore(SnapshotStore aSnapshotStore) {
+        this.snapshotStore = aSnapshotStore;
+    }
+}
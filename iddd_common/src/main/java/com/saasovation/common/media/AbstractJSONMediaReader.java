@@ -26,6 +26,7 @@ import com.saasovation.common.serializer.AbstractSerializer;
 
 public abstract class AbstractJSONMediaReader {
 
+    private String jsonRepresentation;
     private JsonObject representation;
     private JSONReader reader;
 
@@ -41,6 +42,18 @@ public abstract class AbstractJSONMediaReader {
         this.setRepresentation(aRepresentationObject);
     }
 
+    protected AbstractJSONMediaReader(String aJSONRepresentation, boolean isDeferred) {
+        super();
+
+        // a deferred representation is parsed only if its object is needed
+
+        if (isDeferred) {
+            this.jsonRepresentation = aJSONRepresentation;
+        } else {
+            this.initialize(aJSONRepresentation);
+        }
+    }
+
     public JsonArray array(String... aKeys) {
         JsonArray array = null;
 
@@ -157,7 +170,13 @@ public abstract class AbstractJSONMediaReader {
     }
 
     protected JsonObject representation() {
-        return representation;
+        if (this.representation == null && this.jsonRepresentation != null) {
+            this.initialize(this.jsonRepresentation);
+
+            this.jsonRepresentation = null;
+        }
+
+        return this.representation;
     }
 
     protected String stringValue(JsonObject aStartingJsonObject, String... aKeys) {
@@ -0,0 +1,135 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.media;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * I am a fully serialized representation along with the strong
+ * entity tag that identifies my exact content. I may also carry
+ * the binary encoding of my content, made from it alone, so that
+ * it need be encoded only once. My weight counts both forms.
+ */
+public final class CachedRepresentation {
+
+    private byte[] binaryRepresentation;
+    private String eTag;
+    private String representation;
+
+    public CachedRepresentation(String aRepresentation) {
+        super();
+
+        if (aRepresentation == null) {
+            throw new IllegalArgumentException("The representation is required.");
+        }
+
+        this.setETag(eTagOf(aRepresentation));
+        this.setRepresentation(aRepresentation);
+    }
+
+    public byte[] binaryRepresentation() {
+        return this.binaryRepresentation;
+    }
+
+    public String eTag() {
+        return this.eTag;
+    }
+
+    public String representation() {
+        return this.representation;
+    }
+
+    public int weight() {
+        int weight = this.representation().length();
+
+        if (this.binaryRepresentation() != null) {
+            weight += this.binaryRepresentation().length;
+        }
+
+        return weight;
+    }
+
+    public CachedRepresentation withBinaryRepresentation(byte[] aBinaryRepresentation) {
+        if (aBinaryRepresentation == null) {
+            throw new IllegalArgumentException("The binary representation is required.");
+        }
+
+        return new CachedRepresentation(this.eTag(), this.representation(), aBinaryRepresentation);
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        boolean equalObjects = false;
+
+        if (anObject != null && this.getClass() == anObject.getClass()) {
+            CachedRepresentation typedObject = (CachedRepresentation) anObject;
+            equalObjects = this.eTag().equals(typedObject.eTag())
+                    && this.representation().equals(typedObject.representation());
+        }
+
+        return equalObjects;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCodeValue =
+            + (52771 * 181)
+            + this.eTag().hashCode();
+
+        return hashCodeValue;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedRepresentation [eTag=" + eTag + ", weight=" + this.weight() + "]";
+    }
+
+    private CachedRepresentation(String anETag, String aRepresentation, byte[] aBinaryRepresentation) {
+        super();
+
+        this.setBinaryRepresentation(aBinaryRepresentation);
+        this.setETag(anETag);
+        this.setRepresentation(aRepresentation);
+    }
+
+    private static String eTagOf(String aRepresentation) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+            messageDigest.update(aRepresentation.getBytes(StandardCharsets.UTF_8));
+            BigInteger digestValue = new BigInteger(1, messageDigest.digest());
+
+            return digestValue.toString(16);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot digest representation: " + e.getMessage(), e);
+        }
+    }
+
+    private void setBinaryRepresentation(byte[] aBinaryRepresentation) {
+        this.binaryRepresentation = aBinaryRepresentation;
+    }
+
+    private void setETag(String anETag) {
+        this.eTag = anETag;
+    }
+
+    private void setRepresentation(String aRepresentation) {
+        this.representation = aRepresentation;
+    }
+}
@@ -0,0 +1,861 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.media;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * I am the simple values of a JSON object, read in a single pass
+ * of a streaming JsonReader and keyed by their path of names, so
+ * that no tree of JsonElement is built for them. Arrays are kept
+ * whole, as their JSON text, rather than read. I navigate paths as
+ * AbstractJSONMediaReader does: given as keys, as a /slash/path,
+ * or as a dot.path, with a name also found by its "@" form, and
+ * with a null answered for any null value along the path. My
+ * values may also be written in a compact binary form, which is
+ * read back given my schema, the kind and path of each value.
+ * In that form whole numbers are written as variable-length
+ * longs, and other values, arrays among them, as UTF-8 prefixed
+ * by their length.
+ * When read on demand I collect only the paths asked for, all
+ * the names along a path in one pass over the object, until my
+ * schema is needed. The values of the objects of one array may
+ * share the paths asked for, so that each object that follows is
+ * read in a single pass for the paths asked of those before it.
+ */
+public final class JSONPathValues {
+
+    private static final Object OBJECT = new Object();
+
+    private static final char ARRAY_KIND = 'A';
+    private static final char NUMBER_KIND = 'N';
+    private static final char OBJECT_KIND = 'O';
+    private static final char VALUE_KIND = 'V';
+
+    private Set<String> collectedPaths;
+    private Set<String> requestedPaths;
+    private String source;
+    private String sourceArrayName;
+    private int sourceIndex;
+    private Map<String, Object> values;
+
+    /**
+     * Answers a new JSONPathValues of the JSON object aJSONObject.
+     * @param aJSONObject the String JSON object
+     * @return JSONPathValues
+     */
+    public static JSONPathValues readFrom(String aJSONObject) {
+        JsonReader reader = new JsonReader(new StringReader(aJSONObject));
+
+        reader.setLenient(true);
+
+        try {
+            return JSONPathValues.readFrom(reader);
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        }
+    }
+
+    /**
+     * Answers a new JSONPathValues of the JSON object aJSONObject
+     * without the value named aSkippedName, which is neither read
+     * nor kept, such as the notifications array of a log.
+     * @param aJSONObject the String JSON object
+     * @param aSkippedName the String name of a value of the object
+     * @return JSONPathValues
+     */
+    public static JSONPathValues readFrom(String aJSONObject, String aSkippedName) {
+        JsonReader reader = new JsonReader(new StringReader(aJSONObject));
+
+        reader.setLenient(true);
+
+        try {
+            Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+            JSONPathValues.readObject(reader, null, aSkippedName, values);
+
+            return new JSONPathValues(values);
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        }
+    }
+
+    /**
+     * Answers a new JSONPathValues of the next JSON object of aReader,
+     * which is left positioned after that object.
+     * @param aReader the JsonReader positioned at an object
+     * @return JSONPathValues
+     * @throws IOException when the object cannot be read
+     */
+    public static JSONPathValues readFrom(JsonReader aReader) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+        JSONPathValues.readObject(aReader, null, null, values);
+
+        return new JSONPathValues(values);
+    }
+
+    /**
+     * Answers a new JSONPathValues of the JSON object aJSONObject,
+     * whose values are collected only as their paths are asked for.
+     * @param aJSONObject the String JSON object
+     * @return JSONPathValues
+     */
+    public static JSONPathValues readOnDemandFrom(String aJSONObject) {
+        JSONPathValues values = new JSONPathValues(new LinkedHashMap<String, Object>());
+
+        values.collectedPaths = new HashSet<String>();
+        values.requestedPaths = new HashSet<String>();
+        values.source = aJSONObject;
+
+        return values;
+    }
+
+    /**
+     * Answers a new JSONPathValues of the next JSON object of aReader,
+     * which is left positioned after that object. The object is the one
+     * at anIndex of the array named anArrayName of aJSONObject, and is
+     * read in a single pass for all of aRequestedPaths, which are shared
+     * with the values of the other objects of the array. The paths asked
+     * of me are added to them, and any path not yet read is collected as
+     * it is asked for. The whole object is read while none are shared.
+     * @param aReader the JsonReader positioned at the object
+     * @param aJSONObject the String JSON object holding the array
+     * @param anArrayName the String name of the array
+     * @param anIndex the int index of the object in the array
+     * @param aRequestedPaths the Set<String> of paths asked for
+     * @return JSONPathValues
+     * @throws IOException when the object cannot be read
+     */
+    public static JSONPathValues readOnDemandFrom(
+            JsonReader aReader,
+            String aJSONObject,
+            String anArrayName,
+            int anIndex,
+            Set<String> aRequestedPaths)
+    throws IOException {
+
+        JSONPathValues values = new JSONPathValues(new LinkedHashMap<String, Object>());
+
+        values.requestedPaths = aRequestedPaths;
+
+        if (aRequestedPaths.isEmpty()) {
+            JSONPathValues.readObject(aReader, null, null, values.values);
+        } else {
+            values.collectedPaths = new HashSet<String>(aRequestedPaths);
+            values.source = aJSONObject;
+            values.sourceArrayName = anArrayName;
+            values.sourceIndex = anIndex;
+
+            JSONPathValues.readRequested(aReader, null, null, values.collectedPaths, values.values);
+        }
+
+        return values;
+    }
+
+    /**
+     * Answers the schema read from anInput, as written by writeSchemaTo().
+     * @param anInput the DataInput to read from
+     * @return String[]
+     * @throws IOException when the schema cannot be read
+     */
+    public static String[] readSchemaFrom(DataInput anInput) throws IOException {
+        String[] schema = new String[(int) JSONPathValues.readVarLong(anInput)];
+
+        String previousPath = "";
+
+        for (int idx = 0; idx < schema.length; ++idx) {
+            char kind = (char) anInput.readByte();
+
+            int sharedLength = (int) JSONPathValues.readVarLong(anInput);
+
+            String path = previousPath.substring(0, sharedLength) + JSONPathValues.readString(anInput);
+
+            schema[idx] = kind + path;
+
+            previousPath = path;
+        }
+
+        return schema;
+    }
+
+    /**
+     * Answers a new JSONPathValues of the values of aSchema read from
+     * anInput, as written by writeTo().
+     * @param aSchema the String[] schema of the values, as answered by schema()
+     * @param anInput the DataInput to read from
+     * @return JSONPathValues
+     * @throws IOException when the values cannot be read
+     */
+    public static JSONPathValues readFrom(String[] aSchema, DataInput anInput) throws IOException {
+        Map<String, Object> values = new LinkedHashMap<String, Object>(aSchema.length * 2);
+
+        for (String entry : aSchema) {
+            String path = entry.substring(1);
+
+            switch (entry.charAt(0)) {
+            case ARRAY_KIND:
+                values.put(path, new JSONArrayText(JSONPathValues.readString(anInput)));
+                break;
+            case NUMBER_KIND:
+                values.put(path, JSONPathValues.zigZagDecoded(JSONPathValues.readVarLong(anInput)));
+                break;
+            case OBJECT_KIND:
+                values.put(path, OBJECT);
+                break;
+            case VALUE_KIND:
+                values.put(path, JSONPathValues.readString(anInput));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kind of schema entry: " + entry);
+            }
+        }
+
+        return new JSONPathValues(values);
+    }
+
+    /**
+     * Answers the JSON text of the array named by aKeys, or null if
+     * the array or any object along its path is null.
+     * @param aKeys the String... path of names
+     * @return String
+     */
+    public String arrayValue(String... aKeys) {
+        Object value = this.valueAt(null, aKeys);
+
+        if (value != null && !(value instanceof JSONArrayText)) {
+            throw new IllegalArgumentException("Last name must reference an array.");
+        }
+
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Answers whether or not aKeys name an object.
+     * @param aKeys the String... path of names
+     * @return boolean
+     */
+    public boolean isObject(String... aKeys) {
+        String[] keys = this.keysOf(aKeys);
+
+        this.collect(this.pathsOf(null, keys));
+
+        String path = null;
+
+        for (String key : keys) {
+            path = this.pathOf(path, key);
+
+            if (this.values.get(path) != OBJECT) {
+                return false;
+            }
+        }
+
+        return path != null;
+    }
+
+    /**
+     * Answers my schema, the kind and path of each of my values in
+     * the order read. Values of the same shape have equal schemas.
+     * @return String[]
+     */
+    public String[] schema() {
+        this.collectAll();
+
+        String[] schema = new String[this.values.size()];
+
+        int index = 0;
+
+        for (Map.Entry<String, Object> entry : this.values.entrySet()) {
+            Object value = entry.getValue();
+
+            char kind =
+                    value instanceof JSONArrayText ? ARRAY_KIND :
+                        value == OBJECT ? OBJECT_KIND :
+                            value instanceof Long ? NUMBER_KIND : VALUE_KIND;
+
+            schema[index++] = kind + entry.getKey();
+        }
+
+        return schema;
+    }
+
+    /**
+     * Answers the String value named by aKeys, or null if
+     * the value or any object along its path is null.
+     * @param aKeys the String... path of names
+     * @return String
+     */
+    public String stringValue(String... aKeys) {
+        return this.stringValueAt(null, aKeys);
+    }
+
+    /**
+     * Answers the String value named by aKeys within the object named
+     * aRootName, or null if the value or any object along its path is null.
+     * @param aRootName the String name of the object the path starts in, or null
+     * @param aKeys the String... path of names
+     * @return String
+     */
+    public String stringValueAt(String aRootName, String... aKeys) {
+        Object value = this.valueAt(aRootName, aKeys);
+
+        if (value == OBJECT || value instanceof JSONArrayText) {
+            throw new IllegalArgumentException("Last name must reference a simple value.");
+        }
+
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Writes my simple values to anOutput in the order of my schema,
+     * each as UTF-8 prefixed by its length, without names.
+     * @param anOutput the DataOutput to write to
+     * @throws IOException when the values cannot be written
+     */
+    public void writeTo(DataOutput anOutput) throws IOException {
+        this.collectAll();
+
+        for (Object value : this.values.values()) {
+            if (value instanceof Long) {
+                JSONPathValues.writeVarLong(anOutput, JSONPathValues.zigZagEncoded((Long) value));
+            } else if (value != OBJECT) {
+                JSONPathValues.writeString(anOutput, value == null ? null : value.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes my schema to anOutput, each path given only by what
+     * follows the part it shares with the path before it.
+     * @param anOutput the DataOutput to write to
+     * @throws IOException when the schema cannot be written
+     */
+    public void writeSchemaTo(DataOutput anOutput) throws IOException {
+        String[] schema = this.schema();
+
+        JSONPathValues.writeVarLong(anOutput, schema.length);
+
+        String previousPath = "";
+
+        for (String entry : schema) {
+            String path = entry.substring(1);
+
+            int sharedLength = 0;
+
+            int maximumSharedLength = Math.min(path.length(), previousPath.length());
+
+            while (sharedLength < maximumSharedLength &&
+                    path.charAt(sharedLength) == previousPath.charAt(sharedLength)) {
+                ++sharedLength;
+            }
+
+            anOutput.writeByte(entry.charAt(0));
+
+            JSONPathValues.writeVarLong(anOutput, sharedLength);
+            JSONPathValues.writeString(anOutput, path.substring(sharedLength));
+
+            previousPath = path;
+        }
+    }
+
+    private static void copyObject(JsonReader aReader, JsonWriter aWriter) throws IOException {
+        aReader.beginObject();
+        aWriter.beginObject();
+
+        while (aReader.hasNext()) {
+            aWriter.name(aReader.nextName());
+
+            JSONPathValues.copyValue(aReader, aWriter);
+        }
+
+        aReader.endObject();
+        aWriter.endObject();
+    }
+
+    private static void copyValue(JsonReader aReader, JsonWriter aWriter) throws IOException {
+        JsonToken token = aReader.peek();
+
+        if (token == JsonToken.BEGIN_OBJECT) {
+            JSONPathValues.copyObject(aReader, aWriter);
+
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            aReader.beginArray();
+            aWriter.beginArray();
+
+            while (aReader.hasNext()) {
+                JSONPathValues.copyValue(aReader, aWriter);
+            }
+
+            aReader.endArray();
+            aWriter.endArray();
+
+        } else if (token == JsonToken.NULL) {
+            aReader.nextNull();
+            aWriter.nullValue();
+
+        } else if (token == JsonToken.BOOLEAN) {
+            aWriter.value(aReader.nextBoolean());
+        } else if (token == JsonToken.NUMBER) {
+            aWriter.value(new JSONNumber(aReader.nextString()));
+        } else {
+            aWriter.value(aReader.nextString());
+        }
+    }
+
+    private static boolean findName(JsonReader aReader, String aName) throws IOException {
+        while (aReader.hasNext()) {
+            if (aReader.nextName().equals(aName)) {
+                return true;
+            }
+
+            aReader.skipValue();
+        }
+
+        return false;
+    }
+
+    private static String joined(String aPath, String aKey) {
+        return aPath == null ? aKey : aPath + '.' + aKey;
+    }
+
+    private static void readObject(
+            JsonReader aReader,
+            String aPath,
+            String aSkippedName,
+            Map<String, Object> aValues)
+    throws IOException {
+
+        aReader.beginObject();
+
+        while (aReader.hasNext()) {
+            String name = aReader.nextName();
+
+            if (name.equals(aSkippedName)) {
+                aReader.skipValue();
+
+                continue;
+            }
+
+            String path = aPath == null ? name : aPath + '.' + name;
+
+            JSONPathValues.readValue(aReader, path, aValues, true);
+        }
+
+        aReader.endObject();
+    }
+
+    private static void readRequested(
+            JsonReader aReader,
+            String aPath,
+            String aRequestedPath,
+            Set<String> aRequestedPaths,
+            Map<String, Object> aValues)
+    throws IOException {
+
+        aReader.beginObject();
+
+        while (aReader.hasNext()) {
+            String name = aReader.nextName();
+
+            String requestedPath = JSONPathValues.joined(aRequestedPath, name);
+
+            if (!aRequestedPaths.contains(requestedPath) && name.startsWith("@")) {
+                requestedPath = JSONPathValues.joined(aRequestedPath, name.substring(1));
+            }
+
+            String path = JSONPathValues.joined(aPath, name);
+
+            if (!aRequestedPaths.contains(requestedPath)) {
+                aReader.skipValue();
+
+            } else if (aReader.peek() == JsonToken.BEGIN_OBJECT) {
+                aValues.put(path, OBJECT);
+
+                JSONPathValues.readRequested(aReader, path, requestedPath, aRequestedPaths, aValues);
+
+            } else {
+                JSONPathValues.readValue(aReader, path, aValues, false);
+            }
+        }
+
+        aReader.endObject();
+    }
+
+    private static void readValue(
+            JsonReader aReader,
+            String aPath,
+            Map<String, Object> aValues,
+            boolean isDeep)
+    throws IOException {
+
+        JsonToken token = aReader.peek();
+
+        if (token == JsonToken.BEGIN_OBJECT) {
+            aValues.put(aPath, OBJECT);
+
+            if (isDeep) {
+                JSONPathValues.readObject(aReader, aPath, null, aValues);
+            } else {
+                aReader.skipValue();
+            }
+
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            StringWriter array = new StringWriter();
+
+            JsonWriter writer = new JsonWriter(array);
+
+            JSONPathValues.copyValue(aReader, writer);
+
+            writer.flush();
+
+            aValues.put(aPath, new JSONArrayText(array.toString()));
+
+        } else if (token == JsonToken.NULL) {
+            aValues.put(aPath, null);
+
+            aReader.nextNull();
+
+        } else if (token == JsonToken.BOOLEAN) {
+            aValues.put(aPath, Boolean.toString(aReader.nextBoolean()));
+        } else if (token == JsonToken.NUMBER) {
+            aValues.put(aPath, JSONPathValues.numberOf(aReader.nextString()));
+        } else {
+            aValues.put(aPath, aReader.nextString());
+        }
+    }
+
+    private static Object numberOf(String aNumber) {
+
+        // whole numbers that print back the same are kept as
+        // longs, so they may be written in their compact form
+
+        try {
+            Long number = Long.valueOf(aNumber);
+
+            if (number.toString().equals(aNumber)) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // not a whole number
+        }
+
+        return aNumber;
+    }
+
+    private static String readString(DataInput anInput) throws IOException {
+
+        // the length is biased by one so that zero is a null
+
+        int length = (int) JSONPathValues.readVarLong(anInput) - 1;
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        anInput.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(DataInput anInput) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte part = anInput.readByte();
+
+            value |= (long) (part & 0x7f) << shift;
+
+            if ((part & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable-length long.");
+    }
+
+    private static void writeString(DataOutput anOutput, String aValue) throws IOException {
+        if (aValue == null) {
+            JSONPathValues.writeVarLong(anOutput, 0);
+        } else {
+            byte[] bytes = aValue.getBytes(StandardCharsets.UTF_8);
+
+            JSONPathValues.writeVarLong(anOutput, bytes.length + 1);
+
+            anOutput.write(bytes);
+        }
+    }
+
+    private static void writeVarLong(DataOutput anOutput, long aValue) throws IOException {
+
+        // 7 bits per byte, low bits first, the high bit set on all but the last
+
+        long value = aValue;
+
+        while ((value & ~0x7fL) != 0) {
+            anOutput.writeByte((int) (value & 0x7f) | 0x80);
+
+            value >>>= 7;
+        }
+
+        anOutput.writeByte((int) value);
+    }
+
+    private static Long zigZagDecoded(long aValue) {
+        return (aValue >>> 1) ^ -(aValue & 1);
+    }
+
+    private static long zigZagEncoded(long aValue) {
+        return (aValue << 1) ^ (aValue >> 63);
+    }
+
+    private JSONPathValues(Map<String, Object> aValues) {
+        super();
+
+        this.values = aValues;
+    }
+
+    private void collect(List<String> aPaths) {
+        if (this.requestedPaths == null) {
+            return;
+        }
+
+        this.requestedPaths.addAll(aPaths);
+
+        if (this.source == null || this.collectedPaths.containsAll(aPaths)) {
+            return;
+        }
+
+        // all paths asked for so far are collected in one pass
+        Set<String> paths = new HashSet<String>(this.requestedPaths);
+
+        try {
+            JsonReader reader = this.openedSource();
+
+            JSONPathValues.readRequested(reader, null, null, paths, this.values);
+
+            reader.close();
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        }
+
+        this.collectedPaths = paths;
+    }
+
+    private void collectAll() {
+        if (this.source == null) {
+            return;
+        }
+
+        // the values are collected again in the order read
+        this.values.clear();
+
+        try {
+            JsonReader reader = this.openedSource();
+
+            JSONPathValues.readObject(reader, null, null, this.values);
+
+            reader.close();
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot read the JSON object.", e);
+        }
+
+        this.collectedPaths = null;
+        this.source = null;
+    }
+
+    private String[] keysOf(String... aKeys) {
+        if (aKeys.length == 0) {
+            throw new IllegalArgumentException("Must specify one or more keys.");
+        } else if (aKeys.length == 1 && aKeys[0].startsWith("/")) {
+            return aKeys[0].substring(1).split("/");
+        } else if (aKeys.length == 1 && aKeys[0].contains(".")) {
+            return aKeys[0].split("\\.");
+        }
+
+        return aKeys;
+    }
+
+    private JsonReader openedSource() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(this.source));
+
+        reader.setLenient(true);
+
+        if (this.sourceArrayName != null) {
+            reader.beginObject();
+
+            if (!JSONPathValues.findName(reader, this.sourceArrayName)) {
+                throw new IOException("No such array: " + this.sourceArrayName);
+            }
+
+            reader.beginArray();
+
+            for (int idx = 0; idx < this.sourceIndex; ++idx) {
+                reader.skipValue();
+            }
+        }
+
+        return reader;
+    }
+
+    private String pathOf(String aPath, String aKey) {
+        String path = JSONPathValues.joined(aPath, aKey);
+
+        if (!this.values.containsKey(path)) {
+            String alternatePath = aPath == null ? "@" + aKey : aPath + ".@" + aKey;
+
+            if (this.values.containsKey(alternatePath)) {
+                path = alternatePath;
+            }
+        }
+
+        return path;
+    }
+
+    private List<String> pathsOf(String aRootName, String... aKeys) {
+        List<String> paths = new ArrayList<String>(aKeys.length + 1);
+
+        String path = aRootName;
+
+        if (path != null) {
+            paths.add(path);
+        }
+
+        for (String key : aKeys) {
+            path = JSONPathValues.joined(path, key);
+
+            paths.add(path);
+        }
+
+        return paths;
+    }
+
+    private Object valueAt(String aRootName, String... aKeys) {
+        String[] keys = this.keysOf(aKeys);
+
+        this.collect(this.pathsOf(aRootName, keys));
+
+        String path = aRootName;
+
+        if (path != null && this.values.get(path) != OBJECT) {
+            throw new IllegalArgumentException("Must start in an object: " + path);
+        }
+
+        for (int idx = 0; idx < keys.length; ++idx) {
+            path = this.pathOf(path, keys[idx]);
+
+            Object value = this.values.get(path);
+
+            if (value == null) {
+                if (!this.values.containsKey(path)) {
+                    throw new IllegalArgumentException("No such value: " + path);
+                }
+
+                return null;
+
+            } else if (idx < keys.length - 1 && value != OBJECT) {
+                throw new IllegalArgumentException("Last name must reference a simple value.");
+            }
+        }
+
+        return this.values.get(path);
+    }
+
+    // a number as read, so that it is written back unchanged
+
+    private static final class JSONNumber extends Number {
+
+        private static final long serialVersionUID = 1L;
+
+        private String text;
+
+        JSONNumber(String aText) {
+            super();
+
+            this.text = aText;
+        }
+
+        @Override
+        public double doubleValue() {
+            return Double.parseDouble(this.text);
+        }
+
+        @Override
+        public float floatValue() {
+            return Float.parseFloat(this.text);
+        }
+
+        @Override
+        public int intValue() {
+            return (int) this.longValue();
+        }
+
+        @Override
+        public long longValue() {
+            return new BigDecimal(this.text).longValue();
+        }
+
+        @Override
+        public String toString() {
+            return this.text;
+        }
+    }
+
+    private static final class JSONArrayText {
+
+        private String text;
+
+        JSONArrayText(String aText) {
+            super();
+
+            this.text = aText;
+        }
+
+        @Override
+        public String toString() {
+            return this.text;
+        }
+    }
+}
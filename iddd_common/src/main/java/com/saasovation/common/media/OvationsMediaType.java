@@ -22,6 +22,10 @@ public class OvationsMediaType {
     public static final String ID_OVATION_TYPE =
             "application/vnd.saasovation.idovation+json";
 
+    // notifications and logs in the compact form of BinaryNotificationSerializer
+    public static final String ID_OVATION_BINARY_TYPE =
+            "application/vnd.saasovation.idovation+binary";
+
     public static final String PROJECT_OVATION_TYPE =
             "application/vnd.saasovation.projectovation+json";
 }
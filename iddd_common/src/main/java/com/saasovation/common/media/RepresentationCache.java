@@ -0,0 +1,122 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.media;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * I am a bounded cache of serialized representations. I am bounded
+ * by the total length of the representations I hold, and evict the
+ * least recently used first. Only immutable representations, or those
+ * whose key identifies their exact version, belong in me.
+ */
+public class RepresentationCache {
+
+    private LinkedHashMap<String,CachedRepresentation> representations;
+    private int maximumWeight;
+    private long weight;
+
+    public RepresentationCache(int aMaximumWeight) {
+        super();
+
+        if (aMaximumWeight < 1) {
+            throw new IllegalArgumentException("The maximum weight must be at least 1.");
+        }
+
+        this.maximumWeight = aMaximumWeight;
+        this.representations = new LinkedHashMap<String,CachedRepresentation>(16, 0.75f, true);
+    }
+
+    public synchronized CachedRepresentation cache(String aKey, String aRepresentation) {
+        CachedRepresentation cachedRepresentation = new CachedRepresentation(aRepresentation);
+
+        this.remove(aKey);
+
+        // one larger than my maximum is answered but not kept
+        if (cachedRepresentation.weight() <= this.maximumWeight) {
+            this.representations.put(aKey, cachedRepresentation);
+            this.weight += cachedRepresentation.weight();
+
+            this.evictToMaximumWeight();
+        }
+
+        return cachedRepresentation;
+    }
+
+    public synchronized CachedRepresentation cachedRepresentation(String aKey) {
+        return this.representations.get(aKey);
+    }
+
+    public synchronized void clear() {
+        this.representations.clear();
+        this.weight = 0;
+    }
+
+    public int maximumWeight() {
+        return this.maximumWeight;
+    }
+
+    public synchronized CachedRepresentation replace(
+            String aKey,
+            CachedRepresentation aCachedRepresentation,
+            CachedRepresentation aReplacement) {
+
+        // only the one representation answered to the caller is replaced,
+        // since another may have been cached under the key in the meantime
+
+        if (this.representations.get(aKey) == aCachedRepresentation) {
+            this.remove(aKey);
+
+            if (aReplacement.weight() <= this.maximumWeight) {
+                this.representations.put(aKey, aReplacement);
+                this.weight += aReplacement.weight();
+
+                this.evictToMaximumWeight();
+            }
+        }
+
+        return aReplacement;
+    }
+
+    public synchronized void remove(String aKey) {
+        CachedRepresentation removed = this.representations.remove(aKey);
+
+        if (removed != null) {
+            this.weight -= removed.weight();
+        }
+    }
+
+    public synchronized int size() {
+        return this.representations.size();
+    }
+
+    public synchronized long weight() {
+        return this.weight;
+    }
+
+    private void evictToMaximumWeight() {
+        Iterator<Map.Entry<String,CachedRepresentation>> leastRecentlyUsed =
+                this.representations.entrySet().iterator();
+
+        while (this.weight > this.maximumWeight && leastRecentlyUsed.hasNext()) {
+            this.weight -= leastRecentlyUsed.next().getValue().weight();
+
+            leastRecentlyUsed.remove();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.stream.JsonReader;
+import com.saasovation.common.media.JSONPathValues;
+import com.saasovation.common.media.OvationsMediaType;
+
+/**
+ * I serialize notifications and notification logs to a compact
+ * binary form of the JSON that NotificationSerializer and the
+ * log representations produce. Each object is written as its
+ * simple values alone, each prefixed by its length, following a
+ * schema id. A schema, the names and kinds of the values of one
+ * shape of object, is written only the first time it is used in
+ * a serialization, so the names of a log of like notifications are
+ * written once. Arrays are carried whole as their JSON text, but
+ * for the notifications of a log, each written as its own values
+ * following those of the log. My serializations are read by the
+ * NotificationReader and NotificationLogReader constructors that
+ * take a byte[].
+ */
+public class BinaryNotificationSerializer {
+
+    static final byte LOG = 'L';
+    static final byte NOTIFICATION = 'N';
+
+    private static final int END_OF_RECORDS = 0xffff;
+    private static final byte FORMAT_VERSION = 2;
+
+    private static BinaryNotificationSerializer binaryNotificationSerializer;
+
+    public static synchronized BinaryNotificationSerializer instance() {
+        if (BinaryNotificationSerializer.binaryNotificationSerializer == null) {
+            BinaryNotificationSerializer.binaryNotificationSerializer = new BinaryNotificationSerializer();
+        }
+
+        return BinaryNotificationSerializer.binaryNotificationSerializer;
+    }
+
+    /**
+     * Answers whether or not aMediaType is of my binary form rather
+     * than of JSON, which are the notification media types supported.
+     * @param aMediaType the String media type
+     * @return boolean
+     */
+    public static boolean isBinaryMediaType(String aMediaType) {
+        if (OvationsMediaType.ID_OVATION_BINARY_TYPE.equals(aMediaType)) {
+            return true;
+        } else if (OvationsMediaType.ID_OVATION_TYPE.equals(aMediaType)) {
+            return false;
+        }
+
+        throw new IllegalArgumentException("Unsupported notification media type: " + aMediaType);
+    }
+
+    public BinaryNotificationSerializer() {
+        super();
+    }
+
+    public byte[] serialize(Notification aNotification) {
+        return this.serialize(NotificationSerializer.instance().serialize(aNotification));
+    }
+
+    public byte[] serialize(StoredNotification aStoredNotification) {
+        return this.serialize(NotificationSerializer.instance().serialize(aStoredNotification));
+    }
+
+    public byte[] serialize(String aJSONNotification) {
+        Output output = new Output(NOTIFICATION);
+
+        try {
+            output.write(JSONPathValues.readFrom(aJSONNotification));
+
+            return output.toByteArray();
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize the notification.", e);
+        }
+    }
+
+    public byte[] serializeLog(String aJSONNotificationLog) {
+        Output output = new Output(LOG);
+
+        try {
+            output.write(JSONPathValues.readFrom(aJSONNotificationLog, "notifications"));
+
+            JsonReader reader = NotificationLogReader.openNotifications(aJSONNotificationLog);
+
+            while (reader.hasNext()) {
+                output.write(JSONPathValues.readFrom(reader));
+            }
+
+            reader.close();
+
+            output.writeEnd();
+
+            return output.toByteArray();
+
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize the notification log.", e);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException("Cannot serialize the notification log.", e);
+        }
+    }
+
+    static class Input {
+
+        private DataInputStream input;
+        private List<String[]> schemas;
+
+        Input(byte[] aSerialization, byte aKind) {
+            super();
+
+            this.input = new DataInputStream(new ByteArrayInputStream(aSerialization));
+            this.schemas = new ArrayList<String[]>();
+
+            try {
+                if (this.input.readByte() != FORMAT_VERSION || this.input.readByte() != aKind) {
+                    throw new IllegalArgumentException("Not a serialization of the expected kind or version.");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the serialization.", e);
+            }
+        }
+
+        /**
+         * Answers the next values, or null when there are no more.
+         * @return JSONPathValues
+         */
+        JSONPathValues read() {
+            try {
+                int schemaId = this.input.readUnsignedShort();
+
+                if (schemaId == END_OF_RECORDS) {
+                    return null;
+                }
+
+                if (schemaId == this.schemas.size()) {
+                    this.schemas.add(JSONPathValues.readSchemaFrom(this.input));
+                }
+
+                return JSONPathValues.readFrom(this.schemas.get(schemaId), this.input);
+
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the serialization.", e);
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cannot read the serialization.", e);
+            }
+        }
+    }
+
+    private static class Output {
+
+        private ByteArrayOutputStream bytes;
+        private DataOutputStream output;
+        private Map<List<String>, Integer> schemaIds;
+
+        Output(byte aKind) {
+            super();
+
+            this.bytes = new ByteArrayOutputStream(256);
+            this.output = new DataOutputStream(this.bytes);
+            this.schemaIds = new HashMap<List<String>, Integer>();
+
+            try {
+                this.output.writeByte(FORMAT_VERSION);
+                this.output.writeByte(aKind);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot write the serialization.", e);
+            }
+        }
+
+        byte[] toByteArray() throws IOException {
+            this.output.flush();
+
+            return this.bytes.toByteArray();
+        }
+
+        void write(JSONPathValues aValues) throws IOException {
+            String[] schema = aValues.schema();
+
+            List<String> schemaKey = Arrays.asList(schema);
+
+            Integer schemaId = this.schemaIds.get(schemaKey);
+
+            if (schemaId != null) {
+                this.output.writeShort(schemaId);
+            } else {
+                schemaId = this.schemaIds.size();
+
+                if (schemaId == END_OF_RECORDS) {
+                    throw new IllegalStateException("Too many schemas to serialize.");
+                }
+
+                this.schemaIds.put(schemaKey, schemaId);
+
+                this.output.writeShort(schemaId);
+
+                aValues.writeSchemaTo(this.output);
+            }
+
+            aValues.writeTo(this.output);
+        }
+
+        void writeEnd() throws IOException {
+            this.output.writeShort(END_OF_RECORDS);
+        }
+    }
+}
@@ -17,80 +17,124 @@ package com.saasovation.common.notification;
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.StoredEvent;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class NotificationLogFactory {
 
-    // this could be a configuration
-    private static final int NOTIFICATIONS_PER_LOG = 20;
+    public static final int DEFAULT_NOTIFICATIONS_PER_LOG = 20;
+    public static final int MAXIMUM_NOTIFICATIONS_PER_LOG = 1000;
+    public static final int MINIMUM_NOTIFICATIONS_PER_LOG = 1;
 
     private EventStore eventStore;
+    private int notificationsPerLog;
 
-    public static int notificationsPerLog() {
-        return NOTIFICATIONS_PER_LOG;
+    public static boolean isNotificationsPerLogWithinBounds(long aNotificationsPerLog) {
+        return aNotificationsPerLog >= MINIMUM_NOTIFICATIONS_PER_LOG
+            && aNotificationsPerLog <= MAXIMUM_NOTIFICATIONS_PER_LOG;
     }
 
     public NotificationLogFactory(EventStore anEventStore) {
+        this(anEventStore, DEFAULT_NOTIFICATIONS_PER_LOG);
+    }
+
+    public NotificationLogFactory(EventStore anEventStore, int aNotificationsPerLog) {
         super();
 
         this.setEventStore(anEventStore);
+        this.setNotificationsPerLog(aNotificationsPerLog);
     }
 
     public NotificationLog createCurrentNotificationLog() {
-        return createNotificationLog(calculateCurrentNotificationLogId(eventStore));
+        return createCurrentNotificationLog(eventStore().countStoredEvents());
+    }
+
+    public NotificationLog createCurrentNotificationLog(long aTotalLogged) {
+        return createNotificationLog(
+            calculateCurrentNotificationLogId(aTotalLogged),
+            notificationsPerLog);
     }
 
     public NotificationLog createNotificationLog(NotificationLogId aNotificationLogId) {
+        return createNotificationLog(aNotificationLogId, eventStore().countStoredEvents());
+    }
 
-        long count = eventStore().countStoredEvents();
+    public NotificationLog createNotificationLog(NotificationLogId aNotificationLogId, long aTotalLogged) {
 
-        NotificationLogInfo info = new NotificationLogInfo(aNotificationLogId, count);
+        // a log keeps the size it was minted with, so
+        // that its neighbors are the logs minted with it
+        long notificationsPerLog = aNotificationLogId.high() - aNotificationLogId.low() + 1;
 
-        return createNotificationLog(info);
+        assertNotificationsPerLogWithinBounds(notificationsPerLog);
+
+        NotificationLogInfo info = new NotificationLogInfo(aNotificationLogId, aTotalLogged);
+
+        return createNotificationLog(info, (int) notificationsPerLog);
     }
 
-    private NotificationLogInfo calculateCurrentNotificationLogId(
-        EventStore anEventStore) {
+    public int notificationsPerLog() {
+        return notificationsPerLog;
+    }
 
-        long count = anEventStore.countStoredEvents();
+    private void assertNotificationsPerLogWithinBounds(long aNotificationsPerLog) {
+        if (!isNotificationsPerLogWithinBounds(aNotificationsPerLog)) {
+            throw new IllegalArgumentException(
+                "Notifications per log must be between "
+                    + MINIMUM_NOTIFICATIONS_PER_LOG
+                    + " and "
+                    + MAXIMUM_NOTIFICATIONS_PER_LOG
+                    + " but was: "
+                    + aNotificationsPerLog);
+        }
+    }
+
+    private NotificationLogInfo calculateCurrentNotificationLogId(long aTotalLogged) {
 
-        long remainder = count % NOTIFICATIONS_PER_LOG;
+        long count = aTotalLogged;
+
+        long remainder = count % notificationsPerLog;
 
         if (remainder == 0 && count > 0) {
-            remainder = NOTIFICATIONS_PER_LOG;
+            remainder = notificationsPerLog;
         }
 
         long low = count - remainder + 1;
 
         // ensures a minted id value even though there may
         // not be a full set of notifications at present
-        long high = low + NOTIFICATIONS_PER_LOG - 1;
+        long high = low + notificationsPerLog - 1;
 
         return new NotificationLogInfo(new NotificationLogId(low, high), count);
     }
 
     private NotificationLog createNotificationLog(
-        NotificationLogInfo aNotificationLogInfo) {
+        NotificationLogInfo aNotificationLogInfo,
+        int aNotificationsPerLog) {
+
+        NotificationLogId notificationLogId = aNotificationLogInfo.notificationLogId();
+
+        // nothing is logged beyond the high-water mark
+        long high = Math.min(notificationLogId.high(), aNotificationLogInfo.totalLogged());
 
         List<StoredEvent> storedEvents =
-            eventStore().allStoredEventsBetween(
-                aNotificationLogInfo.notificationLogId().low(),
-                aNotificationLogInfo.notificationLogId().high());
+            high < notificationLogId.low() ?
+                Collections.<StoredEvent>emptyList() :
+                eventStore().allStoredEventsBetween(notificationLogId.low(), high);
 
         boolean archivedIndicator =
-            aNotificationLogInfo.notificationLogId().high() < aNotificationLogInfo.totalLogged();
+            notificationLogId.high() < aNotificationLogInfo.totalLogged();
 
         NotificationLogId next = archivedIndicator ?
-            aNotificationLogInfo.notificationLogId().next(NOTIFICATIONS_PER_LOG) :
+            notificationLogId.next(aNotificationsPerLog) :
             null;
 
         NotificationLogId previous =
-            aNotificationLogInfo.notificationLogId().previous(NOTIFICATIONS_PER_LOG);
+            notificationLogId.previous(aNotificationsPerLog);
 
         NotificationLog notificationLog =
             new NotificationLog(
-                aNotificationLogInfo.notificationLogId().encoded(),
+                notificationLogId.encoded(),
                 NotificationLogId.encoded(next),
                 NotificationLogId.encoded(previous),
                 notificationsFrom(storedEvents),
@@ -112,4 +156,10 @@ public class NotificationLogFactory {
     private void setEventStore(EventStore anEventStore) {
         this.eventStore = anEventStore;
     }
+
+    private void setNotificationsPerLog(int aNotificationsPerLog) {
+        assertNotificationsPerLogWithinBounds(aNotificationsPerLog);
+
+        this.notificationsPerLog = aNotificationsPerLog;
+    }
 }
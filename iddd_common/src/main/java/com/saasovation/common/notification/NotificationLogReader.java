@@ -14,38 +14,62 @@
 
 package com.saasovation.common.notification;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.saasovation.common.media.AbstractJSONMediaReader;
+import com.saasovation.common.media.JSONPathValues;
 import com.saasovation.common.media.Link;
-import com.saasovation.common.media.RepresentationReader;
 
 public class NotificationLogReader
        extends AbstractJSONMediaReader
        implements List<NotificationReader>, Iterable<NotificationReader> {
 
-    private JsonArray array;
+    private BinaryNotificationSerializer.Input binaryInput;
+    private String jsonRepresentation;
+    private JSONPathValues logValues;
+    private JsonReader notificationsReader;
+    private boolean notificationsRead;
+    private List<NotificationReader> readers;
+    private Set<String> requestedPaths;
 
     public NotificationLogReader(String aJSONRepresentation) {
-        super(aJSONRepresentation);
+        super(aJSONRepresentation, true);
 
-        this.array = this.array("notifications");
+        this.jsonRepresentation = aJSONRepresentation;
 
-        if (this.array == null) {
-            this.array = new JsonArray();
-        }
+        // the notifications are skipped here and streamed only as far
+        // as they are asked for, one reader of values per notification,
+        // each read for the paths asked of the notifications before it
 
-        if (!this.array.isJsonArray()) {
-            throw new IllegalStateException("There are no notifications, and the representation may not be a log.");
-        }
+        this.logValues = JSONPathValues.readFrom(aJSONRepresentation, "notifications");
+
+        this.readers = new ArrayList<NotificationReader>();
+        this.requestedPaths = new HashSet<String>();
+    }
+
+    public NotificationLogReader(byte[] aBinaryRepresentation) {
+        super(null, true);
+
+        this.binaryInput =
+                new BinaryNotificationSerializer.Input(
+                        aBinaryRepresentation,
+                        BinaryNotificationSerializer.LOG);
+
+        this.logValues = this.binaryInput.read();
+
+        this.readers = new ArrayList<NotificationReader>();
     }
 
     public boolean isArchived() {
@@ -95,7 +119,14 @@ public class NotificationLogReader
 
     @Override
     public int size() {
-        return this.array.size();
+        this.advanceTo(Integer.MAX_VALUE);
+
+        return this.readers.size();
+    }
+
+    @Override
+    public String stringValue(String... aKeys) {
+        return this.logValues.stringValue(aKeys);
     }
 
     @Override
@@ -167,10 +198,9 @@ public class NotificationLogReader
 
     @Override
     public NotificationReader get(int index) {
-        JsonElement element = this.array.get(index);
+        this.advanceTo(index);
 
-        NotificationReader reader =
-                new NotificationReader(element.getAsJsonObject());
+        NotificationReader reader = this.readers.get(index);
 
         return reader;
     }
@@ -227,25 +257,117 @@ public class NotificationLogReader
         return Collections.unmodifiableList(readers);
     }
 
-    private Link linkNamed(String aLinkName) {
-        Link link = null;
+    private void advanceTo(int anIndex) {
+        try {
+            if (this.readers.size() > anIndex) {
+                return;
+            }
+
+            if (this.binaryInput != null) {
+                this.advanceBinaryTo(anIndex);
+
+                return;
+            }
+
+            if (this.notificationsReader == null) {
+                if (this.jsonRepresentation == null || this.notificationsRead) {
+                    return;
+                }
+
+                this.notificationsReader = openNotifications(this.jsonRepresentation);
+            }
+
+            JsonReader reader = this.notificationsReader;
+
+            while (this.readers.size() <= anIndex && reader.hasNext()) {
+                JSONPathValues values =
+                        JSONPathValues.readOnDemandFrom(
+                                reader,
+                                this.jsonRepresentation,
+                                "notifications",
+                                this.readers.size(),
+                                this.requestedPaths);
+
+                this.readers.add(new NotificationReader(values));
+            }
+
+            if (!reader.hasNext()) {
+                reader.close();
+
+                this.notificationsReader = null;
+                this.notificationsRead = true;
+            }
+
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the notifications.", e);
+        }
+    }
+
+    private void advanceBinaryTo(int anIndex) {
+        while (this.readers.size() <= anIndex) {
+            JSONPathValues values = this.binaryInput.read();
+
+            if (values == null) {
+                this.binaryInput = null;
 
-        JsonElement linkElement = this.elementFrom(this.representation(), aLinkName);
+                return;
+            }
+
+            this.readers.add(new NotificationReader(values));
+        }
+    }
 
-        if (linkElement.isJsonObject()) {
-            RepresentationReader rep = new RepresentationReader(linkElement.getAsJsonObject());
+    private boolean hasNotificationAt(int anIndex) {
+        this.advanceTo(anIndex);
 
+        return anIndex < this.readers.size();
+    }
+
+    private Link linkNamed(String aLinkName) {
+        Link link = null;
+
+        if (this.logValues.isObject(aLinkName)) {
             link =
                     new Link(
-                            rep.stringValue("href"),
-                            rep.stringValue("rel"),
-                            rep.stringValue("title"),
-                            rep.stringValue("type"));
+                            this.stringValue(aLinkName, "href"),
+                            this.stringValue(aLinkName, "rel"),
+                            this.stringValue(aLinkName, "title"),
+                            this.stringValue(aLinkName, "type"));
         }
 
         return link;
     }
 
+    static JsonReader openNotifications(String aJSONRepresentation) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(aJSONRepresentation));
+
+        reader.setLenient(true);
+
+        reader.beginObject();
+
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("notifications") &&
+                    reader.peek() == JsonToken.BEGIN_ARRAY) {
+
+                reader.beginArray();
+
+                return reader;
+            }
+
+            reader.skipValue();
+        }
+
+        // there are no notifications, so answer as if an empty array
+
+        reader.close();
+
+        reader = new JsonReader(new StringReader("[]"));
+
+        reader.beginArray();
+
+        return reader;
+    }
+
     private class NotificationReaderIterator implements ListIterator<NotificationReader> {
 
         private int index;
@@ -256,7 +378,7 @@ public class NotificationLogReader
 
         @Override
         public boolean hasNext() {
-            return this.nextIndex() < size();
+            return hasNotificationAt(this.nextIndex());
         }
 
         @Override
@@ -17,17 +17,21 @@ package com.saasovation.common.notification;
 import java.math.BigDecimal;
 import java.util.Date;
 
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.saasovation.common.media.AbstractJSONMediaReader;
+import com.saasovation.common.media.JSONPathValues;
 
 public class NotificationReader extends AbstractJSONMediaReader {
 
     private JsonObject event;
+    private JSONPathValues values;
 
     public NotificationReader(String aJSONNotification) {
-        super(aJSONNotification);
+        super(aJSONNotification, true);
 
-        this.setEvent(this.representation().get("event").getAsJsonObject());
+        this.setValues(JSONPathValues.readOnDemandFrom(aJSONNotification));
     }
 
     public NotificationReader(JsonObject aRepresentationObject) {
@@ -36,50 +40,76 @@ public class NotificationReader extends AbstractJSONMediaReader {
         this.setEvent(this.representation().get("event").getAsJsonObject());
     }
 
+    public NotificationReader(byte[] aBinaryNotification) {
+        this(new BinaryNotificationSerializer.Input(
+                aBinaryNotification,
+                BinaryNotificationSerializer.NOTIFICATION).read());
+    }
+
+    NotificationReader(JSONPathValues aValues) {
+        super(null, true);
+
+        this.setValues(aValues);
+    }
+
+    @Override
+    public JsonArray array(String... aKeys) {
+        if (this.values() == null) {
+            return super.array(aKeys);
+        }
+
+        String array = this.values().arrayValue(aKeys);
+
+        return array == null ? null : new JsonParser().parse(array).getAsJsonArray();
+    }
+
     public BigDecimal eventBigDecimalValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : new BigDecimal(stringValue);
     }
 
     public Boolean eventBooleanValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : Boolean.parseBoolean(stringValue);
     }
 
     public Date eventDateValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : new Date(Long.parseLong(stringValue));
     }
 
     public Double eventDoubleValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : Double.parseDouble(stringValue);
     }
 
     public Float eventFloatValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : Float.parseFloat(stringValue);
     }
 
     public Integer eventIntegerValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : Integer.parseInt(stringValue);
     }
 
     public Long eventLongValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue = this.eventStringValue(aKeys);
 
         return stringValue == null ? null : Long.parseLong(stringValue);
     }
 
     public String eventStringValue(String... aKeys) {
-        String stringValue = this.stringValue(this.event(), aKeys);
+        String stringValue =
+                this.values() == null ?
+                        this.stringValue(this.event(), aKeys) :
+                        this.values().stringValueAt("event", aKeys);
 
         return stringValue;
     }
@@ -102,6 +132,16 @@ public class NotificationReader extends AbstractJSONMediaReader {
         return new Date(time);
     }
 
+    @Override
+    public String stringValue(String... aKeys) {
+        String stringValue =
+                this.values() == null ?
+                        super.stringValue(aKeys) :
+                        this.values().stringValue(aKeys);
+
+        return stringValue;
+    }
+
     public String typeName() {
         String typeName = this.stringValue("typeName");
 
@@ -121,4 +161,16 @@ public class NotificationReader extends AbstractJSONMediaReader {
     private void setEvent(JsonObject anEvent) {
         this.event = anEvent;
     }
+
+    private JSONPathValues values() {
+        return this.values;
+    }
+
+    private void setValues(JSONPathValues aValues) {
+        if (aValues == null || !aValues.isObject("event")) {
+            throw new IllegalArgumentException("The notification must have an event.");
+        }
+
+        this.values = aValues;
+    }
 }
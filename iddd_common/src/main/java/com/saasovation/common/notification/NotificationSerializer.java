@@ -20,6 +20,8 @@ public class NotificationSerializer extends AbstractSerializer {
 
     private static NotificationSerializer notificationSerializer;
 
+    private boolean verbatim;
+
     public static synchronized NotificationSerializer instance() {
         if (NotificationSerializer.notificationSerializer == null) {
             NotificationSerializer.notificationSerializer = new NotificationSerializer();
@@ -34,6 +36,8 @@ public class NotificationSerializer extends AbstractSerializer {
 
     public NotificationSerializer(boolean isPretty, boolean isCompact) {
         super(isPretty, isCompact);
+
+        this.setVerbatim(!isPretty && !isCompact);
     }
 
     public String serialize(Notification aNotification) {
@@ -42,6 +46,31 @@ public class NotificationSerializer extends AbstractSerializer {
         return serialization;
     }
 
+    public String serialize(StoredNotification aStoredNotification) {
+        if (!this.isVerbatim() || aStoredNotification.notification() != null) {
+            return this.serialize(aStoredNotification.toNotification());
+        }
+
+        // the same members in the same order as Notification's
+        // fields, but with the stored event body used as is
+
+        String eventBody = aStoredNotification.eventBody();
+        String typeName = this.gson().toJson(aStoredNotification.typeName());
+
+        StringBuilder serialization =
+                new StringBuilder(eventBody.length() + typeName.length() + 96);
+
+        serialization
+            .append("{\"event\":").append(eventBody)
+            .append(",\"notificationId\":").append(aStoredNotification.notificationId())
+            .append(",\"occurredOn\":").append(aStoredNotification.occurredOnSerialization())
+            .append(",\"typeName\":").append(typeName)
+            .append(",\"version\":").append(aStoredNotification.version())
+            .append('}');
+
+        return serialization.toString();
+    }
+
     public <T extends Notification> T deserialize(String aSerialization, final Class<T> aType) {
         T notification = this.gson().fromJson(aSerialization, aType);
 
@@ -51,4 +80,12 @@ public class NotificationSerializer extends AbstractSerializer {
     private NotificationSerializer() {
         this(false, false);
     }
+
+    private boolean isVerbatim() {
+        return this.verbatim;
+    }
+
+    private void setVerbatim(boolean isVerbatim) {
+        this.verbatim = isVerbatim;
+    }
 }
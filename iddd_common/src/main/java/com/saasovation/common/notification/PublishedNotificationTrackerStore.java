@@ -26,5 +26,9 @@ public interface PublishedNotificationTrackerStore {
             PublishedNotificationTracker aPublishedNotificationTracker,
             List<Notification> aNotifications);
 
+    public void trackMostRecentPublishedNotificationId(
+            PublishedNotificationTracker aPublishedNotificationTracker,
+            long aMostRecentPublishedNotificationId);
+
     public String typeName();
 }
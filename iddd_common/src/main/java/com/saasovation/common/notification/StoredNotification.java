@@ -0,0 +1,357 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import java.util.Date;
+
+import com.saasovation.common.AssertionConcern;
+import com.saasovation.common.event.StoredEvent;
+
+/**
+ * I am a Notification forwarded straight from a StoredEvent. I keep
+ * the stored event body as serialized text and read my version and
+ * occurredOn from its top-level members, so that I may be serialized
+ * to the same message as a Notification of the deserialized event
+ * without reconstituting the event at all. When the body lacks either
+ * member I fall back to a full Notification of the domain event.
+ */
+public class StoredNotification extends AssertionConcern {
+
+    private static final String EVENT_VERSION = "eventVersion";
+    private static final String OCCURRED_ON = "occurredOn";
+
+    private String eventBody;
+    private Notification notification;
+    private long notificationId;
+    private Date occurredOn;
+    private String occurredOnSerialization;
+    private String typeName;
+    private int version;
+
+    public StoredNotification(StoredEvent aStoredEvent) {
+        super();
+
+        this.assertArgumentNotNull(aStoredEvent, "The stored event is required.");
+
+        this.setEventBody(aStoredEvent.eventBody());
+        this.setNotificationId(aStoredEvent.eventId());
+        this.setTypeName(aStoredEvent.typeName());
+
+        if (!this.readMembersFrom(aStoredEvent.eventBody())) {
+            Notification notification =
+                    new Notification(
+                            aStoredEvent.eventId(),
+                            aStoredEvent.toDomainEvent());
+
+            this.setNotification(notification);
+            this.setOccurredOn(notification.occurredOn());
+            this.setVersion(notification.version());
+        }
+    }
+
+    public String eventBody() {
+        return this.eventBody;
+    }
+
+    public long notificationId() {
+        return this.notificationId;
+    }
+
+    public Date occurredOn() {
+        return this.occurredOn;
+    }
+
+    public String typeName() {
+        return this.typeName;
+    }
+
+    public int version() {
+        return this.version;
+    }
+
+    @Override
+    public boolean equals(Object anObject) {
+        boolean equalObjects = false;
+
+        if (anObject != null && this.getClass() == anObject.getClass()) {
+            StoredNotification typedObject = (StoredNotification) anObject;
+            equalObjects = this.notificationId() == typedObject.notificationId();
+        }
+
+        return equalObjects;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCodeValue =
+            + (3019 * 199)
+            + (int) this.notificationId();
+
+        return hashCodeValue;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredNotification [notificationId=" + notificationId
+                + ", occurredOn=" + occurredOn + ", typeName="
+                + typeName + ", version=" + version + "]";
+    }
+
+    Notification notification() {
+        return this.notification;
+    }
+
+    Notification toNotification() {
+        if (this.notification() != null) {
+            return this.notification();
+        }
+
+        StoredEvent storedEvent =
+                new StoredEvent(
+                        this.typeName(),
+                        this.occurredOn(),
+                        this.eventBody(),
+                        this.notificationId());
+
+        return new Notification(this.notificationId(), storedEvent.toDomainEvent());
+    }
+
+    String occurredOnSerialization() {
+        return this.occurredOnSerialization;
+    }
+
+    private static Date dateFrom(String anOccurredOnSerialization) {
+        if (anOccurredOnSerialization.equals("null")) {
+            return null;
+        }
+
+        String millis = anOccurredOnSerialization;
+
+        if (millis.startsWith("\"")) {
+            millis = millis.substring(1, millis.length() - 1);
+        }
+
+        return new Date(Long.parseLong(millis));
+    }
+
+    /**
+     * Answers the raw serialized values of aNames among the top-level
+     * members of the JSON object aJson, in the order of aNames, with
+     * null for any that are absent. Answers null if aJson is not a
+     * well-formed object. Nested objects and arrays are skipped over.
+     */
+    private static String[] topLevelMembersOf(String aJson, String... aNames) {
+        String[] values = new String[aNames.length];
+
+        int length = aJson.length();
+        int index = skipWhitespace(aJson, 0);
+
+        if (index >= length || aJson.charAt(index) != '{') {
+            return null;
+        }
+
+        index = skipWhitespace(aJson, index + 1);
+
+        if (index < length && aJson.charAt(index) == '}') {
+            return values;
+        }
+
+        while (index < length) {
+            if (aJson.charAt(index) != '"') {
+                return null;
+            }
+
+            int nameStart = index + 1;
+            int nameEnd = endOfString(aJson, index);
+
+            if (nameEnd < 0) {
+                return null;
+            }
+
+            index = skipWhitespace(aJson, nameEnd + 1);
+
+            if (index >= length || aJson.charAt(index) != ':') {
+                return null;
+            }
+
+            int valueStart = skipWhitespace(aJson, index + 1);
+            int valueEnd = endOfValue(aJson, valueStart);
+
+            if (valueEnd < 0) {
+                return null;
+            }
+
+            for (int nameIndex = 0; nameIndex < aNames.length; ++nameIndex) {
+                String name = aNames[nameIndex];
+
+                if (name.length() == nameEnd - nameStart
+                        && aJson.regionMatches(nameStart, name, 0, name.length())) {
+                    values[nameIndex] = aJson.substring(valueStart, valueEnd);
+                }
+            }
+
+            index = skipWhitespace(aJson, valueEnd);
+
+            if (index >= length) {
+                return null;
+            }
+
+            char separator = aJson.charAt(index);
+
+            if (separator == '}') {
+                return values;
+            } else if (separator != ',') {
+                return null;
+            }
+
+            index = skipWhitespace(aJson, index + 1);
+        }
+
+        return null;
+    }
+
+    private static int endOfString(String aJson, int aQuoteIndex) {
+        int length = aJson.length();
+
+        for (int index = aQuoteIndex + 1; index < length; ++index) {
+            char ch = aJson.charAt(index);
+
+            if (ch == '\\') {
+                ++index;
+            } else if (ch == '"') {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int endOfValue(String aJson, int aValueStart) {
+        int length = aJson.length();
+
+        if (aValueStart >= length) {
+            return -1;
+        }
+
+        char first = aJson.charAt(aValueStart);
+
+        if (first == '"') {
+            int end = endOfString(aJson, aValueStart);
+
+            return end < 0 ? -1 : end + 1;
+        }
+
+        if (first == '{' || first == '[') {
+            int depth = 0;
+
+            for (int index = aValueStart; index < length; ++index) {
+                char ch = aJson.charAt(index);
+
+                if (ch == '"') {
+                    index = endOfString(aJson, index);
+
+                    if (index < 0) {
+                        return -1;
+                    }
+                } else if (ch == '{' || ch == '[') {
+                    ++depth;
+                } else if (ch == '}' || ch == ']') {
+                    if (--depth == 0) {
+                        return index + 1;
+                    }
+                }
+            }
+
+            return -1;
+        }
+
+        int index = aValueStart;
+
+        while (index < length) {
+            char ch = aJson.charAt(index);
+
+            if (ch == ',' || ch == '}' || Character.isWhitespace(ch)) {
+                break;
+            }
+
+            ++index;
+        }
+
+        return index == aValueStart ? -1 : index;
+    }
+
+    private static int skipWhitespace(String aJson, int anIndex) {
+        int index = anIndex;
+
+        while (index < aJson.length() && Character.isWhitespace(aJson.charAt(index))) {
+            ++index;
+        }
+
+        return index;
+    }
+
+    private boolean readMembersFrom(String anEventBody) {
+        String[] members = topLevelMembersOf(anEventBody, EVENT_VERSION, OCCURRED_ON);
+
+        if (members == null || members[0] == null || members[1] == null) {
+            return false;
+        }
+
+        try {
+            this.setVersion(Integer.parseInt(members[0]));
+            this.setOccurredOn(dateFrom(members[1]));
+            this.setOccurredOnSerialization(members[1]);
+
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    private void setEventBody(String anEventBody) {
+        this.assertArgumentNotEmpty(anEventBody, "The event body is required.");
+
+        this.eventBody = anEventBody;
+    }
+
+    private void setNotification(Notification aNotification) {
+        this.notification = aNotification;
+    }
+
+    private void setNotificationId(long aNotificationId) {
+        this.notificationId = aNotificationId;
+    }
+
+    private void setOccurredOn(Date anOccurredOn) {
+        this.occurredOn = anOccurredOn;
+    }
+
+    private void setOccurredOnSerialization(String anOccurredOnSerialization) {
+        this.occurredOnSerialization = anOccurredOnSerialization;
+    }
+
+    private void setTypeName(String aTypeName) {
+        this.assertArgumentNotEmpty(aTypeName, "The type name is required.");
+        this.assertArgumentLength(aTypeName, 100, "The type name must be 100 characters or less.");
+
+        this.typeName = aTypeName;
+    }
+
+    private void setVersion(int aVersion) {
+        this.version = aVersion;
+    }
+}
@@ -0,0 +1,104 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging;
+
+/**
+ * I am a Bloom filter of String keys. I answer with certainty that
+ * a key was never added, and otherwise that it might have been,
+ * wrongly so at about my false positive probability once I hold my
+ * expected number of keys. I am not thread safe.
+ */
+class BloomFilter {
+
+    private long[] bits;
+    private int bitCount;
+    private int hashCount;
+
+    BloomFilter(int anExpectedKeys, double aFalsePositiveProbability) {
+        super();
+
+        if (anExpectedKeys < 1) {
+            throw new IllegalArgumentException("The expected keys must be at least 1.");
+        }
+        if (aFalsePositiveProbability <= 0.0d || aFalsePositiveProbability >= 1.0d) {
+            throw new IllegalArgumentException("The false positive probability must be between 0 and 1.");
+        }
+
+        double ln2 = Math.log(2.0d);
+
+        long bitCount =
+                (long) Math.ceil(
+                        -anExpectedKeys * Math.log(aFalsePositiveProbability) / (ln2 * ln2));
+
+        this.bitCount = (int) Math.max(64L, Math.min(bitCount, Integer.MAX_VALUE - 63L));
+        this.bits = new long[(this.bitCount + 63) / 64];
+        this.hashCount =
+                Math.max(1, (int) Math.round((double) this.bitCount / anExpectedKeys * ln2));
+    }
+
+    void add(String aKey) {
+        int hash1 = this.hash1(aKey);
+        int hash2 = this.hash2(aKey);
+
+        for (int idx = 0; idx < this.hashCount; ++idx) {
+            int bit = ((hash1 + idx * hash2) & Integer.MAX_VALUE) % this.bitCount;
+
+            this.bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String aKey) {
+        int hash1 = this.hash1(aKey);
+        int hash2 = this.hash2(aKey);
+
+        for (int idx = 0; idx < this.hashCount; ++idx) {
+            int bit = ((hash1 + idx * hash2) & Integer.MAX_VALUE) % this.bitCount;
+
+            if ((this.bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int hash1(String aKey) {
+        int hash = aKey.hashCode();
+
+        // MurmurHash3 finalizer, spreading the String hash's bits
+
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+
+        return hash;
+    }
+
+    private int hash2(String aKey) {
+        int hash = 0x811c9dc5;
+
+        // FNV-1a, independent of the String hash
+
+        for (int idx = 0; idx < aKey.length(); ++idx) {
+            hash ^= aKey.charAt(idx);
+            hash *= 0x01000193;
+        }
+
+        return hash | 1;
+    }
+}
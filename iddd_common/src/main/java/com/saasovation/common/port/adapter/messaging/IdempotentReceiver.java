@@ -0,0 +1,137 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging;
+
+/**
+ * I am an idempotent receiver, which tells message listeners whether
+ * a message was already handled by them, so that a redelivered message
+ * is dropped before it reaches any application service or aggregate.
+ * Messages are keyed by the listener's name and the message id, which
+ * for notifications is the notification id, and are remembered for my
+ * window of time. A Bloom filter of the messages received in the current
+ * and previous windows answers most new messages without reading my
+ * ReceivedMessageStore. Only messages the filter might contain, and all
+ * messages during my first window, when the filter cannot yet know what
+ * was received before I started, are checked against the store.
+ */
+public class IdempotentReceiver {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01d;
+
+    private BloomFilter currentMessages;
+    private long currentMessagesSince;
+    private int expectedMessagesPerWindow;
+    private BloomFilter previousMessages;
+    private ReceivedMessageStore receivedMessageStore;
+    private long trustedSince;
+    private long windowMillis;
+
+    public IdempotentReceiver(
+            ReceivedMessageStore aReceivedMessageStore,
+            long aWindowMillis,
+            int anExpectedMessagesPerWindow) {
+
+        super();
+
+        if (aReceivedMessageStore == null) {
+            throw new IllegalArgumentException("The received message store must be provided.");
+        }
+        if (aWindowMillis < 1) {
+            throw new IllegalArgumentException("The window must be at least 1 millisecond.");
+        }
+
+        long now = System.currentTimeMillis();
+
+        this.expectedMessagesPerWindow = anExpectedMessagesPerWindow;
+        this.receivedMessageStore = aReceivedMessageStore;
+        this.windowMillis = aWindowMillis;
+
+        this.currentMessages = this.newMessages();
+        this.currentMessagesSince = now;
+        this.previousMessages = this.newMessages();
+        this.trustedSince = now + aWindowMillis;
+    }
+
+    public boolean isDuplicate(String aReceiverName, String aMessageId) {
+        long now = System.currentTimeMillis();
+
+        String key = this.keyOf(aReceiverName, aMessageId);
+
+        boolean isExpiring = false;
+        boolean mightBeDuplicate = false;
+
+        synchronized (this) {
+            isExpiring = this.rotateMessagesAt(now);
+
+            mightBeDuplicate =
+                    now < this.trustedSince ||
+                    this.currentMessages.mightContain(key) ||
+                    this.previousMessages.mightContain(key);
+        }
+
+        if (isExpiring) {
+            this.receivedMessageStore.removeReceivedBefore(now - this.windowMillis);
+        }
+
+        return mightBeDuplicate &&
+                this.receivedMessageStore.isReceivedSince(
+                        aReceiverName,
+                        aMessageId,
+                        now - this.windowMillis);
+    }
+
+    public void received(String aReceiverName, String aMessageId) {
+        this.receivedMessageStore.received(
+                aReceiverName,
+                aMessageId,
+                System.currentTimeMillis());
+
+        String key = this.keyOf(aReceiverName, aMessageId);
+
+        synchronized (this) {
+            this.currentMessages.add(key);
+        }
+    }
+
+    public long windowMillis() {
+        return this.windowMillis;
+    }
+
+    private String keyOf(String aReceiverName, String aMessageId) {
+        return aReceiverName + ':' + aMessageId;
+    }
+
+    private BloomFilter newMessages() {
+        return new BloomFilter(this.expectedMessagesPerWindow, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    private boolean rotateMessagesAt(long aTime) {
+        boolean isRotated = false;
+
+        if (aTime - this.currentMessagesSince >= this.windowMillis) {
+            // messages may have been received up to now, so
+            // the current filter becomes the previous in full
+
+            this.previousMessages = this.currentMessages;
+            this.currentMessages = this.newMessages();
+            this.currentMessagesSince = aTime;
+
+            isRotated = true;
+        }
+
+        return isRotated;
+    }
+}
@@ -0,0 +1,207 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging.rabbitmq;
+
+import java.io.IOException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.rabbitmq.client.Channel;
+
+/**
+ * I acknowledge the messages delivered on a channel in batches,
+ * using a single multiple acknowledgement once my maximum number
+ * of messages are handled or my maximum delay passes, whichever
+ * comes first. A multiple acknowledgement covers every delivery
+ * tag up to its own, so I never acknowledge beyond the lowest tag
+ * still being handled, and I reject a failed message as soon as
+ * it fails so that no later acknowledgement can cover it.
+ */
+class AcknowledgementBatch {
+
+    private Channel channel;
+    private long acknowledgedMessages;
+    private long acknowledgements;
+    private long maximumDelayMillis;
+    private long maximumLatencyNanos;
+    private int maximumMessages;
+    private SortedMap<Long, Long> outstandingDeliveryTags;
+    private SortedMap<Long, Long> pendingDeliveryTags;
+    private ScheduledFuture<?> scheduledFlush;
+    private ScheduledExecutorService scheduler;
+    private long totalLatencyNanos;
+
+    AcknowledgementBatch(Channel aChannel, int aMaximumMessages, long aMaximumDelayMillis) {
+        super();
+
+        if (aMaximumMessages < 1) {
+            throw new IllegalArgumentException("The maximum messages must be at least 1.");
+        }
+        if (aMaximumDelayMillis < 1) {
+            throw new IllegalArgumentException("The maximum delay must be at least 1 millisecond.");
+        }
+
+        this.channel = aChannel;
+        this.maximumDelayMillis = aMaximumDelayMillis;
+        this.maximumMessages = aMaximumMessages;
+        this.outstandingDeliveryTags = new TreeMap<Long, Long>();
+        this.pendingDeliveryTags = new TreeMap<Long, Long>();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable aRunnable) {
+                Thread thread = new Thread(aRunnable, "acknowledgement-batch");
+
+                thread.setDaemon(true);
+
+                return thread;
+            }
+        });
+    }
+
+    synchronized void acknowledged(long aDeliveryTag) {
+        Long receivedNanos = this.outstandingDeliveryTags.remove(aDeliveryTag);
+
+        this.pendingDeliveryTags.put(
+                aDeliveryTag,
+                receivedNanos == null ? System.nanoTime() : receivedNanos);
+
+        if (this.pendingDeliveryTags.size() >= this.maximumMessages) {
+            this.flush();
+        } else {
+            this.scheduleFlush();
+        }
+    }
+
+    synchronized long acknowledgedMessages() {
+        return this.acknowledgedMessages;
+    }
+
+    synchronized long acknowledgements() {
+        return this.acknowledgements;
+    }
+
+    synchronized double averageLatencyMillis() {
+        if (this.acknowledgedMessages == 0) {
+            return 0.0d;
+        }
+
+        return this.totalLatencyNanos / (double) this.acknowledgedMessages / 1000000.0d;
+    }
+
+    void close() {
+        this.scheduler.shutdownNow();
+
+        this.flush();
+    }
+
+    synchronized void flush() {
+        long highestAcknowledgeable =
+                this.outstandingDeliveryTags.isEmpty() ?
+                        Long.MAX_VALUE :
+                        this.outstandingDeliveryTags.firstKey() - 1;
+
+        SortedMap<Long, Long> acknowledgeable =
+                highestAcknowledgeable == Long.MAX_VALUE ?
+                        this.pendingDeliveryTags :
+                        this.pendingDeliveryTags.headMap(highestAcknowledgeable + 1);
+
+        if (!acknowledgeable.isEmpty()) {
+            long now = System.nanoTime();
+
+            try {
+                this.acknowledge(acknowledgeable.lastKey(), acknowledgeable.size() > 1);
+
+                for (Long receivedNanos : acknowledgeable.values()) {
+                    long latencyNanos = now - receivedNanos;
+
+                    this.totalLatencyNanos += latencyNanos;
+
+                    if (latencyNanos > this.maximumLatencyNanos) {
+                        this.maximumLatencyNanos = latencyNanos;
+                    }
+                }
+
+                this.acknowledgedMessages += acknowledgeable.size();
+                ++this.acknowledgements;
+
+            } catch (IOException e) {
+                // fall through; the broker redelivers unacknowledged messages
+            }
+
+            acknowledgeable.clear();
+        }
+
+        if (this.scheduledFlush != null) {
+            this.scheduledFlush.cancel(false);
+            this.scheduledFlush = null;
+        }
+
+        this.scheduleFlush();
+    }
+
+    synchronized double maximumLatencyMillis() {
+        return this.maximumLatencyNanos / 1000000.0d;
+    }
+
+    synchronized int pendingMessages() {
+        return this.pendingDeliveryTags.size();
+    }
+
+    synchronized void received(long aDeliveryTag) {
+        this.outstandingDeliveryTags.put(aDeliveryTag, System.nanoTime());
+    }
+
+    synchronized void rejected(long aDeliveryTag, boolean isRetry) {
+        this.outstandingDeliveryTags.remove(aDeliveryTag);
+
+        try {
+            this.reject(aDeliveryTag, isRetry);
+        } catch (IOException e) {
+            // fall through
+        }
+    }
+
+    void acknowledge(long aDeliveryTag, boolean isMultiple) throws IOException {
+        this.channel.basicAck(aDeliveryTag, isMultiple);
+    }
+
+    void reject(long aDeliveryTag, boolean isRetry) throws IOException {
+        this.channel.basicNack(aDeliveryTag, false, isRetry);
+    }
+
+    private void scheduleFlush() {
+        if (this.scheduledFlush == null &&
+            !this.pendingDeliveryTags.isEmpty() &&
+            !this.scheduler.isShutdown()) {
+
+            this.scheduledFlush = this.scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        flush();
+                    } catch (RuntimeException e) {
+                        // the channel is closing
+                    }
+                }
+            }, this.maximumDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -118,6 +118,30 @@ public abstract class BrokerChannel {
         this.setChannel(aBrokerChannel.channel());
     }
 
+    /**
+     * Constructs my default state, sharing the connection of
+     * aBrokerChannel but opening my own channel on it so that
+     * my consumer is dispatched independently of its consumers.
+     * @param aBrokerChannel the BrokerChannel whose connection I share
+     * @param aName the String name of my implementor
+     * @param isOwnChannel the boolean indicating whether or not I open my own channel
+     */
+    protected BrokerChannel(
+            BrokerChannel aBrokerChannel,
+            String aName,
+            boolean isOwnChannel) {
+
+        this(aBrokerChannel, aName);
+
+        if (isOwnChannel) {
+            try {
+                this.setChannel(this.connection().createChannel());
+            } catch (IOException e) {
+                throw new MessageException("Failed to create/open the channel.", e);
+            }
+        }
+    }
+
     /**
      * Answers my channel.
      * @return Channel
@@ -14,18 +14,32 @@
 
 package com.saasovation.common.port.adapter.messaging.rabbitmq;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+
+import com.saasovation.common.port.adapter.messaging.IdempotentReceiver;
 
 /**
  * I am an abstract base class for exchange listeners.
  * I perform the basic set up according to the answers
- * from my concrete subclass.
+ * from my concrete subclass. By default a single consumer
+ * handles my messages one at a time. A subclass may answer
+ * a larger consumerCount(), in which case that many consumers,
+ * each on its own channel, compete for my queue's messages.
+ * If the subclass also answers isOrderedByKey(), a single
+ * channel instead feeds consumerCount() threads, and messages
+ * of the same orderingKey() are handled in the order received.
+ * A subclass answering an idempotentReceiver() is not given
+ * messages that it already handled, such as redeliveries.
+ * A subclass answering isBinary() is given binary messages,
+ * such as compact notifications, instead of text messages.
  *
  * @author Vaughn Vernon
  */
 public abstract class ExchangeListener {
 
-    private MessageConsumer messageConsumer;
+    private List<MessageConsumer> messageConsumers;
 
     private Queue queue;
 
@@ -41,10 +55,42 @@ public abstract class ExchangeListener {
     }
 
     /**
-     * Closes my queue.
+     * Closes my consumers and their queues.
      */
     public void close() {
-        this.queue().close();
+        for (MessageConsumer messageConsumer : this.messageConsumers()) {
+            messageConsumer.close();
+        }
+    }
+
+    /**
+     * Answers the maximum number of handled messages each of my
+     * consumers acknowledges together. By default it is 1, which
+     * acknowledges each message as it is handled. May be overridden,
+     * in which case it should be less than my prefetchCount().
+     * @return int
+     */
+    protected int acknowledgementBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Answers the maximum milliseconds a handled message waits to be
+     * acknowledged in a batch. By default it is 100. May be overridden.
+     * @return long
+     */
+    protected long acknowledgementDelayMillis() {
+        return 100L;
+    }
+
+    /**
+     * Answers the number of consumers, or of threads when I am
+     * ordered by key, that handle my messages in parallel. By
+     * default it is 1. May be overridden to increase parallelism.
+     * @return int
+     */
+    protected int consumerCount() {
+        return 1;
     }
 
     /**
@@ -60,12 +106,87 @@ public abstract class ExchangeListener {
      */
     protected abstract void filteredDispatch(String aType, String aTextMessage);
 
+    /**
+     * Filters out unwanted events and dispatches ones of interest
+     * when I am binary. Must be overridden if isBinary() is.
+     * @param aType the String message type
+     * @param aBinaryMessage the byte[] raw binary message being handled
+     */
+    protected void filteredDispatch(String aType, byte[] aBinaryMessage) {
+        throw new UnsupportedOperationException("Must be implemented by my subclass.");
+    }
+
+    /**
+     * Answers the IdempotentReceiver that remembers the messages I
+     * handled, so that their redeliveries are dropped, or null if all
+     * messages are dispatched. By default it is null. May be overridden.
+     * @return IdempotentReceiver
+     */
+    protected IdempotentReceiver idempotentReceiver() {
+        return null;
+    }
+
+    /**
+     * Answers whether or not my messages are binary, in which case
+     * they are dispatched as byte[]. By default it is false. May be
+     * overridden, for example to receive notifications published
+     * in the compact form of BinaryNotificationSerializer.
+     * @return boolean
+     */
+    protected boolean isBinary() {
+        return false;
+    }
+
+    /**
+     * Answers whether or not my messages are handled in order by
+     * their orderingKey(). By default it is false. May be overridden.
+     * @return boolean
+     */
+    protected boolean isOrderedByKey() {
+        return false;
+    }
+
     /**
      * Answers the kinds of messages I listen to.
      * @return String[]
      */
     protected abstract String[] listensTo();
 
+    /**
+     * Answers the String key of aTextMessage, all messages of which
+     * are handled in the order received when I am ordered by key. By
+     * default it is null, which leaves the message unordered. May be
+     * overridden to answer, for example, the message's tenant id.
+     * @param aType the String message type
+     * @param aTextMessage the String raw text message
+     * @return String
+     */
+    protected String orderingKey(String aType, String aTextMessage) {
+        return null;
+    }
+
+    /**
+     * Answers the String key of aBinaryMessage when I am binary, as
+     * orderingKey() of a text message does. By default it is null.
+     * @param aType the String message type
+     * @param aBinaryMessage the byte[] raw binary message
+     * @return String
+     */
+    protected String orderingKey(String aType, byte[] aBinaryMessage) {
+        return null;
+    }
+
+    /**
+     * Answers the maximum number of unacknowledged messages the broker
+     * delivers to each of my consumers. By default it is 0, which sets
+     * no limit. May be overridden, and should be when I use more than
+     * one consumer, so that messages are shared among the consumers.
+     * @return int
+     */
+    protected int prefetchCount() {
+        return 0;
+    }
+
     /**
      * Answers the String name of the queue I listen to. By
      * default it is the simple name of my concrete class.
@@ -92,6 +213,40 @@ public abstract class ExchangeListener {
                         this.exchangeName() + "." + this.queueName());
     }
 
+    /**
+     * Answers my messageConsumers.
+     * @return List<MessageConsumer>
+     */
+    private List<MessageConsumer> messageConsumers() {
+        return this.messageConsumers;
+    }
+
+    /**
+     * Answers whether or not the message of aMessageId is to be
+     * dispatched, which it is unless my idempotentReceiver()
+     * has already received it.
+     * @param aMessageId the String id of the message, or null
+     * @return boolean
+     */
+    private boolean isUnreceived(String aMessageId) {
+        IdempotentReceiver idempotentReceiver = this.idempotentReceiver();
+
+        return idempotentReceiver == null || aMessageId == null ||
+                !idempotentReceiver.isDuplicate(this.queue().name(), aMessageId);
+    }
+
+    /**
+     * Records that the message of aMessageId was dispatched.
+     * @param aMessageId the String id of the message, or null
+     */
+    private void received(String aMessageId) {
+        IdempotentReceiver idempotentReceiver = this.idempotentReceiver();
+
+        if (idempotentReceiver != null && aMessageId != null) {
+            idempotentReceiver.received(this.queue().name(), aMessageId);
+        }
+    }
+
     /**
      * Answers my queue.
      * @return Queue
@@ -101,14 +256,111 @@ public abstract class ExchangeListener {
     }
 
     /**
-     * Registers my listener for queue messages and dispatching.
+     * Registers my consumers, and their listener for queue messages
+     * and dispatching, as answered by my consumerCount() and
+     * isOrderedByKey().
      */
     private void registerConsumer() {
-        this.messageConsumer = MessageConsumer.instance(this.queue(), false);
+        int consumerCount = this.consumerCount();
+
+        if (consumerCount < 1) {
+            throw new IllegalArgumentException("There must be at least one consumer.");
+        }
+
+        MessageListener messageListener = this.messageListener();
+
+        this.messageConsumers = new ArrayList<MessageConsumer>();
+
+        if (this.isOrderedByKey()) {
+            MessageConsumer messageConsumer = this.messageConsumerOf(this.queue());
+
+            messageConsumer.dispatchInOrderByKey(consumerCount);
+
+            messageConsumer.receiveOnly(this.listensTo(), messageListener);
+
+        } else {
+            for (int idx = 0; idx < consumerCount; ++idx) {
+                Queue queue =
+                        idx == 0 ?
+                                this.queue() :
+                                Queue.competingConsumerInstance(this.queue());
+
+                MessageConsumer messageConsumer = this.messageConsumerOf(queue);
+
+                messageConsumer.receiveOnly(this.listensTo(), messageListener);
+            }
+        }
+    }
+
+    /**
+     * Answers a new MessageConsumer of aQueue that is limited to
+     * my prefetchCount(), acknowledges in batches of my
+     * acknowledgementBatchSize(), and is one of my messageConsumers.
+     * @param aQueue the Queue from which messages are received
+     * @return MessageConsumer
+     */
+    private MessageConsumer messageConsumerOf(Queue aQueue) {
+        MessageConsumer messageConsumer = MessageConsumer.instance(aQueue, false);
+
+        if (this.prefetchCount() > 0) {
+            messageConsumer.limitUnacknowledgedMessages(this.prefetchCount());
+        }
+
+        if (this.acknowledgementBatchSize() > 1) {
+            messageConsumer.acknowledgeInBatches(
+                    this.acknowledgementBatchSize(),
+                    this.acknowledgementDelayMillis());
+        }
+
+        this.messageConsumers().add(messageConsumer);
+
+        return messageConsumer;
+    }
+
+    /**
+     * Answers the MessageListener that orders and dispatches
+     * my messages to my subclass.
+     * @return MessageListener
+     */
+    private MessageListener messageListener() {
+        MessageListener.Type type =
+                this.isBinary() ?
+                        MessageListener.Type.BINARY :
+                        MessageListener.Type.TEXT;
+
+        return new MessageListener(type) {
+
+            @Override
+            public String orderingKey(
+                    String aType,
+                    String aMessageId,
+                    byte[] aBinaryMessage) {
+                return ExchangeListener.this.orderingKey(aType, aBinaryMessage);
+            }
+
+            @Override
+            public String orderingKey(
+                    String aType,
+                    String aMessageId,
+                    String aTextMessage) {
+                return ExchangeListener.this.orderingKey(aType, aTextMessage);
+            }
 
-        this.messageConsumer.receiveOnly(
-                this.listensTo(),
-                new MessageListener(MessageListener.Type.TEXT) {
+            @Override
+            public void handleMessage(
+                    String aType,
+                    String aMessageId,
+                    Date aTimestamp,
+                    byte[] aBinaryMessage,
+                    long aDeliveryTag,
+                    boolean isRedelivery)
+            throws Exception {
+                if (isUnreceived(aMessageId)) {
+                    filteredDispatch(aType, aBinaryMessage);
+
+                    received(aMessageId);
+                }
+            }
 
             @Override
             public void handleMessage(
@@ -119,8 +371,12 @@ public abstract class ExchangeListener {
                     long aDeliveryTag,
                     boolean isRedelivery)
             throws Exception {
-                filteredDispatch(aType, aTextMessage);
+                if (isUnreceived(aMessageId)) {
+                    filteredDispatch(aType, aTextMessage);
+
+                    received(aMessageId);
+                }
             }
-        });
+        };
     }
 }
@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.rabbitmq.client.AMQP.BasicProperties;
 import com.rabbitmq.client.Channel;
@@ -36,6 +37,9 @@ import com.saasovation.common.port.adapter.messaging.MessageException;
  */
 public class MessageConsumer {
 
+    /** My acknowledgementBatch, which acknowledges my messages in batches. */
+    private AcknowledgementBatch acknowledgementBatch;
+
     /** My autoAcknowledged property. */
     private boolean autoAcknowledged;
 
@@ -45,6 +49,9 @@ public class MessageConsumer {
     /** My messageTypes, which indicates the messages of types I accept. */
     private Set<String> messageTypes;
 
+    /** My orderedDispatcher, which handles messages off the channel in order by key. */
+    private OrderedDispatcher orderedDispatcher;
+
     /** My queue, which is where my messages come from. */
     private Queue queue;
 
@@ -84,15 +91,100 @@ public class MessageConsumer {
         return new MessageConsumer(aQueue, isAutoAcknowledged);
     }
 
+    /**
+     * Acknowledges the messages I handle in batches rather than one
+     * at a time. A batch is acknowledged once aMaximumMessages are
+     * handled or aMaximumDelayMillis passes, whichever comes first.
+     * A message that fails is rejected at once, as before. I must be
+     * told this before I start receiving, and aMaximumMessages should
+     * be less than any limit on my unacknowledged messages.
+     * @param aMaximumMessages the int maximum messages acknowledged together
+     * @param aMaximumDelayMillis the long maximum milliseconds a handled message waits for acknowledgement
+     */
+    public void acknowledgeInBatches(int aMaximumMessages, long aMaximumDelayMillis) {
+        if (this.tag() != null) {
+            throw new IllegalStateException("Already receiving messages.");
+        }
+
+        if (!this.isAutoAcknowledged()) {
+            this.setAcknowledgementBatch(
+                    new AcknowledgementBatch(
+                            this.queue().channel(),
+                            aMaximumMessages,
+                            aMaximumDelayMillis));
+        }
+    }
+
+    /**
+     * Answers the average milliseconds between receiving a message
+     * and acknowledging it, or 0 if I do not acknowledge in batches.
+     * @return double
+     */
+    public double averageAcknowledgementLatencyMillis() {
+        return this.acknowledgementBatch() == null ?
+                0.0d :
+                this.acknowledgementBatch().averageLatencyMillis();
+    }
+
+    /**
+     * Answers the number of messages I have acknowledged in
+     * batches, or 0 if I do not acknowledge in batches.
+     * @return long
+     */
+    public long batchAcknowledgedMessages() {
+        return this.acknowledgementBatch() == null ?
+                0L :
+                this.acknowledgementBatch().acknowledgedMessages();
+    }
+
+    /**
+     * Answers the number of batch acknowledgements I have sent
+     * to the broker, or 0 if I do not acknowledge in batches.
+     * @return long
+     */
+    public long batchAcknowledgements() {
+        return this.acknowledgementBatch() == null ?
+                0L :
+                this.acknowledgementBatch().acknowledgements();
+    }
+
     /**
      * Closes me, which closes my queue.
      */
     public void close() {
         this.setClosed(true);
 
+        if (this.orderedDispatcher() != null) {
+            this.orderedDispatcher().close();
+        }
+
+        if (this.acknowledgementBatch() != null) {
+            this.acknowledgementBatch().close();
+        }
+
         this.queue().close();
     }
 
+    /**
+     * Dispatches the messages I receive across aLaneCount threads
+     * rather than handling each on my channel's delivery thread.
+     * Messages for which my MessageListener answers the same ordering
+     * key are handled one at a time in the order my channel received
+     * them, while messages of other keys are handled in parallel. I
+     * must be told this before I start receiving, and should then also
+     * be told to limitUnacknowledgedMessages(), which bounds how many
+     * messages may wait in my lanes.
+     * @param aLaneCount the int number of threads handling messages
+     */
+    public void dispatchInOrderByKey(int aLaneCount) {
+        if (this.tag() != null) {
+            throw new IllegalStateException("Already receiving messages.");
+        }
+
+        this.setOrderedDispatcher(
+                new OrderedDispatcher(this.queue().name(), aLaneCount));
+    }
+
     /**
      * Answers whether or not I have been closed.
      * @return boolean
@@ -101,15 +193,36 @@ public class MessageConsumer {
         return this.closed;
     }
 
+    /**
+     * Answers the maximum milliseconds between receiving a message
+     * and acknowledging it, or 0 if I do not acknowledge in batches.
+     * @return double
+     */
+    public double maximumAcknowledgementLatencyMillis() {
+        return this.acknowledgementBatch() == null ?
+                0.0d :
+                this.acknowledgementBatch().maximumLatencyMillis();
+    }
+
     /**
      * Ensure an equalization of message distribution
      * across all consumers of this queue.
      */
     public void equalizeMessageDistribution() {
+        this.limitUnacknowledgedMessages(1);
+    }
+
+    /**
+     * Limits the messages the broker delivers to me without yet
+     * being acknowledged to aPrefetchCount, so that the remaining
+     * messages stay available to other consumers of my queue.
+     * @param aPrefetchCount the int maximum of unacknowledged messages, or 0 for no limit
+     */
+    public void limitUnacknowledgedMessages(int aPrefetchCount) {
         try {
-            this.queue().channel().basicQos(1);
+            this.queue().channel().basicQos(aPrefetchCount);
         } catch (IOException e) {
-            throw new MessageException("Cannot equalize distribution.", e);
+            throw new MessageException("Cannot limit unacknowledged messages.", e);
         }
     }
 
@@ -171,6 +284,23 @@ public class MessageConsumer {
         this.setAutoAcknowledged(isAutoAcknowledged);
     }
 
+    /**
+     * Answers my acknowledgementBatch, or null if I
+     * acknowledge each message as it is handled.
+     * @return AcknowledgementBatch
+     */
+    private AcknowledgementBatch acknowledgementBatch() {
+        return this.acknowledgementBatch;
+    }
+
+    /**
+     * Sets my acknowledgementBatch.
+     * @param anAcknowledgementBatch the AcknowledgementBatch to set as my acknowledgementBatch
+     */
+    private void setAcknowledgementBatch(AcknowledgementBatch anAcknowledgementBatch) {
+        this.acknowledgementBatch = anAcknowledgementBatch;
+    }
+
     /**
      * Answers my autoAcknowledged.
      * @return boolean
@@ -211,6 +341,23 @@ public class MessageConsumer {
         return this.messageTypes;
     }
 
+    /**
+     * Answers my orderedDispatcher, or null if I handle
+     * messages on my channel's delivery thread.
+     * @return OrderedDispatcher
+     */
+    private OrderedDispatcher orderedDispatcher() {
+        return this.orderedDispatcher;
+    }
+
+    /**
+     * Sets my orderedDispatcher.
+     * @param anOrderedDispatcher the OrderedDispatcher to set as my orderedDispatcher
+     */
+    private void setOrderedDispatcher(OrderedDispatcher anOrderedDispatcher) {
+        this.orderedDispatcher = anOrderedDispatcher;
+    }
+
     /**
      * Registers aMessageListener with the channel indirectly using
      * a DispatchingConsumer.
@@ -276,7 +423,11 @@ public class MessageConsumer {
                 byte[] aBody) throws IOException {
 
             if (!isClosed()) {
-                handle(this.messageListener(), new Delivery(anEnvelope, aProperties, aBody));
+                if (acknowledgementBatch() != null) {
+                    acknowledgementBatch().received(anEnvelope.getDeliveryTag());
+                }
+
+                this.dispatch(this.messageListener(), new Delivery(anEnvelope, aProperties, aBody));
             }
 
             if (isClosed()) {
@@ -292,6 +443,30 @@ public class MessageConsumer {
             close();
         }
 
+        private void dispatch(
+                final MessageListener aMessageListener,
+                final Delivery aDelivery) {
+
+            OrderedDispatcher dispatcher = orderedDispatcher();
+
+            if (dispatcher == null) {
+                this.handle(aMessageListener, aDelivery);
+            } else {
+                try {
+                    dispatcher.dispatch(
+                            this.orderingKey(aMessageListener, aDelivery),
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    handle(aMessageListener, aDelivery);
+                                }
+                            });
+                } catch (RejectedExecutionException e) {
+                    // closing; the broker redelivers the unacknowledged message
+                }
+            }
+        }
+
         private void handle(
                 MessageListener aMessageListener,
                 Delivery aDelivery) {
@@ -331,7 +506,10 @@ public class MessageConsumer {
 
         private void ack(Delivery aDelivery) {
             try {
-                if (!isAutoAcknowledged()) {
+                if (acknowledgementBatch() != null) {
+                    acknowledgementBatch().acknowledged(
+                            aDelivery.getEnvelope().getDeliveryTag());
+                } else if (!isAutoAcknowledged()) {
                     this.getChannel().basicAck(
                             aDelivery.getEnvelope().getDeliveryTag(),
                             false);
@@ -343,7 +521,11 @@ public class MessageConsumer {
 
         private void nack(Delivery aDelivery, boolean isRetry) {
             try {
-                if (!isAutoAcknowledged()) {
+                if (acknowledgementBatch() != null) {
+                    acknowledgementBatch().rejected(
+                            aDelivery.getEnvelope().getDeliveryTag(),
+                            isRetry);
+                } else if (!isAutoAcknowledged()) {
                     this.getChannel().basicNack(
                             aDelivery.getEnvelope().getDeliveryTag(),
                             false,
@@ -354,6 +536,37 @@ public class MessageConsumer {
             }
         }
 
+        private String orderingKey(
+                MessageListener aMessageListener,
+                Delivery aDelivery) {
+
+            String orderingKey = null;
+
+            try {
+                if (this.filteredMessageType(aDelivery)) {
+                    ;
+                } else if (aMessageListener.type().isBinaryListener()) {
+                    orderingKey =
+                        aMessageListener
+                            .orderingKey(
+                                    aDelivery.getProperties().getType(),
+                                    aDelivery.getProperties().getMessageId(),
+                                    aDelivery.getBody());
+                } else if (aMessageListener.type().isTextListener()) {
+                    orderingKey =
+                        aMessageListener
+                            .orderingKey(
+                                    aDelivery.getProperties().getType(),
+                                    aDelivery.getProperties().getMessageId(),
+                                    new String(aDelivery.getBody()));
+                }
+            } catch (Throwable t) {
+                // unordered; handling the message reports its failure
+            }
+
+            return orderingKey;
+        }
+
         private boolean filteredMessageType(Delivery aDelivery) {
             boolean filtered = false;
 
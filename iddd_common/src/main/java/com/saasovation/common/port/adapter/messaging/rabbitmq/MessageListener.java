@@ -125,6 +125,42 @@ public abstract class MessageListener {
         throw new UnsupportedOperationException("Must be implemented by my subclass.");
     }
 
+    /**
+     * Answers the String key of aBinaryMessage when its MessageConsumer
+     * dispatches in order by key. Messages answering the same key are
+     * handled one at a time in the order received. By default I answer
+     * null, meaning that the message may be handled in any order.
+     * @param aType the String type of the message if sent, or null
+     * @param aMessageId the String id of the message if sent, or null
+     * @param aBinaryMessage the byte[] containing the binary message
+     * @return String
+     */
+    public String orderingKey(
+            String aType,
+            String aMessageId,
+            byte[] aBinaryMessage) {
+
+        return null;
+    }
+
+    /**
+     * Answers the String key of aTextMessage when its MessageConsumer
+     * dispatches in order by key. Messages answering the same key are
+     * handled one at a time in the order received. By default I answer
+     * null, meaning that the message may be handled in any order.
+     * @param aType the String type of the message if sent, or null
+     * @param aMessageId the String id of the message if sent, or null
+     * @param aTextMessage the String containing the text message
+     * @return String
+     */
+    public String orderingKey(
+            String aType,
+            String aMessageId,
+            String aTextMessage) {
+
+        return null;
+    }
+
     /**
      * Answers my type.
      * @return Type
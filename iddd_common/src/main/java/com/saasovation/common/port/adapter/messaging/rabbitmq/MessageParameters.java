@@ -27,6 +27,31 @@ public class MessageParameters {
 
     private BasicProperties properties;
 
+    public static MessageParameters durableBinaryParameters(
+            String aType,
+            String aMessageId,
+            Date aTimestamp) {
+
+        BasicProperties properties =
+            new BasicProperties(
+                    "application/octet-stream", // contentType
+                    null,           // contentEncoding
+                    null,           // headers
+                    2,              // deliveryMode, persistent
+                    0,              // priority
+                    null,           // correlationId
+                    null,           // replyTo
+                    null,           // expiration
+                    aMessageId,     // messageId
+                    aTimestamp,     // timestamp
+                    aType,          // type
+                    null,           // userId
+                    null,           // appId
+                    null);          // clusterId
+
+        return new MessageParameters(properties);
+    }
+
     public static MessageParameters durableTextParameters(
             String aType,
             String aMessageId,
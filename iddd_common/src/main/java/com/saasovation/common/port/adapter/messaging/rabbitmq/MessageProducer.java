@@ -17,6 +17,7 @@ package com.saasovation.common.port.adapter.messaging.rabbitmq;
 import java.io.IOException;
 
 import com.rabbitmq.client.AMQP.BasicProperties;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.client.MessageProperties;
 import com.saasovation.common.port.adapter.messaging.MessageException;
 
@@ -47,6 +48,44 @@ public class MessageProducer {
         this.brokerChannel().close();
     }
 
+    /**
+     * Answers the receiver after putting my channel into publisher
+     * confirm mode, with aConfirmListener receiving the broker's acks
+     * and nacks. The delivery tag of each message I send thereafter is
+     * the nextDeliveryTag() answered just before sending it.
+     * @param aConfirmListener the ConfirmListener to receive confirms
+     * @return MessageProducer
+     */
+    public MessageProducer confirmDeliveriesTo(ConfirmListener aConfirmListener) {
+        try {
+            this.brokerChannel().channel().addConfirmListener(aConfirmListener);
+
+            this.brokerChannel().channel().confirmSelect();
+
+        } catch (IOException e) {
+            throw new MessageException("Failed to select publisher confirms.", e);
+        }
+        return this;
+    }
+
+    /**
+     * Answers whether or not my broker channel is open.
+     * @return boolean
+     */
+    public boolean isOpen() {
+        return this.brokerChannel().channel() != null
+                && this.brokerChannel().channel().isOpen();
+    }
+
+    /**
+     * Answers the delivery tag of the next message I send
+     * when my channel is in publisher confirm mode.
+     * @return long
+     */
+    public long nextDeliveryTag() {
+        return this.brokerChannel().channel().getNextPublishSeqNo();
+    }
+
     /**
      * Answers the receiver after sending aTextMessage to my channel.
      * This is a producer ignorance way to use either an exchange or
@@ -200,7 +239,7 @@ public class MessageProducer {
             this.brokerChannel().channel().basicPublish(
                     this.brokerChannel().exchangeName(),
                     this.brokerChannel().queueName(),
-                    this.binaryDurability(),
+                    aMessageParameters.properties(),
                     aBinaryMessage);
 
         } catch (IOException e) {
@@ -230,7 +269,7 @@ public class MessageProducer {
             this.brokerChannel().channel().basicPublish(
                     this.brokerChannel().exchangeName(),
                     aRoutingKey,
-                    this.binaryDurability(),
+                    aMessageParameters.properties(),
                     aBinaryMessage);
 
         } catch (IOException e) {
@@ -261,7 +300,7 @@ public class MessageProducer {
             this.brokerChannel().channel().basicPublish(
                     anExchange,
                     aRoutingKey,
-                    this.binaryDurability(),
+                    aMessageParameters.properties(),
                     aBinaryMessage);
 
         } catch (IOException e) {
@@ -0,0 +1,169 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging.rabbitmq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * I am a dispatcher of message handling across a fixed number of
+ * lanes, each served by its own single thread. All handling given
+ * the same ordering key runs on the same lane, so it completes in
+ * the order it was dispatched, while handling for other keys runs
+ * in parallel on the other lanes. Handling without a key is spread
+ * across the lanes round robin.
+ */
+class OrderedDispatcher {
+
+    /** The milliseconds I wait for my lanes to drain when closed. */
+    private static final long CLOSE_WAIT_MILLIS = 5000L;
+
+    /** My lanes, each of which runs one task at a time. */
+    private List<ExecutorService> lanes;
+
+    /** My nextLane, which selects the lane for unkeyed tasks. */
+    private AtomicInteger nextLane;
+
+    /**
+     * Constructs my default state.
+     * @param aName the String name given to my lane threads
+     * @param aLaneCount the int number of lanes, which must be at least 1
+     */
+    OrderedDispatcher(String aName, int aLaneCount) {
+        super();
+
+        if (aLaneCount < 1) {
+            throw new IllegalArgumentException("There must be at least one lane.");
+        }
+
+        this.setNextLane(new AtomicInteger(0));
+        this.setLanes(this.newLanes(aName, aLaneCount));
+    }
+
+    /**
+     * Closes me, letting my lanes finish the tasks already
+     * dispatched to them before their threads end.
+     */
+    void close() {
+        for (ExecutorService lane : this.lanes()) {
+            lane.shutdown();
+        }
+
+        try {
+            for (ExecutorService lane : this.lanes()) {
+                lane.awaitTermination(CLOSE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Dispatches aTask to the lane of anOrderingKey, or to the
+     * next lane round robin if anOrderingKey is null.
+     * @param anOrderingKey the String key of tasks to run in order, or null
+     * @param aTask the Runnable to run
+     */
+    void dispatch(String anOrderingKey, Runnable aTask) {
+        this.lanes().get(this.laneOf(anOrderingKey)).execute(aTask);
+    }
+
+    /**
+     * Answers the number of my lanes.
+     * @return int
+     */
+    int laneCount() {
+        return this.lanes().size();
+    }
+
+    /**
+     * Answers the index of the lane for anOrderingKey.
+     * @param anOrderingKey the String key, or null
+     * @return int
+     */
+    int laneOf(String anOrderingKey) {
+        int hash =
+                anOrderingKey == null ?
+                        this.nextLane().getAndIncrement() :
+                        anOrderingKey.hashCode();
+
+        return (hash & Integer.MAX_VALUE) % this.laneCount();
+    }
+
+    /**
+     * Answers my lanes.
+     * @return List<ExecutorService>
+     */
+    private List<ExecutorService> lanes() {
+        return this.lanes;
+    }
+
+    /**
+     * Sets my lanes.
+     * @param aLanes the List<ExecutorService> to set as my lanes
+     */
+    private void setLanes(List<ExecutorService> aLanes) {
+        this.lanes = aLanes;
+    }
+
+    /**
+     * Answers new lanes of daemon threads named for aName.
+     * @param aName the String name given to the lane threads
+     * @param aLaneCount the int number of lanes
+     * @return List<ExecutorService>
+     */
+    private List<ExecutorService> newLanes(final String aName, int aLaneCount) {
+        List<ExecutorService> lanes = new ArrayList<ExecutorService>(aLaneCount);
+
+        for (int idx = 0; idx < aLaneCount; ++idx) {
+            final String threadName = aName + "-lane-" + idx;
+
+            lanes.add(Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable aRunnable) {
+                    Thread thread = new Thread(aRunnable, threadName);
+
+                    thread.setDaemon(true);
+
+                    return thread;
+                }
+            }));
+        }
+
+        return lanes;
+    }
+
+    /**
+     * Answers my nextLane.
+     * @return AtomicInteger
+     */
+    private AtomicInteger nextLane() {
+        return this.nextLane;
+    }
+
+    /**
+     * Sets my nextLane.
+     * @param aNextLane the AtomicInteger to set as my nextLane
+     */
+    private void setNextLane(AtomicInteger aNextLane) {
+        this.nextLane = aNextLane;
+    }
+}
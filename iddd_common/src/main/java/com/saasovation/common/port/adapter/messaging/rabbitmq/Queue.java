@@ -244,6 +244,19 @@ public class Queue extends BrokerChannel {
         return queue;
     }
 
+    /**
+     * Answers a new instance of a Queue that receives from the same
+     * broker queue as aQueue. The connection of aQueue is reused, but
+     * the new Queue has its own channel, so a MessageConsumer of it
+     * competes with the consumer of aQueue rather than being dispatched
+     * on the same channel. The broker queue must already be declared.
+     * @param aQueue the Queue whose broker queue is shared
+     * @return Queue
+     */
+    public static Queue competingConsumerInstance(Queue aQueue) {
+        return new Queue(aQueue);
+    }
+
     /**
      * Constructs my default state.
      * @param aConnectionSettings the ConnectionSettings
@@ -315,6 +328,24 @@ public class Queue extends BrokerChannel {
         }
     }
 
+    /**
+     * Constructs my default state on my own channel of the
+     * connection of aQueue, sharing its already declared queue.
+     * @param aQueue the Queue whose connection and queue I share
+     */
+    protected Queue(Queue aQueue) {
+
+        super(aQueue, aQueue.name(), true);
+
+        this.setDurable(aQueue.isDurable());
+
+        try {
+            this.channel().queueDeclarePassive(aQueue.name());
+        } catch (IOException e) {
+            throw new MessageException("Failed to open the queue.", e);
+        }
+    }
+
     /**
      * @see com.saasovation.common.port.adapter.messaging.rabbitmq.BrokerChannel#isQueue()
      */
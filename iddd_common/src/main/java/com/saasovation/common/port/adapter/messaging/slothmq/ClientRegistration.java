@@ -42,7 +42,6 @@ public class ClientRegistration {
     }
 
 	public void addSubscription(String anExchangeName) {
-		System.out.println("ADDING EXCHANGE: " + anExchangeName);
 		this.exchanges.add(anExchangeName);
 	}
 
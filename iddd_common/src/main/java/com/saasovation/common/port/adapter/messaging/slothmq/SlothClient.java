@@ -14,6 +14,10 @@
 
 package com.saasovation.common.port.adapter.messaging.slothmq;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -21,10 +25,19 @@ import java.util.Map;
 
 public class SlothClient extends SlothWorker {
 
+	private static final int CONNECT_ATTEMPTS = 20;
+	private static final long CONNECT_RETRY_MILLIS = 100L;
+	private static final int INITIAL_SEND_BUFFER_CAPACITY = 64 * 1024;
+
 	private static SlothClient instance;
 
+	private volatile SocketChannel channel;
+	private volatile boolean closed;
 	private Map<String,ExchangeListener> exchangeListeners;
 	private Object lock;
+	private int port;
+	private ByteBuffer sendBuffer;
+	private Object sendLock;
 
 	public static synchronized SlothClient instance() {
 		if (instance == null) {
@@ -37,14 +50,11 @@ public class SlothClient extends SlothWorker {
 	public void close() {
 		System.out.println("SLOTH CLIENT: Closing...");
 
-		super.close();
+		this.unregisterAll();
 
-		List<ExchangeListener> listeners =
-				new ArrayList<ExchangeListener>(this.exchangeListeners.values());
+		this.closed = true;
 
-		for (ExchangeListener listener : listeners) {
-			this.unregister(listener);
-		}
+		this.closeChannel();
 
 		System.out.println("SLOTH CLIENT: Closed.");
 	}
@@ -52,15 +62,19 @@ public class SlothClient extends SlothWorker {
 	public void closeAll() {
 		instance = null;
 
-		this.close();
+		this.unregisterAll();
 
 		this.sendToServer("CLOSE:");
+
+		this.closed = true;
+
+		this.closeChannel();
 	}
 
 	public void publish(String anExchangeName, String aType, String aMessage) {
 		String encodedMessage = "PUBLISH:" + anExchangeName + "TYPE:" + aType + "MSG:" + aMessage;
 
-        this.sendToServer(encodedMessage);
+		this.sendToServer(encodedMessage);
 	}
 
 	public void register(ExchangeListener anExchangeListener) {
@@ -79,18 +93,82 @@ public class SlothClient extends SlothWorker {
 		this.sendToServer("UNSUBSCRIBE:" + this.port() + ":" + anExchangeListener.exchangeName());
 	}
 
+	@Override
+	protected boolean isClosed() {
+		return this.closed;
+	}
+
+	protected int port() {
+		return this.port;
+	}
+
 	private SlothClient() {
 		super();
 
 		this.exchangeListeners = new HashMap<String,ExchangeListener>();
 		this.lock = new Object();
+		this.sendBuffer = ByteBuffer.allocateDirect(INITIAL_SEND_BUFFER_CAPACITY);
+		this.sendLock = new Object();
 
+		this.open(CONNECT_ATTEMPTS);
 		this.attach();
 		this.receiveAll();
 	}
 
 	private void attach() {
-        this.sendToServer("ATTACH:" + this.port());
+		this.sendToServer("ATTACH:" + this.port());
+	}
+
+	private void closeChannel() {
+		this.closeChannel(this.channel);
+	}
+
+	private void closeChannel(SocketChannel aChannel) {
+		synchronized (sendLock) {
+			// a channel already replaced by a reconnect stays in use
+			if (this.channel == aChannel) {
+				this.channel = null;
+			}
+		}
+
+		if (aChannel != null) {
+			try {
+				aChannel.close();
+			} catch (IOException e) {
+				System.out.println("SLOTH CLIENT: problems closing socket.");
+			}
+		}
+	}
+
+	private SocketChannel connectedChannel() throws IOException {
+		synchronized (sendLock) {
+			if (this.channel == null && !this.isClosed()) {
+				this.open(1);
+
+				SocketChannel channel = this.channel;
+
+				if (channel != null) {
+					// the server knows this client only by its new port
+					this.write(channel, ("ATTACH:" + this.port()).getBytes(UTF_8));
+
+					List<ExchangeListener> listeners = null;
+
+					synchronized (lock) {
+						listeners = new ArrayList<ExchangeListener>(this.exchangeListeners.values());
+					}
+
+					for (ExchangeListener listener : listeners) {
+						this.write(channel, ("SUBSCRIBE:" + this.port() + ":" + listener.exchangeName()).getBytes(UTF_8));
+					}
+				}
+			}
+
+			if (this.channel == null) {
+				throw new IOException("not connected");
+			}
+
+			return this.channel;
+		}
 	}
 
 	private void dispatchMessage(String anEncodedMessage) {
@@ -111,8 +189,6 @@ public class SlothClient extends SlothWorker {
 		for (ExchangeListener listener : listeners) {
 			if (listener.exchangeName().equals(exchangeName) && listener.listensTo(type)) {
 				try {
-					System.out.println("SLOTH CLIENT: Dispatching: Exchange: " + exchangeName + " Type: " + type + " Msg: " + message);
-
 					listener.filteredDispatch(type, message);
 				} catch (Exception e) {
 					System.out.println("SLOTH CLIENT: Exception while dispatching message: "
@@ -123,26 +199,134 @@ public class SlothClient extends SlothWorker {
 		}
 	}
 
+	private void open(int anAttempts) {
+		for (int attempt = 1; this.channel == null && attempt <= anAttempts; ++attempt) {
+			try {
+				SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", HUB_PORT));
+
+				channel.socket().setTcpNoDelay(true);
+
+				this.port = channel.socket().getLocalPort();
+				this.channel = channel;
+
+				System.out.println("SLOTH CLIENT: Opened on port: " + this.port);
+
+			} catch (IOException e) {
+				if (attempt == anAttempts) {
+					System.out.println("SLOTH CLIENT: Cannot connect because: " + e.getMessage());
+				} else {
+					this.sleepFor(CONNECT_RETRY_MILLIS);
+				}
+			}
+		}
+	}
+
 	private void receiveAll() {
 		Thread receiverThread = new Thread() {
 			@Override
 			public void run() {
+				List<String> receivedFrames = new ArrayList<String>();
+
 				while (!isClosed()) {
-					String receivedData = null;
+					SocketChannel channel = null;
+
+					try {
+						channel = connectedChannel();
+
+						// a partial frame never carries over to a new connection
+						SlothFrameReader reader = new SlothFrameReader();
+
+						int bytesRead = 0;
+
+						while (bytesRead != -1) {
+							receivedFrames.clear();
+
+							bytesRead = reader.read(channel, receivedFrames);
 
-                    synchronized (lock) {
-                        receivedData = receive();
-                    }
+							for (String receivedData : receivedFrames) {
+								dispatchMessage(receivedData);
+							}
+						}
 
-					if (receivedData != null) {
-						dispatchMessage(receivedData.trim());
-					} else {
-                        sleepFor(10L);
+						closeChannel(channel);
+
+					} catch (Exception e) {
+						if (!isClosed()) {
+							System.out.println("SLOTH CLIENT: Failed to receive because: " + e.getMessage() + ": Reconnecting...");
+
+							closeChannel(channel);
+
+							sleepFor(CONNECT_RETRY_MILLIS);
+						}
 					}
 				}
 			}
 		};
 
+		receiverThread.setDaemon(true);
 		receiverThread.start();
 	}
+
+	private void sendToServer(String anEncodedMessage) {
+		byte[] bytes = anEncodedMessage.getBytes(UTF_8);
+
+		try {
+			checkedFrameLength(bytes.length);
+
+		} catch (IOException e) {
+			System.out.println("SLOTH CLIENT: Cannot send because: " + e.getMessage() + ": Continuing...");
+
+			return;
+		}
+
+		synchronized (sendLock) {
+			SocketChannel channel = null;
+
+			try {
+				channel = this.connectedChannel();
+
+				this.write(channel, bytes);
+
+			} catch (IOException e) {
+				// the server may have restarted, so reconnect and try once more
+				this.closeChannel(channel);
+
+				try {
+					this.write(this.connectedChannel(), bytes);
+
+				} catch (IOException again) {
+					System.out.println("SLOTH CLIENT: Failed to send because: " + again.getMessage() + ": Continuing...");
+				}
+			}
+		}
+	}
+
+	private void write(SocketChannel aChannel, byte[] aBytes) throws IOException {
+		int frameLength = FRAME_HEADER_LENGTH + aBytes.length;
+
+		if (frameLength > this.sendBuffer.capacity()) {
+			this.sendBuffer = ByteBuffer.allocateDirect(Math.max(frameLength, this.sendBuffer.capacity() * 2));
+		}
+
+		this.sendBuffer.clear();
+		this.sendBuffer.putInt(aBytes.length);
+		this.sendBuffer.put(aBytes);
+		this.sendBuffer.flip();
+
+		while (this.sendBuffer.hasRemaining()) {
+			aChannel.write(this.sendBuffer);
+		}
+	}
+
+	private void unregisterAll() {
+		List<ExchangeListener> listeners = null;
+
+		synchronized (lock) {
+			listeners = new ArrayList<ExchangeListener>(this.exchangeListeners.values());
+		}
+
+		for (ExchangeListener listener : listeners) {
+			this.unregister(listener);
+		}
+	}
 }
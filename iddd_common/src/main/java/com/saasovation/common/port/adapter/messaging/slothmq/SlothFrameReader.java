@@ -0,0 +1,90 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.messaging.slothmq;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+/**
+ * I read SlothMQ frames from a connection into a direct buffer that I
+ * reuse for every read. I answer each complete frame as text, and keep
+ * any partial frame until the rest of it arrives, growing my buffer
+ * only when a single frame is larger than it.
+ */
+class SlothFrameReader {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private ByteBuffer buffer;
+
+    SlothFrameReader() {
+        super();
+
+        this.buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+    }
+
+    int read(ReadableByteChannel aChannel, List<String> aFrames) throws IOException {
+        int bytesRead = aChannel.read(this.buffer);
+
+        if (bytesRead > 0) {
+            this.collectFrames(aFrames);
+        }
+
+        return bytesRead;
+    }
+
+    private void collectFrames(List<String> aFrames) throws IOException {
+        this.buffer.flip();
+
+        int requiredCapacity = 0;
+
+        while (this.buffer.remaining() >= SlothWorker.FRAME_HEADER_LENGTH) {
+            int length =
+                    SlothWorker.checkedFrameLength(
+                            this.buffer.getInt(this.buffer.position()));
+
+            int frameLength = SlothWorker.FRAME_HEADER_LENGTH + length;
+
+            if (this.buffer.remaining() < frameLength) {
+                requiredCapacity = frameLength;
+                break;
+            }
+
+            this.buffer.position(this.buffer.position() + SlothWorker.FRAME_HEADER_LENGTH);
+
+            byte[] bytes = new byte[length];
+
+            this.buffer.get(bytes);
+
+            aFrames.add(new String(bytes, SlothWorker.UTF_8));
+        }
+
+        this.buffer.compact();
+
+        if (requiredCapacity > this.buffer.capacity()) {
+            ByteBuffer largerBuffer =
+                    ByteBuffer.allocateDirect(
+                            Math.max(requiredCapacity, this.buffer.capacity() * 2));
+
+            this.buffer.flip();
+
+            largerBuffer.put(this.buffer);
+
+            this.buffer = largerBuffer;
+        }
+    }
+}
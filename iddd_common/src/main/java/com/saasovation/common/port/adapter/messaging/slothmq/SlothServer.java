@@ -14,23 +14,51 @@
 
 package com.saasovation.common.port.adapter.messaging.slothmq;
 
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 
 /**
- * I am a simple messaging server.
+ * I am a simple messaging server. A single thread serves all client
+ * connections through a Selector, and each client keeps one connection
+ * open for everything it sends and receives.
  *
  * @author Vaughn Vernon
  */
 public class SlothServer extends SlothWorker {
 
+	private static final int BIND_ATTEMPTS = 20;
+	private static final long BIND_RETRY_MILLIS = 100L;
+	private static final int MAXIMUM_PENDING_BYTES = 4 * MAXIMUM_FRAME_LENGTH;
+
+	private Map<Integer,ClientConnection> clientConnections;
 	private Map<Integer,ClientRegistration> clientRegistrations;
+	private Selector selector;
+	private ServerSocketChannel socket;
 
 	public static void executeInProcessDetachedServer() {
+		// bound before returning so that clients may connect at once
+		final SlothServer slothServer = new SlothServer();
+
 		Thread serverThread = new Thread() {
 			@Override
 			public void run() {
-				SlothServer.executeNewServer();
+				slothServer.execute();
 			}
 		};
 
@@ -50,53 +78,191 @@ public class SlothServer extends SlothWorker {
 	public SlothServer() {
 		super();
 
+		this.clientConnections = new HashMap<Integer,ClientConnection>();
 		this.clientRegistrations = new HashMap<Integer,ClientRegistration>();
+
+		this.open();
 	}
 
 	public void execute() {
 
+		List<String> receivedFrames = new ArrayList<String>();
+
 		while (!this.isClosed()) {
-		    String receivedData = this.receive();
+			try {
+				this.selector.select();
+
+				Iterator<SelectionKey> selectedKeys = this.selector.selectedKeys().iterator();
+
+				while (!this.isClosed() && selectedKeys.hasNext()) {
+					SelectionKey key = selectedKeys.next();
+
+					selectedKeys.remove();
+
+					if (!key.isValid()) {
+						continue;
+					}
+
+					if (key.isAcceptable()) {
+						this.accept();
+					} else {
+						if (key.isReadable()) {
+							receivedFrames.clear();
+
+							this.receive(key, receivedFrames);
+
+							for (String receivedData : receivedFrames) {
+								if (!this.isClosed()) {
+									this.handleMessage((ClientConnection) key.attachment(), receivedData);
+								}
+							}
+						}
+
+						if (!this.isClosed() && key.isValid() && key.isWritable()) {
+							this.flush((ClientConnection) key.attachment());
+						}
+					}
+				}
+			} catch (Exception e) {
+				if (!this.isClosed()) {
+					System.out.println("SLOTH SERVER: Failed to serve because: " + e.getMessage() + ": Continuing...");
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	@Override
+	protected void close() {
+		if (this.isClosed()) {
+			return;
+		}
+
+		for (SelectionKey key : this.selector.keys()) {
+			this.closeChannel(key);
+		}
 
-		    if (receivedData != null) {
-		        this.handleMessage(receivedData);
-		    }
+		try {
+			this.selector.close();
+		} catch (IOException e) {
+			// ignore
 		}
+
+		try {
+			this.socket.close();
+		} catch (IOException e) {
+			System.out.println("SLOTH SERVER: problems closing socket.");
+		}
+
+		this.socket = null;
+
+		System.out.println("SLOTH SERVER: Closed.");
 	}
 
 	@Override
-	protected boolean slothHub() {
-	    return true;
+	protected boolean isClosed() {
+		return this.socket == null;
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel = this.socket.accept();
+
+		if (channel != null) {
+			channel.configureBlocking(false);
+			channel.socket().setTcpNoDelay(true);
+
+			SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+
+			key.attach(new ClientConnection(key));
+		}
 	}
 
-	private ClientRegistration attach(String aReceivedData) {
+	private ClientRegistration attach(ClientConnection aConnection, String aReceivedData) {
 		int port = Integer.parseInt(aReceivedData.substring(7));
 
-		return this.attach(port);
+		return this.attach(aConnection, port);
+	}
+
+	private ClientRegistration attach(ClientConnection aConnection, int aPort) {
+		ClientRegistration clientRegistration = this.clientRegistrations.get(aPort);
+
+		if (clientRegistration == null) {
+			clientRegistration = new ClientRegistration(aPort);
+			this.clientRegistrations.put(aPort, clientRegistration);
+		}
+
+		this.clientConnections.put(aPort, aConnection);
+
+		aConnection.ports().add(aPort);
+
+		return clientRegistration;
+	}
+
+	private void closeChannel(SelectionKey aKey) {
+		aKey.cancel();
+
+		try {
+			aKey.channel().close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private void detach(SelectionKey aKey) {
+		ClientConnection connection = (ClientConnection) aKey.attachment();
+
+		if (connection != null) {
+			for (Integer port : connection.ports()) {
+				this.clientConnections.remove(port);
+				this.clientRegistrations.remove(port);
+			}
+		}
+
+		this.closeChannel(aKey);
 	}
 
-    private ClientRegistration attach(int aPort) {
-        ClientRegistration clientRegistration = this.clientRegistrations.get(aPort);
+	private void flush(ClientConnection aConnection) {
+		SelectionKey key = aConnection.key();
+
+		try {
+			SocketChannel channel = (SocketChannel) key.channel();
 
-        if (clientRegistration == null) {
-            clientRegistration = new ClientRegistration(aPort);
-            this.clientRegistrations.put(aPort, clientRegistration);
-        }
+			Queue<ByteBuffer> pendingFrames = aConnection.pendingFrames();
 
-        return clientRegistration;
-    }
+			while (!pendingFrames.isEmpty()) {
+				ByteBuffer frame = pendingFrames.peek();
 
-	private void handleMessage(String aReceivedData) {
-		System.out.println("SLOTH SERVER: Handling: " + aReceivedData);
+				channel.write(frame);
 
+				if (frame.hasRemaining()) {
+					key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+					return;
+				}
+
+				aConnection.pendingBytes(-frame.limit());
+
+				pendingFrames.poll();
+			}
+
+			key.interestOps(SelectionKey.OP_READ);
+
+		} catch (Exception e) {
+			System.out.println("SLOTH SERVER: Failed to send because: " + e.getMessage() + ": Detaching client...");
+
+			this.detach(key);
+		}
+	}
+
+	private void handleMessage(ClientConnection aConnection, String aReceivedData) {
 		if (aReceivedData.startsWith("ATTACH:")) {
-			this.attach(aReceivedData);
+			this.attach(aConnection, aReceivedData);
 		} else if (aReceivedData.startsWith("CLOSE:")) {
 			this.close();
 		} else if (aReceivedData.startsWith("PUBLISH:")) {
 			this.publishToClients(aReceivedData);
 		} else if (aReceivedData.startsWith("SUBSCRIBE:")) {
-			this.subscribeClientTo(aReceivedData.substring(10));
+			this.subscribeClientTo(aConnection, aReceivedData.substring(10));
 		} else if (aReceivedData.startsWith("UNSUBSCRIBE:")) {
 			this.unsubscribeClientFrom(aReceivedData.substring(12));
 		} else {
@@ -104,6 +270,41 @@ public class SlothServer extends SlothWorker {
 		}
 	}
 
+	private void open() {
+		try {
+			this.selector = Selector.open();
+			this.socket = ServerSocketChannel.open();
+			this.socket.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			this.bind();
+			this.socket.configureBlocking(false);
+			this.socket.register(this.selector, SelectionKey.OP_ACCEPT);
+			System.out.println("SLOTH SERVER: Opened on port: " + HUB_PORT);
+
+		} catch (Exception e) {
+			System.out.println("SLOTH SERVER: Cannot connect because: " + e.getMessage());
+
+			this.socket = null;
+		}
+	}
+
+	private void bind() throws IOException {
+		// a server told to CLOSE: may not have released the port yet
+		for (int attempt = 1; ; ++attempt) {
+			try {
+				this.socket.bind(new InetSocketAddress(HUB_PORT));
+
+				return;
+
+			} catch (BindException e) {
+				if (attempt == BIND_ATTEMPTS) {
+					throw e;
+				}
+
+				this.sleepFor(BIND_RETRY_MILLIS);
+			}
+		}
+	}
+
 	private void publishToClients(String anExchangeMessage) {
 
 		int exchangeDivider = anExchangeMessage.indexOf("PUBLISH:");
@@ -116,41 +317,126 @@ public class SlothServer extends SlothWorker {
 		} else {
 			String exchangeName = anExchangeMessage.substring(exchangeDivider + 8, typeDivider);
 
-			for (ClientRegistration clientSubscriptions : this.clientRegistrations.values()) {
-				if (clientSubscriptions.isSubscribedTo(exchangeName)) {
-					this.sendTo(clientSubscriptions.port(), anExchangeMessage);
+			ByteBuffer frame = null;
+
+			for (ClientRegistration clientSubscriptions : new ArrayList<ClientRegistration>(this.clientRegistrations.values())) {
+				ClientConnection connection = this.clientConnections.get(clientSubscriptions.port());
+
+				if (connection != null && clientSubscriptions.isSubscribedTo(exchangeName)) {
+					try {
+						if (frame == null) {
+							frame = frameOf(anExchangeMessage);
+						}
+					} catch (IOException e) {
+						System.out.println("SLOTH SERVER: PUBLISH: " + e.getMessage() + "; ignoring.");
+
+						return;
+					}
+
+					// each client writes from its own view of the one frame
+					this.send(connection, frame.duplicate());
 				}
 			}
 		}
 	}
 
-	private void subscribeClientTo(String aPortWithExchangeName) {
+	private void receive(SelectionKey aKey, List<String> aReceivedFrames) {
+		ClientConnection connection = (ClientConnection) aKey.attachment();
+
+		try {
+			int bytesRead = connection.reader().read((SocketChannel) aKey.channel(), aReceivedFrames);
+
+			if (bytesRead == -1) {
+				this.detach(aKey);
+			}
+
+		} catch (IOException e) {
+			System.out.println("SLOTH SERVER: Failed to receive because: " + e.getMessage() + ": Detaching client...");
+
+			this.detach(aKey);
+		}
+	}
+
+	private void send(ClientConnection aConnection, ByteBuffer aFrame) {
+		if (aConnection.key().isValid()) {
+			if (aConnection.pendingBytes() + aFrame.limit() > MAXIMUM_PENDING_BYTES) {
+				// a subscriber that cannot keep up must not exhaust the server
+				System.out.println("SLOTH SERVER: Client too slow with "
+						+ aConnection.pendingBytes() + " bytes pending: Detaching client...");
+
+				this.detach(aConnection.key());
+
+				return;
+			}
+
+			aConnection.pendingBytes(aFrame.limit());
+			aConnection.pendingFrames().add(aFrame);
+
+			this.flush(aConnection);
+		}
+	}
+
+	private void subscribeClientTo(ClientConnection aConnection, String aPortWithExchangeName) {
 	    String[] parts = aPortWithExchangeName.split(":");
 		int port = Integer.parseInt(parts[0]);
 		String exchangeName = parts[1];
 
-		ClientRegistration clientRegistration = this.clientRegistrations.get(port);
-
-		if (clientRegistration == null) {
-			clientRegistration = this.attach(port);
-		}
+		ClientRegistration clientRegistration = this.attach(aConnection, port);
 
 		clientRegistration.addSubscription(exchangeName);
-
-		System.out.println("SLOTH SERVER: Subscribed: " + clientRegistration + " TO: " + exchangeName);
 	}
 
 	private void unsubscribeClientFrom(String aPortWithExchangeName) {
-        String[] parts = aPortWithExchangeName.split(":");
-        int port = Integer.parseInt(parts[0]);
-        String exchangeName = parts[1];
+		String[] parts = aPortWithExchangeName.split(":");
+		int port = Integer.parseInt(parts[0]);
+		String exchangeName = parts[1];
 
 		ClientRegistration clientRegistration = this.clientRegistrations.get(port);
 
 		if (clientRegistration != null) {
 			clientRegistration.removeSubscription(exchangeName);
+		}
+	}
+
+	private static class ClientConnection {
+
+		private SelectionKey key;
+		private int pendingBytes;
+		private Queue<ByteBuffer> pendingFrames;
+		private Set<Integer> ports;
+		private SlothFrameReader reader;
+
+		ClientConnection(SelectionKey aKey) {
+			super();
+
+			this.key = aKey;
+			this.pendingFrames = new ArrayDeque<ByteBuffer>();
+			this.ports = new HashSet<Integer>();
+			this.reader = new SlothFrameReader();
+		}
+
+		SelectionKey key() {
+			return this.key;
+		}
+
+		int pendingBytes() {
+			return this.pendingBytes;
+		}
+
+		void pendingBytes(int aDelta) {
+			this.pendingBytes += aDelta;
+		}
+
+		Queue<ByteBuffer> pendingFrames() {
+			return this.pendingFrames;
+		}
+
+		Set<Integer> ports() {
+			return this.ports;
+		}
 
-			System.out.println("SLOTH SERVER: Unsubscribed: " + clientRegistration + " FROM: " + exchangeName);
+		SlothFrameReader reader() {
+			return this.reader;
 		}
 	}
 }
@@ -14,120 +14,49 @@
 
 package com.saasovation.common.port.adapter.messaging.slothmq;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.ServerSocketChannel;
-import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
 
+/**
+ * I am the base of the SlothMQ server and client. Messages travel over
+ * long-lived connections as frames of a 4-byte big-endian length
+ * followed by that many bytes of UTF-8 text.
+ */
 public abstract class SlothWorker {
 
-	private static final int HUB_PORT = 55555;
+    protected static final int HUB_PORT = 55555;
+    protected static final int MAXIMUM_FRAME_LENGTH = 16 * 1024 * 1024;
 
-	private int port;
-	private ServerSocketChannel socket;
+    static final int FRAME_HEADER_LENGTH = 4;
+    static final Charset UTF_8 = Charset.forName("UTF-8");
 
-	protected SlothWorker() {
-		super();
-
-		this.open();
-	}
-
-	protected void close() {
-	    try {
-            this.socket.close();
-        } catch (IOException e) {
-            System.out.println(this.getClass().getSimpleName() + ": problems closing socket.");
-        }
-
-	    this.socket = null;
-	}
-
-	protected boolean isClosed() {
-	    return this.socket == null;
-	}
-
-	protected int port() {
-	    return this.port;
-	}
-
-    protected String receive() {
-        SocketChannel socketChannel = null;
-
-        try {
-            socketChannel = this.socket.accept();
-
-            if (socketChannel == null) {
-                return null; // if non-blocking
-            }
-
-            ReadableByteChannel readByteChannel =
-                    Channels.newChannel(socketChannel.socket().getInputStream());
-
-            ByteArrayOutputStream byteArray = new ByteArrayOutputStream();
-
-            ByteBuffer readBuffer = ByteBuffer.allocate(8);
-
-            while (readByteChannel.read(readBuffer) != -1) {
-                readBuffer.flip();
+    protected SlothWorker() {
+        super();
+    }
 
-                while (readBuffer.hasRemaining()) {
-                    byteArray.write(readBuffer.get());
-                }
+    protected abstract void close();
 
-                readBuffer.clear();
-            }
+    protected abstract boolean isClosed();
 
-            return new String(byteArray.toByteArray());
+    protected static ByteBuffer frameOf(String aMessage) throws IOException {
+        byte[] bytes = aMessage.getBytes(UTF_8);
 
-        } catch (IOException e) {
-            System.out.println("SLOTH SERVER: Failed to receive because: " + e.getMessage() + ": Continuing...");
-            e.printStackTrace();
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_LENGTH + checkedFrameLength(bytes.length));
 
-            return null;
+        frame.putInt(bytes.length);
+        frame.put(bytes);
+        frame.flip();
 
-        } finally {
-            if (socketChannel != null) {
-                try {
-                    socketChannel.close();
-                } catch (IOException e) {
-                    // ignore
-                }
-            }
-        }
+        return frame;
     }
 
-	protected void sendTo(int aPort, String anEncodedMessage) {
-	    SocketChannel socketChannel = null;
-
-        try {
-            socketChannel = SocketChannel.open();
-
-            socketChannel.connect(new InetSocketAddress(aPort));
-
-            socketChannel.write(ByteBuffer.wrap(anEncodedMessage.getBytes()));
-
-            System.out.println(this.getClass().getSimpleName() + ": Sent: " + anEncodedMessage);
-
-        } catch (IOException e) {
-            System.out.println(this.getClass().getSimpleName() + ": Failed to send because: " + e.getMessage() + ": Continuing...");
-            e.printStackTrace();
-        } finally {
-            if (socketChannel != null) {
-                try {
-                    socketChannel.close();
-                } catch (IOException e) {
-                    System.out.println(this.getClass().getSimpleName() + ": Failed to close client socket because: " + e.getMessage() + ": Continuing...");
-                }
-            }
+    protected static int checkedFrameLength(int aLength) throws IOException {
+        if (aLength < 0 || aLength > MAXIMUM_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length: " + aLength);
         }
-    }
 
-    protected void sendToServer(String anEncodedMessage) {
-        this.sendTo(HUB_PORT, anEncodedMessage);
+        return aLength;
     }
 
     protected void sleepFor(long aMillis) {
@@ -137,64 +66,4 @@ public abstract class SlothWorker {
             // ignore
         }
     }
-
-	protected boolean slothHub() {
-	    return false;
-	}
-
-    private int discoverClientPort() {
-        boolean discovered = false;
-        int discoveryPort = HUB_PORT + 1;
-        final int errorPort = discoveryPort + 20;
-
-        while (!discovered && discoveryPort < errorPort) {
-            try {
-                this.socket.bind(new InetSocketAddress(discoveryPort));
-
-                discovered = true;
-
-            } catch (Exception e) {
-                ++discoveryPort;
-            }
-        }
-
-        if (!discovered) {
-            throw new IllegalStateException("No ports available.");
-        }
-
-        return discoveryPort;
-    }
-
-	private void open() {
-	    if (this.slothHub()) {
-	        this.openHub();
-	    } else {
-	        this.openClient();
-	    }
-	}
-
-    private void openClient() {
-        try {
-            this.socket = ServerSocketChannel.open();
-            this.port = this.discoverClientPort();
-            this.socket.configureBlocking(false);
-            System.out.println("SLOTH CLIENT: Opened on port: " + this.port);
-
-        } catch (Exception e) {
-            System.out.println("SLOTH CLIENT: Cannot connect because: " + e.getMessage());
-        }
-    }
-
-    private void openHub() {
-        try {
-            this.socket = ServerSocketChannel.open();
-            this.socket.bind(new InetSocketAddress(HUB_PORT));
-            this.socket.configureBlocking(true);
-            this.port = HUB_PORT;
-            System.out.println("SLOTH SERVER: Opened on port: " + this.port);
-
-        } catch (Exception e) {
-            System.out.println("SLOTH SERVER: Cannot connect because: " + e.getMessage());
-        }
-    }
 }
@@ -0,0 +1,173 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.notification;
+
+import com.saasovation.common.event.sourcing.EventNotifiable;
+
+/**
+ * I run a notification publishing task on my own thread whenever the
+ * event store signals that events were appended. Signals arriving
+ * while I wait or publish coalesce into a single following run. When
+ * idle I still run now and then, in case a signal was missed, waiting
+ * twice as long each time until signaled again.
+ */
+public class NotificationPublisherScheduler implements EventNotifiable {
+
+    private static final long DEFAULT_MAXIMUM_IDLE_WAIT = 10000L;
+    private static final long DEFAULT_MINIMUM_IDLE_WAIT = 500L;
+
+    private boolean closed;
+    private long idleWaitMillis;
+    private Object lock;
+    private long maximumIdleWaitMillis;
+    private long minimumIdleWaitMillis;
+    private Runnable publishTask;
+    private boolean signaled;
+    private Thread thread;
+
+    public NotificationPublisherScheduler(String aName, Runnable aPublishTask) {
+        this(aName, aPublishTask, DEFAULT_MINIMUM_IDLE_WAIT, DEFAULT_MAXIMUM_IDLE_WAIT);
+    }
+
+    public NotificationPublisherScheduler(
+            String aName,
+            Runnable aPublishTask,
+            long aMinimumIdleWaitMillis,
+            long aMaximumIdleWaitMillis) {
+
+        super();
+
+        if (aPublishTask == null) {
+            throw new IllegalArgumentException("The publish task is required.");
+        }
+
+        if (aMinimumIdleWaitMillis < 1 || aMaximumIdleWaitMillis < aMinimumIdleWaitMillis) {
+            throw new IllegalArgumentException("The idle waits must be positive and ordered.");
+        }
+
+        this.idleWaitMillis = aMinimumIdleWaitMillis;
+        this.lock = new Object();
+        this.maximumIdleWaitMillis = aMaximumIdleWaitMillis;
+        this.minimumIdleWaitMillis = aMinimumIdleWaitMillis;
+        this.publishTask = aPublishTask;
+
+        this.thread = new Thread(aName) {
+            @Override
+            public void run() {
+                schedule();
+            }
+        };
+
+        this.thread.setDaemon(true);
+    }
+
+    public void close() {
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+
+            this.lock.notifyAll();
+        }
+
+        if (Thread.currentThread() != this.thread) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public long idleWaitMillis() {
+        synchronized (this.lock) {
+            return this.idleWaitMillis;
+        }
+    }
+
+    @Override
+    public void notifyDispatchableEvents() {
+        synchronized (this.lock) {
+            this.signaled = true;
+
+            this.lock.notifyAll();
+        }
+    }
+
+    public void start() {
+        this.thread.start();
+    }
+
+    private void adjustIdleWait(boolean wasSignaled) {
+        synchronized (this.lock) {
+            if (wasSignaled) {
+                this.idleWaitMillis = this.minimumIdleWaitMillis;
+            } else {
+                this.idleWaitMillis = Math.min(this.idleWaitMillis * 2, this.maximumIdleWaitMillis);
+            }
+        }
+    }
+
+    private boolean publish() {
+        try {
+            this.publishTask.run();
+
+            return true;
+
+        } catch (Exception e) {
+            System.out.println(
+                    "Problem publishing notifications from "
+                    + this.thread.getName()
+                    + " because: "
+                    + e.getMessage());
+
+            return false;
+        }
+    }
+
+    private void schedule() {
+        boolean running = true;
+
+        while (running) {
+            boolean wasSignaled = false;
+
+            synchronized (this.lock) {
+                if (!this.signaled && !this.closed) {
+                    try {
+                        this.lock.wait(this.idleWaitMillis);
+                    } catch (InterruptedException e) {
+                        this.closed = true;
+                    }
+                }
+
+                wasSignaled = this.signaled;
+                running = !this.closed;
+
+                this.signaled = false;
+            }
+
+            // the last signals are still published when closing
+
+            if (running || wasSignaled) {
+                boolean published = this.publish();
+
+                this.adjustIdleWait(wasSignaled && published);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.notification;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.rabbitmq.client.ConfirmListener;
+
+/**
+ * I track the notifications published on a channel in publisher
+ * confirm mode until the broker confirms them. I hold at most my
+ * maximum outstanding count of unconfirmed notifications, so that a
+ * publisher waits on me rather than running ahead of the broker, and
+ * I answer the lowest notification id that is not confirmed. Since
+ * notifications are published in id order, every notification below
+ * that id has been confirmed.
+ */
+class PublisherConfirmWindow implements ConfirmListener {
+
+    private long lowestNackedNotificationId;
+    private int maximumOutstanding;
+    private SortedMap<Long, Long> outstandingNotificationIds;
+
+    PublisherConfirmWindow(int aMaximumOutstanding) {
+        super();
+
+        if (aMaximumOutstanding < 1) {
+            throw new IllegalArgumentException("The maximum outstanding must be at least 1.");
+        }
+
+        this.lowestNackedNotificationId = Long.MAX_VALUE;
+        this.maximumOutstanding = aMaximumOutstanding;
+        this.outstandingNotificationIds = new TreeMap<Long, Long>();
+    }
+
+    synchronized boolean awaitAllConfirmed(long aTimeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + aTimeoutMillis;
+
+        while (!this.outstandingNotificationIds.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+
+            if (remaining <= 0) {
+                return false;
+            }
+
+            this.wait(remaining);
+        }
+
+        return true;
+    }
+
+    synchronized boolean awaitCapacity(long aTimeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + aTimeoutMillis;
+
+        while (this.outstandingNotificationIds.size() >= this.maximumOutstanding) {
+            long remaining = deadline - System.currentTimeMillis();
+
+            if (remaining <= 0) {
+                return false;
+            }
+
+            this.wait(remaining);
+        }
+
+        return true;
+    }
+
+    @Override
+    public synchronized void handleAck(long aDeliveryTag, boolean isMultiple) {
+        this.confirm(aDeliveryTag, isMultiple, false);
+    }
+
+    @Override
+    public synchronized void handleNack(long aDeliveryTag, boolean isMultiple) {
+        this.confirm(aDeliveryTag, isMultiple, true);
+    }
+
+    synchronized long lowestUnconfirmedNotificationId() {
+        long lowest = this.lowestNackedNotificationId;
+
+        if (!this.outstandingNotificationIds.isEmpty()) {
+            lowest = Math.min(
+                    lowest,
+                    this.outstandingNotificationIds.get(
+                            this.outstandingNotificationIds.firstKey()));
+        }
+
+        return lowest;
+    }
+
+    synchronized void published(long aDeliveryTag, long aNotificationId) {
+        this.outstandingNotificationIds.put(aDeliveryTag, aNotificationId);
+    }
+
+    synchronized void reset() {
+        this.lowestNackedNotificationId = Long.MAX_VALUE;
+        this.outstandingNotificationIds.clear();
+
+        this.notifyAll();
+    }
+
+    private void confirm(long aDeliveryTag, boolean isMultiple, boolean isNacked) {
+        SortedMap<Long, Long> confirmed =
+                isMultiple ?
+                        this.outstandingNotificationIds.headMap(aDeliveryTag + 1) :
+                        this.outstandingNotificationIds.subMap(aDeliveryTag, aDeliveryTag + 1);
+
+        if (isNacked) {
+            for (Long notificationId : confirmed.values()) {
+                this.lowestNackedNotificationId =
+                        Math.min(this.lowestNackedNotificationId, notificationId);
+            }
+        }
+
+        confirmed.clear();
+
+        this.notifyAll();
+    }
+}
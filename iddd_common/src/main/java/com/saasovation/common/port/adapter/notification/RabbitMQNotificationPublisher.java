@@ -14,10 +14,11 @@
 
 package com.saasovation.common.port.adapter.notification;
 
-import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.StoredEvent;
+import com.saasovation.common.media.OvationsMediaType;
 import com.saasovation.common.notification.*;
+import com.saasovation.common.port.adapter.messaging.MessageException;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.ConnectionSettings;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.Exchange;
 import com.saasovation.common.port.adapter.messaging.rabbitmq.MessageParameters;
@@ -28,8 +29,14 @@ import java.util.List;
 
 public class RabbitMQNotificationPublisher implements NotificationPublisher {
 
+    private static final long CONFIRM_TIMEOUT_MILLIS = 30000L;
+    private static final int MAXIMUM_UNCONFIRMED_NOTIFICATIONS = 1000;
+
+    private boolean binary;
+    private PublisherConfirmWindow confirmWindow;
     private EventStore eventStore;
     private String exchangeName;
+    private MessageProducer messageProducer;
 
     private PublishedNotificationTrackerStore publishedNotificationTrackerStore;
 
@@ -38,35 +45,94 @@ public class RabbitMQNotificationPublisher implements NotificationPublisher {
         PublishedNotificationTrackerStore aPublishedNotificationTrackerStore,
         Object aMessagingLocator) {
 
+        this(anEventStore, aPublishedNotificationTrackerStore, aMessagingLocator, OvationsMediaType.ID_OVATION_TYPE);
+    }
+
+    // a binary exchange carries only compact notifications, which its
+    // listeners that answer isBinary() read with a NotificationReader
+    public RabbitMQNotificationPublisher(
+        EventStore anEventStore,
+        PublishedNotificationTrackerStore aPublishedNotificationTrackerStore,
+        Object aMessagingLocator,
+        String aMediaType) {
+
         super();
 
+        setBinary(BinaryNotificationSerializer.isBinaryMediaType(aMediaType));
         setEventStore(anEventStore);
         setExchangeName((String) aMessagingLocator);
         setPublishedNotificationTrackerStore(aPublishedNotificationTrackerStore);
     }
 
+    public synchronized void close() {
+        if (messageProducer != null) {
+            try {
+                messageProducer.close();
+            } finally {
+                messageProducer = null;
+                confirmWindow = null;
+            }
+        }
+    }
+
     @Override
-    public void publishNotifications() {
+    public synchronized void publishNotifications() {
         PublishedNotificationTracker publishedNotificationTracker =
             publishedNotificationTrackerStore().publishedNotificationTracker();
 
-        List<Notification> notifications =
+        List<StoredNotification> notifications =
             listUnpublishedNotifications(
                 publishedNotificationTracker.mostRecentPublishedNotificationId());
 
+        if (notifications.isEmpty()) {
+            return;
+        }
+
         MessageProducer messageProducer = messageProducer();
 
+        PublisherConfirmWindow confirmWindow = confirmWindow();
+
+        confirmWindow.reset();
+
+        boolean allConfirmed = false;
+
         try {
-            for (Notification notification : notifications) {
+            for (StoredNotification notification : notifications) {
+                if (!confirmWindow.awaitCapacity(CONFIRM_TIMEOUT_MILLIS)) {
+                    throw new MessageException("Timed out waiting for publisher confirms.", true);
+                }
+
+                confirmWindow.published(
+                    messageProducer.nextDeliveryTag(),
+                    notification.notificationId());
+
                 publish(notification, messageProducer);
             }
 
-            publishedNotificationTrackerStore()
-                .trackMostRecentPublishedNotification(
-                    publishedNotificationTracker,
-                    notifications);
+            allConfirmed = confirmWindow.awaitAllConfirmed(CONFIRM_TIMEOUT_MILLIS);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
         } finally {
-            messageProducer.close();
+            // anything unconfirmed is published again next time
+
+            List<StoredNotification> confirmedNotifications =
+                confirmedNotifications(
+                    notifications,
+                    confirmWindow.lowestUnconfirmedNotificationId());
+
+            if (!confirmedNotifications.isEmpty()) {
+                publishedNotificationTrackerStore()
+                    .trackMostRecentPublishedNotificationId(
+                        publishedNotificationTracker,
+                        confirmedNotifications.get(confirmedNotifications.size() - 1).notificationId());
+            }
+
+            if (!allConfirmed) {
+                // late confirms of this channel must not be mistaken for the next
+                close();
+            }
         }
     }
 
@@ -75,6 +141,33 @@ public class RabbitMQNotificationPublisher implements NotificationPublisher {
         throw new UnsupportedOperationException("Not supported by production implementation.");
     }
 
+    private boolean isBinary() {
+        return binary;
+    }
+
+    private void setBinary(boolean isBinary) {
+        binary = isBinary;
+    }
+
+    private PublisherConfirmWindow confirmWindow() {
+        return confirmWindow;
+    }
+
+    private List<StoredNotification> confirmedNotifications(
+        List<StoredNotification> aNotifications,
+        long aLowestUnconfirmedNotificationId) {
+
+        int confirmedCount = 0;
+
+        while (confirmedCount < aNotifications.size()
+            && aNotifications.get(confirmedCount).notificationId() < aLowestUnconfirmedNotificationId) {
+
+            ++confirmedCount;
+        }
+
+        return aNotifications.subList(0, confirmedCount);
+    }
+
     private EventStore eventStore() {
         return eventStore;
     }
@@ -91,42 +184,60 @@ public class RabbitMQNotificationPublisher implements NotificationPublisher {
         exchangeName = anExchangeName;
     }
 
-    private List<Notification> listUnpublishedNotifications(long aMostRecentPublishedMessageId) {
+    private List<StoredNotification> listUnpublishedNotifications(long aMostRecentPublishedMessageId) {
         List<StoredEvent> storedEvents = eventStore().allStoredEventsSince(aMostRecentPublishedMessageId);
 
         return notificationsFrom(storedEvents);
     }
 
     private MessageProducer messageProducer() {
+        if (messageProducer != null && !messageProducer.isOpen()) {
+            close();
+        }
 
-        // creates my exchange if non-existing
-        Exchange exchange =
-            Exchange.fanOutInstance(
-                ConnectionSettings.instance(),
-                exchangeName(),
-                true);
+        if (messageProducer == null) {
 
-        // create a message producer used to forward events
-        MessageProducer messageProducer = MessageProducer.instance(exchange);
+            // creates my exchange if non-existing
+            Exchange exchange =
+                Exchange.fanOutInstance(
+                    ConnectionSettings.instance(),
+                    exchangeName(),
+                    true);
+
+            // a long-lived producer used to forward events,
+            // with the broker confirming each one it accepts
+            PublisherConfirmWindow confirmWindow =
+                new PublisherConfirmWindow(MAXIMUM_UNCONFIRMED_NOTIFICATIONS);
+
+            messageProducer =
+                MessageProducer
+                    .instance(exchange)
+                    .confirmDeliveriesTo(confirmWindow);
+
+            this.confirmWindow = confirmWindow;
+        }
 
         return messageProducer;
     }
 
-    private List<Notification> notificationsFrom(List<StoredEvent> aStoredEvents) {
-        List<Notification> notifications = new ArrayList<>(aStoredEvents.size());
+    private List<StoredNotification> notificationsFrom(List<StoredEvent> aStoredEvents) {
+        List<StoredNotification> notifications = new ArrayList<>(aStoredEvents.size());
 
         for (StoredEvent storedEvent : aStoredEvents) {
-            DomainEvent domainEvent = storedEvent.toDomainEvent();
-
-            Notification notification = new Notification(storedEvent.eventId(), domainEvent);
-
-            notifications.add(notification);
+            // forwarded from the stored body without reconstituting the event
+            notifications.add(new StoredNotification(storedEvent));
         }
 
         return notifications;
     }
 
-    private void publish(Notification aNotification, MessageProducer aMessageProducer) {
+    private void publish(StoredNotification aNotification, MessageProducer aMessageProducer) {
+
+        if (isBinary()) {
+            publishBinary(aNotification, aMessageProducer);
+
+            return;
+        }
 
         MessageParameters messageParameters =
             MessageParameters.durableTextParameters(
@@ -142,6 +253,22 @@ public class RabbitMQNotificationPublisher implements NotificationPublisher {
         aMessageProducer.send(notification, messageParameters);
     }
 
+    private void publishBinary(StoredNotification aNotification, MessageProducer aMessageProducer) {
+
+        MessageParameters messageParameters =
+            MessageParameters.durableBinaryParameters(
+                aNotification.typeName(),
+                Long.toString(aNotification.notificationId()),
+                aNotification.occurredOn());
+
+        byte[] notification =
+            BinaryNotificationSerializer
+                .instance()
+                .serialize(aNotification);
+
+        aMessageProducer.send(notification, messageParameters);
+    }
+
     private PublishedNotificationTrackerStore publishedNotificationTrackerStore() {
         return publishedNotificationTrackerStore;
     }
@@ -17,14 +17,13 @@ package com.saasovation.common.port.adapter.notification;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.StoredEvent;
-import com.saasovation.common.notification.Notification;
 import com.saasovation.common.notification.NotificationPublisher;
 import com.saasovation.common.notification.NotificationSerializer;
 import com.saasovation.common.notification.PublishedNotificationTracker;
 import com.saasovation.common.notification.PublishedNotificationTrackerStore;
+import com.saasovation.common.notification.StoredNotification;
 import com.saasovation.common.port.adapter.messaging.slothmq.ExchangePublisher;
 
 public class SlothMQNotificationPublisher implements NotificationPublisher {
@@ -52,19 +51,21 @@ public class SlothMQNotificationPublisher implements NotificationPublisher {
         PublishedNotificationTracker publishedNotificationTracker =
                 this.publishedNotificationTrackerStore().publishedNotificationTracker();
 
-        List<Notification> notifications =
+        List<StoredNotification> notifications =
             this.listUnpublishedNotifications(
                     publishedNotificationTracker.mostRecentPublishedNotificationId());
 
         try {
-            for (Notification notification : notifications) {
+            for (StoredNotification notification : notifications) {
                 this.publish(notification);
             }
 
-            this.publishedNotificationTrackerStore()
-                .trackMostRecentPublishedNotification(
-                    publishedNotificationTracker,
-                    notifications);
+            if (!notifications.isEmpty()) {
+                this.publishedNotificationTrackerStore()
+                    .trackMostRecentPublishedNotificationId(
+                        publishedNotificationTracker,
+                        notifications.get(notifications.size() - 1).notificationId());
+            }
         } catch (Exception e) {
             System.out.println("SLOTH: NotificationPublisher problem: " + e.getMessage());
         }
@@ -99,34 +100,29 @@ public class SlothMQNotificationPublisher implements NotificationPublisher {
         this.exchangePublisher = anExchangePublisher;
     }
 
-    private List<Notification> listUnpublishedNotifications(
+    private List<StoredNotification> listUnpublishedNotifications(
             long aMostRecentPublishedMessageId) {
         List<StoredEvent> storedEvents =
             this.eventStore().allStoredEventsSince(aMostRecentPublishedMessageId);
 
-        List<Notification> notifications =
+        List<StoredNotification> notifications =
             this.notificationsFrom(storedEvents);
 
         return notifications;
     }
 
-    private List<Notification> notificationsFrom(List<StoredEvent> aStoredEvents) {
-        List<Notification> notifications =
-            new ArrayList<Notification>(aStoredEvents.size());
+    private List<StoredNotification> notificationsFrom(List<StoredEvent> aStoredEvents) {
+        List<StoredNotification> notifications =
+            new ArrayList<StoredNotification>(aStoredEvents.size());
 
         for (StoredEvent storedEvent : aStoredEvents) {
-            DomainEvent domainEvent = storedEvent.toDomainEvent();
-
-            Notification notification =
-                new Notification(storedEvent.eventId(), domainEvent);
-
-            notifications.add(notification);
+            notifications.add(new StoredNotification(storedEvent));
         }
 
         return notifications;
     }
 
-    private void publish(Notification aNotification) {
+    private void publish(StoredNotification aNotification) {
 
         String notification =
             NotificationSerializer
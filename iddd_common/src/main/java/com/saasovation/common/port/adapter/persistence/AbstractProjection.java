@@ -14,29 +14,102 @@
 
 package com.saasovation.common.port.adapter.persistence;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.domain.model.DomainEventDispatchTable;
+import com.saasovation.common.event.sourcing.BatchingEventDispatcher;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
-import com.saasovation.common.event.sourcing.EventDispatcher;
 
-public abstract class AbstractProjection implements EventDispatcher {
+public abstract class AbstractProjection implements BatchingEventDispatcher {
 
     private static final String PROJECTION_METHOD_NAME = "when";
 
-    private static Map<String, Method> projectionMethods =
-            new HashMap<String, Method>();
+    private static final ClassValue<DomainEventDispatchTable> projectionTables =
+            new ClassValue<DomainEventDispatchTable>() {
+                @Override
+                protected DomainEventDispatchTable computeValue(Class<?> aProjectionType) {
+                    return DomainEventDispatchTable.of(aProjectionType, PROJECTION_METHOD_NAME);
+                }
+            };
+
+    private final ThreadLocal<ProjectionBatch> batches;
+    private final DomainEventDispatchTable projectionMethods;
 
     protected AbstractProjection() {
         super();
+
+        // built before the projection registers with its
+        // parent dispatcher, and final so it is safely published
+
+        this.projectionMethods = projectionTables.get(this.getClass());
+
+        // partitions may dispatch to me concurrently,
+        // each on its own thread and connection
+
+        this.batches = new ThreadLocal<ProjectionBatch>();
+    }
+
+    @Override
+    public void abandonBatch() {
+        ProjectionBatch batch = this.batch();
+
+        if (batch != null) {
+            this.batches.remove();
+
+            batch.close();
+        }
+    }
+
+    @Override
+    public void beginBatch() {
+        this.abandonBatch();
+
+        this.batches.set(new ProjectionBatch());
+    }
+
+    @Override
+    public void endBatch() {
+        ProjectionBatch batch = this.batch();
+
+        if (batch == null) {
+            return;
+        }
+
+        try {
+            batch.flush();
+
+        } catch (Exception e) {
+            throw new IllegalStateException(
+                    "Cannot execute projection batch because: "
+                        + e.getMessage(),
+                    e);
+        } finally {
+            this.batches.remove();
+
+            batch.close();
+        }
+    }
+
+    @Override
+    public boolean understands(DispatchableDomainEvent aDispatchableDomainEvent) {
+        return this.projectionMethods().understands(
+                aDispatchableDomainEvent.domainEvent().getClass());
     }
 
     protected void execute(PreparedStatement aStatement) throws Exception {
+        ProjectionBatch batch = this.batch();
+
+        if (batch != null) {
+            batch.add(aStatement);
+
+            return;
+        }
+
         try {
             aStatement.executeUpdate();
         } finally {
@@ -47,6 +120,26 @@ public abstract class AbstractProjection implements EventDispatcher {
     protected boolean exists(String aQuery, String... anArguments) throws Exception {
         boolean exists = false;
 
+        // the query must see the writes made so far, but a row
+        // pending insert in the batch is known by its key, so
+        // that consecutive inserts are not flushed one by one
+
+        ProjectionBatch batch = this.batch();
+
+        List<String> key = null;
+
+        if (batch != null) {
+            key = new ArrayList<String>();
+            key.add(aQuery);
+            key.addAll(Arrays.asList(anArguments));
+
+            if (batch.isPending(key)) {
+                return true;
+            }
+
+            batch.flushUnlessInserting();
+        }
+
         PreparedStatement statement = null;
         ResultSet result = null;
 
@@ -64,6 +157,8 @@ public abstract class AbstractProjection implements EventDispatcher {
 
             if (result.next()) {
                 exists = true;
+            } else if (batch != null) {
+                batch.missing(key);
             }
 
         } finally {
@@ -87,131 +182,42 @@ public abstract class AbstractProjection implements EventDispatcher {
         return exists;
     }
 
-    protected void projectWhen(DispatchableDomainEvent aDispatchableDomainEvent) {
+    protected PreparedStatement prepareStatement(String aSql) throws Exception {
+        ProjectionBatch batch = this.batch();
 
-        if (!this.understands(aDispatchableDomainEvent)) {
-            return;
+        if (batch != null) {
+            return batch.statementFor(ConnectionProvider.connection(), aSql);
         }
 
-//        System.out.println("Dispatching: " + aDispatchableDomainEvent.domainEvent().getClass().getSimpleName());
-
-        DomainEvent domainEvent = aDispatchableDomainEvent.domainEvent();
-
-        Class<? extends AbstractProjection> rootType = this.getClass();
-
-        Class<? extends DomainEvent> eventType = domainEvent.getClass();
+        return ConnectionProvider.connection().prepareStatement(aSql);
+    }
 
-        String key = rootType.getName() + ":" + eventType.getName();
+    protected void projectWhen(DispatchableDomainEvent aDispatchableDomainEvent) {
 
-        Method mutatorMethod = projectionMethods.get(key);
+        DomainEvent domainEvent = aDispatchableDomainEvent.domainEvent();
 
-        if (mutatorMethod == null) {
-            mutatorMethod = this.cacheProjectionMethodFor(key, rootType, eventType);
-        }
+        // events I do not understand fall through the single table lookup
 
         try {
-            mutatorMethod.invoke(this, domainEvent);
-
-        } catch (InvocationTargetException e) {
-            if (e.getCause() != null) {
-                throw new RuntimeException(
-                        "Method "
-                                + PROJECTION_METHOD_NAME
-                                + "("
-                                + eventType.getSimpleName()
-                                + ") failed. See cause: "
-                                + e.getMessage(),
-                        e.getCause());
-            }
+            this.projectionMethods().dispatch(this, domainEvent);
 
+        } catch (Throwable t) {
             throw new RuntimeException(
                     "Method "
                             + PROJECTION_METHOD_NAME
                             + "("
-                            + eventType.getSimpleName()
+                            + domainEvent.getClass().getSimpleName()
                             + ") failed. See cause: "
-                            + e.getMessage(),
-                    e);
-
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(
-                    "Method "
-                            + PROJECTION_METHOD_NAME
-                            + "("
-                            + eventType.getSimpleName()
-                            + ") failed because of illegal access. See cause: "
-                            + e.getMessage(),
-                    e);
+                            + t.getMessage(),
+                    t);
         }
     }
 
-    protected boolean understandsAnyOf(
-            Class<?> aDispatchedType,
-            Class<?>[] anUnderstoodEventTypes) {
-
-        for (Class<?> eventType : anUnderstoodEventTypes) {
-            if (aDispatchedType == eventType) {
-                return true;
-            }
-        }
-
-//        System.out.println(this.getClass().getSimpleName() + " doesn't understand: " + aDispatchedType.getSimpleName());
-
-        return false;
+    private ProjectionBatch batch() {
+        return this.batches.get();
     }
 
-    private Method cacheProjectionMethodFor(
-            String aKey,
-            Class<? extends AbstractProjection> aRootType,
-            Class<? extends DomainEvent> anEventType) {
-
-        synchronized (projectionMethods) {
-            try {
-                Method method = this.hiddenOrPublicMethod(aRootType, anEventType);
-
-                method.setAccessible(true);
-
-                projectionMethods.put(aKey, method);
-
-                return method;
-
-            } catch (Exception e) {
-                throw new IllegalArgumentException(
-                        "I do not understand "
-                                + PROJECTION_METHOD_NAME
-                                + "("
-                                + anEventType.getSimpleName()
-                                + ") because: "
-                                + e.getClass().getSimpleName() + ">>>" + e.getMessage(),
-                        e);
-            }
-        }
-    }
-
-    private Method hiddenOrPublicMethod(
-            Class<? extends AbstractProjection> aRootType,
-            Class<? extends DomainEvent> anEventType)
-    throws Exception {
-
-        Method method = null;
-
-        try {
-
-            // assume protected or private...
-
-            method = aRootType.getDeclaredMethod(
-                    PROJECTION_METHOD_NAME,
-                    anEventType);
-
-        } catch (Exception e) {
-
-            // then public...
-
-            method = aRootType.getMethod(
-                    PROJECTION_METHOD_NAME,
-                    anEventType);
-        }
-
-        return method;
+    private DomainEventDispatchTable projectionMethods() {
+        return this.projectionMethods;
     }
 }
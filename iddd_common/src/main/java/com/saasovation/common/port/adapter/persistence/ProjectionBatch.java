@@ -0,0 +1,135 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * I am the batch of writes of an AbstractProjection on one thread. I
+ * cache a PreparedStatement per SQL string until I am closed, and add
+ * executed statements to their JDBC batch. Only consecutive writes of
+ * the same SQL are batched together, so that writes reach the database
+ * in the order in which the projection made them. I also remember the
+ * keys of the rows that my pending inserts will create, so that an
+ * existence check need not flush them and consecutive inserts of the
+ * same SQL may still be batched.
+ */
+class ProjectionBatch {
+
+    private Set<PreparedStatement> insertStatements;
+    private List<String> missingKey;
+    private int pendingCount;
+    private Set<List<String>> pendingKeys;
+    private PreparedStatement pendingStatement;
+    private Map<String, PreparedStatement> statements;
+
+    ProjectionBatch() {
+        super();
+
+        this.insertStatements = new HashSet<PreparedStatement>();
+        this.pendingKeys = new HashSet<List<String>>();
+        this.statements = new HashMap<String, PreparedStatement>();
+    }
+
+    void add(PreparedStatement aStatement) throws Exception {
+        if (aStatement != this.pendingStatement) {
+            this.flush();
+        }
+
+        aStatement.addBatch();
+
+        this.pendingStatement = aStatement;
+
+        ++this.pendingCount;
+
+        // the row last found missing is created by this insert
+
+        if (this.missingKey != null && this.insertStatements.contains(aStatement)) {
+            this.pendingKeys.add(this.missingKey);
+        }
+
+        this.missingKey = null;
+    }
+
+    void close() {
+        for (PreparedStatement statement : this.statements.values()) {
+            try {
+                statement.close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+
+        this.insertStatements.clear();
+        this.statements.clear();
+
+        this.missingKey = null;
+        this.pendingCount = 0;
+        this.pendingKeys.clear();
+        this.pendingStatement = null;
+    }
+
+    void flush() throws Exception {
+        if (this.pendingCount > 0) {
+            PreparedStatement statement = this.pendingStatement;
+
+            this.pendingCount = 0;
+            this.pendingKeys.clear();
+            this.pendingStatement = null;
+
+            statement.executeBatch();
+        }
+    }
+
+    void flushUnlessInserting() throws Exception {
+
+        // pending inserts only add rows, which I know by their keys;
+        // any other pending write may change what a query finds
+
+        if (!this.insertStatements.contains(this.pendingStatement)) {
+            this.flush();
+        }
+    }
+
+    boolean isPending(List<String> aKey) {
+        return this.pendingKeys.contains(aKey);
+    }
+
+    void missing(List<String> aKey) {
+        this.missingKey = aKey;
+    }
+
+    PreparedStatement statementFor(Connection aConnection, String aSql) throws Exception {
+        PreparedStatement statement = this.statements.get(aSql);
+
+        if (statement == null) {
+            statement = aConnection.prepareStatement(aSql);
+
+            this.statements.put(aSql, statement);
+
+            if (aSql.trim().toLowerCase().startsWith("insert")) {
+                this.insertStatements.add(statement);
+            }
+        }
+
+        return statement;
+    }
+}
@@ -86,27 +86,13 @@ public class HashMapEventStore implements EventStore {
     }
 
     @Override
-    public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent) {
-
-        List<DispatchableDomainEvent> events = null;
-
-        try {
-            List<LoggedJournalEntry> entries =
-                    this.journal()
-                        .loggedJournalEntriesSince(aLastReceivedEvent);
-
-            events = this.toDispatchableDomainEvents(entries);
-
-        } catch (Throwable t) {
-            throw new EventStoreException(
-                    "Cannot query event store for events since: "
-                        + aLastReceivedEvent
-                        + " because: "
-                        + t.getMessage(),
-                    t);
-        }
+    public EventCursor eventCursorSince(long aLastReceivedEvent, int aBatchSizeHint) {
+        return new JournalEventCursor(aLastReceivedEvent, aBatchSizeHint);
+    }
 
-        return events;
+    @Override
+    public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent) {
+        return this.eventsSince(aLastReceivedEvent, Integer.MAX_VALUE);
     }
 
     @Override
@@ -182,6 +168,29 @@ public class HashMapEventStore implements EventStore {
         return this.eventNotifiable;
     }
 
+    private List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent, int aMaximumEvents) {
+
+        List<DispatchableDomainEvent> events = null;
+
+        try {
+            List<LoggedJournalEntry> entries =
+                    this.journal()
+                        .loggedJournalEntriesSince(aLastReceivedEvent, aMaximumEvents);
+
+            events = this.toDispatchableDomainEvents(entries);
+
+        } catch (Throwable t) {
+            throw new EventStoreException(
+                    "Cannot query event store for events since: "
+                        + aLastReceivedEvent
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+
+        return events;
+    }
+
     private HashMapJournal journal() {
         return this.journal;
     }
@@ -250,12 +259,61 @@ public class HashMapEventStore implements EventStore {
             DomainEvent domainEvent =
                     this.serializer().deserialize(eventBody, eventClass);
 
-            events.add(new DispatchableDomainEvent(entry.journalSequence(), domainEvent));
+            events.add(
+                    new DispatchableDomainEvent(
+                            entry.journalSequence(),
+                            domainEvent,
+                            this.streamNameOf(entry.referenceKey())));
         }
 
         return events;
     }
 
+    private String streamNameOf(String aReferenceKey) {
+        return aReferenceKey.substring(
+                JournalKeyProvider.ES_REFERENCE_PREFIX_KEY.length(),
+                aReferenceKey.lastIndexOf(JournalKeyProvider.ES_KEY_DELIMITER));
+    }
+
+    private class JournalEventCursor implements EventCursor {
+
+        private int batchSize;
+        private long lastReceivedEvent;
+
+        public JournalEventCursor(long aLastReceivedEvent, int aBatchSize) {
+            super();
+
+            if (aBatchSize < 1) {
+                throw new IllegalArgumentException("The batch size must be at least 1.");
+            }
+
+            this.batchSize = aBatchSize;
+            this.lastReceivedEvent = aLastReceivedEvent;
+        }
+
+        @Override
+        public int batchSize() {
+            return this.batchSize;
+        }
+
+        @Override
+        public void close() {
+            // no-op
+        }
+
+        @Override
+        public List<DispatchableDomainEvent> nextBatch() {
+            List<DispatchableDomainEvent> events =
+                    eventsSince(this.lastReceivedEvent, this.batchSize);
+
+            if (!events.isEmpty()) {
+                this.lastReceivedEvent = events.get(events.size() - 1).eventId();
+            }
+
+            return events;
+        }
+    }
+
     private class StreamKeyProvider
             extends JournalKeyProvider {
 
@@ -112,6 +112,13 @@ public class HashMapJournal {
     public List<LoggedJournalEntry> loggedJournalEntriesSince(
             long aJournalSequence) {
 
+        return this.loggedJournalEntriesSince(aJournalSequence, Integer.MAX_VALUE);
+    }
+
+    public List<LoggedJournalEntry> loggedJournalEntriesSince(
+            long aJournalSequence,
+            int aMaximumEntries) {
+
         List<LoggedJournalEntry> entries = new ArrayList<LoggedJournalEntry>();
 
         boolean done = false;
@@ -128,13 +135,15 @@ public class HashMapJournal {
                 LoggedJournalEntry loggedJournalEntry =
                     new LoggedJournalEntry(
                             journalSequence,
-                            null,
+                            journalValue.substring(0, journalValue.indexOf(ES_METADATA_DELIMITER)),
                             journalValue);
 
                 // discard the reference key
                 loggedJournalEntry.discardNextMetadataValue();
 
                 entries.add(loggedJournalEntry);
+
+                done = entries.size() >= aMaximumEntries;
             } else {
                 done = true;
             }
@@ -0,0 +1,75 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence.eventsourcing.hashmap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.saasovation.common.event.sourcing.Snapshot;
+import com.saasovation.common.event.sourcing.SnapshotStore;
+
+/**
+ * I am a SnapshotStore backed by a HashMap.
+ */
+public class HashMapSnapshotStore implements SnapshotStore {
+
+    private static HashMapSnapshotStore instance;
+
+    private Map<String,Snapshot> snapshots;
+
+    public static synchronized HashMapSnapshotStore instance() {
+        if (instance == null) {
+            instance = new HashMapSnapshotStore();
+        }
+
+        return instance;
+    }
+
+    @Override
+    public void close() {
+        // no-op
+    }
+
+    @Override
+    public void purge() {
+        this.snapshots().clear();
+    }
+
+    @Override
+    public void save(Snapshot aSnapshot) {
+        Snapshot existing = this.snapshots().get(aSnapshot.streamName());
+
+        // never replace a snapshot with an older one
+
+        if (existing == null || existing.streamVersion() < aSnapshot.streamVersion()) {
+            this.snapshots().put(aSnapshot.streamName(), aSnapshot);
+        }
+    }
+
+    @Override
+    public Snapshot snapshotOf(String aStreamName) {
+        return this.snapshots().get(aStreamName);
+    }
+
+    private HashMapSnapshotStore() {
+        super();
+
+        this.snapshots = new ConcurrentHashMap<String,Snapshot>();
+    }
+
+    private Map<String,Snapshot> snapshots() {
+        return this.snapshots;
+    }
+}
@@ -14,31 +14,97 @@
 
 package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * I provide the binary keys of the journal. Journal keys are the
+ * journal prefix followed by a big-endian 8-byte sequence, and
+ * reference keys are the reference prefix, the UTF-8 primary resource
+ * name, a zero byte, and a big-endian 4-byte version. Since LevelDB
+ * orders keys bytewise, both sort numerically and a DBIterator may
+ * seek to any sequence or version and read on with next().
+ */
 public class JournalKeyProvider {
 
     protected static final String ES_JOURNAL_PREFIX_KEY = "ES_J:";
-    protected static final String ES_KEY_DELIMITER = ":";
+    protected static final byte ES_KEY_DELIMITER = 0;
     protected static final String ES_REFERENCE_PREFIX_KEY = "ES_R:";
 
-    public String compositeReferenceKeyFrom(String aKeyPart1, String aKeyPart2) {
-        String referenceKey =
-                this.referenceKeyFrom(
-                        aKeyPart1
-                        + ES_KEY_DELIMITER
-                        + aKeyPart2);
+    protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte[] ES_JOURNAL_PREFIX_KEY_BYTES = ES_JOURNAL_PREFIX_KEY.getBytes(UTF_8);
+    private static final byte[] ES_REFERENCE_PREFIX_KEY_BYTES = ES_REFERENCE_PREFIX_KEY.getBytes(UTF_8);
+
+    public static boolean isJournalKey(byte[] aKey) {
+        return aKey.length == ES_JOURNAL_PREFIX_KEY_BYTES.length + 8
+                && startsWith(aKey, ES_JOURNAL_PREFIX_KEY_BYTES);
+    }
+
+    public static byte[] journalKeyFrom(long aJournalSequence) {
+        return ByteBuffer
+                .allocate(ES_JOURNAL_PREFIX_KEY_BYTES.length + 8)
+                .put(ES_JOURNAL_PREFIX_KEY_BYTES)
+                .putLong(aJournalSequence)
+                .array();
+    }
+
+    public static long journalSequenceFrom(byte[] aJournalKey) {
+        return ByteBuffer.wrap(aJournalKey, ES_JOURNAL_PREFIX_KEY_BYTES.length, 8).getLong();
+    }
+
+    public static String primaryResourceNameFrom(byte[] aReferenceKey) {
+        int offset = ES_REFERENCE_PREFIX_KEY_BYTES.length;
+
+        // the name is followed by the delimiter and a 4-byte version
 
-        return referenceKey;
+        return new String(aReferenceKey, offset, aReferenceKey.length - offset - 5, UTF_8);
     }
 
-    public String firstKeyPart(String aCompositeKey) {
-        return aCompositeKey.substring(0, aCompositeKey.indexOf(ES_KEY_DELIMITER));
+    public static byte[] referenceKeyFrom(String aPrimaryResourceName, int aVersion) {
+        byte[] prefix = referenceKeyPrefixFrom(aPrimaryResourceName);
+
+        return ByteBuffer
+                .allocate(prefix.length + 4)
+                .put(prefix)
+                .putInt(aVersion)
+                .array();
+    }
+
+    public static byte[] referenceKeyPrefixFrom(String aPrimaryResourceName) {
+        if (aPrimaryResourceName.indexOf((char) ES_KEY_DELIMITER) != -1) {
+            throw new IllegalArgumentException("The primary resource name must not contain a zero character.");
+        }
+
+        byte[] name = aPrimaryResourceName.getBytes(UTF_8);
+
+        return ByteBuffer
+                .allocate(ES_REFERENCE_PREFIX_KEY_BYTES.length + name.length + 1)
+                .put(ES_REFERENCE_PREFIX_KEY_BYTES)
+                .put(name)
+                .put(ES_KEY_DELIMITER)
+                .array();
     }
 
-    public String lastKeyPart(String aCompositeKey) {
-        return aCompositeKey.substring(aCompositeKey.lastIndexOf(ES_KEY_DELIMITER) + 1);
+    public static int referenceVersionFrom(byte[] aReferenceKey) {
+        return ByteBuffer.wrap(aReferenceKey, aReferenceKey.length - 4, 4).getInt();
     }
 
-    public String nextReferenceKey() {
+    public static boolean startsWith(byte[] aKey, byte[] aPrefix) {
+        if (aKey.length < aPrefix.length) {
+            return false;
+        }
+
+        for (int idx = 0; idx < aPrefix.length; ++idx) {
+            if (aKey[idx] != aPrefix[idx]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public byte[] nextReferenceKey() {
         throw new UnsupportedOperationException("Must be implemented by subclass.");
     }
 
@@ -46,11 +112,7 @@ public class JournalKeyProvider {
         throw new UnsupportedOperationException("Must be implemented by subclass.");
     }
 
-    public String referenceKeyFrom(String aKey) {
-        String referenceKey =
-                ES_REFERENCE_PREFIX_KEY
-                + aKey;
-
-        return referenceKey;
+    public byte[] referenceKeyPrefix() {
+        return referenceKeyPrefixFrom(this.primaryResourceName());
     }
 }
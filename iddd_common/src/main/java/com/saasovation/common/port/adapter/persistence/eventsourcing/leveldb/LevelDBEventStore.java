@@ -20,6 +20,7 @@ import java.util.List;
 import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.event.EventSerializer;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
 import com.saasovation.common.event.sourcing.EventNotifiable;
 import com.saasovation.common.event.sourcing.EventStore;
 import com.saasovation.common.event.sourcing.EventStoreException;
@@ -67,7 +68,7 @@ public class LevelDBEventStore implements EventStore {
 
         for (DomainEvent event : anEvents) {
 
-            String streamKey = keyProvider.nextReferenceKey();
+            byte[] streamKey = keyProvider.nextReferenceKey();
 
             String eventValue =
                     this.journal()
@@ -93,27 +94,13 @@ public class LevelDBEventStore implements EventStore {
     }
 
     @Override
-    public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent) {
-
-        List<DispatchableDomainEvent> events = null;
-
-        try {
-            List<LoggedJournalEntry> entries =
-                    this.journal()
-                        .loggedJournalEntriesSince(aLastReceivedEvent);
-
-            events = this.toDispatchableDomainEvents(entries);
-
-        } catch (Throwable t) {
-            throw new EventStoreException(
-                    "Cannot query event store for events since: "
-                        + aLastReceivedEvent
-                        + " because: "
-                        + t.getMessage(),
-                    t);
-        }
+    public EventCursor eventCursorSince(long aLastReceivedEvent, int aBatchSizeHint) {
+        return new JournalEventCursor(aLastReceivedEvent, aBatchSizeHint);
+    }
 
-        return events;
+    @Override
+    public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent) {
+        return this.eventsSince(aLastReceivedEvent, Integer.MAX_VALUE);
     }
 
     @Override
@@ -137,9 +124,7 @@ public class LevelDBEventStore implements EventStore {
 
             LoggedJournalEntry entry = entries.get(entries.size() - 1);
 
-            String streamVersion = keyProvider.lastKeyPart(entry.referenceKey());
-
-            version = Integer.parseInt(streamVersion);
+            version = JournalKeyProvider.referenceVersionFrom(entry.referenceKey());
 
         } catch (Throwable t) {
             throw new EventStoreException(
@@ -189,6 +174,29 @@ public class LevelDBEventStore implements EventStore {
         return this.eventNotifiable;
     }
 
+    private List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent, int aMaximumEvents) {
+
+        List<DispatchableDomainEvent> events = null;
+
+        try {
+            List<LoggedJournalEntry> entries =
+                    this.journal()
+                        .loggedJournalEntriesSince(aLastReceivedEvent, aMaximumEvents);
+
+            events = this.toDispatchableDomainEvents(entries);
+
+        } catch (Throwable t) {
+            throw new EventStoreException(
+                    "Cannot query event store for events since: "
+                        + aLastReceivedEvent
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+
+        return events;
+    }
+
     private LevelDBJournal journal() {
         return this.journal;
     }
@@ -257,12 +265,55 @@ public class LevelDBEventStore implements EventStore {
             DomainEvent domainEvent =
                     this.serializer().deserialize(eventBody, eventClass);
 
-            events.add(new DispatchableDomainEvent(entry.journalSequence(), domainEvent));
+            events.add(
+                    new DispatchableDomainEvent(
+                            entry.journalSequence(),
+                            domainEvent,
+                            JournalKeyProvider.primaryResourceNameFrom(entry.referenceKey())));
         }
 
         return events;
     }
 
+    private class JournalEventCursor implements EventCursor {
+
+        private int batchSize;
+        private long lastReceivedEvent;
+
+        public JournalEventCursor(long aLastReceivedEvent, int aBatchSize) {
+            super();
+
+            if (aBatchSize < 1) {
+                throw new IllegalArgumentException("The batch size must be at least 1.");
+            }
+
+            this.batchSize = aBatchSize;
+            this.lastReceivedEvent = aLastReceivedEvent;
+        }
+
+        @Override
+        public int batchSize() {
+            return this.batchSize;
+        }
+
+        @Override
+        public void close() {
+            // no-op
+        }
+
+        @Override
+        public List<DispatchableDomainEvent> nextBatch() {
+            List<DispatchableDomainEvent> events =
+                    eventsSince(this.lastReceivedEvent, this.batchSize);
+
+            if (!events.isEmpty()) {
+                this.lastReceivedEvent = events.get(events.size() - 1).eventId();
+            }
+
+            return events;
+        }
+    }
+
     private class StreamKeyProvider
             extends JournalKeyProvider {
 
@@ -277,11 +328,11 @@ public class LevelDBEventStore implements EventStore {
         }
 
         @Override
-        public String nextReferenceKey() {
-            String key =
-                    this.compositeReferenceKeyFrom(
+        public byte[] nextReferenceKey() {
+            byte[] key =
+                    referenceKeyFrom(
                                 streamName,
-                                ""+streamVersion);
+                                streamVersion);
 
             ++streamVersion;
 
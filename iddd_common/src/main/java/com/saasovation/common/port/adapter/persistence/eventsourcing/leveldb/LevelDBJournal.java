@@ -15,11 +15,13 @@
 package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.iq80.leveldb.DB;
@@ -27,6 +29,7 @@ import org.iq80.leveldb.DBFactory;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.WriteOptions;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 
 import com.saasovation.common.event.sourcing.EventStoreAppendException;
@@ -37,13 +40,14 @@ public class LevelDBJournal {
     protected static final String ES_METADATA_DELIMITER = "#";
 
     private static final byte[] ES_JOURNAL_SEQUENCE_KEY =
-            (JournalKeyProvider.ES_JOURNAL_PREFIX_KEY+"0").getBytes();
+            JournalKeyProvider.journalKeyFrom(0L);
 
     private static LevelDBJournal instance;
     private static Map<String, Object> lock = new HashMap<String, Object>();
 
     private DB database;
     private String databasePath;
+    private volatile LevelDBJournalGroupCommitter groupCommitter;
     private AtomicLong journalSequence;
 
     public static LevelDBJournal initializeInstance(String aDirectoryPath) {
@@ -74,6 +78,8 @@ public class LevelDBJournal {
         synchronized (lock) {
             if (instance != null) {
                 try {
+                    this.stopGroupCommit();
+
                     this.saveJournalSequence();
 
                     this.database().close();
@@ -96,93 +102,99 @@ public class LevelDBJournal {
         return this.databasePath;
     }
 
-    public void logEntries(LoggableJournalEntry[] aJournalEntries) {
-
-        WriteBatch batch = this.database().createWriteBatch();
-
-        try {
-            synchronized (this.lockFor(aJournalEntries[0].primaryResourceName())) {
-                for (LoggableJournalEntry journalEntry : aJournalEntries) {
+    public void startGroupCommit(long aLatencyWindowMillis, int aMaximumBatchSize) {
+        synchronized (lock) {
+            LevelDBJournalGroupCommitter groupCommitter = this.groupCommitter();
 
-                    long journalSequence = this.nextJournalSequence();
+            if (groupCommitter != null) {
+                if (groupCommitter.latencyWindowMillis() == aLatencyWindowMillis &&
+                        groupCommitter.maximumBatchSize() == aMaximumBatchSize) {
+                    return;
+                }
 
-                    this.confirmNonExistingReference(journalEntry.referenceKey());
+                this.stopGroupCommit();
+            }
 
-                    String jounralKey =
-                            JournalKeyProvider.ES_JOURNAL_PREFIX_KEY
-                            + journalSequence;
+            groupCommitter =
+                    new LevelDBJournalGroupCommitter(
+                            this,
+                            aLatencyWindowMillis,
+                            aMaximumBatchSize);
 
-                    String referenceKey =
-                            journalEntry.referenceKey();
+            groupCommitter.start();
 
-                    byte[] journalSequenceBytes = (""+journalSequence).getBytes();
+            this.setGroupCommitter(groupCommitter);
+        }
+    }
 
-                    String journalValue =
-                            this.valueWithMetadata(
-                                    journalEntry.value(),
-                                    referenceKey);
+    public void stopGroupCommit() {
+        synchronized (lock) {
+            LevelDBJournalGroupCommitter groupCommitter = this.groupCommitter();
 
-                    // journal entry points to reference
+            if (groupCommitter != null) {
+                this.setGroupCommitter(null);
 
-                    batch.put(
-                            jounralKey.getBytes(),
-                            journalValue.getBytes());
+                groupCommitter.stop();
+            }
+        }
+    }
 
-                    // reference points to journal entry
+    public boolean isGroupCommitting() {
+        LevelDBJournalGroupCommitter groupCommitter = this.groupCommitter();
 
-                    batch.put(
-                            referenceKey.getBytes(),
-                            journalSequenceBytes);
-                }
+        return groupCommitter != null && groupCommitter.isRunning();
+    }
 
-                this.database().write(batch);
-            }
+    public void logEntries(LoggableJournalEntry[] aJournalEntries) {
+        LevelDBJournalGroupCommitter groupCommitter = this.groupCommitter();
 
-        } catch (Throwable t) {
-            throw new EventStoreAppendException(
-                    "Could not append to journal because: "
-                            + t.getMessage(),
-                    t);
-        } finally {
-            try {
-                batch.close();
-            } catch (Throwable t) {
-                // ignore
-            }
+        if (groupCommitter != null) {
+            this.logEntriesGroupCommitted(groupCommitter, aJournalEntries);
+        } else {
+            this.logEntriesCommitted(aJournalEntries);
         }
     }
 
     public List<LoggedJournalEntry> loggedJournalEntriesSince(
             long aJournalSequence) {
 
+        return this.loggedJournalEntriesSince(aJournalSequence, Integer.MAX_VALUE);
+    }
+
+    public List<LoggedJournalEntry> loggedJournalEntriesSince(
+            long aJournalSequence,
+            int aMaximumEntries) {
+
         List<LoggedJournalEntry> entries = new ArrayList<LoggedJournalEntry>();
 
-        boolean done = false;
+        DBIterator iterator = this.database().iterator();
 
-        for (long journalSequence = aJournalSequence + 1; !done; ++journalSequence) {
-            String journalKey =
-                    JournalKeyProvider.ES_JOURNAL_PREFIX_KEY
-                    + journalSequence;
+        try {
+            long journalSequence = aJournalSequence + 1;
 
-            byte[] rawJournalValue =
-                    this.database()
-                        .get(journalKey.getBytes());
+            iterator.seek(JournalKeyProvider.journalKeyFrom(journalSequence));
 
-            if (rawJournalValue != null) {
+            // stop at the first gap, as anything beyond it awaits repair
 
-                LoggedJournalEntry loggedJournalEntry =
-                    new LoggedJournalEntry(
-                            journalSequence,
-                            null,
-                            new String(rawJournalValue));
+            while (entries.size() < aMaximumEntries && iterator.hasNext()) {
+                Entry<byte[],byte[]> entry = iterator.next();
 
-                // discard the reference key
-                loggedJournalEntry.discardNextMetadataValue();
+                if (!JournalKeyProvider.isJournalKey(entry.getKey()) ||
+                        JournalKeyProvider.journalSequenceFrom(entry.getKey()) != journalSequence) {
+                    break;
+                }
 
-                entries.add(loggedJournalEntry);
-            } else {
-                done = true;
+                entries.add(
+                        new LoggedJournalEntry(
+                                journalSequence,
+                                referenceKeyOfJournalValue(entry.getValue()),
+                                valueOfJournalValue(entry.getValue())));
+
+                ++journalSequence;
             }
+
+        } finally {
+            this.close(iterator);
         }
 
         return entries;
@@ -224,40 +236,45 @@ public class LevelDBJournal {
 
         List<LoggedJournalEntry> entries = new ArrayList<LoggedJournalEntry>();
 
-        boolean done = false;
+        byte[] referenceKeyPrefix = aReferenceKeyProvider.referenceKeyPrefix();
 
-        while (!done) {
-            String referenceKey = aReferenceKeyProvider.nextReferenceKey();
+        byte[] referenceKey = aReferenceKeyProvider.nextReferenceKey();
 
-            byte[] rawJournalSequenceValue =
-                    this.database().get(referenceKey.getBytes());
+        int version = JournalKeyProvider.referenceVersionFrom(referenceKey);
 
-            if (rawJournalSequenceValue != null) {
-                long journalSequence =
-                        Long.parseLong(new String(rawJournalSequenceValue));
+        DBIterator iterator = this.database().iterator();
+
+        try {
+            iterator.seek(referenceKey);
+
+            while (iterator.hasNext()) {
+                Entry<byte[],byte[]> entry = iterator.next();
 
-                String journalKey =
-                        JournalKeyProvider.ES_JOURNAL_PREFIX_KEY
-                        + journalSequence;
+                if (!JournalKeyProvider.startsWith(entry.getKey(), referenceKeyPrefix) ||
+                        JournalKeyProvider.referenceVersionFrom(entry.getKey()) != version) {
+                    break;
+                }
 
-                byte[] rawJournalValue =
-                        this.database()
-                            .get(journalKey.getBytes());
+                long journalSequence = journalSequenceOfReferenceValue(entry.getValue());
 
-                LoggedJournalEntry loggedJournalEntry =
-                    new LoggedJournalEntry(
-                            journalSequence,
-                            referenceKey,
-                            new String(rawJournalValue));
+                byte[] journalValue =
+                        this.database().get(JournalKeyProvider.journalKeyFrom(journalSequence));
 
-                // discard the stream key
-                loggedJournalEntry.discardNextMetadataValue();
+                if (journalValue == null) {
+                    break;
+                }
 
-                entries.add(loggedJournalEntry);
+                entries.add(
+                        new LoggedJournalEntry(
+                                journalSequence,
+                                entry.getKey(),
+                                valueOfJournalValue(journalValue)));
 
-            } else {
-                done = true;
+                ++version;
             }
+
+        } finally {
+            this.close(iterator);
         }
 
         return entries;
@@ -270,6 +287,89 @@ public class LevelDBJournal {
         return valueWithMetadata;
     }
 
+    static long journalSequenceOfReferenceValue(byte[] aReferenceValue) {
+        return ByteBuffer.wrap(aReferenceValue).getLong();
+    }
+
+    static byte[] journalValueFrom(byte[] aReferenceKey, String aValue) {
+        byte[] value = aValue.getBytes(JournalKeyProvider.UTF_8);
+
+        return ByteBuffer
+                .allocate(4 + aReferenceKey.length + value.length)
+                .putInt(aReferenceKey.length)
+                .put(aReferenceKey)
+                .put(value)
+                .array();
+    }
+
+    static byte[] referenceKeyOfJournalValue(byte[] aJournalValue) {
+        ByteBuffer buffer = ByteBuffer.wrap(aJournalValue);
+
+        byte[] referenceKey = new byte[buffer.getInt()];
+
+        buffer.get(referenceKey);
+
+        return referenceKey;
+    }
+
+    static byte[] referenceValueFrom(long aJournalSequence) {
+        return ByteBuffer
+                .allocate(8)
+                .putLong(aJournalSequence)
+                .array();
+    }
+
+    static String valueOfJournalValue(byte[] aJournalValue) {
+        int offset = 4 + ByteBuffer.wrap(aJournalValue).getInt();
+
+        return new String(aJournalValue, offset, aJournalValue.length - offset, JournalKeyProvider.UTF_8);
+    }
+
+    void appendTo(WriteBatch aBatch, LoggableJournalEntry aJournalEntry) {
+        this.appendTo(aBatch, aJournalEntry, this.nextJournalSequence());
+    }
+
+    void appendTo(WriteBatch aBatch, LoggableJournalEntry aJournalEntry, long aJournalSequence) {
+
+        byte[] referenceKey = aJournalEntry.referenceKey();
+
+        // journal entry points to reference, and reference points to
+        // journal entry; only the journal entry carries the value
+
+        aBatch.put(
+                JournalKeyProvider.journalKeyFrom(aJournalSequence),
+                journalValueFrom(referenceKey, aJournalEntry.value()));
+
+        aBatch.put(
+                referenceKey,
+                referenceValueFrom(aJournalSequence));
+    }
+
+    void confirmNonExistingReference(byte[] aReferenceKey) {
+        // this implementation will not stand up to race conditions
+        // unless all appends go through the group committer
+
+        if (this.database().get(aReferenceKey) != null) {
+            throw new EventStoreAppendException("Journal concurrency violation.");
+        }
+    }
+
+    WriteBatch createWriteBatch() {
+        return this.database().createWriteBatch();
+    }
+
+    long currentJournalSequence() {
+        return this.journalSequence.get();
+    }
+
+    void resetJournalSequence(long aJournalSequence) {
+        this.journalSequence.set(aJournalSequence);
+    }
+
+    void writeDurably(WriteBatch aBatch) {
+        this.database().write(aBatch, new WriteOptions().sync(true));
+    }
+
     private LevelDBJournal(String aDirectoryPath) {
         super();
 
@@ -301,11 +401,22 @@ public class LevelDBJournal {
         return cached;
     }
 
-    private void confirmNonExistingReference(String aReferenceKey) {
-        // this implementation will not stand up to race conditions
+    private void confirmNoLegacyKeys() {
+        if (new LevelDBJournalMigrationTool(this.database()).requiresMigration()) {
 
-        if (this.database().get(aReferenceKey.getBytes()) != null) {
-            throw new EventStoreAppendException("Journal concurrency violation.");
+            // migration rewrites the journal in place, so
+            // it is never run behind the back of an open
+
+            try {
+                this.database().close();
+            } catch (Throwable t) {
+                // ignore
+            } finally {
+                this.setDatabase(null);
+            }
+
+            throw new EventStoreException(
+                    "The journal has legacy keys; run LevelDBJournalMigrationTool on it offline first.");
         }
     }
 
@@ -321,6 +432,14 @@ public class LevelDBJournal {
         this.databasePath = aDatabasePath;
     }
 
+    private LevelDBJournalGroupCommitter groupCommitter() {
+        return this.groupCommitter;
+    }
+
+    private void setGroupCommitter(LevelDBJournalGroupCommitter aGroupCommitter) {
+        this.groupCommitter = aGroupCommitter;
+    }
+
     private Object lockFor(String aPrimaryResourceName) {
         // need a reaper to remove the lock after some
         // size threshold and LRU
@@ -338,6 +457,84 @@ public class LevelDBJournal {
         }
     }
 
+    private void logEntriesCommitted(LoggableJournalEntry[] aJournalEntries) {
+
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            synchronized (this.lockFor(aJournalEntries[0].primaryResourceName())) {
+
+                // every reference is confirmed before any sequence is
+                // taken, so that a violation leaves no gap in the journal
+
+                for (LoggableJournalEntry journalEntry : aJournalEntries) {
+                    this.confirmNonExistingReference(journalEntry.referenceKey());
+                }
+
+                long lastJournalSequence = this.journalSequence.addAndGet(aJournalEntries.length);
+
+                long journalSequence = lastJournalSequence - aJournalEntries.length;
+
+                boolean isWritten = false;
+
+                try {
+                    for (LoggableJournalEntry journalEntry : aJournalEntries) {
+                        this.appendTo(batch, journalEntry, ++journalSequence);
+                    }
+
+                    this.database().write(batch);
+
+                    isWritten = true;
+
+                } finally {
+                    if (!isWritten) {
+
+                        // nothing was written, so give back the sequences,
+                        // unless an append to another resource took more
+
+                        this.journalSequence.compareAndSet(
+                                lastJournalSequence,
+                                lastJournalSequence - aJournalEntries.length);
+                    }
+                }
+            }
+
+        } catch (Throwable t) {
+            throw new EventStoreAppendException(
+                    "Could not append to journal because: "
+                            + t.getMessage(),
+                    t);
+        } finally {
+            try {
+                batch.close();
+            } catch (Throwable t) {
+                // ignore
+            }
+        }
+    }
+
+    private void logEntriesGroupCommitted(
+            LevelDBJournalGroupCommitter aGroupCommitter,
+            LoggableJournalEntry[] aJournalEntries) {
+
+        try {
+            aGroupCommitter.append(aJournalEntries).get();
+
+        } catch (ExecutionException e) {
+            throw new EventStoreAppendException(
+                    "Could not append to journal because: "
+                            + e.getCause().getMessage(),
+                    e.getCause());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new EventStoreAppendException(
+                    "Interrupted while appending to journal; the append may or may not be durable.",
+                    e);
+        }
+    }
+
     private long nextJournalSequence() {
         long nextJournalSequence = this.journalSequence.incrementAndGet();
 
@@ -362,6 +559,8 @@ public class LevelDBJournal {
 
             this.setDatabase(factory.open(new File(aDirectoryPath), options));
 
+            this.confirmNoLegacyKeys();
+
             if (!this.cacheJournalSequence()) {
                 this.repair();
             }
@@ -376,6 +575,14 @@ public class LevelDBJournal {
         }
     }
 
+    private void close(DBIterator anIterator) {
+        try {
+            anIterator.close();
+        } catch (Throwable t) {
+            // ignore
+        }
+    }
+
     private void repair() {
         LevelDBJournalRepairTool repairTool =
                 new LevelDBJournalRepairTool(this.database());
@@ -0,0 +1,267 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.iq80.leveldb.WriteBatch;
+
+import com.saasovation.common.event.sourcing.EventStoreAppendException;
+
+/**
+ * I coalesce the appends of many threads to a LevelDBJournal into
+ * a single synchronous WriteBatch. I wait at most the latency window
+ * after the first queued append, or until the maximum batch size is
+ * reached, before writing. I am the only writer while I run, so each
+ * append's reference keys are confirmed against both the database and
+ * the batch being built without a per-stream lock. An append that
+ * fails its confirmation is rejected alone and consumes no journal
+ * sequence. Each caller's future completes only after the batch that
+ * holds its entries has been written and synced.
+ */
+class LevelDBJournalGroupCommitter implements Runnable {
+
+    private static final long IDLE_POLL_MILLIS = 100L;
+
+    private LevelDBJournal journal;
+    private long latencyWindowMillis;
+    private int maximumBatchSize;
+    private BlockingQueue<PendingAppend> pendingAppends;
+    private volatile boolean running;
+    private Thread writer;
+
+    LevelDBJournalGroupCommitter(
+            LevelDBJournal aJournal,
+            long aLatencyWindowMillis,
+            int aMaximumBatchSize) {
+
+        super();
+
+        if (aLatencyWindowMillis < 0) {
+            throw new IllegalArgumentException("The latency window must not be negative.");
+        }
+
+        if (aMaximumBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size must be at least 1.");
+        }
+
+        this.journal = aJournal;
+        this.latencyWindowMillis = aLatencyWindowMillis;
+        this.maximumBatchSize = aMaximumBatchSize;
+        this.pendingAppends = new LinkedBlockingQueue<PendingAppend>();
+    }
+
+    Future<Void> append(LoggableJournalEntry[] aJournalEntries) {
+        PendingAppend pendingAppend = new PendingAppend(aJournalEntries);
+
+        if (!this.isRunning()) {
+            throw new EventStoreAppendException("The journal group committer is stopped.");
+        }
+
+        this.pendingAppends.add(pendingAppend);
+
+        // close the window where stop() drained before the add
+
+        if (!this.isRunning() && this.pendingAppends.remove(pendingAppend)) {
+            throw new EventStoreAppendException("The journal group committer is stopped.");
+        }
+
+        return pendingAppend.future();
+    }
+
+    long latencyWindowMillis() {
+        return this.latencyWindowMillis;
+    }
+
+    int maximumBatchSize() {
+        return this.maximumBatchSize;
+    }
+
+    boolean isRunning() {
+        return this.running;
+    }
+
+    @Override
+    public void run() {
+        List<PendingAppend> group = new ArrayList<PendingAppend>();
+
+        while (this.isRunning() || !this.pendingAppends.isEmpty()) {
+            try {
+                PendingAppend first =
+                        this.pendingAppends.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (first != null) {
+                    group.add(first);
+
+                    this.gatherWithinWindow(group);
+
+                    this.commit(group);
+
+                    group.clear();
+                }
+
+            } catch (InterruptedException e) {
+                // keep draining until stopped and empty
+            }
+        }
+    }
+
+    synchronized void start() {
+        if (!this.isRunning()) {
+            this.running = true;
+
+            this.writer = new Thread(this, "LevelDBJournal-group-commit");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    synchronized void stop() {
+        if (this.isRunning()) {
+            this.running = false;
+
+            // the writer drains whatever is already queued
+
+            try {
+                this.writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            this.writer = null;
+        }
+    }
+
+    private void commit(List<PendingAppend> aGroup) {
+        long journalSequence = this.journal.currentJournalSequence();
+
+        List<PendingAppend> batched = new ArrayList<PendingAppend>(aGroup.size());
+
+        Set<ByteBuffer> batchedReferenceKeys = new HashSet<ByteBuffer>();
+
+        WriteBatch batch = this.journal.createWriteBatch();
+
+        try {
+            for (PendingAppend pendingAppend : aGroup) {
+                try {
+                    for (LoggableJournalEntry journalEntry : pendingAppend.journalEntries()) {
+                        if (batchedReferenceKeys.contains(ByteBuffer.wrap(journalEntry.referenceKey()))) {
+                            throw new EventStoreAppendException("Journal concurrency violation.");
+                        }
+
+                        this.journal.confirmNonExistingReference(journalEntry.referenceKey());
+                    }
+                } catch (Throwable t) {
+                    pendingAppend.failed(t);
+
+                    continue;
+                }
+
+                for (LoggableJournalEntry journalEntry : pendingAppend.journalEntries()) {
+                    batchedReferenceKeys.add(ByteBuffer.wrap(journalEntry.referenceKey()));
+
+                    this.journal.appendTo(batch, journalEntry);
+                }
+
+                batched.add(pendingAppend);
+            }
+
+            if (!batched.isEmpty()) {
+                this.journal.writeDurably(batch);
+            }
+
+            for (PendingAppend pendingAppend : batched) {
+                pendingAppend.completed();
+            }
+
+        } catch (Throwable t) {
+
+            // nothing in the batch was written, so give back its sequences
+
+            this.journal.resetJournalSequence(journalSequence);
+
+            for (PendingAppend pendingAppend : batched) {
+                pendingAppend.failed(t);
+            }
+
+        } finally {
+            try {
+                batch.close();
+            } catch (Throwable t) {
+                // ignore
+            }
+        }
+    }
+
+    private void gatherWithinWindow(List<PendingAppend> aGroup) throws InterruptedException {
+        int batchSize = aGroup.get(0).journalEntries().length;
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.latencyWindowMillis);
+
+        while (batchSize < this.maximumBatchSize) {
+            long remaining = deadline - System.nanoTime();
+
+            PendingAppend next = remaining > 0 ?
+                    this.pendingAppends.poll(remaining, TimeUnit.NANOSECONDS) :
+                    this.pendingAppends.poll();
+
+            if (next == null) {
+                break;
+            }
+
+            aGroup.add(next);
+
+            batchSize += next.journalEntries().length;
+        }
+    }
+
+    private static class PendingAppend {
+
+        private CompletableFuture<Void> future;
+        private LoggableJournalEntry[] journalEntries;
+
+        PendingAppend(LoggableJournalEntry[] aJournalEntries) {
+            super();
+
+            this.future = new CompletableFuture<Void>();
+            this.journalEntries = aJournalEntries;
+        }
+
+        void completed() {
+            this.future.complete(null);
+        }
+
+        void failed(Throwable aCause) {
+            this.future.completeExceptionally(aCause);
+        }
+
+        Future<Void> future() {
+            return this.future;
+        }
+
+        LoggableJournalEntry[] journalEntries() {
+            return this.journalEntries;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+
+import com.saasovation.common.event.sourcing.EventStoreException;
+
+/**
+ * I migrate a journal from the legacy string keys, such as ES_J:42 and
+ * ES_R:stream:7, to the binary keys of JournalKeyProvider. I walk the
+ * legacy journal keys themselves rather than counting up from sequence
+ * 1, so entries beyond a gap are migrated with their own sequence, and
+ * a migration that was interrupted simply resumes with the legacy keys
+ * that remain. A legacy key is deleted only once its binary copy has
+ * been written and read back. I neither repair nor drop anything, so
+ * the migrated journal is opened exactly as the legacy one would have
+ * been. I change the database in place and must be run offline, with
+ * the database directory path as my only argument; LevelDBJournal
+ * refuses to open a journal that still has legacy keys.
+ */
+public class LevelDBJournalMigrationTool {
+
+    private static final int ENTRIES_PER_BATCH = 1000;
+
+    private static final byte[] LEGACY_JOURNAL_PREFIX_KEY =
+            JournalKeyProvider.ES_JOURNAL_PREFIX_KEY.getBytes(JournalKeyProvider.UTF_8);
+
+    private DB database;
+    private long migratedEntries;
+
+    public static void main(String[] anArguments) throws Exception {
+        if (anArguments.length != 1) {
+            System.out.println("Usage: LevelDBJournalMigrationTool <journal-directory-path>");
+
+            return;
+        }
+
+        DB database = new Iq80DBFactory().open(new File(anArguments[0]), new Options());
+
+        try {
+            LevelDBJournalMigrationTool migrationTool = new LevelDBJournalMigrationTool(database);
+
+            if (migrationTool.requiresMigration()) {
+                System.out.println("MIGRATING EVENT JOURNAL KEYS...");
+
+                migrationTool.migrateDatabase();
+
+                System.out.println("MIGRATED JOURNAL ENTRIES: " + migrationTool.migratedEntries());
+            } else {
+                System.out.println("NOT MIGRATING: No legacy journal keys found.");
+            }
+
+        } finally {
+            database.close();
+        }
+    }
+
+    public LevelDBJournalMigrationTool(DB aDatabase) {
+        super();
+
+        this.setDatabase(aDatabase);
+    }
+
+    public long migratedEntries() {
+        return this.migratedEntries;
+    }
+
+    public void migrateDatabase() {
+        List<LegacyEntry> legacyEntries = this.nextLegacyEntries();
+
+        while (!legacyEntries.isEmpty()) {
+            this.write(legacyEntries);
+
+            this.verify(legacyEntries);
+
+            this.deleteLegacyKeysOf(legacyEntries);
+
+            legacyEntries = this.nextLegacyEntries();
+        }
+    }
+
+    public boolean requiresMigration() {
+        boolean requiresMigration = false;
+
+        DBIterator iterator = this.database().iterator();
+
+        try {
+            // legacy journal keys continue with a decimal digit, while
+            // binary keys continue with the high byte of the sequence
+
+            iterator.seek(this.legacyJournalKeyFrom(0L));
+
+            if (iterator.hasNext()) {
+                requiresMigration = this.isLegacyJournalKey(iterator.next().getKey());
+            }
+
+        } finally {
+            this.close(iterator);
+        }
+
+        return requiresMigration;
+    }
+
+    private void close(DBIterator anIterator) {
+        try {
+            anIterator.close();
+        } catch (Throwable t) {
+            // ignore
+        }
+    }
+
+    private void close(WriteBatch aBatch) {
+        try {
+            aBatch.close();
+        } catch (Throwable t) {
+            // ignore
+        }
+    }
+
+    private DB database() {
+        return this.database;
+    }
+
+    private void deleteLegacyKeysOf(List<LegacyEntry> aLegacyEntries) {
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            for (LegacyEntry legacyEntry : aLegacyEntries) {
+                batch.delete(legacyEntry.legacyJournalKey);
+
+                if (legacyEntry.legacyReferenceKey != null) {
+                    batch.delete(legacyEntry.legacyReferenceKey);
+                }
+            }
+
+            this.database().write(batch);
+
+        } finally {
+            this.close(batch);
+        }
+
+        this.migratedEntries += aLegacyEntries.size();
+    }
+
+    private boolean isLegacyJournalKey(byte[] aKey) {
+        return JournalKeyProvider.startsWith(aKey, LEGACY_JOURNAL_PREFIX_KEY)
+                && aKey.length > LEGACY_JOURNAL_PREFIX_KEY.length
+                && Character.isDigit(aKey[LEGACY_JOURNAL_PREFIX_KEY.length]);
+    }
+
+    private byte[] legacyJournalKeyFrom(long aJournalSequence) {
+        return (JournalKeyProvider.ES_JOURNAL_PREFIX_KEY + aJournalSequence)
+                .getBytes(JournalKeyProvider.UTF_8);
+    }
+
+    private LegacyEntry legacyEntryFrom(byte[] aLegacyJournalKey, byte[] aLegacyJournalValue) {
+        String legacyJournalKey = new String(aLegacyJournalKey, JournalKeyProvider.UTF_8);
+
+        long journalSequence =
+                Long.parseLong(legacyJournalKey.substring(JournalKeyProvider.ES_JOURNAL_PREFIX_KEY.length()));
+
+        String legacyJournalValue = new String(aLegacyJournalValue, JournalKeyProvider.UTF_8);
+
+        if (journalSequence == 0L) {
+            // the journal sequence saved by a clean close
+
+            return new LegacyEntry(
+                    aLegacyJournalKey,
+                    null,
+                    JournalKeyProvider.journalKeyFrom(0L),
+                    aLegacyJournalValue,
+                    null,
+                    null);
+        }
+
+        // legacy value: ES_R:streamName:streamVersion#eventType#eventBody
+
+        int delimiterIndex = legacyJournalValue.indexOf(LevelDBJournal.ES_METADATA_DELIMITER);
+
+        String legacyReferenceKey = legacyJournalValue.substring(0, delimiterIndex);
+
+        int versionIndex = legacyReferenceKey.lastIndexOf(':');
+
+        byte[] referenceKey =
+                JournalKeyProvider.referenceKeyFrom(
+                        legacyReferenceKey.substring(
+                                JournalKeyProvider.ES_REFERENCE_PREFIX_KEY.length(),
+                                versionIndex),
+                        Integer.parseInt(legacyReferenceKey.substring(versionIndex + 1)));
+
+        byte[] rawLegacyReferenceKey = legacyReferenceKey.getBytes(JournalKeyProvider.UTF_8);
+
+        byte[] legacyReferenceValue = this.database().get(rawLegacyReferenceKey);
+
+        // a legacy reference to another journal entry is not mine to delete
+
+        if (legacyReferenceValue == null ||
+                !String.valueOf(journalSequence).equals(
+                        new String(legacyReferenceValue, JournalKeyProvider.UTF_8))) {
+
+            rawLegacyReferenceKey = null;
+        }
+
+        return new LegacyEntry(
+                aLegacyJournalKey,
+                rawLegacyReferenceKey,
+                JournalKeyProvider.journalKeyFrom(journalSequence),
+                LevelDBJournal.journalValueFrom(
+                        referenceKey,
+                        legacyJournalValue.substring(delimiterIndex + 1)),
+                referenceKey,
+                LevelDBJournal.referenceValueFrom(journalSequence));
+    }
+
+    private List<LegacyEntry> nextLegacyEntries() {
+        List<LegacyEntry> legacyEntries = new ArrayList<LegacyEntry>();
+
+        DBIterator iterator = this.database().iterator();
+
+        try {
+            iterator.seek(this.legacyJournalKeyFrom(0L));
+
+            while (legacyEntries.size() < ENTRIES_PER_BATCH && iterator.hasNext()) {
+                Entry<byte[],byte[]> entry = iterator.next();
+
+                if (!this.isLegacyJournalKey(entry.getKey())) {
+                    break;
+                }
+
+                legacyEntries.add(this.legacyEntryFrom(entry.getKey(), entry.getValue()));
+            }
+
+        } finally {
+            this.close(iterator);
+        }
+
+        return legacyEntries;
+    }
+
+    private void setDatabase(DB aDatabase) {
+        this.database = aDatabase;
+    }
+
+    private void verify(List<LegacyEntry> aLegacyEntries) {
+        for (LegacyEntry legacyEntry : aLegacyEntries) {
+            if (!Arrays.equals(legacyEntry.journalValue, this.database().get(legacyEntry.journalKey)) ||
+                    (legacyEntry.referenceKey != null &&
+                    !Arrays.equals(legacyEntry.referenceValue, this.database().get(legacyEntry.referenceKey)))) {
+
+                throw new EventStoreException(
+                        "Cannot verify migrated journal entry: "
+                            + new String(legacyEntry.legacyJournalKey, JournalKeyProvider.UTF_8)
+                            + "; its legacy keys are kept.");
+            }
+        }
+    }
+
+    private void write(List<LegacyEntry> aLegacyEntries) {
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            for (LegacyEntry legacyEntry : aLegacyEntries) {
+                batch.put(legacyEntry.journalKey, legacyEntry.journalValue);
+
+                if (legacyEntry.referenceKey != null) {
+                    batch.put(legacyEntry.referenceKey, legacyEntry.referenceValue);
+                }
+            }
+
+            this.database().write(batch);
+
+        } finally {
+            this.close(batch);
+        }
+    }
+
+    private static final class LegacyEntry {
+
+        private byte[] journalKey;
+        private byte[] journalValue;
+        private byte[] legacyJournalKey;
+        private byte[] legacyReferenceKey;
+        private byte[] referenceKey;
+        private byte[] referenceValue;
+
+        private LegacyEntry(
+                byte[] aLegacyJournalKey,
+                byte[] aLegacyReferenceKey,
+                byte[] aJournalKey,
+                byte[] aJournalValue,
+                byte[] aReferenceKey,
+                byte[] aReferenceValue) {
+
+            super();
+
+            this.journalKey = aJournalKey;
+            this.journalValue = aJournalValue;
+            this.legacyJournalKey = aLegacyJournalKey;
+            this.legacyReferenceKey = aLegacyReferenceKey;
+            this.referenceKey = aReferenceKey;
+            this.referenceValue = aReferenceValue;
+        }
+    }
+}
@@ -22,8 +22,6 @@ import org.iq80.leveldb.WriteBatch;
 
 public class LevelDBJournalRepairTool {
 
-    private static final int CONTIGUOUS_MISSING_KEY_SAFE_COUNT = 100000;
-
     private DB database;
     private long lastConfirmedSequence;
 
@@ -46,73 +44,80 @@ public class LevelDBJournalRepairTool {
         System.out.println("REPAIRING EVENT JOURNAL...");
 
         boolean cleanUpMode = false;
-        int contiguousMissingKeys = 0;
-        boolean done = false;
         long lastContiguousConfirmedKey = 0;
 
-        for (long journalSequence = 1; !done; ++journalSequence) {
-            byte[] journalKey =
-                    (JournalKeyProvider.ES_JOURNAL_PREFIX_KEY
-                    + journalSequence).getBytes();
+        DBIterator iterator = this.database().iterator();
+
+        try {
+            iterator.seek(JournalKeyProvider.journalKeyFrom(1L));
 
-            byte[] rawJournalValue =
-                    this.database()
-                        .get(journalKey);
+            while (iterator.hasNext()) {
+                Entry<byte[],byte[]> entry = iterator.next();
 
-            if (rawJournalValue == null) {
-                cleanUpMode = true;
+                byte[] journalKey = entry.getKey();
 
-                if (++contiguousMissingKeys >= CONTIGUOUS_MISSING_KEY_SAFE_COUNT) {
-                    done = true;
+                if (!JournalKeyProvider.isJournalKey(journalKey)) {
+                    break;
                 }
 
-            } else {
-                if (!cleanUpMode) {
+                long journalSequence = JournalKeyProvider.journalSequenceFrom(journalKey);
+
+                if (!cleanUpMode && journalSequence == lastContiguousConfirmedKey + 1) {
                     lastContiguousConfirmedKey = journalSequence;
                 } else {
-                    contiguousMissingKeys = 0;
-
-                    LoggedJournalEntry loggedJournalEntry =
-                            new LoggedJournalEntry(
-                                    journalSequence,
-                                    null,
-                                    new String(rawJournalValue));
-
-                    String streamKey = loggedJournalEntry.nextMetadataValue();
-
-                    WriteBatch batch = this.database().createWriteBatch();
-
-                    try {
-                        batch.delete(streamKey.getBytes());
-                        batch.delete(journalKey);
-                        this.database().write(batch);
-
-                        System.out.println(
-                                "Repaired journal entry: "
-                                + journalSequence
-                                + " and stream entry: "
-                                + streamKey);
-
-                    } catch (Throwable t) {
-                        System.out.println(
-                                "Could not repair journal entry: "
-                                + journalSequence
-                                + " and stream entry: "
-                                + streamKey);
-                    } finally {
-                        try {
-                            batch.close();
-                        } catch (Throwable t) {
-                            // ignore
-                        }
-                    }
+                    cleanUpMode = true;
+
+                    this.deleteJournalEntry(
+                            journalSequence,
+                            journalKey,
+                            LevelDBJournal.referenceKeyOfJournalValue(entry.getValue()));
                 }
             }
+
+        } finally {
+            try {
+                iterator.close();
+            } catch (Throwable t) {
+                // ignore
+            }
         }
 
         this.setLastConfirmedSequence(lastContiguousConfirmedKey);
     }
 
+    private void deleteJournalEntry(
+            long aJournalSequence,
+            byte[] aJournalKey,
+            byte[] aStreamKey) {
+
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            batch.delete(aStreamKey);
+            batch.delete(aJournalKey);
+            this.database().write(batch);
+
+            System.out.println(
+                    "Repaired journal entry: "
+                    + aJournalSequence
+                    + " and stream entry: "
+                    + new String(aStreamKey, JournalKeyProvider.UTF_8));
+
+        } catch (Throwable t) {
+            System.out.println(
+                    "Could not repair journal entry: "
+                    + aJournalSequence
+                    + " and stream entry: "
+                    + new String(aStreamKey, JournalKeyProvider.UTF_8));
+        } finally {
+            try {
+                batch.close();
+            } catch (Throwable t) {
+                // ignore
+            }
+        }
+    }
+
     private DB database() {
         return this.database;
     }
@@ -0,0 +1,135 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
+
+import org.iq80.leveldb.DB;
+
+import com.saasovation.common.event.sourcing.EventStoreException;
+import com.saasovation.common.event.sourcing.Snapshot;
+import com.saasovation.common.event.sourcing.SnapshotStore;
+import com.saasovation.common.port.adapter.persistence.leveldb.LevelDBProvider;
+
+/**
+ * I am a SnapshotStore for LevelDB. I keep only the latest
+ * snapshot of each stream, in a database separate from the
+ * journal so that snapshots may be discarded at any time.
+ */
+public class LevelDBSnapshotStore implements SnapshotStore {
+
+    private static final String ES_SNAPSHOT_PREFIX_KEY = "ES_S:";
+    private static final String ES_METADATA_DELIMITER = LevelDBJournal.ES_METADATA_DELIMITER;
+
+    private static LevelDBSnapshotStore instance;
+
+    private String databasePath;
+
+    public static synchronized LevelDBSnapshotStore instance(String aDirectoryPath) {
+        if (instance == null || !instance.databasePath().equals(aDirectoryPath)) {
+            instance = new LevelDBSnapshotStore(aDirectoryPath);
+        }
+
+        return instance;
+    }
+
+    @Override
+    public void close() {
+        LevelDBProvider.instance().close(this.databasePath());
+    }
+
+    @Override
+    public void purge() {
+        LevelDBProvider.instance().purge(this.database());
+    }
+
+    @Override
+    public synchronized void save(Snapshot aSnapshot) {
+        byte[] key = this.keyFor(aSnapshot.streamName());
+
+        try {
+            Snapshot existing = this.snapshotFrom(aSnapshot.streamName(), this.database().get(key));
+
+            // never replace a snapshot with an older one
+
+            if (existing == null || existing.streamVersion() < aSnapshot.streamVersion()) {
+                String value =
+                        aSnapshot.streamVersion()
+                        + ES_METADATA_DELIMITER
+                        + aSnapshot.snapshotType()
+                        + ES_METADATA_DELIMITER
+                        + aSnapshot.snapshotBody();
+
+                this.database().put(key, value.getBytes());
+            }
+
+        } catch (Throwable t) {
+            throw new EventStoreException(
+                    "Cannot save snapshot for: "
+                        + aSnapshot.streamName()
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+    }
+
+    @Override
+    public Snapshot snapshotOf(String aStreamName) {
+        try {
+            return this.snapshotFrom(aStreamName, this.database().get(this.keyFor(aStreamName)));
+
+        } catch (Throwable t) {
+            throw new EventStoreException(
+                    "Cannot query snapshot for: "
+                        + aStreamName
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+    }
+
+    private LevelDBSnapshotStore(String aDirectoryPath) {
+        super();
+
+        this.databasePath = aDirectoryPath;
+    }
+
+    private DB database() {
+        return LevelDBProvider.instance().databaseFrom(this.databasePath());
+    }
+
+    private String databasePath() {
+        return this.databasePath;
+    }
+
+    private byte[] keyFor(String aStreamName) {
+        return (ES_SNAPSHOT_PREFIX_KEY + aStreamName).getBytes();
+    }
+
+    private Snapshot snapshotFrom(String aStreamName, byte[] aRawValue) {
+        if (aRawValue == null) {
+            return null;
+        }
+
+        String value = new String(aRawValue);
+
+        int versionIndex = value.indexOf(ES_METADATA_DELIMITER);
+        int typeIndex = value.indexOf(ES_METADATA_DELIMITER, versionIndex + 1);
+
+        return new Snapshot(
+                aStreamName,
+                Integer.parseInt(value.substring(0, versionIndex)),
+                value.substring(versionIndex + 1, typeIndex),
+                value.substring(typeIndex + 1));
+    }
+}
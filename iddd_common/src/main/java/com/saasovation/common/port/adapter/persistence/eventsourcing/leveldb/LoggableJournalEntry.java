@@ -17,12 +17,12 @@ package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
 public class LoggableJournalEntry {
 
     private String primaryResourceName;
-    private String referenceKey;
+    private byte[] referenceKey;
     private String value;
 
     public LoggableJournalEntry(
             String aValue,
-            String aReferenceKey,
+            byte[] aReferenceKey,
             String aPrimaryResourceName) {
 
         super();
@@ -36,7 +36,7 @@ public class LoggableJournalEntry {
         return this.primaryResourceName;
     }
 
-    public String referenceKey() {
+    public byte[] referenceKey() {
         return this.referenceKey;
     }
 
@@ -48,7 +48,7 @@ public class LoggableJournalEntry {
         this.primaryResourceName = aPrimaryResourceName;
     }
 
-    private void setReferenceKey(String aReferenceKey) {
+    private void setReferenceKey(byte[] aReferenceKey) {
         this.referenceKey = aReferenceKey;
     }
 
@@ -18,12 +18,12 @@ public class LoggedJournalEntry {
 
     private int currentMetadataIndex;
     private long journalSequence;
-    private String referenceKey;
+    private byte[] referenceKey;
     private String value;
 
     public LoggedJournalEntry(
             long aJournalSequence,
-            String aReferenceKey,
+            byte[] aReferenceKey,
             String aValue) {
 
         super();
@@ -61,7 +61,7 @@ public class LoggedJournalEntry {
         return metadataValue;
     }
 
-    public String referenceKey() {
+    public byte[] referenceKey() {
         return this.referenceKey;
     }
 
@@ -87,7 +87,7 @@ public class LoggedJournalEntry {
         this.journalSequence = aJournalSequence;
     }
 
-    private void setReferenceKey(String aReferenceKey) {
+    private void setReferenceKey(byte[] aReferenceKey) {
         this.referenceKey = aReferenceKey;
     }
 
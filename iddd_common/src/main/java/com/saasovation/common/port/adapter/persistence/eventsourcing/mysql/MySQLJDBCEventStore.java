@@ -30,6 +30,7 @@ import org.springframework.context.ApplicationContextAware;
 import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.event.EventSerializer;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
 import com.saasovation.common.event.sourcing.EventNotifiable;
 import com.saasovation.common.event.sourcing.EventStore;
 import com.saasovation.common.event.sourcing.EventStoreAppendException;
@@ -102,6 +103,47 @@ public class MySQLJDBCEventStore implements EventStore, ApplicationContextAware
         // no-op
     }
 
+    @Override
+    public EventCursor eventCursorSince(long aLastReceivedEvent, int aBatchSizeHint) {
+
+        Connection connection = this.connection();
+
+        try {
+            // a forward-only, read-only statement with a fetch size of
+            // Integer.MIN_VALUE makes Connector/J stream rows one at a
+            // time rather than read the whole result into memory
+
+            PreparedStatement statement =
+                    connection
+                        .prepareStatement(
+                                "SELECT event_id, event_body, event_type, stream_name FROM tbl_es_event_store "
+                                + "WHERE event_id > ? "
+                                + "ORDER BY event_id",
+                                ResultSet.TYPE_FORWARD_ONLY,
+                                ResultSet.CONCUR_READ_ONLY);
+
+            statement.setFetchSize(Integer.MIN_VALUE);
+
+            statement.setLong(1, aLastReceivedEvent);
+
+            return new ResultSetEventCursor(connection, statement.executeQuery(), aBatchSizeHint);
+
+        } catch (Throwable t) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+
+            throw new EventStoreException(
+                    "Cannot open event cursor since: "
+                        + aLastReceivedEvent
+                        + " because: "
+                        + t.getMessage(),
+                    t);
+        }
+    }
+
     @Override
     public List<DispatchableDomainEvent> eventsSince(long aLastReceivedEvent) {
 
@@ -113,7 +155,7 @@ public class MySQLJDBCEventStore implements EventStore, ApplicationContextAware
             PreparedStatement statement =
                     connection
                         .prepareStatement(
-                                "SELECT event_id, event_body, event_type FROM tbl_es_event_store "
+                                "SELECT event_id, event_body, event_type, stream_name FROM tbl_es_event_store "
                                 + "WHERE event_id > ? "
                                 + "ORDER BY event_id");
 
@@ -304,12 +346,19 @@ public class MySQLJDBCEventStore implements EventStore, ApplicationContextAware
         statement.executeUpdate();
     }
 
-    @SuppressWarnings("unchecked")
     private List<DispatchableDomainEvent> buildEventSequence(ResultSet aResultSet) throws Exception {
+        return this.buildEventSequence(aResultSet, Integer.MAX_VALUE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DispatchableDomainEvent> buildEventSequence(
+            ResultSet aResultSet,
+            int aMaximumEvents)
+    throws Exception {
 
         List<DispatchableDomainEvent> events = new ArrayList<DispatchableDomainEvent>();
 
-        while (aResultSet.next()) {
+        while (events.size() < aMaximumEvents && aResultSet.next()) {
             long eventId = aResultSet.getLong("event_id");
 
             String eventClassName = aResultSet.getString("event_type");
@@ -318,9 +367,11 @@ public class MySQLJDBCEventStore implements EventStore, ApplicationContextAware
 
             Class<DomainEvent> eventClass = (Class<DomainEvent>) Class.forName(eventClassName);
 
+            String streamName = aResultSet.getString("stream_name");
+
             DomainEvent domainEvent = this.serializer().deserialize(eventBody, eventClass);
 
-            events.add(new DispatchableDomainEvent(eventId, domainEvent));
+            events.add(new DispatchableDomainEvent(eventId, domainEvent, streamName));
         }
 
         return events;
@@ -390,6 +441,78 @@ public class MySQLJDBCEventStore implements EventStore, ApplicationContextAware
         this.serializer = aSerializer;
     }
 
+    private class ResultSetEventCursor implements EventCursor {
+
+        private int batchSize;
+        private Connection connection;
+        private boolean exhausted;
+        private ResultSet resultSet;
+
+        public ResultSetEventCursor(
+                Connection aConnection,
+                ResultSet aResultSet,
+                int aBatchSize) {
+
+            super();
+
+            if (aBatchSize < 1) {
+                throw new IllegalArgumentException("The batch size must be at least 1.");
+            }
+
+            this.batchSize = aBatchSize;
+            this.connection = aConnection;
+            this.resultSet = aResultSet;
+        }
+
+        @Override
+        public int batchSize() {
+            return this.batchSize;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.resultSet.getStatement().close();
+            } catch (SQLException e) {
+                // ignore
+            }
+
+            try {
+                this.connection.commit();
+            } catch (SQLException e) {
+                // ignore
+            }
+
+            try {
+                this.connection.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+
+        @Override
+        public List<DispatchableDomainEvent> nextBatch() {
+            if (this.exhausted) {
+                return new ArrayList<DispatchableDomainEvent>();
+            }
+
+            try {
+                List<DispatchableDomainEvent> events =
+                        buildEventSequence(this.resultSet, this.batchSize);
+
+                this.exhausted = events.size() < this.batchSize;
+
+                return events;
+
+            } catch (Throwable t) {
+                throw new EventStoreException(
+                        "Cannot read next event batch because: "
+                            + t.getMessage(),
+                        t);
+            }
+        }
+    }
+
     @Override
     public synchronized void setApplicationContext(
             ApplicationContext anApplicationContext)
@@ -83,12 +83,20 @@ public class HibernatePublishedNotificationTrackerStore
         int lastIndex = aNotifications.size() - 1;
 
         if (lastIndex >= 0) {
-            long mostRecentId = aNotifications.get(lastIndex).notificationId();
+            this.trackMostRecentPublishedNotificationId(
+                aPublishedNotificationTracker,
+                aNotifications.get(lastIndex).notificationId());
+        }
+    }
+
+    @Override
+    public void trackMostRecentPublishedNotificationId(
+        PublishedNotificationTracker aPublishedNotificationTracker,
+        long aMostRecentPublishedNotificationId) {
 
-            aPublishedNotificationTracker.setMostRecentPublishedNotificationId(mostRecentId);
+        aPublishedNotificationTracker.setMostRecentPublishedNotificationId(aMostRecentPublishedNotificationId);
 
-            this.session().save(aPublishedNotificationTracker);
-        }
+        this.session().save(aPublishedNotificationTracker);
     }
 
     @Override
@@ -14,16 +14,21 @@
 
 package com.saasovation.common.port.adapter.persistence.leveldb;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.iq80.leveldb.DB;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
 
 import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.event.EventSerializer;
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.StoredEvent;
+import com.saasovation.common.event.sourcing.EventNotifiable;
+import com.saasovation.common.serializer.ObjectSerializer;
 
 public class LevelDBEventStore
         extends AbstractLevelDBRepository
@@ -32,6 +37,7 @@ public class LevelDBEventStore
     private static final String PRIMARY = "ES_EVT_PK:";
     private static final byte[] INTERNAL_EVENT_ID = "ES_EVT_EID".getBytes();
 
+    private volatile EventNotifiable eventNotifiable;
     private AtomicLong storedEventIdSequence = new AtomicLong();
 
     public LevelDBEventStore(String aDirectoryPath) {
@@ -42,23 +48,45 @@ public class LevelDBEventStore
 
     @Override
     public List<StoredEvent> allStoredEventsBetween(long aLowStoredEventId, long aHighStoredEventId) {
-        int elements = (int) (aHighStoredEventId - aLowStoredEventId + 1);
+        // nothing is stored beyond the current sequence
+        long highStoredEventId = Math.min(aHighStoredEventId, this.currentStoredEventIdSequence());
 
-        List<StoredEvent> storedEvents = new ArrayList<StoredEvent>(elements);
+        if (highStoredEventId < aLowStoredEventId) {
+            return new ArrayList<StoredEvent>(0);
+        }
 
-        LevelDBUnitOfWork uow = LevelDBUnitOfWork.readOnly(this.database());
+        List<StoredEvent> storedEvents =
+                new ArrayList<StoredEvent>((int) (highStoredEventId - aLowStoredEventId + 1));
 
-        boolean done = false;
-        for (long idSequence = aLowStoredEventId; !done && idSequence <= aHighStoredEventId; ++idSequence) {
-            StoredEvent storedEvent =
-                    uow.readObject(
-                            (PRIMARY + idSequence).getBytes(),
-                            StoredEvent.class);
+        ObjectSerializer serializer = ObjectSerializer.instance();
 
-            if (storedEvent != null) {
-                storedEvents.add(storedEvent);
-            } else {
-                done = true;
+        // the whole range is read from one consistent view
+        Snapshot snapshot = this.database().getSnapshot();
+
+        try {
+            ReadOptions readOptions = new ReadOptions().snapshot(snapshot);
+
+            for (long idSequence = aLowStoredEventId; idSequence <= highStoredEventId; ++idSequence) {
+                byte[] storedEventBytes =
+                        this.database().get(
+                                (PRIMARY + idSequence).getBytes(),
+                                readOptions);
+
+                if (storedEventBytes == null) {
+                    break;
+                }
+
+                storedEvents.add(
+                        serializer.deserialize(
+                                new String(storedEventBytes),
+                                StoredEvent.class));
+            }
+
+        } finally {
+            try {
+                snapshot.close();
+            } catch (IOException e) {
+                // ignore
             }
         }
 
@@ -90,6 +118,13 @@ public class LevelDBEventStore
 
         this.save(storedEvent, uow);
 
+        EventNotifiable eventNotifiable = this.eventNotifiable;
+
+        if (eventNotifiable != null) {
+            // the appended event is readable only once committed
+            uow.notifyOnCommit(eventNotifiable);
+        }
+
         return storedEvent;
     }
 
@@ -105,6 +140,10 @@ public class LevelDBEventStore
         return this.currentStoredEventIdSequence();
     }
 
+    public void registerEventNotifiable(EventNotifiable anEventNotifiable) {
+        this.eventNotifiable = anEventNotifiable;
+    }
+
     private boolean cacheStoredEventIdSequence() {
         boolean cached = false;
 
@@ -65,18 +65,26 @@ public class LevelDBPublishedNotificationTrackerStore
         int lastIndex = aNotifications.size() - 1;
 
         if (lastIndex >= 0) {
-            long mostRecentId = aNotifications.get(lastIndex).notificationId();
+            this.trackMostRecentPublishedNotificationId(
+                    aPublishedNotificationTracker,
+                    aNotifications.get(lastIndex).notificationId());
+        }
+    }
+
+    @Override
+    public void trackMostRecentPublishedNotificationId(
+            PublishedNotificationTracker aPublishedNotificationTracker,
+            long aMostRecentPublishedNotificationId) {
 
-            aPublishedNotificationTracker.setMostRecentPublishedNotificationId(mostRecentId);
+        aPublishedNotificationTracker.setMostRecentPublishedNotificationId(aMostRecentPublishedNotificationId);
 
-            LevelDBKey lockKey = new LevelDBKey(PRIMARY, this.typeName());
+        LevelDBKey lockKey = new LevelDBKey(PRIMARY, this.typeName());
 
-            LevelDBUnitOfWork uow = LevelDBUnitOfWork.start(this.database());
+        LevelDBUnitOfWork uow = LevelDBUnitOfWork.start(this.database());
 
-            uow.lock(lockKey.key());
+        uow.lock(lockKey.key());
 
-            this.save(aPublishedNotificationTracker, uow);
-        }
+        this.save(aPublishedNotificationTracker, uow);
     }
 
     @Override
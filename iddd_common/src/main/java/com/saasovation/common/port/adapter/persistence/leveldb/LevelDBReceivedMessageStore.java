@@ -0,0 +1,166 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.persistence.leveldb;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map.Entry;
+
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.WriteBatch;
+
+import com.saasovation.common.port.adapter.messaging.ReceivedMessageStore;
+
+public class LevelDBReceivedMessageStore
+    extends AbstractLevelDBRepository
+    implements ReceivedMessageStore {
+
+    private static final String PRIMARY = "RECEIVED_MSG#PK";
+    private static final String RECEIVED_ON = "RECEIVED_MSG#RECEIVED_ON";
+
+    public LevelDBReceivedMessageStore(String aLevelDBDirectoryPath) {
+        super(aLevelDBDirectoryPath);
+    }
+
+    @Override
+    public boolean isReceivedSince(
+            String aReceiverName,
+            String aMessageId,
+            long aReceivedSince) {
+
+        LevelDBKey primaryKey = new LevelDBKey(PRIMARY, aReceiverName, aMessageId);
+
+        byte[] receivedOn = this.database().get(primaryKey.keyAsBytes());
+
+        return receivedOn != null && this.timeOf(receivedOn) >= aReceivedSince;
+    }
+
+    @Override
+    public void received(
+            String aReceiverName,
+            String aMessageId,
+            long aReceivedOn) {
+
+        LevelDBKey primaryKey = new LevelDBKey(PRIMARY, aReceiverName, aMessageId);
+
+        // the received-on index leads with the time so that expired
+        // messages are the first keys of its range
+
+        LevelDBKey receivedOnKey =
+                new LevelDBKey(
+                        RECEIVED_ON,
+                        this.paddedTimeOf(aReceivedOn),
+                        aReceiverName,
+                        aMessageId);
+
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            batch.put(primaryKey.keyAsBytes(), Long.toString(aReceivedOn).getBytes());
+            batch.put(receivedOnKey.keyAsBytes(), primaryKey.keyAsBytes());
+
+            this.database().write(batch);
+
+        } finally {
+            this.close(batch);
+        }
+    }
+
+    @Override
+    public int removeReceivedBefore(long aReceivedBefore) {
+        byte[] rangeStart = (RECEIVED_ON + ":").getBytes();
+        byte[] rangeEnd = new LevelDBKey(RECEIVED_ON, this.paddedTimeOf(aReceivedBefore)).keyAsBytes();
+
+        int removed = 0;
+
+        DBIterator iterator = this.database().iterator();
+        WriteBatch batch = this.database().createWriteBatch();
+
+        try {
+            iterator.seek(rangeStart);
+
+            while (iterator.hasNext()) {
+                Entry<byte[],byte[]> entry = iterator.next();
+
+                if (!this.startsWith(entry.getKey(), rangeStart) ||
+                        this.compare(entry.getKey(), rangeEnd) >= 0) {
+                    break;
+                }
+
+                batch.delete(entry.getKey());
+
+                // a message received again since is indexed under its later time
+
+                byte[] receivedOn = this.database().get(entry.getValue());
+
+                if (receivedOn != null &&
+                        this.timeOf(receivedOn) < aReceivedBefore) {
+                    batch.delete(entry.getValue());
+
+                    ++removed;
+                }
+            }
+
+            this.database().write(batch);
+
+        } finally {
+            this.close(batch);
+
+            try {
+                iterator.close();
+            } catch (Throwable t) {
+                // ignore
+            }
+        }
+
+        return removed;
+    }
+
+    private void close(WriteBatch aBatch) {
+        try {
+            aBatch.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private int compare(byte[] aKey, byte[] anOtherKey) {
+        int length = Math.min(aKey.length, anOtherKey.length);
+
+        for (int idx = 0; idx < length; ++idx) {
+            int difference = (aKey[idx] & 0xff) - (anOtherKey[idx] & 0xff);
+
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return aKey.length - anOtherKey.length;
+    }
+
+    private String paddedTimeOf(long aTime) {
+        return String.format("%019d", aTime);
+    }
+
+    private boolean startsWith(byte[] aKey, byte[] aPrefix) {
+        return aKey.length >= aPrefix.length &&
+                Arrays.equals(Arrays.copyOf(aKey, aPrefix.length), aPrefix);
+    }
+
+    private long timeOf(byte[] aReceivedOn) {
+        return Long.parseLong(new String(aReceivedOn));
+    }
+}
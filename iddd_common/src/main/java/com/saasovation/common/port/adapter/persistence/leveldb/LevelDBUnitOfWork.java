@@ -29,6 +29,7 @@ import org.iq80.leveldb.DB;
 import org.iq80.leveldb.WriteBatch;
 
 import com.google.gson.reflect.TypeToken;
+import com.saasovation.common.event.sourcing.EventNotifiable;
 import com.saasovation.common.serializer.ObjectSerializer;
 
 public class LevelDBUnitOfWork {
@@ -42,6 +43,7 @@ public class LevelDBUnitOfWork {
     private WriteBatch batch;
     private DB database;
     private List<ReentrantLock> locks;
+    private Set<EventNotifiable> notifiablesOnCommit;
     private Map<String,Set<Object>> referenceKeys;
     private ObjectSerializer serializer;
 
@@ -84,7 +86,15 @@ public class LevelDBUnitOfWork {
     public void commit() {
         this.database.write(this.batch);
 
+        Set<EventNotifiable> notifiablesOnCommit = this.notifiablesOnCommit;
+
         this.close();
+
+        if (notifiablesOnCommit != null) {
+            for (EventNotifiable eventNotifiable : notifiablesOnCommit) {
+                eventNotifiable.notifyDispatchableEvents();
+            }
+        }
     }
 
     public void lock(String aLockKey) {
@@ -95,6 +105,14 @@ public class LevelDBUnitOfWork {
         lock.lock();
     }
 
+    public void notifyOnCommit(EventNotifiable anEventNotifiable) {
+        if (this.notifiablesOnCommit == null) {
+            this.notifiablesOnCommit = new HashSet<EventNotifiable>(1);
+        }
+
+        this.notifiablesOnCommit.add(anEventNotifiable);
+    }
+
     public byte[] readObjectAsBytes(LevelDBKey aKey) {
         return this.database.get(aKey.keyAsBytes());
     }
@@ -219,6 +237,8 @@ public class LevelDBUnitOfWork {
 
             this.locks.clear();
         }
+
+        this.notifiablesOnCommit = null;
     }
 
     private ReentrantLock findKeyLock(String aLockKey) {
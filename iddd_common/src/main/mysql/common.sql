@@ -20,6 +20,14 @@ CREATE TABLE `tbl_es_event_store` (
     PRIMARY KEY (`event_id`)
 ) ENGINE=InnoDB;
 
+CREATE TABLE `tbl_es_snapshot_store` (
+    `stream_name` varchar(250) NOT NULL,
+    `snapshot_body` MEDIUMTEXT NOT NULL,
+    `snapshot_type` varchar(250) NOT NULL,
+    `stream_version` int(11) NOT NULL,
+    PRIMARY KEY (`stream_name`)
+) ENGINE=InnoDB;
+
 CREATE TABLE `tbl_published_notification_tracker` (
     `published_notification_tracker_id` bigint(20) NOT NULL auto_increment,
     `most_recent_published_notification_id` bigint(20) NOT NULL,
@@ -0,0 +1,80 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.domain.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.AnotherTestableDomainEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.TestableEventSourcedRootEntity;
+
+public class DomainEventDispatchTableTest extends TestCase {
+
+    public DomainEventDispatchTableTest() {
+        super();
+    }
+
+    public void testDispatchToProtectedHandler() throws Throwable {
+        DomainEventDispatchTable table =
+                DomainEventDispatchTable.of(TestableEventSourcedRootEntity.class, "when");
+
+        assertTrue(table.understands(TestableDomainEvent.class));
+        assertFalse(table.understands(AnotherTestableDomainEvent.class));
+        assertEquals(1, table.understoodEventTypes().size());
+
+        TestableEventSourcedRootEntity entity = new TestableEventSourcedRootEntity();
+
+        assertTrue(table.dispatch(entity, new TestableDomainEvent(7L, "seven")));
+        assertEquals(7L, entity.lastId());
+        assertEquals("seven", entity.lastName());
+
+        assertFalse(table.dispatch(entity, new AnotherTestableDomainEvent(1.0)));
+        assertEquals(1, entity.timesMutated());
+    }
+
+    public void testReplayThroughMutators() throws Exception {
+        List<DomainEvent> eventStream = new ArrayList<DomainEvent>();
+
+        for (int idx = 1; idx <= 1000; ++idx) {
+            eventStream.add(new TestableDomainEvent(idx, "name" + idx));
+        }
+
+        TestableEventSourcedRootEntity entity =
+                new TestableEventSourcedRootEntity(eventStream, eventStream.size());
+
+        assertEquals(1000, entity.timesMutated());
+        assertEquals(1000L, entity.lastId());
+        assertEquals("name1000", entity.lastName());
+        assertEquals(1000, entity.unmutatedVersion());
+    }
+
+    public void testDoesNotUnderstand() throws Exception {
+        List<DomainEvent> eventStream = new ArrayList<DomainEvent>();
+
+        eventStream.add(new AnotherTestableDomainEvent(1.0));
+
+        try {
+            new TestableEventSourcedRootEntity(eventStream, 1);
+
+            fail("Should have thrown IllegalArgumentException.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+    }
+}
@@ -0,0 +1,206 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.event.sourcing;
+
+import java.util.UUID;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.domain.model.DomainEventPublisher;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.hashmap.HashMapEventStore;
+import com.saasovation.common.port.adapter.persistence.eventsourcing.hashmap.HashMapSnapshotStore;
+
+public class SnapshotterTest extends TestCase {
+
+    private EventStore eventStore;
+    private SnapshotStore snapshotStore;
+
+    public SnapshotterTest() {
+        super();
+    }
+
+    public void testSnapshotPolicy() throws Exception {
+        SnapshotPolicy policy = SnapshotPolicy.everyEvents(10);
+
+        assertTrue(policy.isSnapshotting());
+        assertFalse(policy.shouldSnapshot(0, 9));
+        assertTrue(policy.shouldSnapshot(0, 10));
+        assertTrue(policy.shouldSnapshot(9, 12));
+        assertFalse(policy.shouldSnapshot(10, 19));
+        assertTrue(policy.shouldSnapshot(18, 35));
+
+        assertFalse(SnapshotPolicy.never().isSnapshotting());
+        assertFalse(SnapshotPolicy.never().shouldSnapshot(0, 1000));
+    }
+
+    public void testNoSnapshotBeforeThreshold() throws Exception {
+        Snapshotter snapshotter = this.snapshotter(SnapshotPolicy.everyEvents(10));
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.save(snapshotter, eventId, new TestableEventSourcedRootEntity(), 9);
+
+        assertNull(this.snapshotStore.snapshotOf(eventId.streamName()));
+        assertNull(snapshotter.restoredAggregateOf(TestableEventSourcedRootEntity.class, eventId));
+    }
+
+    public void testSnapshotAndRestore() throws Exception {
+        Snapshotter snapshotter = this.snapshotter(SnapshotPolicy.everyEvents(10));
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.save(snapshotter, eventId, new TestableEventSourcedRootEntity(), 10);
+
+        Snapshot snapshot = this.snapshotStore.snapshotOf(eventId.streamName());
+
+        assertNotNull(snapshot);
+        assertEquals(10, snapshot.streamVersion());
+        assertEquals(TestableEventSourcedRootEntity.class.getName(), snapshot.snapshotType());
+
+        TestableEventSourcedRootEntity entity =
+                snapshotter.restoredAggregateOf(TestableEventSourcedRootEntity.class, eventId);
+
+        assertNotNull(entity);
+        assertEquals(10, entity.unmutatedVersion());
+        assertEquals(11, entity.mutatedVersion());
+        assertEquals(10, entity.lastId());
+        assertEquals("Name: 10", entity.lastName());
+        assertEquals(10, entity.timesMutated());
+        assertTrue(entity.mutatingEvents().isEmpty());
+
+        // append a tail that does not reach the next snapshot
+
+        this.save(snapshotter, eventId, entity, 5);
+
+        assertEquals(10, this.snapshotStore.snapshotOf(eventId.streamName()).streamVersion());
+
+        entity = snapshotter.restoredAggregateOf(TestableEventSourcedRootEntity.class, eventId);
+
+        assertEquals(15, entity.unmutatedVersion());
+        assertEquals(15, entity.lastId());
+
+        // the snapshot's own event is not applied a second time
+
+        assertEquals(15, entity.timesMutated());
+
+        EventStream fullEventStream = this.eventStore.fullEventStreamFor(eventId);
+
+        TestableEventSourcedRootEntity replayed =
+                new TestableEventSourcedRootEntity(
+                        fullEventStream.events(),
+                        fullEventStream.version());
+
+        assertEquals(replayed.unmutatedVersion(), entity.unmutatedVersion());
+        assertEquals(replayed.lastId(), entity.lastId());
+        assertEquals(replayed.lastName(), entity.lastName());
+    }
+
+    public void testSnapshotAcrossThreshold() throws Exception {
+        Snapshotter snapshotter = this.snapshotter(SnapshotPolicy.everyEvents(10));
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.save(snapshotter, eventId, new TestableEventSourcedRootEntity(), 8);
+
+        TestableEventSourcedRootEntity entity = this.loaded(snapshotter, eventId);
+
+        this.save(snapshotter, eventId, entity, 4);
+
+        assertEquals(12, this.snapshotStore.snapshotOf(eventId.streamName()).streamVersion());
+    }
+
+    public void testNeverSnapshot() throws Exception {
+        Snapshotter snapshotter = this.snapshotter(SnapshotPolicy.never());
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.save(snapshotter, eventId, new TestableEventSourcedRootEntity(), 25);
+
+        assertNull(this.snapshotStore.snapshotOf(eventId.streamName()));
+    }
+
+    public void testIgnoresSnapshotOfOtherType() throws Exception {
+        Snapshotter snapshotter = this.snapshotter(SnapshotPolicy.everyEvents(1));
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.save(snapshotter, eventId, new TestableEventSourcedRootEntity(), 1);
+
+        this.snapshotStore.save(new Snapshot(eventId.streamName(), 2, String.class.getName(), "\"x\""));
+
+        assertNull(snapshotter.restoredAggregateOf(TestableEventSourcedRootEntity.class, eventId));
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        this.eventStore = HashMapEventStore.instance();
+
+        this.snapshotStore = HashMapSnapshotStore.instance();
+
+        DomainEventPublisher.instance().reset();
+
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        this.snapshotStore.purge();
+
+        this.eventStore.purge();
+
+        this.eventStore.close();
+
+        super.tearDown();
+    }
+
+    private TestableEventSourcedRootEntity loaded(
+            Snapshotter aSnapshotter,
+            EventStreamId anEventId) {
+
+        TestableEventSourcedRootEntity entity =
+                aSnapshotter.restoredAggregateOf(TestableEventSourcedRootEntity.class, anEventId);
+
+        if (entity == null) {
+            EventStream eventStream = this.eventStore.eventStreamSince(anEventId);
+
+            entity = new TestableEventSourcedRootEntity(eventStream.events(), eventStream.version());
+        }
+
+        return entity;
+    }
+
+    private void save(
+            Snapshotter aSnapshotter,
+            EventStreamId anEventId,
+            TestableEventSourcedRootEntity anEntity,
+            int aNumberOfEvents) {
+
+        int firstId = anEntity.mutatedVersion();
+
+        for (int idx = 0; idx < aNumberOfEvents; ++idx) {
+            anEntity.rename(firstId + idx, "Name: " + (firstId + idx));
+        }
+
+        EventStreamId eventId = anEventId.withStreamVersion(anEntity.mutatedVersion());
+
+        this.eventStore.appendWith(eventId, anEntity.mutatingEvents());
+
+        aSnapshotter.snapshotIfNecessary(eventId, anEntity);
+    }
+
+    private Snapshotter snapshotter(SnapshotPolicy aSnapshotPolicy) {
+        return new Snapshotter(this.eventStore, this.snapshotStore, aSnapshotPolicy);
+    }
+}
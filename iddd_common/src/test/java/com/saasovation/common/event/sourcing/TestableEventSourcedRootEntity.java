@@ -0,0 +1,58 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.event.sourcing;
+
+import java.util.List;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.domain.model.EventSourcedRootEntity;
+import com.saasovation.common.event.TestableDomainEvent;
+
+public class TestableEventSourcedRootEntity extends EventSourcedRootEntity {
+
+    private long lastId;
+    private String lastName;
+    private int timesMutated;
+
+    public TestableEventSourcedRootEntity(List<DomainEvent> anEventStream, int aStreamVersion) {
+        super(anEventStream, aStreamVersion);
+    }
+
+    public TestableEventSourcedRootEntity() {
+        super();
+    }
+
+    public void rename(long anId, String aName) {
+        this.apply(new TestableDomainEvent(anId, aName));
+    }
+
+    public long lastId() {
+        return this.lastId;
+    }
+
+    public String lastName() {
+        return this.lastName;
+    }
+
+    public int timesMutated() {
+        return this.timesMutated;
+    }
+
+    protected void when(TestableDomainEvent anEvent) {
+        this.lastId = anEvent.id();
+        this.lastName = anEvent.name();
+        ++this.timesMutated;
+    }
+}
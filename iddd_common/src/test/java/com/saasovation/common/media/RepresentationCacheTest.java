@@ -0,0 +1,108 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.media;
+
+import junit.framework.TestCase;
+
+public class RepresentationCacheTest extends TestCase {
+
+    public RepresentationCacheTest() {
+        super();
+    }
+
+    public void testCachedRepresentationETag() throws Exception {
+        CachedRepresentation representation = new CachedRepresentation("{\"id\":\"1,20\"}");
+
+        assertEquals(representation.eTag(), new CachedRepresentation("{\"id\":\"1,20\"}").eTag());
+        assertFalse(representation.eTag().equals(new CachedRepresentation("{\"id\":\"21,40\"}").eTag()));
+        assertEquals(13, representation.weight());
+    }
+
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        RepresentationCache cache = new RepresentationCache(30);
+
+        cache.cache("a", "0123456789");
+        cache.cache("b", "0123456789");
+        cache.cache("c", "0123456789");
+
+        assertEquals(3, cache.size());
+        assertEquals(30, cache.weight());
+
+        // a becomes the most recently used
+        assertNotNull(cache.cachedRepresentation("a"));
+
+        cache.cache("d", "01234");
+
+        assertEquals(3, cache.size());
+        assertEquals(25, cache.weight());
+        assertNotNull(cache.cachedRepresentation("a"));
+        assertNull(cache.cachedRepresentation("b"));
+        assertNotNull(cache.cachedRepresentation("c"));
+        assertNotNull(cache.cachedRepresentation("d"));
+    }
+
+    public void testReplacesAndRemoves() throws Exception {
+        RepresentationCache cache = new RepresentationCache(30);
+
+        cache.cache("a", "0123456789");
+        cache.cache("a", "01234");
+
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.weight());
+        assertEquals("01234", cache.cachedRepresentation("a").representation());
+
+        cache.remove("a");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+
+    public void testReplacesWithBinaryRepresentation() throws Exception {
+        RepresentationCache cache = new RepresentationCache(30);
+
+        CachedRepresentation representation = cache.cache("a", "0123456789");
+
+        CachedRepresentation replacement =
+                cache.replace("a", representation, representation.withBinaryRepresentation(new byte[4]));
+
+        assertSame(replacement, cache.cachedRepresentation("a"));
+        assertEquals(representation.eTag(), replacement.eTag());
+        assertEquals(4, replacement.binaryRepresentation().length);
+        assertEquals(14, replacement.weight());
+        assertEquals(14, cache.weight());
+
+        // one cached since it was answered is not replaced
+        CachedRepresentation recached = cache.cache("a", "01234");
+
+        cache.replace("a", replacement, replacement.withBinaryRepresentation(new byte[2]));
+
+        assertSame(recached, cache.cachedRepresentation("a"));
+        assertEquals(5, cache.weight());
+    }
+
+    public void testAnswersButDoesNotKeepOversized() throws Exception {
+        RepresentationCache cache = new RepresentationCache(5);
+
+        cache.cache("a", "01234");
+
+        CachedRepresentation oversized = cache.cache("b", "0123456789");
+
+        assertEquals("0123456789", oversized.representation());
+        assertNull(cache.cachedRepresentation("b"));
+        assertNotNull(cache.cachedRepresentation("a"));
+        assertEquals(5, cache.weight());
+    }
+}
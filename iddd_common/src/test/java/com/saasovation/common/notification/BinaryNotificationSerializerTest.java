@@ -0,0 +1,144 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.TestableNavigableDomainEvent;
+import com.saasovation.common.media.OvationsMediaType;
+
+public class BinaryNotificationSerializerTest extends TestCase {
+
+    public BinaryNotificationSerializerTest() {
+        super();
+    }
+
+    public void testReadBinaryNotification() throws Exception {
+        TestableNavigableDomainEvent domainEvent = new TestableNavigableDomainEvent(100, "testing");
+
+        Notification notification = new Notification(1, domainEvent);
+
+        byte[] serializedNotification =
+                BinaryNotificationSerializer.instance().serialize(notification);
+
+        NotificationReader reader = new NotificationReader(serializedNotification);
+
+        assertEquals(1L, reader.notificationId());
+        assertEquals(domainEvent.occurredOn(), reader.occurredOn());
+        assertEquals(notification.typeName(), reader.typeName());
+        assertEquals(notification.version(), reader.version());
+        assertEquals("" + domainEvent.eventVersion(), reader.eventStringValue("eventVersion"));
+        assertEquals("" + domainEvent.nestedEvent().id(), reader.eventStringValue("nestedEvent.id"));
+        assertEquals(domainEvent.nestedEvent().name(), reader.eventStringValue("/nestedEvent/name"));
+        assertEquals(domainEvent.nestedEvent().occurredOn(), reader.eventDateValue("nestedEvent", "occurredOn"));
+    }
+
+    public void testBinaryIsSmallerThanJSON() throws Exception {
+        Notification notification = new Notification(1, new TestableDomainEvent(100, "testing"));
+
+        String json = NotificationSerializer.instance().serialize(notification);
+
+        byte[] binary = BinaryNotificationSerializer.instance().serialize(notification);
+
+        assertTrue(binary.length < json.length());
+    }
+
+    public void testReadBinaryNotificationLog() throws Exception {
+        NotificationSerializer serializer = NotificationSerializer.instance();
+
+        StringBuilder json = new StringBuilder();
+
+        json.append("{\"archived\":true,\"id\":\"1,20\",\"notifications\":[");
+
+        for (int idx = 1; idx <= 20; ++idx) {
+            if (idx > 1) {
+                json.append(',');
+            }
+
+            json.append(serializer.serialize(new Notification(idx, new TestableDomainEvent(idx, "testing" + idx))));
+        }
+
+        json.append("],\"linkNext\":null,\"linkPrevious\":null,");
+        json.append("\"linkSelf\":{\"href\":\"/notifications/1,20\",\"rel\":\"self\",\"title\":null,\"type\":\"");
+        json.append(OvationsMediaType.ID_OVATION_TYPE).append("\"}}");
+
+        byte[] binary = BinaryNotificationSerializer.instance().serializeLog(json.toString());
+
+        // the names of the 20 alike notifications are written once
+        assertTrue(binary.length * 2 < json.length());
+
+        NotificationLogReader log = new NotificationLogReader(binary);
+
+        assertTrue(log.isArchived());
+        assertEquals("1,20", log.id());
+        assertEquals("/notifications/1,20", log.self().getHref());
+        assertFalse(log.hasNext());
+        assertFalse(log.hasPrevious());
+        assertEquals(20, log.size());
+
+        long notificationId = 0;
+
+        for (NotificationReader reader : log) {
+            assertEquals(++notificationId, reader.notificationId());
+            assertEquals("testing" + notificationId, reader.eventStringValue("name"));
+        }
+
+        assertEquals(20L, notificationId);
+    }
+
+    public void testReadBinaryNotificationArray() throws Exception {
+        String json =
+                "{\"event\":{\"invitees\":[{\"identity\":\"jdoe\",\"role\":\"Member\"},"
+                + "{\"identity\":\"zoe\",\"role\":\"Owner\"}],\"name\":\"testing\",\"tags\":[]},"
+                + "\"notificationId\":1,\"typeName\":\"Scheduled\",\"version\":1}";
+
+        NotificationReader reader =
+                new NotificationReader(BinaryNotificationSerializer.instance().serialize(json));
+
+        assertEquals(new NotificationReader(json).array("event", "invitees"), reader.array("event", "invitees"));
+        assertEquals("zoe", reader.array("event", "invitees").get(1).getAsJsonObject().get("identity").getAsString());
+        assertEquals(0, reader.array("event.tags").size());
+        assertEquals("testing", reader.eventStringValue("name"));
+    }
+
+    public void testBinaryMediaType() throws Exception {
+        assertTrue(BinaryNotificationSerializer.isBinaryMediaType(OvationsMediaType.ID_OVATION_BINARY_TYPE));
+        assertFalse(BinaryNotificationSerializer.isBinaryMediaType(OvationsMediaType.ID_OVATION_TYPE));
+
+        try {
+            BinaryNotificationSerializer.isBinaryMediaType("text/plain");
+
+            fail("Should have thrown IllegalArgumentException.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+    }
+
+    public void testNotABinaryNotification() throws Exception {
+        byte[] binaryLog = BinaryNotificationSerializer.instance().serializeLog("{\"id\":\"1,20\"}");
+
+        try {
+            new NotificationReader(binaryLog);
+
+            fail("Should have thrown IllegalArgumentException.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+    }
+}
@@ -40,6 +40,13 @@ public class MockPublishedNotificationTrackerStore
         // no-op
     }
 
+    @Override
+    public void trackMostRecentPublishedNotificationId(
+            PublishedNotificationTracker aPublishedNotificationTracker,
+            long aMostRecentPublishedNotificationId) {
+        // no-op
+    }
+
     @Override
     public String typeName() {
         return "mock";
@@ -0,0 +1,102 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.event.EventSerializer;
+import com.saasovation.common.event.StoredEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.TestableNavigableDomainEvent;
+
+/**
+ * Serializes a batch of StoredEvents as notification messages, both
+ * by forwarding the stored bodies through StoredNotification and by
+ * the former round trip of deserializing each event into a Notification.
+ * Run with: gradle :iddd_common:jmh -Pjmh.args='NotificationForwarding'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationForwardingBenchmark {
+
+    private static final int NOTIFICATIONS_FORWARDED = 10000;
+
+    private NotificationSerializer serializer;
+    private List<StoredEvent> storedEvents;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.serializer = NotificationSerializer.instance();
+
+        this.storedEvents = new ArrayList<StoredEvent>(NOTIFICATIONS_FORWARDED);
+
+        for (int idx = 1; idx <= NOTIFICATIONS_FORWARDED; ++idx) {
+            DomainEvent domainEvent = null;
+
+            if (idx % 2 == 0) {
+                domainEvent = new TestableDomainEvent(idx, "Name: " + idx);
+            } else {
+                domainEvent = new TestableNavigableDomainEvent(idx, "Name: " + idx);
+            }
+
+            this.storedEvents.add(
+                    new StoredEvent(
+                            domainEvent.getClass().getName(),
+                            domainEvent.occurredOn(),
+                            EventSerializer.instance().serialize(domainEvent),
+                            idx));
+        }
+    }
+
+    @Benchmark
+    public void forwardStoredBodies(Blackhole aBlackhole) {
+        for (StoredEvent storedEvent : this.storedEvents) {
+            aBlackhole.consume(
+                    this.serializer.serialize(
+                            new StoredNotification(storedEvent)));
+        }
+    }
+
+    @Benchmark
+    public void forwardDeserializedEvents(Blackhole aBlackhole) {
+        for (StoredEvent storedEvent : this.storedEvents) {
+            DomainEvent domainEvent = storedEvent.toDomainEvent();
+
+            aBlackhole.consume(
+                    this.serializer.serialize(
+                            new Notification(storedEvent.eventId(), domainEvent)));
+        }
+    }
+}
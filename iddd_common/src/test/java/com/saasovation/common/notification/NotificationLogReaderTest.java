@@ -0,0 +1,144 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.TestableDomainEvent;
+
+public class NotificationLogReaderTest extends TestCase {
+
+    public NotificationLogReaderTest() {
+        super();
+    }
+
+    public void testReadLogProperties() throws Exception {
+        NotificationLogReader log = new NotificationLogReader(this.serializedLog(3));
+
+        assertEquals("21,40", log.id());
+        assertTrue(log.isArchived());
+
+        assertTrue(log.hasSelf());
+        assertEquals("/notifications/21,40", log.self().getHref());
+        assertEquals("self", log.self().getRel());
+        assertTrue(log.hasPrevious());
+        assertEquals("previous", log.previous().getRel());
+        assertFalse(log.hasNext());
+    }
+
+    public void testIterateNotifications() throws Exception {
+        NotificationLogReader log = new NotificationLogReader(this.serializedLog(3));
+
+        Iterator<NotificationReader> iterator = log.notifications();
+
+        long notificationId = 0;
+
+        while (iterator.hasNext()) {
+            NotificationReader reader = iterator.next();
+
+            assertEquals(++notificationId, reader.notificationId());
+            assertEquals("" + notificationId, reader.eventStringValue("id"));
+            assertEquals("testing" + notificationId, reader.eventStringValue("name"));
+            assertEquals(TestableDomainEvent.class.getName(), reader.typeName());
+        }
+
+        assertEquals(3L, notificationId);
+        assertEquals(3, log.size());
+    }
+
+    public void testReadValuesNotAskedOfEarlierNotifications() throws Exception {
+        NotificationLogReader log = new NotificationLogReader(this.serializedLog(4));
+
+        assertEquals(1L, log.get(0).notificationId());
+
+        // read for the notification id alone, then asked for more
+        assertEquals(2L, log.get(1).notificationId());
+        assertEquals("testing2", log.get(1).eventStringValue("name"));
+        assertEquals(TestableDomainEvent.class.getName(), log.get(1).typeName());
+
+        assertEquals("testing4", log.get(3).eventStringValue("name"));
+        assertEquals("3", log.get(2).eventStringValue("/id"));
+        assertEquals("testing1", log.get(0).eventStringValue("name"));
+        assertEquals(4L, log.get(3).notificationId());
+    }
+
+    public void testGetNotifications() throws Exception {
+        NotificationLogReader log = new NotificationLogReader(this.serializedLog(5));
+
+        assertEquals(3L, log.get(2).notificationId());
+        assertEquals(1L, log.get(0).notificationId());
+        assertEquals(5L, log.get(4).notificationId());
+        assertEquals(5, log.size());
+        assertEquals(2, log.subList(1, 3).size());
+        assertEquals(2L, log.subList(1, 3).get(0).notificationId());
+
+        try {
+            log.get(5);
+
+            fail("Should have thrown IndexOutOfBoundsException.");
+
+        } catch (IndexOutOfBoundsException e) {
+            // good
+        }
+    }
+
+    public void testNoNotifications() throws Exception {
+        NotificationLogReader log = new NotificationLogReader(this.serializedLog(0));
+
+        assertEquals(0, log.size());
+        assertFalse(log.notifications().hasNext());
+
+        log = new NotificationLogReader("{\"id\":\"1,20\",\"archived\":false}");
+
+        assertEquals("1,20", log.id());
+        assertFalse(log.isArchived());
+        assertEquals(0, log.size());
+    }
+
+    private String serializedLog(int aCount) {
+        NotificationSerializer serializer = NotificationSerializer.instance();
+
+        StringBuilder builder = new StringBuilder();
+
+        builder
+            .append("{\"id\":\"21,40\",")
+            .append("\"linkSelf\":{\"href\":\"/notifications/21,40\",\"rel\":\"self\",")
+            .append("\"title\":null,\"type\":\"application/json\"},")
+            .append("\"linkNext\":null,")
+            .append("\"notifications\":[");
+
+        for (int idx = 1; idx <= aCount; ++idx) {
+            Notification notification =
+                    new Notification(idx, new TestableDomainEvent(idx, "testing" + idx));
+
+            if (idx > 1) {
+                builder.append(',');
+            }
+
+            builder.append(serializer.serialize(notification));
+        }
+
+        builder
+            .append("],")
+            .append("\"linkPrevious\":{\"href\":\"/notifications/1,20\",\"rel\":\"previous\",")
+            .append("\"title\":null,\"type\":\"application/json\"},")
+            .append("\"archived\":true}");
+
+        return builder.toString();
+    }
+}
@@ -30,7 +30,7 @@ public class NotificationLogTest extends CommonTestCase {
         NotificationLogFactory factory = new NotificationLogFactory(eventStore);
         NotificationLog log = factory.createCurrentNotificationLog();
 
-        assertTrue(NotificationLogFactory.notificationsPerLog() >= log.totalNotifications());
+        assertTrue(factory.notificationsPerLog() >= log.totalNotifications());
         assertTrue(eventStore.countStoredEvents() >= log.totalNotifications());
         assertFalse(log.hasNextNotificationLog());
         assertTrue(log.hasPreviousNotificationLog());
@@ -39,11 +39,11 @@ public class NotificationLogTest extends CommonTestCase {
 
     public void testFirstNotificationLogFromFactory() throws Exception {
         EventStore eventStore = this.eventStore();
-        NotificationLogId id = NotificationLogId.first(NotificationLogFactory.notificationsPerLog());
         NotificationLogFactory factory = new NotificationLogFactory(eventStore);
+        NotificationLogId id = NotificationLogId.first(factory.notificationsPerLog());
         NotificationLog log = factory.createNotificationLog(id);
 
-        assertEquals(NotificationLogFactory.notificationsPerLog(), log.totalNotifications());
+        assertEquals(factory.notificationsPerLog(), log.totalNotifications());
         assertTrue(eventStore.countStoredEvents() >= log.totalNotifications());
         assertTrue(log.hasNextNotificationLog());
         assertFalse(log.hasPreviousNotificationLog());
@@ -53,20 +53,54 @@ public class NotificationLogTest extends CommonTestCase {
     public void testPreviousOfCurrentNotificationLogFromFactory() throws Exception {
         EventStore eventStore = this.eventStore();
         long totalEvents = eventStore.countStoredEvents();
-        boolean shouldBePrevious = totalEvents > (NotificationLogFactory.notificationsPerLog() * 2);
         NotificationLogFactory factory = new NotificationLogFactory(eventStore);
+        boolean shouldBePrevious = totalEvents > (factory.notificationsPerLog() * 2);
         NotificationLog log = factory.createCurrentNotificationLog();
 
         NotificationLogId previousId = log.decodedPreviousNotificationLogId();
         log = factory.createNotificationLog(previousId);
 
-        assertEquals(NotificationLogFactory.notificationsPerLog(), log.totalNotifications());
+        assertEquals(factory.notificationsPerLog(), log.totalNotifications());
         assertTrue(totalEvents >= log.totalNotifications());
         assertTrue(log.hasNextNotificationLog());
         assertEquals(shouldBePrevious, log.hasPreviousNotificationLog());
         assertTrue(log.isArchived());
     }
 
+    public void testConfiguredNotificationsPerLog() throws Exception {
+        EventStore eventStore = this.eventStore();
+        NotificationLogFactory factory = new NotificationLogFactory(eventStore, 7);
+        NotificationLog log = factory.createCurrentNotificationLog();
+
+        assertEquals(7, factory.notificationsPerLog());
+        assertTrue(7 >= log.totalNotifications());
+        assertEquals(7, log.decodedNotificationLogId().high() - log.decodedNotificationLogId().low() + 1);
+
+        log = factory.createNotificationLog(log.decodedPreviousNotificationLogId());
+
+        assertEquals(7, log.totalNotifications());
+        assertTrue(log.isArchived());
+        assertEquals(7, log.decodedNextNotificationLogId().high() - log.decodedNextNotificationLogId().low() + 1);
+
+        try {
+            new NotificationLogFactory(eventStore, NotificationLogFactory.MAXIMUM_NOTIFICATIONS_PER_LOG + 1);
+
+            fail("Should have thrown an exception.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+
+        try {
+            factory.createNotificationLog(new NotificationLogId(1, NotificationLogFactory.MAXIMUM_NOTIFICATIONS_PER_LOG + 1));
+
+            fail("Should have thrown an exception.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+    }
+
     public void testEncodedWithDecodedNavigationIds() throws Exception {
         EventStore eventStore = this.eventStore();
         NotificationLogFactory factory = new NotificationLogFactory(eventStore);
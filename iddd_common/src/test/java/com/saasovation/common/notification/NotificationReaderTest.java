@@ -116,6 +116,16 @@ public class NotificationReaderTest extends TestCase {
         assertEquals(domainEvent.nestedEvent().eventVersion(), reader.eventIntegerValue("nestedEvent.eventVersion").intValue());
     }
 
+    public void testReadAlternateNames() throws Exception {
+        NotificationReader reader =
+                new NotificationReader(
+                        "{\"@notificationId\":1,\"event\":{\"@id\":\"7\",\"@name\":\"alternate\",\"name\":\"plain\"}}");
+
+        assertEquals(1L, reader.notificationId());
+        assertEquals("7", reader.eventStringValue("id"));
+        assertEquals("plain", reader.eventStringValue("name"));
+    }
+
     public void testReadBogusProperties() throws Exception {
         TestableNavigableDomainEvent domainEvent = new TestableNavigableDomainEvent(100L, "testing");
 
@@ -0,0 +1,106 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.notification;
+
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.event.EventSerializer;
+import com.saasovation.common.event.StoredEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.TestableNavigableDomainEvent;
+
+public class StoredNotificationTest extends TestCase {
+
+    public StoredNotificationTest() {
+        super();
+    }
+
+    public void testSerializesAsNotification() throws Exception {
+        this.assertSameSerialization(1L, new TestableDomainEvent(100, "testing \"quoted\" <name>"));
+        this.assertSameSerialization(2L, new TestableNavigableDomainEvent(100, "testing"));
+        this.assertSameSerialization(3L, new TestableNullPropertyDomainEvent(100L, "testing"));
+    }
+
+    public void testReadsStoredMetadata() throws Exception {
+        TestableDomainEvent domainEvent = new TestableDomainEvent(100, "testing");
+
+        StoredNotification storedNotification =
+                new StoredNotification(this.storedEventOf(7L, domainEvent));
+
+        assertEquals(7L, storedNotification.notificationId());
+        assertEquals(domainEvent.occurredOn(), storedNotification.occurredOn());
+        assertEquals(TestableDomainEvent.class.getName(), storedNotification.typeName());
+        assertEquals(domainEvent.eventVersion(), storedNotification.version());
+        assertNull(storedNotification.notification());
+    }
+
+    public void testFallsBackWithoutTopLevelMetadata() throws Exception {
+        TestableDomainEvent domainEvent = new TestableDomainEvent(100, "testing");
+
+        String eventBody =
+                "{\"nested\":{\"eventVersion\":2,\"occurredOn\":\"0\"},"
+                + "\"id\":100,\"name\":\"testing\",\"occurredOn\":\""
+                + domainEvent.occurredOn().getTime() + "\"}";
+
+        StoredNotification storedNotification =
+                new StoredNotification(
+                        new StoredEvent(
+                                TestableDomainEvent.class.getName(),
+                                domainEvent.occurredOn(),
+                                eventBody,
+                                9L));
+
+        assertNotNull(storedNotification.notification());
+        assertEquals(0, storedNotification.version());
+        assertEquals(domainEvent.occurredOn(), storedNotification.occurredOn());
+    }
+
+    public void testCompactSerializerUsesNotification() throws Exception {
+        TestableNullPropertyDomainEvent domainEvent = new TestableNullPropertyDomainEvent(100L, "testing");
+
+        NotificationSerializer serializer = new NotificationSerializer(true);
+
+        assertEquals(
+                serializer.serialize(new Notification(4L, domainEvent)),
+                serializer.serialize(new StoredNotification(this.storedEventOf(4L, domainEvent))));
+    }
+
+    private void assertSameSerialization(long aNotificationId, DomainEvent aDomainEvent) {
+        StoredEvent storedEvent = this.storedEventOf(aNotificationId, aDomainEvent);
+
+        NotificationSerializer serializer = NotificationSerializer.instance();
+
+        String expected =
+                serializer.serialize(
+                        new Notification(aNotificationId, storedEvent.toDomainEvent()));
+
+        assertEquals(expected, serializer.serialize(new StoredNotification(storedEvent)));
+    }
+
+    private StoredEvent storedEventOf(long anEventId, DomainEvent aDomainEvent) {
+        // stores seconds only, as a datetime column would
+        Date occurredOn = new Date(aDomainEvent.occurredOn().getTime() / 1000L * 1000L);
+
+        return new StoredEvent(
+                aDomainEvent.getClass().getName(),
+                occurredOn,
+                EventSerializer.instance().serialize(aDomainEvent),
+                anEventId);
+    }
+}
@@ -0,0 +1,149 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class IdempotentReceiverTest extends TestCase {
+
+    private CountingReceivedMessageStore receivedMessageStore;
+
+    public IdempotentReceiverTest() {
+        super();
+    }
+
+    public void testRejectsDuplicate() throws Exception {
+        IdempotentReceiver receiver = new IdempotentReceiver(this.receivedMessageStore, 60000L, 1000);
+
+        assertFalse(receiver.isDuplicate("listener1", "101"));
+
+        receiver.received("listener1", "101");
+
+        assertTrue(receiver.isDuplicate("listener1", "101"));
+        assertFalse(receiver.isDuplicate("listener2", "101"));
+        assertFalse(receiver.isDuplicate("listener1", "102"));
+    }
+
+    public void testConsultsStoreUntilFilterTrusted() throws Exception {
+        this.receivedMessageStore.received("listener1", "100", System.currentTimeMillis());
+
+        IdempotentReceiver receiver = new IdempotentReceiver(this.receivedMessageStore, 200L, 1000);
+
+        // received before the receiver started, so only the store knows
+
+        assertTrue(receiver.isDuplicate("listener1", "100"));
+
+        Thread.sleep(250L);
+
+        receiver.received("listener1", "101");
+
+        int lookups = this.receivedMessageStore.lookups();
+
+        for (int idx = 200; idx < 300; ++idx) {
+            assertFalse(receiver.isDuplicate("listener1", "" + idx));
+        }
+
+        assertTrue(receiver.isDuplicate("listener1", "101"));
+
+        // the filter answered nearly all of the new messages itself
+
+        assertTrue(this.receivedMessageStore.lookups() - lookups < 10);
+    }
+
+    public void testExpiresAfterWindow() throws Exception {
+        IdempotentReceiver receiver = new IdempotentReceiver(this.receivedMessageStore, 100L, 1000);
+
+        receiver.received("listener1", "101");
+
+        assertTrue(receiver.isDuplicate("listener1", "101"));
+
+        Thread.sleep(150L);
+
+        receiver.received("listener1", "102");
+
+        assertFalse(receiver.isDuplicate("listener1", "101"));
+        assertTrue(receiver.isDuplicate("listener1", "102"));
+
+        Thread.sleep(150L);
+
+        assertFalse(receiver.isDuplicate("listener1", "102"));
+        assertEquals(0, this.receivedMessageStore.size());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.receivedMessageStore = new CountingReceivedMessageStore();
+    }
+
+    private static class CountingReceivedMessageStore implements ReceivedMessageStore {
+
+        private int lookups;
+        private Map<String, Long> receivedMessages = new HashMap<String, Long>();
+
+        @Override
+        public synchronized boolean isReceivedSince(
+                String aReceiverName,
+                String aMessageId,
+                long aReceivedSince) {
+
+            ++this.lookups;
+
+            Long receivedOn = this.receivedMessages.get(aReceiverName + ":" + aMessageId);
+
+            return receivedOn != null && receivedOn >= aReceivedSince;
+        }
+
+        @Override
+        public synchronized void received(
+                String aReceiverName,
+                String aMessageId,
+                long aReceivedOn) {
+
+            this.receivedMessages.put(aReceiverName + ":" + aMessageId, aReceivedOn);
+        }
+
+        @Override
+        public synchronized int removeReceivedBefore(long aReceivedBefore) {
+            int removed = 0;
+
+            Iterator<Long> iterator = this.receivedMessages.values().iterator();
+
+            while (iterator.hasNext()) {
+                if (iterator.next() < aReceivedBefore) {
+                    iterator.remove();
+
+                    ++removed;
+                }
+            }
+
+            return removed;
+        }
+
+        synchronized int lookups() {
+            return this.lookups;
+        }
+
+        synchronized int size() {
+            return this.receivedMessages.size();
+        }
+    }
+}
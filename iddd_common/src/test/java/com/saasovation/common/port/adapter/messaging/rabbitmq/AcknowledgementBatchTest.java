@@ -0,0 +1,159 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging.rabbitmq;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class AcknowledgementBatchTest extends TestCase {
+
+    private List<String> sent;
+
+    public AcknowledgementBatchTest() {
+        super();
+    }
+
+    public void testAcknowledgesAfterMaximumMessages() throws Exception {
+        AcknowledgementBatch batch = this.batch(3, 60000L);
+
+        try {
+            for (long tag = 1; tag <= 7; ++tag) {
+                batch.received(tag);
+                batch.acknowledged(tag);
+            }
+
+            assertEquals("[ack:3:multiple, ack:6:multiple]", this.sent.toString());
+            assertEquals(1, batch.pendingMessages());
+            assertEquals(2, batch.acknowledgements());
+            assertEquals(6, batch.acknowledgedMessages());
+
+        } finally {
+            batch.close();
+        }
+
+        assertEquals("[ack:3:multiple, ack:6:multiple, ack:7]", this.sent.toString());
+        assertEquals(7, batch.acknowledgedMessages());
+        assertTrue(batch.maximumLatencyMillis() >= batch.averageLatencyMillis());
+    }
+
+    public void testAcknowledgesAfterMaximumDelay() throws Exception {
+        AcknowledgementBatch batch = this.batch(100, 50L);
+
+        try {
+            batch.received(1);
+            batch.received(2);
+            batch.acknowledged(1);
+            batch.acknowledged(2);
+
+            long deadline = System.currentTimeMillis() + 5000L;
+
+            while (batch.pendingMessages() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+
+            synchronized (this.sent) {
+                assertEquals("[ack:2:multiple]", this.sent.toString());
+            }
+
+        } finally {
+            batch.close();
+        }
+    }
+
+    public void testNeverAcknowledgesBeyondOutstanding() throws Exception {
+        AcknowledgementBatch batch = this.batch(2, 60000L);
+
+        try {
+            batch.received(1);
+            batch.received(2);
+            batch.received(3);
+            batch.received(4);
+
+            batch.acknowledged(2);
+            batch.acknowledged(3);
+            batch.acknowledged(4);
+
+            assertTrue(this.sent.isEmpty());
+
+            batch.acknowledged(1);
+
+            assertEquals("[ack:4:multiple]", this.sent.toString());
+
+        } finally {
+            batch.close();
+        }
+    }
+
+    public void testRejectsFailedMessageInsideBatch() throws Exception {
+        AcknowledgementBatch batch = this.batch(3, 60000L);
+
+        try {
+            for (long tag = 1; tag <= 4; ++tag) {
+                batch.received(tag);
+            }
+
+            batch.acknowledged(1);
+            batch.rejected(2, true);
+            batch.acknowledged(3);
+
+            assertEquals("[nack:2:retry]", this.sent.toString());
+
+            batch.acknowledged(4);
+
+            assertEquals("[nack:2:retry, ack:4:multiple]", this.sent.toString());
+            assertEquals(3, batch.acknowledgedMessages());
+
+            // a rejected tag is never the tag of a multiple acknowledgement
+
+            batch.received(5);
+            batch.received(6);
+            batch.acknowledged(5);
+            batch.rejected(6, false);
+
+        } finally {
+            batch.close();
+        }
+
+        assertEquals("[nack:2:retry, ack:4:multiple, nack:6, ack:5]", this.sent.toString());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.sent = new ArrayList<String>();
+    }
+
+    private AcknowledgementBatch batch(int aMaximumMessages, long aMaximumDelayMillis) {
+        return new AcknowledgementBatch(null, aMaximumMessages, aMaximumDelayMillis) {
+            @Override
+            void acknowledge(long aDeliveryTag, boolean isMultiple) {
+                synchronized (sent) {
+                    sent.add("ack:" + aDeliveryTag + (isMultiple ? ":multiple" : ""));
+                }
+            }
+
+            @Override
+            void reject(long aDeliveryTag, boolean isRetry) {
+                synchronized (sent) {
+                    sent.add("nack:" + aDeliveryTag + (isRetry ? ":retry" : ""));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,138 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.messaging.rabbitmq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class OrderedDispatcherTest extends TestCase {
+
+    public OrderedDispatcherTest() {
+        super();
+    }
+
+    public void testSameKeyHandledInOrder() throws Exception {
+        final Map<String, List<Integer>> handled = new HashMap<String, List<Integer>>();
+
+        OrderedDispatcher dispatcher = new OrderedDispatcher("test", 4);
+
+        try {
+            for (int idx = 0; idx < 700; ++idx) {
+                final String key = "tenant-" + (idx % 7);
+                final int sequence = idx;
+
+                dispatcher.dispatch(key, new Runnable() {
+                    public void run() {
+                        synchronized (handled) {
+                            List<Integer> sequences = handled.get(key);
+
+                            if (sequences == null) {
+                                sequences = new ArrayList<Integer>();
+                                handled.put(key, sequences);
+                            }
+
+                            sequences.add(sequence);
+                        }
+                    }
+                });
+            }
+        } finally {
+            dispatcher.close();
+        }
+
+        assertEquals(7, handled.size());
+
+        for (List<Integer> sequences : handled.values()) {
+            assertEquals(100, sequences.size());
+
+            for (int idx = 1; idx < sequences.size(); ++idx) {
+                assertTrue(sequences.get(idx - 1) < sequences.get(idx));
+            }
+        }
+    }
+
+    public void testOtherKeysNotBlocked() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        final CountDownLatch handledOther = new CountDownLatch(1);
+
+        OrderedDispatcher dispatcher = new OrderedDispatcher("test", 2);
+
+        String blockedKey = "blocked";
+        String otherKey = null;
+
+        for (int idx = 0; otherKey == null; ++idx) {
+            if (dispatcher.laneOf("other-" + idx) != dispatcher.laneOf(blockedKey)) {
+                otherKey = "other-" + idx;
+            }
+        }
+
+        try {
+            dispatcher.dispatch(blockedKey, new Runnable() {
+                public void run() {
+                    try {
+                        released.await();
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+            });
+
+            dispatcher.dispatch(otherKey, new Runnable() {
+                public void run() {
+                    handledOther.countDown();
+                }
+            });
+
+            assertTrue(handledOther.await(5, TimeUnit.SECONDS));
+
+        } finally {
+            released.countDown();
+
+            dispatcher.close();
+        }
+    }
+
+    public void testUnkeyedSpreadAcrossLanes() throws Exception {
+        OrderedDispatcher dispatcher = new OrderedDispatcher("test", 3);
+
+        try {
+            assertEquals(0, dispatcher.laneOf(null));
+            assertEquals(1, dispatcher.laneOf(null));
+            assertEquals(2, dispatcher.laneOf(null));
+            assertEquals(0, dispatcher.laneOf(null));
+
+            assertEquals(dispatcher.laneOf("tenant"), dispatcher.laneOf("tenant"));
+
+        } finally {
+            dispatcher.close();
+        }
+
+        try {
+            new OrderedDispatcher("test", 0);
+
+            fail("Should have thrown an exception.");
+
+        } catch (IllegalArgumentException e) {
+            // good
+        }
+    }
+}
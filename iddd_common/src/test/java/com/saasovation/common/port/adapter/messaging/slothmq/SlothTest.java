@@ -14,6 +14,9 @@
 
 package com.saasovation.common.port.adapter.messaging.slothmq;
 
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -43,6 +46,44 @@ public class SlothTest extends TestCase {
 		assertEquals(4, TestExchangeListenerAgain.uniqueMessages().size());
 	}
 
+	public void testPublishLargeMessage() throws Exception {
+		StringBuilder largeMessage = new StringBuilder();
+
+		while (largeMessage.length() < 200000) {
+			largeMessage.append("A frame larger than the reusable buffers. ");
+		}
+
+		this.publisher.publish("my.test.type", largeMessage.toString());
+
+		Thread.sleep(1000L);
+
+		assertEquals("my.test.type", testExchangeListener.receivedType());
+		assertEquals(largeMessage.toString(), testExchangeListener.receivedMessage());
+	}
+
+	public void testReconnectAfterServerRestart() throws Exception {
+		SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", SlothWorker.HUB_PORT));
+
+		ByteBuffer frame = SlothWorker.frameOf("CLOSE:");
+
+		while (frame.hasRemaining()) {
+			channel.write(frame);
+		}
+
+		channel.close();
+
+		SlothServer.executeInProcessDetachedServer();
+
+		Thread.sleep(1000L);
+
+		this.publisher.publish("my.test.type", "A message after the restart.");
+
+		Thread.sleep(1000L);
+
+		assertEquals("my.test.type", testExchangeListener.receivedType());
+		assertEquals("A message after the restart.", testExchangeListener.receivedMessage());
+	}
+
 	@Override
 	protected void setUp() throws Exception {
         DomainEventPublisher.instance().reset();
@@ -0,0 +1,141 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.notification;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class NotificationPublisherSchedulerTest extends TestCase {
+
+    public NotificationPublisherSchedulerTest() {
+        super();
+    }
+
+    public void testSignalPublishesPromptly() throws Exception {
+        final Semaphore publications = new Semaphore(0);
+
+        NotificationPublisherScheduler scheduler =
+                new NotificationPublisherScheduler("test-publisher", new Runnable() {
+                    public void run() {
+                        publications.release();
+                    }
+                }, 60000L, 60000L);
+
+        scheduler.start();
+
+        try {
+            scheduler.notifyDispatchableEvents();
+
+            assertTrue(publications.tryAcquire(5, TimeUnit.SECONDS));
+
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    public void testSignalsCoalesce() throws Exception {
+        final AtomicInteger publications = new AtomicInteger();
+        final CountDownLatch publishing = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+
+        NotificationPublisherScheduler scheduler =
+                new NotificationPublisherScheduler("test-publisher", new Runnable() {
+                    public void run() {
+                        publications.incrementAndGet();
+                        publishing.countDown();
+
+                        try {
+                            released.await();
+                        } catch (InterruptedException e) {
+                            // ignore
+                        }
+                    }
+                }, 60000L, 60000L);
+
+        scheduler.start();
+
+        try {
+            scheduler.notifyDispatchableEvents();
+
+            assertTrue(publishing.await(5, TimeUnit.SECONDS));
+
+            for (int idx = 0; idx < 10; ++idx) {
+                scheduler.notifyDispatchableEvents();
+            }
+
+            released.countDown();
+
+            Thread.sleep(200L);
+
+            assertEquals(2, publications.get());
+
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    public void testBacksOffWhenIdle() throws Exception {
+        final AtomicInteger publications = new AtomicInteger();
+
+        NotificationPublisherScheduler scheduler =
+                new NotificationPublisherScheduler("test-publisher", new Runnable() {
+                    public void run() {
+                        publications.incrementAndGet();
+                    }
+                }, 10L, 40L);
+
+        assertEquals(10L, scheduler.idleWaitMillis());
+
+        scheduler.start();
+
+        try {
+            Thread.sleep(300L);
+
+            assertEquals(40L, scheduler.idleWaitMillis());
+            assertTrue(publications.get() > 1);
+
+        } finally {
+            scheduler.close();
+        }
+    }
+
+    public void testClosePublishesPendingSignal() throws Exception {
+        final Semaphore publications = new Semaphore(0);
+
+        NotificationPublisherScheduler scheduler =
+                new NotificationPublisherScheduler("test-publisher", new Runnable() {
+                    public void run() {
+                        publications.release();
+                    }
+                }, 60000L, 60000L);
+
+        scheduler.start();
+
+        scheduler.notifyDispatchableEvents();
+
+        assertTrue(publications.tryAcquire(5, TimeUnit.SECONDS));
+
+        scheduler.notifyDispatchableEvents();
+
+        scheduler.close();
+
+        assertEquals(1, publications.availablePermits());
+    }
+}
@@ -0,0 +1,95 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.notification;
+
+import junit.framework.TestCase;
+
+public class PublisherConfirmWindowTest extends TestCase {
+
+    public PublisherConfirmWindowTest() {
+        super();
+    }
+
+    public void testLowestUnconfirmedAfterOutOfOrderAcks() throws Exception {
+        PublisherConfirmWindow window = new PublisherConfirmWindow(10);
+
+        for (long tag = 1; tag <= 5; ++tag) {
+            window.published(tag, 100 + tag);
+        }
+
+        assertEquals(101, window.lowestUnconfirmedNotificationId());
+
+        window.handleAck(3, false);
+        window.handleAck(4, false);
+
+        assertEquals(101, window.lowestUnconfirmedNotificationId());
+
+        window.handleAck(2, true);
+
+        assertEquals(105, window.lowestUnconfirmedNotificationId());
+        assertFalse(window.awaitAllConfirmed(1L));
+
+        window.handleAck(5, false);
+
+        assertEquals(Long.MAX_VALUE, window.lowestUnconfirmedNotificationId());
+        assertTrue(window.awaitAllConfirmed(1L));
+    }
+
+    public void testNackStopsContiguousConfirmation() throws Exception {
+        PublisherConfirmWindow window = new PublisherConfirmWindow(10);
+
+        for (long tag = 1; tag <= 4; ++tag) {
+            window.published(tag, 200 + tag);
+        }
+
+        window.handleAck(1, false);
+        window.handleNack(2, false);
+        window.handleAck(4, true);
+
+        assertTrue(window.awaitAllConfirmed(1L));
+        assertEquals(202, window.lowestUnconfirmedNotificationId());
+
+        window.reset();
+
+        assertEquals(Long.MAX_VALUE, window.lowestUnconfirmedNotificationId());
+    }
+
+    public void testWindowIsBounded() throws Exception {
+        final PublisherConfirmWindow window = new PublisherConfirmWindow(2);
+
+        window.published(1, 1);
+        window.published(2, 2);
+
+        assertFalse(window.awaitCapacity(1L));
+
+        Thread acker = new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+
+                window.handleAck(1, false);
+            }
+        };
+
+        acker.start();
+
+        assertTrue(window.awaitCapacity(5000L));
+
+        acker.join();
+    }
+}
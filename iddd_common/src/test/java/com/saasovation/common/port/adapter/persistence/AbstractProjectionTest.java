@@ -0,0 +1,163 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.AnotherTestableDomainEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventDispatcher;
+
+public class AbstractProjectionTest extends TestCase {
+
+    public AbstractProjectionTest() {
+        super();
+    }
+
+    public void testDispatchToHandler() throws Exception {
+        TestableProjection projection = new TestableProjection();
+
+        DispatchableDomainEvent event =
+                new DispatchableDomainEvent(1L, new TestableDomainEvent(1L, "one"));
+
+        assertTrue(projection.understands(event));
+
+        projection.dispatch(event);
+
+        assertEquals(1, projection.projected.size());
+        assertEquals("TestableDomainEvent:one", projection.projected.get(0));
+    }
+
+    public void testDispatchToInheritedAndOverridingHandlers() throws Exception {
+        TestableProjection projection = new OverridingTestableProjection();
+
+        DispatchableDomainEvent event =
+                new DispatchableDomainEvent(1L, new TestableDomainEvent(1L, "one"));
+
+        DispatchableDomainEvent anotherEvent =
+                new DispatchableDomainEvent(2L, new AnotherTestableDomainEvent(2.0));
+
+        assertTrue(projection.understands(event));
+        assertTrue(projection.understands(anotherEvent));
+
+        projection.dispatch(event);
+        projection.dispatch(anotherEvent);
+
+        assertEquals(2, projection.projected.size());
+        assertEquals("Overridden:one", projection.projected.get(0));
+        assertEquals("AnotherTestableDomainEvent:2.0", projection.projected.get(1));
+    }
+
+    public void testSubclassEventNotUnderstood() throws Exception {
+        TestableProjection projection = new TestableProjection();
+
+        // handlers are matched on the event's exact type
+
+        DispatchableDomainEvent event =
+                new DispatchableDomainEvent(1L, new SubclassTestableDomainEvent(1L, "one"));
+
+        assertFalse(projection.understands(event));
+
+        projection.dispatch(event);
+
+        assertTrue(projection.projected.isEmpty());
+    }
+
+    public void testUnhandledEventFallsThrough() throws Exception {
+        TestableProjection projection = new TestableProjection();
+
+        DispatchableDomainEvent event =
+                new DispatchableDomainEvent(1L, new AnotherTestableDomainEvent(1.0));
+
+        assertFalse(projection.understands(event));
+
+        projection.dispatch(event);
+
+        assertTrue(projection.projected.isEmpty());
+    }
+
+    public void testHandlerFailureReported() throws Exception {
+        TestableProjection projection = new TestableProjection();
+
+        try {
+            projection.dispatch(
+                    new DispatchableDomainEvent(1L, new TestableDomainEvent(1L, null)));
+
+            fail("Should have thrown RuntimeException.");
+
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("when(TestableDomainEvent)"));
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    private static class TestableProjection extends AbstractProjection {
+
+        private List<String> projected = new ArrayList<String>();
+
+        public TestableProjection() {
+            super();
+        }
+
+        @Override
+        public void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            this.projectWhen(aDispatchableDomainEvent);
+        }
+
+        @Override
+        public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
+            throw new UnsupportedOperationException("Cannot register additional dispatchers.");
+        }
+
+        protected void project(String aProjection) {
+            this.projected.add(aProjection);
+        }
+
+        protected void when(TestableDomainEvent anEvent) {
+            if (anEvent.name() == null) {
+                throw new IllegalArgumentException("The name is required.");
+            }
+
+            this.project("TestableDomainEvent:" + anEvent.name());
+        }
+    }
+
+    private static class OverridingTestableProjection extends TestableProjection {
+
+        public OverridingTestableProjection() {
+            super();
+        }
+
+        protected void when(AnotherTestableDomainEvent anEvent) {
+            this.project("AnotherTestableDomainEvent:" + anEvent.value());
+        }
+
+        @Override
+        protected void when(TestableDomainEvent anEvent) {
+            this.project("Overridden:" + anEvent.name());
+        }
+    }
+
+    private static class SubclassTestableDomainEvent extends TestableDomainEvent {
+
+        public SubclassTestableDomainEvent(long anId, String aName) {
+            super(anId, aName);
+        }
+    }
+}
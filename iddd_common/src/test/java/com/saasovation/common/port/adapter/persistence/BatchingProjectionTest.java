@@ -0,0 +1,216 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import com.saasovation.common.event.AnotherTestableDomainEvent;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventDispatcher;
+
+public class BatchingProjectionTest extends TestCase {
+
+    private static final String EXISTS = "select thing_id from tbl_vw_thing where thing_id = ?";
+    private static final String INSERT = "insert into tbl_vw_thing(thing_id, name) values(?,?)";
+    private static final String UPDATE = "update tbl_vw_thing set value=?";
+
+    private RecordingConnection recordingConnection;
+
+    public BatchingProjectionTest() {
+        super();
+    }
+
+    public void testInsertsBatchedAcrossExistenceChecks() throws Exception {
+        ThingProjection projection = new ThingProjection();
+
+        projection.beginBatch();
+
+        for (long id = 1; id <= 3; ++id) {
+            projection.dispatch(this.thingStarted(id));
+        }
+
+        assertEquals(0, this.countOf("executeBatch: "));
+
+        projection.endBatch();
+
+        assertEquals(3, this.countOf("executeQuery: " + EXISTS));
+        assertEquals(1, this.countOf("executeBatch: " + INSERT + " x3"));
+        assertEquals(1, this.countOf("executeBatch: "));
+        assertEquals(1, this.countOf("close: " + INSERT));
+    }
+
+    public void testDuplicateInsertSkippedWithinBatch() throws Exception {
+        ThingProjection projection = new ThingProjection();
+
+        projection.beginBatch();
+
+        projection.dispatch(this.thingStarted(1));
+        projection.dispatch(this.thingStarted(2));
+        projection.dispatch(this.thingStarted(1));
+
+        projection.endBatch();
+
+        // the pending row is known without querying for it
+
+        assertEquals(2, this.countOf("executeQuery: " + EXISTS));
+        assertEquals(1, this.countOf("executeBatch: " + INSERT + " x2"));
+    }
+
+    public void testExistingRowNotInserted() throws Exception {
+        this.recordingConnection.existingRow(EXISTS, "1");
+
+        ThingProjection projection = new ThingProjection();
+
+        projection.beginBatch();
+
+        projection.dispatch(this.thingStarted(1));
+        projection.dispatch(this.thingStarted(2));
+
+        projection.endBatch();
+
+        assertEquals(1, this.countOf("addBatch: " + INSERT));
+        assertEquals(1, this.countOf("executeBatch: " + INSERT + " x1"));
+    }
+
+    public void testPendingUpdateFlushedBeforeExistenceCheck() throws Exception {
+        ThingProjection projection = new ThingProjection();
+
+        projection.beginBatch();
+
+        projection.dispatch(this.thingChanged(1.0));
+        projection.dispatch(this.thingStarted(1));
+
+        projection.endBatch();
+
+        List<String> operations = this.recordingConnection.operations();
+
+        int updateExecuted = operations.indexOf("executeBatch: " + UPDATE + " x1");
+        int existsQueried = operations.indexOf("executeQuery: " + EXISTS + " [1]");
+
+        assertTrue(updateExecuted >= 0);
+        assertTrue(updateExecuted < existsQueried);
+        assertEquals(1, this.countOf("executeBatch: " + INSERT + " x1"));
+    }
+
+    public void testAbandonBatchDiscardsWrites() throws Exception {
+        ThingProjection projection = new ThingProjection();
+
+        projection.beginBatch();
+
+        projection.dispatch(this.thingStarted(1));
+        projection.dispatch(this.thingStarted(2));
+
+        projection.abandonBatch();
+
+        assertEquals(0, this.countOf("executeBatch: "));
+        assertEquals(1, this.countOf("close: " + INSERT));
+
+        // ending an abandoned batch does nothing
+
+        projection.endBatch();
+
+        assertEquals(0, this.countOf("executeBatch: "));
+    }
+
+    public void testWithoutBatchWritesImmediately() throws Exception {
+        ThingProjection projection = new ThingProjection();
+
+        projection.dispatch(this.thingStarted(1));
+        projection.dispatch(this.thingChanged(1.0));
+
+        assertEquals(0, this.countOf("addBatch: "));
+        assertEquals(1, this.countOf("executeUpdate: " + INSERT));
+        assertEquals(1, this.countOf("executeUpdate: " + UPDATE));
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.recordingConnection = new RecordingConnection();
+
+        ConnectionProvider.connection(this.recordingConnection.dataSource());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ConnectionProvider.closeConnection();
+
+        super.tearDown();
+    }
+
+    private int countOf(String anOperationPrefix) {
+        int count = 0;
+
+        for (String operation : this.recordingConnection.operations()) {
+            if (operation.startsWith(anOperationPrefix)) {
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    private DispatchableDomainEvent thingChanged(double aValue) {
+        return new DispatchableDomainEvent(0L, new AnotherTestableDomainEvent(aValue));
+    }
+
+    private DispatchableDomainEvent thingStarted(long anId) {
+        return new DispatchableDomainEvent(anId, new TestableDomainEvent(anId, "thing" + anId));
+    }
+
+    private static class ThingProjection extends AbstractProjection {
+
+        public ThingProjection() {
+            super();
+        }
+
+        @Override
+        public void dispatch(DispatchableDomainEvent aDispatchableDomainEvent) {
+            this.projectWhen(aDispatchableDomainEvent);
+        }
+
+        @Override
+        public void registerEventDispatcher(EventDispatcher anEventDispatcher) {
+            throw new UnsupportedOperationException("Cannot register additional dispatchers.");
+        }
+
+        protected void when(AnotherTestableDomainEvent anEvent) throws Exception {
+            PreparedStatement statement = this.prepareStatement(UPDATE);
+
+            statement.setDouble(1, anEvent.value());
+
+            this.execute(statement);
+        }
+
+        protected void when(TestableDomainEvent anEvent) throws Exception {
+            // idempotent operation
+            if (this.exists(EXISTS, String.valueOf(anEvent.id()))) {
+                return;
+            }
+
+            PreparedStatement statement = this.prepareStatement(INSERT);
+
+            statement.setString(1, String.valueOf(anEvent.id()));
+            statement.setString(2, anEvent.name());
+
+            this.execute(statement);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ProjectionBatchTest extends TestCase {
+
+    private static final String INSERT = "insert into tbl_vw_thing(thing_id) values(?)";
+    private static final String UPDATE = "update tbl_vw_thing set name=? where thing_id=?";
+
+    private Connection connection;
+    private RecordingConnection recordingConnection;
+
+    public ProjectionBatchTest() {
+        super();
+    }
+
+    public void testStatementCachedPerSql() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        PreparedStatement statement = batch.statementFor(this.connection, INSERT);
+
+        assertSame(statement, batch.statementFor(this.connection, INSERT));
+        assertNotSame(statement, batch.statementFor(this.connection, UPDATE));
+
+        batch.close();
+
+        assertEquals(2, this.operations().size());
+        assertTrue(this.operations().contains("close: " + INSERT));
+        assertTrue(this.operations().contains("close: " + UPDATE));
+    }
+
+    public void testConsecutiveWritesOfSameSqlBatched() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        for (int idx = 1; idx <= 3; ++idx) {
+            PreparedStatement statement = batch.statementFor(this.connection, INSERT);
+            statement.setInt(1, idx);
+            batch.add(statement);
+        }
+
+        assertEquals(3, this.operations().size());
+
+        batch.flush();
+
+        assertEquals(4, this.operations().size());
+        assertEquals("executeBatch: " + INSERT + " x3", this.operations().get(3));
+
+        // nothing is pending after a flush
+
+        batch.flush();
+
+        assertEquals(4, this.operations().size());
+    }
+
+    public void testWriteOfOtherSqlFlushesPendingInOrder() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        PreparedStatement insert = batch.statementFor(this.connection, INSERT);
+        insert.setInt(1, 1);
+        batch.add(insert);
+
+        PreparedStatement update = batch.statementFor(this.connection, UPDATE);
+        update.setString(1, "one");
+        update.setInt(2, 1);
+        batch.add(update);
+
+        batch.flush();
+
+        assertEquals(
+                Arrays.asList(
+                        "addBatch: " + INSERT + " [1]",
+                        "executeBatch: " + INSERT + " x1",
+                        "addBatch: " + UPDATE + " [one, 1]",
+                        "executeBatch: " + UPDATE + " x1"),
+                this.operations());
+    }
+
+    public void testMissingKeyPendingOnlyOnceInserted() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        List<String> key = Arrays.asList("select thing_id from tbl_vw_thing where thing_id = ?", "1");
+
+        batch.missing(key);
+
+        assertFalse(batch.isPending(key));
+
+        PreparedStatement insert = batch.statementFor(this.connection, INSERT);
+        insert.setInt(1, 1);
+        batch.add(insert);
+
+        assertTrue(batch.isPending(key));
+
+        // once flushed, the row is found by querying
+
+        batch.flush();
+
+        assertFalse(batch.isPending(key));
+    }
+
+    public void testMissingKeyNotPendingAfterUpdate() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        List<String> key = Arrays.asList("select thing_id from tbl_vw_thing where thing_id = ?", "1");
+
+        batch.missing(key);
+
+        PreparedStatement update = batch.statementFor(this.connection, UPDATE);
+        update.setString(1, "one");
+        update.setInt(2, 1);
+        batch.add(update);
+
+        assertFalse(batch.isPending(key));
+    }
+
+    public void testFlushUnlessInserting() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        PreparedStatement insert = batch.statementFor(this.connection, INSERT);
+        insert.setInt(1, 1);
+        batch.add(insert);
+
+        batch.flushUnlessInserting();
+
+        assertEquals(1, this.operations().size());
+
+        PreparedStatement update = batch.statementFor(this.connection, UPDATE);
+        update.setString(1, "one");
+        update.setInt(2, 1);
+        batch.add(update);
+
+        batch.flushUnlessInserting();
+
+        assertEquals("executeBatch: " + UPDATE + " x1", this.operations().get(this.operations().size() - 1));
+    }
+
+    public void testCloseDiscardsPendingWrites() throws Exception {
+        ProjectionBatch batch = new ProjectionBatch();
+
+        PreparedStatement insert = batch.statementFor(this.connection, INSERT);
+        insert.setInt(1, 1);
+        batch.add(insert);
+
+        batch.close();
+
+        batch.flush();
+
+        assertEquals(
+                Arrays.asList(
+                        "addBatch: " + INSERT + " [1]",
+                        "close: " + INSERT),
+                this.operations());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.recordingConnection = new RecordingConnection();
+
+        this.connection = this.recordingConnection.connection();
+    }
+
+    private List<String> operations() {
+        return this.recordingConnection.operations();
+    }
+}
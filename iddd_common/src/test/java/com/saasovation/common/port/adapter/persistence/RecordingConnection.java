@@ -0,0 +1,192 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+/**
+ * I am a Connection that records what is done through my statements,
+ * in order, such as "addBatch: <sql>" and "executeBatch: <sql> x2".
+ * A query finds a row only when its SQL and parameters were added as
+ * an existing row.
+ */
+class RecordingConnection implements InvocationHandler {
+
+    private Set<List<Object>> existingRows;
+    private List<String> operations;
+
+    RecordingConnection() {
+        super();
+
+        this.existingRows = new HashSet<List<Object>>();
+        this.operations = new ArrayList<String>();
+    }
+
+    Connection connection() {
+        return (Connection) proxy(Connection.class, this);
+    }
+
+    DataSource dataSource() {
+        final Connection connection = this.connection();
+
+        return (DataSource) proxy(DataSource.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+                return aMethod.getName().equals("getConnection") ? connection : null;
+            }
+        });
+    }
+
+    void existingRow(String aQuery, Object... aParameters) {
+        List<Object> row = new ArrayList<Object>();
+        row.add(aQuery);
+        row.addAll(Arrays.asList(aParameters));
+
+        this.existingRows.add(row);
+    }
+
+    List<String> operations() {
+        return this.operations;
+    }
+
+    @Override
+    public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+        if (aMethod.getName().equals("prepareStatement")) {
+            return proxy(PreparedStatement.class, new RecordingStatement((String) anArguments[0]));
+        }
+
+        this.operations.add(aMethod.getName());
+
+        return defaultValueOf(aMethod);
+    }
+
+    private static Object defaultValueOf(Method aMethod) {
+        Class<?> type = aMethod.getReturnType();
+
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        }
+
+        return null;
+    }
+
+    private static Object proxy(Class<?> anInterface, InvocationHandler aHandler) {
+        return Proxy.newProxyInstance(
+                RecordingConnection.class.getClassLoader(),
+                new Class<?>[] { anInterface },
+                aHandler);
+    }
+
+    private class RecordingStatement implements InvocationHandler {
+
+        private int batchCount;
+        private Map<Integer, Object> parameters;
+        private String sql;
+
+        RecordingStatement(String aSql) {
+            super();
+
+            this.parameters = new TreeMap<Integer, Object>();
+            this.sql = aSql;
+        }
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            String name = aMethod.getName();
+
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(aProxy);
+            } else if (name.equals("equals")) {
+                return aProxy == anArguments[0];
+            } else if (name.startsWith("set") && anArguments != null && anArguments.length == 2) {
+                this.parameters.put((Integer) anArguments[0], anArguments[1]);
+
+                return null;
+            } else if (name.equals("addBatch")) {
+                ++this.batchCount;
+
+                operations.add("addBatch: " + this.sql + " " + this.parameters.values());
+
+                return null;
+            } else if (name.equals("executeBatch")) {
+                operations.add("executeBatch: " + this.sql + " x" + this.batchCount);
+
+                int[] counts = new int[this.batchCount];
+
+                this.batchCount = 0;
+
+                return counts;
+            } else if (name.equals("executeQuery")) {
+                operations.add("executeQuery: " + this.sql + " " + this.parameters.values());
+
+                List<Object> row = new ArrayList<Object>();
+                row.add(this.sql);
+                row.addAll(this.parameters.values());
+
+                return proxy(ResultSet.class, new RecordingResultSet(existingRows.contains(row)));
+            } else if (name.equals("executeUpdate")) {
+                operations.add("executeUpdate: " + this.sql + " " + this.parameters.values());
+
+                return 1;
+            } else if (name.equals("close")) {
+                operations.add("close: " + this.sql);
+
+                return null;
+            }
+
+            return defaultValueOf(aMethod);
+        }
+    }
+
+    private static class RecordingResultSet implements InvocationHandler {
+
+        private boolean hasRow;
+
+        RecordingResultSet(boolean aHasRow) {
+            super();
+
+            this.hasRow = aHasRow;
+        }
+
+        @Override
+        public Object invoke(Object aProxy, Method aMethod, Object[] anArguments) {
+            if (aMethod.getName().equals("next")) {
+                boolean hasRow = this.hasRow;
+
+                this.hasRow = false;
+
+                return hasRow;
+            }
+
+            return defaultValueOf(aMethod);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.common.event.TestableDomainEvent;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
 import com.saasovation.common.event.sourcing.EventStore;
 import com.saasovation.common.event.sourcing.EventStoreAppendException;
 import com.saasovation.common.event.sourcing.EventStoreException;
@@ -104,6 +105,10 @@ public class LevelDBEventSourcingEventStoreTest extends TestCase {
         // this should succeed
 
         this.eventStore.appendWith(eventId.withStreamVersion(11), events);
+
+        // the rejected appends consumed no journal sequences
+
+        assertEquals(11, this.eventStore.eventsSince(0).size());
     }
 
     public void testEventsSince() throws Exception {
@@ -124,6 +129,52 @@ public class LevelDBEventSourcingEventStoreTest extends TestCase {
         assertEquals(8, loggedEvents.size());
     }
 
+    public void testEventCursorSince() throws Exception {
+        assertNotNull(this.eventStore);
+
+        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+        for (int idx = 1; idx <= 10; ++idx) {
+            events.add(new TestableDomainEvent(idx, "Name: " + idx));
+        }
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.eventStore.appendWith(eventId, events);
+
+        EventCursor cursor = this.eventStore.eventCursorSince(2, 3);
+
+        try {
+            assertEquals(3, cursor.batchSize());
+
+            long lastEventId = 0;
+            int batches = 0;
+            int total = 0;
+
+            for (List<DispatchableDomainEvent> batch = cursor.nextBatch();
+                 !batch.isEmpty();
+                 batch = cursor.nextBatch()) {
+
+                assertTrue(batch.size() <= 3);
+
+                for (DispatchableDomainEvent event : batch) {
+                    assertTrue(event.eventId() > lastEventId);
+
+                    lastEventId = event.eventId();
+                }
+
+                ++batches;
+                total += batch.size();
+            }
+
+            assertEquals(3, batches);
+            assertEquals(8, total);
+
+        } finally {
+            cursor.close();
+        }
+    }
+
     public void testEventStreamSince() throws Exception {
         assertNotNull(this.eventStore);
 
@@ -158,6 +209,34 @@ public class LevelDBEventSourcingEventStoreTest extends TestCase {
         }
     }
 
+    public void testEventStreamSinceAcrossManyVersions() throws Exception {
+        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+        for (int idx = 1; idx <= 600; ++idx) {
+            events.add(new TestableDomainEvent(idx, "Name: " + idx));
+        }
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        // a stream whose name extends the first must not be read with it
+
+        this.eventStore.appendWith(new EventStreamId(eventId.streamName() + "0"), events.subList(0, 10));
+
+        this.eventStore.appendWith(eventId, events);
+
+        EventStream eventStream = this.eventStore.eventStreamSince(eventId.withStreamVersion(255));
+
+        assertEquals(600, eventStream.version());
+        assertEquals(346, eventStream.events().size());
+        assertEquals(255, ((TestableDomainEvent) eventStream.events().get(0)).id());
+
+        List<DispatchableDomainEvent> loggedEvents = this.eventStore.eventsSince(255);
+
+        assertEquals(355, loggedEvents.size());
+        assertEquals(256, loggedEvents.get(0).eventId());
+        assertEquals(610, loggedEvents.get(354).eventId());
+    }
+
     public void testFullEventStreamForStreamName() throws Exception {
         assertNotNull(this.eventStore);
 
@@ -193,6 +272,107 @@ public class LevelDBEventSourcingEventStoreTest extends TestCase {
         }
     }
 
+    public void testGroupCommitAppends() throws Exception {
+        LevelDBJournal.instance().startGroupCommit(5L, 100);
+
+        assertTrue(LevelDBJournal.instance().isGroupCommitting());
+
+        final List<Throwable> failures = new ArrayList<Throwable>();
+
+        List<Thread> appenders = new ArrayList<Thread>();
+
+        for (int threadIdx = 0; threadIdx < 8; ++threadIdx) {
+            appenders.add(new Thread() {
+                public void run() {
+                    try {
+                        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+                        for (int idx = 1; idx <= 10; ++idx) {
+                            List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+                            events.add(new TestableDomainEvent(idx, "Name: " + idx));
+
+                            eventStore.appendWith(eventId.withStreamVersion(idx), events);
+                        }
+                    } catch (Throwable t) {
+                        synchronized (failures) {
+                            failures.add(t);
+                        }
+                    }
+                }
+            });
+        }
+
+        for (Thread appender : appenders) {
+            appender.start();
+        }
+
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+
+        assertTrue(failures.isEmpty());
+
+        assertEquals(80, this.eventStore.eventsSince(0).size());
+    }
+
+    public void testGroupCommitRejectsConcurrentVersion() throws Exception {
+        LevelDBJournal.instance().startGroupCommit(50L, 100);
+
+        final EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        final List<Throwable> failures = new ArrayList<Throwable>();
+
+        List<Thread> appenders = new ArrayList<Thread>();
+
+        for (int threadIdx = 0; threadIdx < 5; ++threadIdx) {
+            final int id = threadIdx;
+
+            appenders.add(new Thread() {
+                public void run() {
+                    try {
+                        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+                        events.add(new TestableDomainEvent(id, "Name: " + id));
+
+                        eventStore.appendWith(eventId, events);
+
+                    } catch (Throwable t) {
+                        synchronized (failures) {
+                            failures.add(t);
+                        }
+                    }
+                }
+            });
+        }
+
+        for (Thread appender : appenders) {
+            appender.start();
+        }
+
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+
+        assertEquals(4, failures.size());
+
+        for (Throwable failure : failures) {
+            assertTrue(failure instanceof EventStoreAppendException);
+        }
+
+        assertEquals(1, this.eventStore.fullEventStreamFor(eventId).version());
+
+        // the rejected appends consumed no journal sequences
+
+        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+        events.add(new TestableDomainEvent(99, "Name: 99"));
+
+        this.eventStore.appendWith(eventId.withStreamVersion(2), events);
+
+        assertEquals(2, this.eventStore.eventsSince(0).size());
+    }
+
     @Override
     protected void setUp() throws Exception {
         this.eventStore = LevelDBEventStore.instance(TEST_DATABASE);
@@ -0,0 +1,263 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.common.port.adapter.persistence.eventsourcing.leveldb;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import junit.framework.TestCase;
+
+import org.iq80.leveldb.DB;
+import org.iq80.leveldb.Options;
+import org.iq80.leveldb.impl.Iq80DBFactory;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.common.event.EventSerializer;
+import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventStore;
+import com.saasovation.common.event.sourcing.EventStoreException;
+import com.saasovation.common.event.sourcing.EventStream;
+import com.saasovation.common.event.sourcing.EventStreamId;
+
+public class LevelDBJournalMigrationToolTest extends TestCase {
+
+    private static final String TEST_DATABASE = LevelDBJournalMigrationToolTest.class.getResource("/").getPath() + "/data/leveldb/esMigratedEventStore";
+
+    private EventStore eventStore;
+
+    public LevelDBJournalMigrationToolTest() {
+        super();
+    }
+
+    public void testMigrateLegacyJournal() throws Exception {
+        String streamName1 = UUID.randomUUID().toString();
+        String streamName2 = UUID.randomUUID().toString();
+
+        DB database = this.openDatabase();
+
+        try {
+            long journalSequence = 0;
+
+            for (int version = 1; version <= 300; ++version) {
+                this.putLegacyEntry(database, ++journalSequence, streamName1, version);
+
+                if (version <= 5) {
+                    this.putLegacyEntry(database, ++journalSequence, streamName2, version);
+                }
+            }
+
+            database.put("ES_J:0".getBytes(), ("" + journalSequence).getBytes());
+
+            LevelDBJournalMigrationTool migrationTool = new LevelDBJournalMigrationTool(database);
+
+            assertTrue(migrationTool.requiresMigration());
+
+            migrationTool.migrateDatabase();
+
+            assertEquals(306, migrationTool.migratedEntries());
+            assertFalse(migrationTool.requiresMigration());
+            assertNull(database.get(("ES_R:" + streamName1 + ":1").getBytes()));
+
+        } finally {
+            database.close();
+        }
+
+        this.eventStore = LevelDBEventStore.instance(TEST_DATABASE);
+
+        List<DispatchableDomainEvent> loggedEvents = this.eventStore.eventsSince(0);
+
+        assertEquals(305, loggedEvents.size());
+
+        for (int idx = 0; idx < loggedEvents.size(); ++idx) {
+            assertEquals(idx + 1, loggedEvents.get(idx).eventId());
+        }
+
+        EventStream eventStream1 = this.eventStore.fullEventStreamFor(new EventStreamId(streamName1));
+
+        assertEquals(300, eventStream1.version());
+        assertEquals(300, eventStream1.events().size());
+
+        for (int idx = 1; idx <= 300; ++idx) {
+            assertEquals(idx, ((TestableDomainEvent) eventStream1.events().get(idx - 1)).id());
+        }
+
+        EventStream eventStream2 = this.eventStore.eventStreamSince(new EventStreamId(streamName2, 4));
+
+        assertEquals(5, eventStream2.version());
+        assertEquals(2, eventStream2.events().size());
+
+        // appends continue from the migrated sequence
+
+        this.eventStore.appendWith(
+                new EventStreamId(streamName2, 6),
+                Collections.<DomainEvent>singletonList(new TestableDomainEvent(6, "Name: 6")));
+
+        assertEquals(306, this.eventStore.eventsSince(305).get(0).eventId());
+    }
+
+    public void testLegacyJournalNotMigratedOnOpen() throws Exception {
+        DB database = this.openDatabase();
+
+        try {
+            this.putLegacyEntry(database, 1, UUID.randomUUID().toString(), 1);
+
+        } finally {
+            database.close();
+        }
+
+        try {
+            LevelDBEventStore.instance(TEST_DATABASE);
+
+            fail("Should have refused to open a legacy journal.");
+
+        } catch (EventStoreException e) {
+            // good
+        }
+
+        database = this.openDatabase();
+
+        try {
+            assertNotNull(database.get("ES_J:1".getBytes()));
+            assertTrue(new LevelDBJournalMigrationTool(database).requiresMigration());
+
+        } finally {
+            database.close();
+        }
+    }
+
+    public void testMigrationKeepsEntriesBeyondGap() throws Exception {
+        String streamName = UUID.randomUUID().toString();
+
+        DB database = this.openDatabase();
+
+        try {
+            for (int version = 1; version <= 1500; ++version) {
+                if (version != 700) {
+                    this.putLegacyEntry(database, version, streamName, version);
+                }
+            }
+
+            LevelDBJournalMigrationTool migrationTool = new LevelDBJournalMigrationTool(database);
+
+            migrationTool.migrateDatabase();
+
+            assertEquals(1499, migrationTool.migratedEntries());
+            assertFalse(migrationTool.requiresMigration());
+
+            for (int version = 1; version <= 1500; ++version) {
+                byte[] journalValue = database.get(JournalKeyProvider.journalKeyFrom(version));
+
+                if (version == 700) {
+                    assertNull(journalValue);
+                } else {
+                    assertNotNull(journalValue);
+
+                    assertEquals(
+                            version,
+                            LevelDBJournal.journalSequenceOfReferenceValue(
+                                    database.get(JournalKeyProvider.referenceKeyFrom(streamName, version))));
+                }
+            }
+
+        } finally {
+            database.close();
+        }
+    }
+
+    public void testInterruptedMigrationResumes() throws Exception {
+        String streamName = UUID.randomUUID().toString();
+
+        DB database = this.openDatabase();
+
+        try {
+            for (int version = 1; version <= 1000; ++version) {
+                this.putLegacyEntry(database, version, streamName, version);
+            }
+
+            new LevelDBJournalMigrationTool(database).migrateDatabase();
+
+            // as left by a migration stopped after its first 1000 entries
+
+            for (int version = 1001; version <= 1500; ++version) {
+                this.putLegacyEntry(database, version, streamName, version);
+            }
+
+            database.put("ES_J:0".getBytes(), "1500".getBytes());
+
+            LevelDBJournalMigrationTool migrationTool = new LevelDBJournalMigrationTool(database);
+
+            assertTrue(migrationTool.requiresMigration());
+
+            migrationTool.migrateDatabase();
+
+            assertEquals(501, migrationTool.migratedEntries());
+
+        } finally {
+            database.close();
+        }
+
+        this.eventStore = LevelDBEventStore.instance(TEST_DATABASE);
+
+        assertEquals(1500, this.eventStore.eventsSince(0).size());
+
+        EventStream eventStream = this.eventStore.fullEventStreamFor(new EventStreamId(streamName));
+
+        assertEquals(1500, eventStream.version());
+        assertEquals(1500, ((TestableDomainEvent) eventStream.events().get(1499)).id());
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        new Iq80DBFactory().destroy(new File(TEST_DATABASE), new Options());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (this.eventStore != null) {
+            this.eventStore.purge();
+
+            this.eventStore.close();
+        }
+
+        new Iq80DBFactory().destroy(new File(TEST_DATABASE), new Options());
+
+        super.tearDown();
+    }
+
+    private DB openDatabase() throws Exception {
+        return new Iq80DBFactory().open(new File(TEST_DATABASE), new Options().createIfMissing(true));
+    }
+
+    private void putLegacyEntry(DB aDatabase, long aJournalSequence, String aStreamName, int aVersion) {
+        String referenceKey = "ES_R:" + aStreamName + ":" + aVersion;
+
+        TestableDomainEvent event = new TestableDomainEvent(aVersion, "Name: " + aVersion);
+
+        String value =
+                referenceKey
+                + "#"
+                + TestableDomainEvent.class.getName()
+                + "#"
+                + EventSerializer.instance().serialize(event);
+
+        aDatabase.put(("ES_J:" + aJournalSequence).getBytes(), value.getBytes());
+        aDatabase.put(referenceKey.getBytes(), ("" + aJournalSequence).getBytes());
+    }
+}
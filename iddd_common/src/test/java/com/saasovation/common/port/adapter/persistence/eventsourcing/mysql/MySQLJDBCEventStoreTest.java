@@ -32,6 +32,7 @@ import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.common.event.TestableDomainEvent;
 import com.saasovation.common.event.sourcing.DispatchableDomainEvent;
+import com.saasovation.common.event.sourcing.EventCursor;
 import com.saasovation.common.event.sourcing.EventStore;
 import com.saasovation.common.event.sourcing.EventStoreAppendException;
 import com.saasovation.common.event.sourcing.EventStoreException;
@@ -132,6 +133,52 @@ public class MySQLJDBCEventStoreTest extends TestCase {
         assertEquals(8, loggedEvents.size());
     }
 
+    public void testEventCursorSince() throws Exception {
+        assertNotNull(this.eventStore);
+
+        List<DomainEvent> events = new ArrayList<DomainEvent>();
+
+        for (int idx = 1; idx <= 10; ++idx) {
+            events.add(new TestableDomainEvent(idx, "Name: " + idx));
+        }
+
+        EventStreamId eventId = new EventStreamId(UUID.randomUUID().toString());
+
+        this.eventStore.appendWith(eventId, events);
+
+        EventCursor cursor = this.eventStore.eventCursorSince(this.greatestEventId() - 8L, 3);
+
+        try {
+            assertEquals(3, cursor.batchSize());
+
+            long lastEventId = 0;
+            int batches = 0;
+            int total = 0;
+
+            for (List<DispatchableDomainEvent> batch = cursor.nextBatch();
+                 !batch.isEmpty();
+                 batch = cursor.nextBatch()) {
+
+                assertTrue(batch.size() <= 3);
+
+                for (DispatchableDomainEvent event : batch) {
+                    assertTrue(event.eventId() > lastEventId);
+
+                    lastEventId = event.eventId();
+                }
+
+                ++batches;
+                total += batch.size();
+            }
+
+            assertEquals(3, batches);
+            assertEquals(8, total);
+
+        } finally {
+            cursor.close();
+        }
+    }
+
     public void testEventStreamSince() throws Exception {
         assertNotNull(this.eventStore);
 
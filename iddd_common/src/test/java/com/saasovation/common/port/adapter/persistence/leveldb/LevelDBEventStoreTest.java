@@ -15,10 +15,13 @@
 package com.saasovation.common.port.adapter.persistence.leveldb;
 
 import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.StoredEvent;
 import com.saasovation.common.event.TestableDomainEvent;
+import com.saasovation.common.event.sourcing.EventNotifiable;
 
 public class LevelDBEventStoreTest extends LevelDBTest {
 
@@ -38,6 +41,23 @@ public class LevelDBEventStoreTest extends LevelDBTest {
         assertEquals(10, eventStore.allStoredEventsBetween(totalEvents - 9, totalEvents).size());
     }
 
+    public void testAllStoredEventsBetweenBeyondStored() throws Exception {
+        EventStore eventStore = this.eventStore();
+
+        long totalEvents = eventStore.countStoredEvents();
+
+        List<StoredEvent> storedEvents =
+                eventStore.allStoredEventsBetween(totalEvents - 4, totalEvents + 1000000);
+
+        assertEquals(5, storedEvents.size());
+
+        for (int idx = 0; idx < storedEvents.size(); ++idx) {
+            assertEquals(totalEvents - 4 + idx, storedEvents.get(idx).eventId());
+        }
+
+        assertTrue(eventStore.allStoredEventsBetween(totalEvents + 1, totalEvents + 20).isEmpty());
+    }
+
     public void testAllStoredEventsSince() throws Exception {
         EventStore eventStore = this.eventStore();
 
@@ -107,6 +127,34 @@ public class LevelDBEventStoreTest extends LevelDBTest {
         assertEquals(lastDomainEvent.occurredOn(), reconstitutedDomainEvent.occurredOn());
     }
 
+    public void testNotifiesOnceCommitted() throws Exception {
+        LevelDBEventStore eventStore = (LevelDBEventStore) this.eventStore();
+
+        final AtomicInteger notifications = new AtomicInteger();
+
+        eventStore.registerEventNotifiable(new EventNotifiable() {
+            public void notifyDispatchableEvents() {
+                notifications.incrementAndGet();
+            }
+        });
+
+        for (int idx = 0; idx < 3; ++idx) {
+            eventStore.append(new TestableDomainEvent(20001 + idx, "testDomainEvent" + idx));
+        }
+
+        assertEquals(0, notifications.get());
+
+        LevelDBUnitOfWork.current().commit();
+
+        assertEquals(1, notifications.get());
+
+        eventStore.append(new TestableDomainEvent(20004, "testDomainEvent4"));
+
+        LevelDBUnitOfWork.current().rollback();
+
+        assertEquals(1, notifications.get());
+    }
+
     public void testStoredEvent() throws Exception {
         EventStore eventStore = this.eventStore();
 
@@ -0,0 +1,82 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.common.port.adapter.persistence.leveldb;
+
+import junit.framework.TestCase;
+
+import org.iq80.leveldb.DB;
+
+public class LevelDBReceivedMessageStoreTest extends TestCase {
+
+    private static final String TEST_DATABASE = LevelDBTest.TEST_DATABASE;
+
+    private DB database;
+    private LevelDBReceivedMessageStore receivedMessageStore;
+
+    public LevelDBReceivedMessageStoreTest() {
+        super();
+    }
+
+    public void testReceived() throws Exception {
+        assertFalse(this.receivedMessageStore.isReceivedSince("listener1", "101", 0L));
+
+        this.receivedMessageStore.received("listener1", "101", 1000L);
+
+        assertTrue(this.receivedMessageStore.isReceivedSince("listener1", "101", 0L));
+        assertTrue(this.receivedMessageStore.isReceivedSince("listener1", "101", 1000L));
+        assertFalse(this.receivedMessageStore.isReceivedSince("listener1", "101", 1001L));
+        assertFalse(this.receivedMessageStore.isReceivedSince("listener2", "101", 0L));
+    }
+
+    public void testRemoveReceivedBefore() throws Exception {
+        this.receivedMessageStore.received("listener1", "101", 1000L);
+        this.receivedMessageStore.received("listener1", "102", 2000L);
+        this.receivedMessageStore.received("listener2", "101", 3000L);
+
+        // received again later, so it must outlive its first receipt
+
+        this.receivedMessageStore.received("listener1", "101", 4000L);
+
+        assertEquals(1, this.receivedMessageStore.removeReceivedBefore(3000L));
+
+        assertTrue(this.receivedMessageStore.isReceivedSince("listener1", "101", 0L));
+        assertFalse(this.receivedMessageStore.isReceivedSince("listener1", "102", 0L));
+        assertTrue(this.receivedMessageStore.isReceivedSince("listener2", "101", 0L));
+
+        assertEquals(0, this.receivedMessageStore.removeReceivedBefore(3000L));
+        assertEquals(2, this.receivedMessageStore.removeReceivedBefore(10000L));
+
+        assertFalse(this.receivedMessageStore.isReceivedSince("listener1", "101", 0L));
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        this.database = LevelDBProvider.instance().databaseFrom(TEST_DATABASE);
+
+        LevelDBProvider.instance().purge(this.database);
+
+        this.receivedMessageStore = new LevelDBReceivedMessageStore(TEST_DATABASE);
+
+        super.setUp();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        LevelDBProvider.instance().purge(this.database);
+
+        super.tearDown();
+    }
+}
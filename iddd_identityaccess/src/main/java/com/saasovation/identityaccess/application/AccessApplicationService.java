@@ -14,15 +14,23 @@
 
 package com.saasovation.identityaccess.application;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.saasovation.identityaccess.application.command.AssignUserToRoleCommand;
 import com.saasovation.identityaccess.application.command.ProvisionRoleCommand;
+import com.saasovation.identityaccess.domain.model.access.AuthorizationDecisionCache;
 import com.saasovation.identityaccess.domain.model.access.Role;
 import com.saasovation.identityaccess.domain.model.access.RoleRepository;
 import com.saasovation.identityaccess.domain.model.identity.GroupMemberService;
-import com.saasovation.identityaccess.domain.model.identity.GroupRepository;
 import com.saasovation.identityaccess.domain.model.identity.Tenant;
 import com.saasovation.identityaccess.domain.model.identity.TenantId;
 import com.saasovation.identityaccess.domain.model.identity.TenantRepository;
@@ -32,7 +40,10 @@ import com.saasovation.identityaccess.domain.model.identity.UserRepository;
 public class AccessApplicationService {
 
     @Autowired
-    private GroupRepository groupRepository;
+    private AuthorizationDecisionCache authorizationDecisionCache;
+
+    @Autowired
+    private GroupMemberService groupMemberService;
 
     @Autowired
     private RoleRepository roleRepository;
@@ -108,34 +119,120 @@ public class AccessApplicationService {
 
         TenantId tenantId = new TenantId(aTenantId);
 
+        Boolean cachedDecision =
+                this.authorizationDecisionCache()
+                    .isUserInRole(tenantId, aUsername, aRoleName);
+
+        if (cachedDecision != null && !cachedDecision.booleanValue()) {
+            return null;
+        }
+
+        // read before the user so that no later change is missed
+        long generation = this.authorizationDecisionCache().generation();
+
         User user =
                 this.userRepository()
                     .userWithUsername(
                             tenantId,
                             aUsername);
 
-        if (user != null) {
+        if (user != null && cachedDecision != null) {
+            userInRole = user;
+
+        } else if (user != null) {
+            // taken before deciding, so that a change while deciding expires it at once
+            Date enablementChangeDate = user.enablementChangeDate();
+
             Role role =
                     this.roleRepository()
                         .roleNamed(tenantId, aRoleName);
 
             if (role != null) {
-                GroupMemberService groupMemberService =
-                        new GroupMemberService(
-                                this.userRepository(),
-                                this.groupRepository());
-
-                if (role.isInRole(user, groupMemberService)) {
+                if (role.isInRole(user, this.groupMemberService())) {
                     userInRole = user;
                 }
             }
+
+            this.authorizationDecisionCache()
+                .cache(
+                        tenantId,
+                        aUsername,
+                        aRoleName,
+                        userInRole != null,
+                        enablementChangeDate,
+                        generation);
         }
 
         return userInRole;
     }
 
-    private GroupRepository groupRepository() {
-        return this.groupRepository;
+    @Transactional(readOnly=true)
+    public Map<User, Set<String>> usersInRoles(
+            String aTenantId,
+            Collection<String> aUsernames,
+            Collection<String> aRoleNames) {
+
+        TenantId tenantId = new TenantId(aTenantId);
+
+        // read before the users so that no later change is missed
+        long generation = this.authorizationDecisionCache().generation();
+
+        Map<String, User> users = new HashMap<String, User>();
+        Map<User, Date> enablementChangeDates = new HashMap<User, Date>();
+
+        for (User user : this.userRepository().usersWithUsernames(tenantId, aUsernames)) {
+            users.put(user.username(), user);
+
+            // taken before deciding, so that a change while deciding expires it at once
+            enablementChangeDates.put(user, user.enablementChangeDate());
+        }
+
+        Map<String, Role> roles = new HashMap<String, Role>();
+
+        for (Role role : this.roleRepository().rolesNamed(tenantId, aRoleNames)) {
+            roles.put(role.name(), role);
+        }
+
+        Map<User, Set<String>> usersInRoles = new LinkedHashMap<User, Set<String>>();
+
+        for (String username : aUsernames) {
+            User user = users.get(username);
+
+            if (user != null) {
+                usersInRoles.put(user, new LinkedHashSet<String>());
+            }
+        }
+
+        for (String roleName : aRoleNames) {
+            Role role = roles.get(roleName);
+
+            if (role != null) {
+                for (User user : role.usersInRole(users.values(), this.groupMemberService())) {
+                    usersInRoles.get(user).add(roleName);
+                }
+            }
+
+            for (Map.Entry<User, Set<String>> entry : usersInRoles.entrySet()) {
+                this.authorizationDecisionCache()
+                    .cache(
+                            tenantId,
+                            entry.getKey().username(),
+                            roleName,
+                            entry.getValue().contains(roleName),
+                            enablementChangeDates.get(entry.getKey()),
+                            generation);
+            }
+        }
+
+        return usersInRoles;
+    }
+
+    private AuthorizationDecisionCache authorizationDecisionCache() {
+        return this.authorizationDecisionCache;
+    }
+
+    private GroupMemberService groupMemberService() {
+        return this.groupMemberService;
     }
 
     private RoleRepository roleRepository() {
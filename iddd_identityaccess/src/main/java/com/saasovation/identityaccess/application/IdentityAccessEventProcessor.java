@@ -17,18 +17,28 @@ package com.saasovation.identityaccess.application;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.common.domain.model.DomainEventSubscriber;
 import com.saasovation.common.event.EventStore;
+import com.saasovation.identityaccess.domain.model.access.AuthorizationDecisionCache;
+import com.saasovation.identityaccess.domain.model.identity.GroupMembershipIndex;
 
 @Aspect
 public class IdentityAccessEventProcessor {
 
+    @Autowired
+    private AuthorizationDecisionCache authorizationDecisionCache;
+
     @Autowired
     private EventStore eventStore;
 
+    @Autowired
+    private GroupMembershipIndex groupMembershipIndex;
+
     /**
      * Registers a IdentityAccessEventProcessor to listen
      * and forward all domain events to external subscribers.
@@ -57,6 +67,8 @@ public class IdentityAccessEventProcessor {
 
                 public void handleEvent(DomainEvent aDomainEvent) {
                     store(aDomainEvent);
+                    indexGroupMembershipChangesOf(aDomainEvent);
+                    invalidateDecisionsAffectedBy(aDomainEvent);
                 }
 
                 public Class<DomainEvent> subscribedToEventType() {
@@ -65,6 +77,71 @@ public class IdentityAccessEventProcessor {
             });
     }
 
+    /**
+     * Applies the group membership changes of aDomainEvent to my
+     * GroupMembershipIndex only once its transaction commits, so that
+     * no other transaction reads them before then. Until it completes
+     * they are seen by its own thread alone, and are then discarded
+     * whether or not they were committed.
+     * @param aDomainEvent the DomainEvent that may change group membership
+     */
+    private void indexGroupMembershipChangesOf(final DomainEvent aDomainEvent) {
+        final GroupMembershipIndex index = this.groupMembershipIndex();
+
+        if (index == null) {
+            return;
+        }
+
+        if (!index.isChangedBy(aDomainEvent)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.applyPendingChangesOf(aDomainEvent);
+
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int aStatus) {
+                            if (aStatus == STATUS_COMMITTED) {
+                                index.applyChangesOf(aDomainEvent);
+                            }
+
+                            index.discardPendingChanges();
+                        }
+                    });
+        } else {
+            index.applyChangesOf(aDomainEvent);
+        }
+    }
+
+    /**
+     * Invalidates the authorization decisions that aDomainEvent
+     * may change, both now and once its transaction completes,
+     * so that no decision made in between from the state before
+     * the commit is left cached.
+     * @param aDomainEvent the DomainEvent that may change decisions
+     */
+    private void invalidateDecisionsAffectedBy(final DomainEvent aDomainEvent) {
+        final AuthorizationDecisionCache cache = this.authorizationDecisionCache();
+
+        if (cache == null) {
+            return;
+        }
+
+        cache.invalidateDecisionsAffectedBy(aDomainEvent);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int aStatus) {
+                            cache.invalidateDecisionsAffectedBy(aDomainEvent);
+                        }
+                    });
+        }
+    }
+
     /**
      * Stores aDomainEvent to the event store.
      * @param aDomainEvent the DomainEvent to store
@@ -73,6 +150,15 @@ public class IdentityAccessEventProcessor {
         this.eventStore().append(aDomainEvent);
     }
 
+    /**
+     * Answers my AuthorizationDecisionCache, which is
+     * null when I am registered without Spring wiring.
+     * @return AuthorizationDecisionCache
+     */
+    private AuthorizationDecisionCache authorizationDecisionCache() {
+        return this.authorizationDecisionCache;
+    }
+
     /**
      * Answers my EventStore.
      * @return EventStore
@@ -80,4 +166,13 @@ public class IdentityAccessEventProcessor {
     private EventStore eventStore() {
         return this.eventStore;
     }
+
+    /**
+     * Answers my GroupMembershipIndex, which is
+     * null when I am registered without Spring wiring.
+     * @return GroupMembershipIndex
+     */
+    private GroupMembershipIndex groupMembershipIndex() {
+        return this.groupMembershipIndex;
+    }
 }
@@ -199,6 +199,12 @@ public class IdentityApplicationService {
             .groupNamed(new TenantId(aTenantId), aGroupName);
     }
 
+    @Transactional(readOnly = true)
+    public String groupVersion(String aTenantId, String aGroupName) {
+        return groupRepository()
+            .versionOfGroupNamed(new TenantId(aTenantId), aGroupName);
+    }
+
     @Transactional(readOnly = true)
     public boolean isGroupMember(String aTenantId, String aGroupName, String aUsername) {
         Group group =
@@ -320,6 +326,11 @@ public class IdentityApplicationService {
         return tenantRepository().tenantOfId(new TenantId(aTenantId));
     }
 
+    @Transactional(readOnly = true)
+    public String tenantVersion(String aTenantId) {
+        return tenantRepository().versionOfTenantOfId(new TenantId(aTenantId));
+    }
+
     @Transactional(readOnly = true)
     public User user(String aTenantId, String aUsername) {
         return userRepository().userWithUsername(new TenantId(aTenantId), aUsername);
@@ -341,6 +352,12 @@ public class IdentityApplicationService {
         return userDescriptor;
     }
 
+    @Transactional(readOnly = true)
+    public String userVersion(String aTenantId, String aUsername) {
+        return userRepository()
+            .versionOfUserWithUsername(new TenantId(aTenantId), aUsername);
+    }
+
     private AuthenticationService authenticationService() {
         return authenticationService;
     }
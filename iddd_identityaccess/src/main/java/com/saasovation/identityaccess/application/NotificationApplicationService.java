@@ -30,24 +30,50 @@ public class NotificationApplicationService {
     @Autowired
     private NotificationPublisher notificationPublisher;
 
+    private int notificationsPerLog = NotificationLogFactory.DEFAULT_NOTIFICATIONS_PER_LOG;
+
     public NotificationApplicationService() {
         super();
     }
 
     @Transactional(readOnly = true)
     public NotificationLog currentNotificationLog() {
-        NotificationLogFactory factory = new NotificationLogFactory(eventStore());
+        NotificationLogFactory factory = new NotificationLogFactory(eventStore(), notificationsPerLog());
 
         return factory.createCurrentNotificationLog();
     }
 
+    @Transactional(readOnly = true)
+    public NotificationLog currentNotificationLog(long aTotalNotifications, int aNotificationsPerLog) {
+        NotificationLogFactory factory = new NotificationLogFactory(eventStore(), aNotificationsPerLog);
+
+        return factory.createCurrentNotificationLog(aTotalNotifications);
+    }
+
     @Transactional(readOnly = true)
     public NotificationLog notificationLog(String aNotificationLogId) {
-        NotificationLogFactory factory = new NotificationLogFactory(eventStore());
+        NotificationLogFactory factory = new NotificationLogFactory(eventStore(), notificationsPerLog());
 
         return factory.createNotificationLog(new NotificationLogId(aNotificationLogId));
     }
 
+    public int notificationsPerLog() {
+        return notificationsPerLog;
+    }
+
+    public void setNotificationsPerLog(int aNotificationsPerLog) {
+        if (!NotificationLogFactory.isNotificationsPerLogWithinBounds(aNotificationsPerLog)) {
+            throw new IllegalArgumentException("Notifications per log is out of bounds: " + aNotificationsPerLog);
+        }
+
+        notificationsPerLog = aNotificationsPerLog;
+    }
+
+    @Transactional(readOnly = true)
+    public long totalNotifications() {
+        return eventStore().countStoredEvents();
+    }
+
     @Transactional
     public void publishNotifications() {
         notificationPublisher().publishNotifications();
@@ -0,0 +1,151 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.identityaccess.application.representation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.saasovation.identityaccess.domain.model.identity.User;
+import com.saasovation.identityaccess.domain.model.identity.UserDescriptor;
+
+public class UsersInRolesRepresentation {
+
+    private List<String> roles;
+    private String tenantId;
+    private List<UserInRoles> users;
+
+    public UsersInRolesRepresentation(
+            String aTenantId,
+            Collection<String> aRoleNames,
+            Map<User, Set<String>> aUsersInRoles) {
+
+        this();
+
+        this.initializeFrom(aTenantId, aRoleNames, aUsersInRoles);
+    }
+
+    public List<String> getRoles() {
+        return this.roles;
+    }
+
+    public String getTenantId() {
+        return this.tenantId;
+    }
+
+    public List<UserInRoles> getUsers() {
+        return this.users;
+    }
+
+    protected UsersInRolesRepresentation() {
+        super();
+    }
+
+    private void initializeFrom(
+            String aTenantId,
+            Collection<String> aRoleNames,
+            Map<User, Set<String>> aUsersInRoles) {
+
+        this.setRoles(new ArrayList<String>(aRoleNames));
+        this.setTenantId(aTenantId);
+        this.setUsers(new ArrayList<UserInRoles>(aUsersInRoles.size()));
+
+        for (Map.Entry<User, Set<String>> entry : aUsersInRoles.entrySet()) {
+            this.getUsers().add(new UserInRoles(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void setRoles(List<String> aRoles) {
+        this.roles = aRoles;
+    }
+
+    private void setTenantId(String aTenantId) {
+        this.tenantId = aTenantId;
+    }
+
+    private void setUsers(List<UserInRoles> aUsers) {
+        this.users = aUsers;
+    }
+
+    public static class UserInRoles {
+
+        private String emailAddress;
+        private String firstName;
+        private String lastName;
+        private List<String> roles;
+        private String username;
+
+        public UserInRoles(User aUser, Set<String> aRoleNames) {
+            this();
+
+            this.initializeFrom(aUser, aRoleNames);
+        }
+
+        public String getEmailAddress() {
+            return this.emailAddress;
+        }
+
+        public String getFirstName() {
+            return this.firstName;
+        }
+
+        public String getLastName() {
+            return this.lastName;
+        }
+
+        public List<String> getRoles() {
+            return this.roles;
+        }
+
+        public String getUsername() {
+            return this.username;
+        }
+
+        protected UserInRoles() {
+            super();
+        }
+
+        private void initializeFrom(User aUser, Set<String> aRoleNames) {
+            UserDescriptor desc = aUser.userDescriptor();
+            this.setEmailAddress(desc.emailAddress());
+            this.setFirstName(aUser.person().name().firstName());
+            this.setLastName(aUser.person().name().lastName());
+            this.setRoles(new ArrayList<String>(aRoleNames));
+            this.setUsername(desc.username());
+        }
+
+        private void setEmailAddress(String anEmailAddress) {
+            this.emailAddress = anEmailAddress;
+        }
+
+        private void setFirstName(String aFirstName) {
+            this.firstName = aFirstName;
+        }
+
+        private void setLastName(String aLastName) {
+            this.lastName = aLastName;
+        }
+
+        private void setRoles(List<String> aRoles) {
+            this.roles = aRoles;
+        }
+
+        private void setUsername(String aUsername) {
+            this.username = aUsername;
+        }
+    }
+}
@@ -18,11 +18,13 @@ import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 
+import com.saasovation.identityaccess.domain.model.access.AuthorizationDecisionCache;
 import com.saasovation.identityaccess.domain.model.access.AuthorizationService;
 import com.saasovation.identityaccess.domain.model.access.RoleRepository;
 import com.saasovation.identityaccess.domain.model.identity.AuthenticationService;
 import com.saasovation.identityaccess.domain.model.identity.EncryptionService;
 import com.saasovation.identityaccess.domain.model.identity.GroupMemberService;
+import com.saasovation.identityaccess.domain.model.identity.GroupMembershipIndex;
 import com.saasovation.identityaccess.domain.model.identity.GroupRepository;
 import com.saasovation.identityaccess.domain.model.identity.PasswordService;
 import com.saasovation.identityaccess.domain.model.identity.TenantProvisioningService;
@@ -37,6 +39,10 @@ public class DomainRegistry implements ApplicationContextAware {
         return (AuthenticationService) applicationContext.getBean("authenticationService");
     }
 
+    public static AuthorizationDecisionCache authorizationDecisionCache() {
+        return (AuthorizationDecisionCache) applicationContext.getBean("authorizationDecisionCache");
+    }
+
     public static AuthorizationService authorizationService() {
         return (AuthorizationService) applicationContext.getBean("authorizationService");
     }
@@ -49,6 +55,10 @@ public class DomainRegistry implements ApplicationContextAware {
         return (GroupMemberService) applicationContext.getBean("groupMemberService");
     }
 
+    public static GroupMembershipIndex groupMembershipIndex() {
+        return (GroupMembershipIndex) applicationContext.getBean("groupMembershipIndex");
+    }
+
     public static GroupRepository groupRepository() {
         return (GroupRepository) applicationContext.getBean("groupRepository");
     }
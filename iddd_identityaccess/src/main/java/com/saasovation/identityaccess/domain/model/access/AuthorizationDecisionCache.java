@@ -0,0 +1,260 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package com.saasovation.identityaccess.domain.model.access;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.saasovation.common.domain.model.DomainEvent;
+import com.saasovation.identityaccess.domain.model.identity.GroupGroupAdded;
+import com.saasovation.identityaccess.domain.model.identity.GroupGroupRemoved;
+import com.saasovation.identityaccess.domain.model.identity.GroupUserAdded;
+import com.saasovation.identityaccess.domain.model.identity.GroupUserRemoved;
+import com.saasovation.identityaccess.domain.model.identity.TenantActivated;
+import com.saasovation.identityaccess.domain.model.identity.TenantDeactivated;
+import com.saasovation.identityaccess.domain.model.identity.TenantId;
+import com.saasovation.identityaccess.domain.model.identity.UserEnablementChanged;
+
+/**
+ * I am a bounded, least recently used memory of whether users are
+ * in roles, keyed by tenant, username, and role name. I forget just
+ * the decisions that a domain event may change: those of a user when
+ * its groups or enablement change, those of a user and role when it
+ * is assigned or unassigned, those of a role when a group is, and
+ * all of a tenant's when groups are nested or the tenant's activation
+ * changes. A decision made from state read before any such change
+ * is not remembered, as told by my generation. Since no event tells
+ * when the dates of a user's enablement begin or end it, a decision
+ * is also forgotten on the date its user's enablement next changes.
+ */
+public class AuthorizationDecisionCache {
+
+    private Map<Decision, CachedDecision> decisions;
+    private long generation;
+    private long hits;
+    private int maximumDecisions;
+    private long misses;
+
+    public AuthorizationDecisionCache(int aMaximumDecisions) {
+        super();
+
+        if (aMaximumDecisions < 1) {
+            throw new IllegalArgumentException("The maximum decisions must be at least one.");
+        }
+
+        this.maximumDecisions = aMaximumDecisions;
+
+        this.decisions = new LinkedHashMap<Decision, CachedDecision>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Decision, CachedDecision> anEldest) {
+                return this.size() > maximumDecisions();
+            }
+        };
+    }
+
+    public synchronized void cache(
+            TenantId aTenantId,
+            String aUsername,
+            String aRoleName,
+            boolean isUserInRole,
+            Date anEnablementChangeDate,
+            long aGeneration) {
+
+        // something changed while the decision was being made
+
+        if (aGeneration != this.generation) {
+            return;
+        }
+
+        long expiresOn =
+                anEnablementChangeDate == null ?
+                        Long.MAX_VALUE :
+                        anEnablementChangeDate.getTime();
+
+        this.decisions.put(
+                new Decision(aTenantId.id(), aUsername, aRoleName),
+                new CachedDecision(isUserInRole, expiresOn));
+    }
+
+    public synchronized void clear() {
+        this.decisions.clear();
+
+        ++this.generation;
+    }
+
+    public synchronized long generation() {
+        return this.generation;
+    }
+
+    public synchronized long hits() {
+        return this.hits;
+    }
+
+    public synchronized void invalidateDecisionsAffectedBy(DomainEvent aDomainEvent) {
+        if (aDomainEvent instanceof GroupUserAdded) {
+            GroupUserAdded event = (GroupUserAdded) aDomainEvent;
+            this.invalidate(event.tenantId(), event.username(), null);
+        } else if (aDomainEvent instanceof GroupUserRemoved) {
+            GroupUserRemoved event = (GroupUserRemoved) aDomainEvent;
+            this.invalidate(event.tenantId(), event.username(), null);
+        } else if (aDomainEvent instanceof GroupGroupAdded) {
+            this.invalidate(((GroupGroupAdded) aDomainEvent).tenantId(), null, null);
+        } else if (aDomainEvent instanceof GroupGroupRemoved) {
+            this.invalidate(((GroupGroupRemoved) aDomainEvent).tenantId(), null, null);
+        } else if (aDomainEvent instanceof UserAssignedToRole) {
+            UserAssignedToRole event = (UserAssignedToRole) aDomainEvent;
+            this.invalidate(event.tenantId(), event.username(), event.roleName());
+        } else if (aDomainEvent instanceof UserUnassignedFromRole) {
+            UserUnassignedFromRole event = (UserUnassignedFromRole) aDomainEvent;
+            this.invalidate(event.tenantId(), event.username(), event.roleName());
+        } else if (aDomainEvent instanceof GroupAssignedToRole) {
+            GroupAssignedToRole event = (GroupAssignedToRole) aDomainEvent;
+            this.invalidate(event.tenantId(), null, event.roleName());
+        } else if (aDomainEvent instanceof GroupUnassignedFromRole) {
+            GroupUnassignedFromRole event = (GroupUnassignedFromRole) aDomainEvent;
+            this.invalidate(event.tenantId(), null, event.roleName());
+        } else if (aDomainEvent instanceof UserEnablementChanged) {
+            UserEnablementChanged event = (UserEnablementChanged) aDomainEvent;
+            this.invalidate(event.tenantId(), event.username(), null);
+        } else if (aDomainEvent instanceof TenantActivated) {
+            this.invalidate(((TenantActivated) aDomainEvent).tenantId(), null, null);
+        } else if (aDomainEvent instanceof TenantDeactivated) {
+            this.invalidate(((TenantDeactivated) aDomainEvent).tenantId(), null, null);
+        }
+    }
+
+    public synchronized Boolean isUserInRole(TenantId aTenantId, String aUsername, String aRoleName) {
+        Decision decision = new Decision(aTenantId.id(), aUsername, aRoleName);
+
+        CachedDecision cachedDecision = this.decisions.get(decision);
+
+        Boolean isUserInRole = null;
+
+        if (cachedDecision != null) {
+            if (cachedDecision.isExpired()) {
+                this.decisions.remove(decision);
+            } else {
+                isUserInRole = cachedDecision.isUserInRole;
+            }
+        }
+
+        if (isUserInRole == null) {
+            ++this.misses;
+        } else {
+            ++this.hits;
+        }
+
+        return isUserInRole;
+    }
+
+    public int maximumDecisions() {
+        return this.maximumDecisions;
+    }
+
+    public synchronized long misses() {
+        return this.misses;
+    }
+
+    public synchronized int size() {
+        return this.decisions.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AuthorizationDecisionCache [size=" + this.decisions.size()
+                + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+
+    private void invalidate(TenantId aTenantId, String aUsername, String aRoleName) {
+        ++this.generation;
+
+        Iterator<Decision> iterator = this.decisions.keySet().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().isAffected(aTenantId.id(), aUsername, aRoleName)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class CachedDecision {
+
+        private long expiresOn;
+        private boolean isUserInRole;
+
+        CachedDecision(boolean anIsUserInRole, long anExpiresOn) {
+            super();
+
+            this.expiresOn = anExpiresOn;
+            this.isUserInRole = anIsUserInRole;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= this.expiresOn;
+        }
+    }
+
+    private static final class Decision {
+
+        private String roleName;
+        private String tenantId;
+        private String username;
+
+        Decision(String aTenantId, String aUsername, String aRoleName) {
+            super();
+
+            this.roleName = aRoleName;
+            this.tenantId = aTenantId;
+            this.username = aUsername;
+        }
+
+        boolean isAffected(String aTenantId, String aUsername, String aRoleName) {
+            return this.tenantId.equals(aTenantId)
+                    && (aUsername == null || this.username.equals(aUsername))
+                    && (aRoleName == null || this.roleName.equals(aRoleName));
+        }
+
+        @Override
+        public boolean equals(Object anObject) {
+            boolean equalObjects = false;
+
+            if (anObject != null && this.getClass() == anObject.getClass()) {
+                Decision typedObject = (Decision) anObject;
+                equalObjects =
+                    this.tenantId.equals(typedObject.tenantId) &&
+                    this.username.equals(typedObject.username) &&
+                    this.roleName.equals(typedObject.roleName);
+            }
+
+            return equalObjects;
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCodeValue =
+                + (38953 * 211)
+                + this.tenantId.hashCode()
+                + this.username.hashCode() * 31
+                + this.roleName.hashCode() * 961;
+
+            return hashCodeValue;
+        }
+    }
+}
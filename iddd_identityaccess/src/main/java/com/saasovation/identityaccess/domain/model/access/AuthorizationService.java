@@ -14,6 +14,8 @@
 
 package com.saasovation.identityaccess.domain.model.access;
 
+import java.util.Date;
+
 import com.saasovation.common.AssertionConcern;
 import com.saasovation.identityaccess.domain.model.identity.GroupMemberService;
 import com.saasovation.identityaccess.domain.model.identity.GroupRepository;
@@ -23,6 +25,8 @@ import com.saasovation.identityaccess.domain.model.identity.UserRepository;
 
 public class AuthorizationService extends AssertionConcern {
 
+    private AuthorizationDecisionCache authorizationDecisionCache;
+    private GroupMemberService groupMemberService;
     private GroupRepository groupRepository;
     private RoleRepository roleRepository;
     private UserRepository userRepository;
@@ -32,8 +36,20 @@ public class AuthorizationService extends AssertionConcern {
             GroupRepository aGroupRepository,
             RoleRepository aRoleRepository) {
 
+        this(aUserRepository, aGroupRepository, aRoleRepository, null, null);
+    }
+
+    public AuthorizationService(
+            UserRepository aUserRepository,
+            GroupRepository aGroupRepository,
+            RoleRepository aRoleRepository,
+            GroupMemberService aGroupMemberService,
+            AuthorizationDecisionCache anAuthorizationDecisionCache) {
+
         super();
 
+        this.authorizationDecisionCache = anAuthorizationDecisionCache;
+        this.groupMemberService = aGroupMemberService;
         this.groupRepository = aGroupRepository;
         this.roleRepository = aRoleRepository;
         this.userRepository = aUserRepository;
@@ -44,9 +60,36 @@ public class AuthorizationService extends AssertionConcern {
         this.assertArgumentNotEmpty(aUsername, "Username must not be provided.");
         this.assertArgumentNotEmpty(aRoleName, "Role name must not be null.");
 
+        AuthorizationDecisionCache cache = this.authorizationDecisionCache();
+
+        if (cache == null) {
+            User user = this.userRepository().userWithUsername(aTenantId, aUsername);
+
+            return user == null ? false : this.isUserInRole(user, aRoleName);
+        }
+
+        Boolean cachedDecision = cache.isUserInRole(aTenantId, aUsername, aRoleName);
+
+        if (cachedDecision != null) {
+            return cachedDecision.booleanValue();
+        }
+
+        long generation = cache.generation();
+
         User user = this.userRepository().userWithUsername(aTenantId, aUsername);
 
-        return user == null ? false : this.isUserInRole(user, aRoleName);
+        if (user == null) {
+            return false;
+        }
+
+        // taken before deciding, so that a change while deciding expires it at once
+        Date enablementChangeDate = user.enablementChangeDate();
+
+        boolean authorized = this.isUserInRole(user, aRoleName);
+
+        cache.cache(aTenantId, aUsername, aRoleName, authorized, enablementChangeDate, generation);
+
+        return authorized;
     }
 
     public boolean isUserInRole(User aUser, String aRoleName) {
@@ -59,18 +102,25 @@ public class AuthorizationService extends AssertionConcern {
             Role role = this.roleRepository().roleNamed(aUser.tenantId(), aRoleName);
 
             if (role != null) {
-                GroupMemberService groupMemberService =
-                        new GroupMemberService(
-                                this.userRepository(),
-                                this.groupRepository());
-
-                authorized = role.isInRole(aUser, groupMemberService);
+                authorized = role.isInRole(aUser, this.groupMemberService());
             }
         }
 
         return authorized;
     }
 
+    private AuthorizationDecisionCache authorizationDecisionCache() {
+        return this.authorizationDecisionCache;
+    }
+
+    private GroupMemberService groupMemberService() {
+        if (this.groupMemberService == null) {
+            return new GroupMemberService(this.userRepository(), this.groupRepository());
+        }
+
+        return this.groupMemberService;
+    }
+
     private GroupRepository groupRepository() {
         return this.groupRepository;
     }
@@ -14,6 +14,8 @@
 
 package com.saasovation.identityaccess.domain.model.access;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 import com.saasovation.common.domain.model.ConcurrencySafeEntity;
@@ -108,6 +110,12 @@ public class Role extends ConcurrencySafeEntity {
         return this.tenantId;
     }
 
+    public Set<User> usersInRole(Collection<User> someUsers, GroupMemberService aGroupMemberService) {
+        this.assertArgumentNotNull(someUsers, "Users must not be null.");
+
+        return aGroupMemberService.membersAmong(this.group(), someUsers);
+    }
+
     public void unassignGroup(Group aGroup) {
         this.assertStateTrue(this.supportsNesting(), "This role does not support group nesting.");
         this.assertArgumentNotNull(aGroup, "Group must not be null.");
@@ -27,4 +27,6 @@ public interface RoleRepository {
     public void remove(Role aRole);
 
     public Role roleNamed(TenantId aTenantId, String aRoleName);
+
+    public Collection<Role> rolesNamed(TenantId aTenantId, Collection<String> aRoleNames);
 }
@@ -65,6 +65,26 @@ public final class Enablement extends AssertionConcern implements Serializable {
         return enabled;
     }
 
+    public Date enablementChangeDate() {
+
+        // the date on which time alone next changes whether
+        // I am enabled, or null if it never will
+
+        Date changeDate = null;
+
+        if (this.isEnabled() && this.startDate() != null && this.endDate() != null) {
+            Date now = new Date();
+
+            if (now.before(this.startDate())) {
+                changeDate = this.startDate();
+            } else if (!now.after(this.endDate())) {
+                changeDate = new Date(this.endDate().getTime() + 1L);
+            }
+        }
+
+        return changeDate;
+    }
+
     public Date endDate() {
         return this.endDate;
     }
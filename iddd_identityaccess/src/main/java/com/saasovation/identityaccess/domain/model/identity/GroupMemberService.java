@@ -14,10 +14,14 @@
 
 package com.saasovation.identityaccess.domain.model.identity;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 
 public class GroupMemberService {
 
+    private GroupMembershipIndex groupMembershipIndex;
     private GroupRepository groupRepository;
     private UserRepository userRepository;
 
@@ -25,8 +29,17 @@ public class GroupMemberService {
             UserRepository aUserRepository,
             GroupRepository aGroupRepository) {
 
+        this(aUserRepository, aGroupRepository, null);
+    }
+
+    public GroupMemberService(
+            UserRepository aUserRepository,
+            GroupRepository aGroupRepository,
+            GroupMembershipIndex aGroupMembershipIndex) {
+
         super();
 
+        this.groupMembershipIndex = aGroupMembershipIndex;
         this.groupRepository = aGroupRepository;
         this.userRepository = aUserRepository;
     }
@@ -46,6 +59,11 @@ public class GroupMemberService {
     }
 
     public boolean isMemberGroup(Group aGroup, GroupMember aMemberGroup) {
+        if (this.groupMembershipIndex() != null && !aGroup.isInternalGroup()) {
+            return this.groupMembershipIndex()
+                    .isMemberGroup(aGroup.tenantId(), aGroup.name(), aMemberGroup.name());
+        }
+
         boolean isMember = false;
 
         Iterator<GroupMember> iter =
@@ -71,6 +89,12 @@ public class GroupMemberService {
     }
 
     public boolean isUserInNestedGroup(Group aGroup, User aUser) {
+        if (this.groupMembershipIndex() != null) {
+            // the direct members of aGroup are current, only nested ones are looked up
+            return this.isUserInIndexedGroup(aGroup.groupMembers(), aUser)
+                    && this.confirmUser(aGroup, aUser);
+        }
+
         boolean isInNestedGroup = false;
 
         Iterator<GroupMember> iter =
@@ -91,6 +115,54 @@ public class GroupMemberService {
         return isInNestedGroup;
     }
 
+    public Set<User> membersAmong(Group aGroup, Collection<User> someUsers) {
+        // someUsers are current from the UserRepository, so are not confirmed one by one
+        Set<User> members = new HashSet<User>();
+
+        for (User user : someUsers) {
+            if (!user.isEnabled() || !user.tenantId().equals(aGroup.tenantId())) {
+                continue;
+            }
+
+            boolean isMember = aGroup.groupMembers().contains(user.toGroupMember());
+
+            if (!isMember) {
+                if (this.groupMembershipIndex() == null) {
+                    isMember = this.isUserInNestedGroup(aGroup, user);
+                } else {
+                    isMember = this.isUserInIndexedGroup(aGroup.groupMembers(), user);
+                }
+            }
+
+            if (isMember) {
+                members.add(user);
+            }
+        }
+
+        return members;
+    }
+
+    private boolean isUserInIndexedGroup(Collection<GroupMember> someGroups, User aUser) {
+        boolean isInGroup = false;
+
+        Iterator<GroupMember> iter = someGroups.iterator();
+
+        while (!isInGroup && iter.hasNext()) {
+            GroupMember group = iter.next();
+            if (group.isGroup()) {
+                isInGroup =
+                        this.groupMembershipIndex()
+                            .isMemberUser(group.tenantId(), group.name(), aUser.username());
+            }
+        }
+
+        return isInGroup;
+    }
+
+    private GroupMembershipIndex groupMembershipIndex() {
+        return this.groupMembershipIndex;
+    }
+
     private GroupRepository groupRepository() {
         return this.groupRepository;
     }
@@ -0,0 +1,420 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.identityaccess.domain.model.identity;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.saasovation.common.domain.model.DomainEvent;
+
+/**
+ * I am a materialized closure of group membership. For each group
+ * of a tenant I hold every group and user that is a member of it,
+ * directly or through any depth of nested groups, so that a nested
+ * membership question is a single lookup rather than one query per
+ * nested group. A tenant is loaded from the GroupRepository the first
+ * time it is asked about, outside of my lock so that other tenants are
+ * answered meanwhile, and is then kept current from the group add and
+ * remove domain events once they are committed. Changes not yet
+ * committed are applied only to a copy of their tenant that is seen
+ * by the thread of their unit of work alone, until it completes.
+ * Role internal groups are not indexed; their direct members are
+ * already held by their Role.
+ */
+public class GroupMembershipIndex {
+
+    private GroupRepository groupRepository;
+    private ThreadLocal<Map<TenantId, Map<String, Node>>> pendingTenantGroups;
+    private Map<TenantId, Long> tenantChanges;
+    private Map<TenantId, Map<String, Node>> tenantGroups;
+
+    public GroupMembershipIndex(GroupRepository aGroupRepository) {
+        super();
+
+        this.groupRepository = aGroupRepository;
+        this.pendingTenantGroups = new ThreadLocal<Map<TenantId, Map<String, Node>>>();
+        this.tenantChanges = new HashMap<TenantId, Long>();
+        this.tenantGroups = new HashMap<TenantId, Map<String, Node>>();
+    }
+
+    public void applyChangesOf(DomainEvent aDomainEvent) {
+        TenantId tenantId = this.tenantIdOf(aDomainEvent);
+
+        if (tenantId == null) {
+            return;
+        }
+
+        Map<String, Node> groups = null;
+
+        synchronized (this) {
+            this.countChangeTo(tenantId);
+
+            // loaded from the repository when first needed
+            groups = this.tenantGroups.get(tenantId);
+        }
+
+        if (groups != null) {
+            synchronized (groups) {
+                this.applyTo(groups, aDomainEvent);
+            }
+        }
+    }
+
+    public void applyPendingChangesOf(DomainEvent aDomainEvent) {
+        TenantId tenantId = this.tenantIdOf(aDomainEvent);
+
+        if (tenantId == null) {
+            return;
+        }
+
+        Map<TenantId, Map<String, Node>> pendingGroups = this.pendingTenantGroups.get();
+
+        if (pendingGroups == null) {
+            pendingGroups = new HashMap<TenantId, Map<String, Node>>();
+
+            this.pendingTenantGroups.set(pendingGroups);
+        }
+
+        Map<String, Node> groups = pendingGroups.get(tenantId);
+
+        if (groups == null) {
+            Map<String, Node> committedGroups = null;
+
+            synchronized (this) {
+                committedGroups = this.tenantGroups.get(tenantId);
+            }
+
+            if (committedGroups == null) {
+                // loaded within the unit of work, so it may hold its changes and is not kept
+                groups = this.load(tenantId);
+            } else {
+                synchronized (committedGroups) {
+                    groups = this.copyOf(committedGroups);
+                }
+            }
+
+            pendingGroups.put(tenantId, groups);
+        }
+
+        this.applyTo(groups, aDomainEvent);
+    }
+
+    public synchronized void clear() {
+        this.tenantGroups.clear();
+    }
+
+    public void discardPendingChanges() {
+        this.pendingTenantGroups.remove();
+    }
+
+    public synchronized void invalidate(TenantId aTenantId) {
+        this.countChangeTo(aTenantId);
+
+        this.tenantGroups.remove(aTenantId);
+    }
+
+    public boolean isChangedBy(DomainEvent aDomainEvent) {
+        return this.tenantIdOf(aDomainEvent) != null;
+    }
+
+    public synchronized boolean isIndexed(TenantId aTenantId) {
+        return this.tenantGroups.containsKey(aTenantId);
+    }
+
+    public boolean isMemberGroup(
+            TenantId aTenantId,
+            String aGroupName,
+            String aMemberGroupName) {
+
+        Map<String, Node> groups = this.visibleGroupsOf(aTenantId);
+
+        synchronized (groups) {
+            Node node = groups.get(aGroupName);
+
+            return node != null && node.allGroups.contains(aMemberGroupName);
+        }
+    }
+
+    public boolean isMemberUser(
+            TenantId aTenantId,
+            String aGroupName,
+            String aUsername) {
+
+        Map<String, Node> groups = this.visibleGroupsOf(aTenantId);
+
+        synchronized (groups) {
+            Node node = groups.get(aGroupName);
+
+            return node != null && node.allUsers.contains(aUsername);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "GroupMembershipIndex [tenants=" + this.tenantGroups.size() + "]";
+    }
+
+    private void addGroup(Map<String, Node> aGroups, String aGroupName, String aNestedGroupName) {
+        Node node = this.nodeNamed(aGroups, aGroupName);
+        Node nestedNode = this.nodeNamed(aGroups, aNestedGroupName);
+
+        node.groups.add(aNestedGroupName);
+        nestedNode.parents.add(aGroupName);
+
+        for (Node ancestor : this.selfAndAncestorsOf(aGroups, aGroupName)) {
+            ancestor.allGroups.add(aNestedGroupName);
+            ancestor.allGroups.addAll(nestedNode.allGroups);
+            ancestor.allUsers.addAll(nestedNode.allUsers);
+        }
+    }
+
+    private void addUser(Map<String, Node> aGroups, String aGroupName, String aUsername) {
+        this.nodeNamed(aGroups, aGroupName).users.add(aUsername);
+
+        for (Node ancestor : this.selfAndAncestorsOf(aGroups, aGroupName)) {
+            ancestor.allUsers.add(aUsername);
+        }
+    }
+
+    private void applyTo(Map<String, Node> aGroups, DomainEvent aDomainEvent) {
+        if (aDomainEvent instanceof GroupGroupAdded) {
+            GroupGroupAdded event = (GroupGroupAdded) aDomainEvent;
+            this.addGroup(aGroups, event.groupName(), event.nestedGroupName());
+        } else if (aDomainEvent instanceof GroupGroupRemoved) {
+            GroupGroupRemoved event = (GroupGroupRemoved) aDomainEvent;
+            this.removeGroup(aGroups, event.groupName(), event.nestedGroupName());
+        } else if (aDomainEvent instanceof GroupUserAdded) {
+            GroupUserAdded event = (GroupUserAdded) aDomainEvent;
+            this.addUser(aGroups, event.groupName(), event.username());
+        } else if (aDomainEvent instanceof GroupUserRemoved) {
+            GroupUserRemoved event = (GroupUserRemoved) aDomainEvent;
+            this.removeUser(aGroups, event.groupName(), event.username());
+        }
+    }
+
+    private void close(Map<String, Node> aGroups, Node aNode, Set<String> aVisitedGroupNames) {
+        aNode.allGroups.clear();
+        aNode.allUsers.clear();
+
+        aNode.allGroups.addAll(aNode.groups);
+        aNode.allUsers.addAll(aNode.users);
+
+        for (String groupName : aNode.groups) {
+            Node nestedNode = this.nodeNamed(aGroups, groupName);
+
+            if (aVisitedGroupNames.add(groupName)) {
+                this.close(aGroups, nestedNode, aVisitedGroupNames);
+            }
+
+            aNode.allGroups.addAll(nestedNode.allGroups);
+            aNode.allUsers.addAll(nestedNode.allUsers);
+        }
+    }
+
+    private Map<String, Node> copyOf(Map<String, Node> aGroups) {
+        Map<String, Node> groups = new HashMap<String, Node>();
+
+        for (Node node : aGroups.values()) {
+            Node copy = this.nodeNamed(groups, node.name);
+
+            copy.allGroups.addAll(node.allGroups);
+            copy.allUsers.addAll(node.allUsers);
+            copy.groups.addAll(node.groups);
+            copy.parents.addAll(node.parents);
+            copy.users.addAll(node.users);
+        }
+
+        return groups;
+    }
+
+    private void countChangeTo(TenantId aTenantId) {
+        Long changes = this.tenantChanges.get(aTenantId);
+
+        this.tenantChanges.put(aTenantId, changes == null ? 1L : changes + 1L);
+    }
+
+    private Map<String, Node> groupsOf(TenantId aTenantId) {
+        Long changes = null;
+
+        synchronized (this) {
+            Map<String, Node> groups = this.tenantGroups.get(aTenantId);
+
+            if (groups != null) {
+                return groups;
+            }
+
+            changes = this.tenantChanges.get(aTenantId);
+        }
+
+        Map<String, Node> loadedGroups = this.load(aTenantId);
+
+        synchronized (this) {
+            Map<String, Node> groups = this.tenantGroups.get(aTenantId);
+
+            if (groups == null) {
+                groups = loadedGroups;
+
+                // a change committed while loading may be missing, so
+                // the tenant is answered but loaded again next time
+
+                Long currentChanges = this.tenantChanges.get(aTenantId);
+
+                if (changes == null ? currentChanges == null : changes.equals(currentChanges)) {
+                    this.tenantGroups.put(aTenantId, groups);
+                }
+            }
+
+            return groups;
+        }
+    }
+
+    private Map<String, Node> load(TenantId aTenantId) {
+        Map<String, Node> groups = new HashMap<String, Node>();
+
+        for (Group group : this.groupRepository.allGroups(aTenantId)) {
+            if (group.isInternalGroup()) {
+                continue;
+            }
+
+            Node node = this.nodeNamed(groups, group.name());
+
+            for (GroupMember member : group.groupMembers()) {
+                if (member.isGroup()) {
+                    node.groups.add(member.name());
+                    this.nodeNamed(groups, member.name()).parents.add(group.name());
+                } else if (member.isUser()) {
+                    node.users.add(member.name());
+                }
+            }
+        }
+
+        Set<String> closedGroupNames = new HashSet<String>();
+
+        for (Map.Entry<String, Node> entry : groups.entrySet()) {
+            if (closedGroupNames.add(entry.getKey())) {
+                this.close(groups, entry.getValue(), closedGroupNames);
+            }
+        }
+
+        return groups;
+    }
+
+    private Node nodeNamed(Map<String, Node> aGroups, String aGroupName) {
+        Node node = aGroups.get(aGroupName);
+
+        if (node == null) {
+            node = new Node(aGroupName);
+
+            aGroups.put(aGroupName, node);
+        }
+
+        return node;
+    }
+
+    private void removeGroup(Map<String, Node> aGroups, String aGroupName, String aNestedGroupName) {
+        this.nodeNamed(aGroups, aGroupName).groups.remove(aNestedGroupName);
+        this.nodeNamed(aGroups, aNestedGroupName).parents.remove(aGroupName);
+
+        this.recloseSelfAndAncestorsOf(aGroups, aGroupName);
+    }
+
+    private void removeUser(Map<String, Node> aGroups, String aGroupName, String aUsername) {
+        this.nodeNamed(aGroups, aGroupName).users.remove(aUsername);
+
+        this.recloseSelfAndAncestorsOf(aGroups, aGroupName);
+    }
+
+    private void recloseSelfAndAncestorsOf(Map<String, Node> aGroups, String aGroupName) {
+        Set<Node> ancestors = this.selfAndAncestorsOf(aGroups, aGroupName);
+
+        // descendants are unchanged, so they are treated as already closed
+        Set<String> closedGroupNames = new HashSet<String>(aGroups.keySet());
+
+        for (Node ancestor : ancestors) {
+            closedGroupNames.remove(ancestor.name);
+        }
+
+        for (Node ancestor : ancestors) {
+            if (closedGroupNames.add(ancestor.name)) {
+                this.close(aGroups, ancestor, closedGroupNames);
+            }
+        }
+    }
+
+    private Set<Node> selfAndAncestorsOf(Map<String, Node> aGroups, String aGroupName) {
+        Set<Node> ancestors = new HashSet<Node>();
+        Deque<String> groupNames = new ArrayDeque<String>();
+
+        groupNames.add(aGroupName);
+
+        while (!groupNames.isEmpty()) {
+            Node node = this.nodeNamed(aGroups, groupNames.remove());
+
+            if (ancestors.add(node)) {
+                groupNames.addAll(node.parents);
+            }
+        }
+
+        return ancestors;
+    }
+
+    private TenantId tenantIdOf(DomainEvent aDomainEvent) {
+        TenantId tenantId = null;
+
+        if (aDomainEvent instanceof GroupGroupAdded) {
+            tenantId = ((GroupGroupAdded) aDomainEvent).tenantId();
+        } else if (aDomainEvent instanceof GroupGroupRemoved) {
+            tenantId = ((GroupGroupRemoved) aDomainEvent).tenantId();
+        } else if (aDomainEvent instanceof GroupUserAdded) {
+            tenantId = ((GroupUserAdded) aDomainEvent).tenantId();
+        } else if (aDomainEvent instanceof GroupUserRemoved) {
+            tenantId = ((GroupUserRemoved) aDomainEvent).tenantId();
+        }
+
+        return tenantId;
+    }
+
+    private Map<String, Node> visibleGroupsOf(TenantId aTenantId) {
+        Map<TenantId, Map<String, Node>> pendingGroups = this.pendingTenantGroups.get();
+
+        Map<String, Node> groups = pendingGroups == null ? null : pendingGroups.get(aTenantId);
+
+        if (groups == null) {
+            groups = this.groupsOf(aTenantId);
+        }
+
+        return groups;
+    }
+
+    private static final class Node {
+
+        private Set<String> allGroups = new HashSet<String>();
+        private Set<String> allUsers = new HashSet<String>();
+        private Set<String> groups = new HashSet<String>();
+        private String name;
+        private Set<String> parents = new HashSet<String>();
+        private Set<String> users = new HashSet<String>();
+
+        private Node(String aName) {
+            super();
+
+            this.name = aName;
+        }
+    }
+}
@@ -25,4 +25,6 @@ public interface GroupRepository {
     public Group groupNamed(TenantId aTenantId, String aName);
 
     public void remove(Group aGroup);
+
+    public String versionOfGroupNamed(TenantId aTenantId, String aName);
 }
@@ -25,4 +25,6 @@ public interface TenantRepository {
     public Tenant tenantNamed(String aName);
 
     public Tenant tenantOfId(TenantId aTenantId);
+
+    public String versionOfTenantOfId(TenantId aTenantId);
 }
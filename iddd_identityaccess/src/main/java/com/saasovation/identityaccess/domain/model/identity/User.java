@@ -14,6 +14,8 @@
 
 package com.saasovation.identityaccess.domain.model.identity;
 
+import java.util.Date;
+
 import com.saasovation.common.domain.model.ConcurrencySafeEntity;
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.identityaccess.domain.model.DomainRegistry;
@@ -66,6 +68,10 @@ public class User extends ConcurrencySafeEntity {
                     this.enablement()));
     }
 
+    public Date enablementChangeDate() {
+        return this.enablement().enablementChangeDate();
+    }
+
     public boolean isEnabled() {
         return this.enablement().isEnablementEnabled();
     }
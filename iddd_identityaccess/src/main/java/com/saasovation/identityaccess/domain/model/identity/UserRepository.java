@@ -35,4 +35,12 @@ public interface UserRepository {
     public User userWithUsername(
             TenantId aTenantId,
             String aUsername);
+
+    public Collection<User> usersWithUsernames(
+            TenantId aTenantId,
+            Collection<String> aUsernames);
+
+    public String versionOfUserWithUsername(
+            TenantId aTenantId,
+            String aUsername);
 }
@@ -75,4 +75,25 @@ public class HibernateGroupRepository
     public void remove(Group aGroup) {
         this.session().delete(aGroup);
     }
+
+    @Override
+    public String versionOfGroupNamed(TenantId aTenantId, String aName) {
+        if (aName.startsWith(Group.ROLE_GROUP_PREFIX)) {
+            throw new IllegalArgumentException("May not find internal groups.");
+        }
+
+        // scalars only, so no Group or members are hydrated
+        Query query = this.session().createQuery(
+                "select _obj_.id, _obj_.concurrencyVersion "
+                + "from com.saasovation.identityaccess.domain.model.identity.Group as _obj_ "
+                + "where _obj_.tenantId = ? "
+                  + "and _obj_.name = ?");
+
+        query.setParameter(0, aTenantId);
+        query.setParameter(1, aName, org.hibernate.Hibernate.STRING);
+
+        Object[] version = (Object[]) query.uniqueResult();
+
+        return version == null ? null : version[0] + ":" + version[1];
+    }
 }
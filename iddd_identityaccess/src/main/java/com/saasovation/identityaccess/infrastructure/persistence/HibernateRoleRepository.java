@@ -14,6 +14,7 @@
 
 package com.saasovation.identityaccess.infrastructure.persistence;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import org.hibernate.Hibernate;
@@ -71,4 +72,22 @@ public class HibernateRoleRepository
 
         return (Role) query.uniqueResult();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<Role> rolesNamed(TenantId aTenantId, Collection<String> aRoleNames) {
+        if (aRoleNames.isEmpty()) {
+            return new ArrayList<Role>(0);
+        }
+
+        Query query = this.session().createQuery(
+                "from com.saasovation.identityaccess.domain.model.access.Role as _obj_ "
+                + "where _obj_.tenantId = :tenantId "
+                  + "and _obj_.name in (:roleNames)");
+
+        query.setParameter("tenantId", aTenantId);
+        query.setParameterList("roleNames", aRoleNames, Hibernate.STRING);
+
+        return (Collection<Role>) query.list();
+    }
 }
@@ -73,4 +73,28 @@ public class HibernateTenantRepository
 
         return (Tenant) query.uniqueResult();
     }
+
+    @Override
+    public String versionOfTenantOfId(TenantId aTenantId) {
+
+        // scalars only, so no Tenant or invitations are hydrated;
+        // an invitation is versioned apart from its Tenant, and each
+        // change to one raises the sum of their versions by one
+
+        Query query = this.session().createQuery(
+                "select _obj_.id, _obj_.concurrencyVersion, "
+                + "count(_inv_.id), coalesce(sum(_inv_.concurrencyVersion), 0) "
+                + "from com.saasovation.identityaccess.domain.model.identity.Tenant as _obj_ "
+                + "left join _obj_.registrationInvitations as _inv_ "
+                + "where _obj_.tenantId = ? "
+                + "group by _obj_.id, _obj_.concurrencyVersion");
+
+        query.setParameter(0, aTenantId);
+
+        Object[] version = (Object[]) query.uniqueResult();
+
+        return version == null
+                ? null
+                : version[0] + ":" + version[1] + ":" + version[2] + ":" + version[3];
+    }
 }
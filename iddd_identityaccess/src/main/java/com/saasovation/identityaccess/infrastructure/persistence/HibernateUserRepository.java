@@ -14,6 +14,7 @@
 
 package com.saasovation.identityaccess.infrastructure.persistence;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 import org.hibernate.Hibernate;
@@ -105,4 +106,45 @@ public class HibernateUserRepository
 
         return (User) query.uniqueResult();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<User> usersWithUsernames(
+            TenantId aTenantId,
+            Collection<String> aUsernames) {
+
+        if (aUsernames.isEmpty()) {
+            return new ArrayList<User>(0);
+        }
+
+        Query query = this.session().createQuery(
+                "from com.saasovation.identityaccess.domain.model.identity.User as _obj_ "
+                + "where _obj_.tenantId = :tenantId "
+                  + "and _obj_.username in (:usernames)");
+
+        query.setParameter("tenantId", aTenantId);
+        query.setParameterList("usernames", aUsernames, Hibernate.STRING);
+
+        return query.list();
+    }
+
+    @Override
+    public String versionOfUserWithUsername(
+            TenantId aTenantId,
+            String aUsername) {
+
+        // scalars only, so no User or Person is hydrated
+        Query query = this.session().createQuery(
+                "select _obj_.id, _obj_.concurrencyVersion, _obj_.person.concurrencyVersion "
+                + "from com.saasovation.identityaccess.domain.model.identity.User as _obj_ "
+                + "where _obj_.tenantId = ? "
+                  + "and _obj_.username = ?");
+
+        query.setParameter(0, aTenantId);
+        query.setParameter(1, aUsername, Hibernate.STRING);
+
+        Object[] version = (Object[]) query.uniqueResult();
+
+        return version == null ? null : version[0] + ":" + version[1] + ":" + version[2];
+    }
 }
@@ -14,9 +14,6 @@
 
 package com.saasovation.identityaccess.resource;
 
-import java.math.BigInteger;
-import java.security.MessageDigest;
-
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.EntityTag;
 
@@ -24,7 +21,6 @@ import com.saasovation.identityaccess.application.AccessApplicationService;
 import com.saasovation.identityaccess.application.ApplicationServiceRegistry;
 import com.saasovation.identityaccess.application.IdentityApplicationService;
 import com.saasovation.identityaccess.application.NotificationApplicationService;
-import com.saasovation.identityaccess.domain.model.identity.User;
 
 public class AbstractResource {
 
@@ -50,25 +46,11 @@ public class AbstractResource {
         return ApplicationServiceRegistry.notificationApplicationService();
     }
 
-    protected EntityTag userETag(User aUser) {
-
-        EntityTag tag = null;
-
-        int hashCode = aUser.hashCode() + aUser.person().hashCode();
-
-        try {
-            // change this algorithm as needed
-            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
-            messageDigest.update(Integer.toString(hashCode).getBytes("UTF-8"));
-            BigInteger digestValue = new BigInteger(1, messageDigest.digest());
-            String strongHash = digestValue.toString(16);
-
-            tag = new EntityTag(strongHash);
+    protected EntityTag versionETag(String aVersion) {
 
-        } catch (Throwable t) {
-            tag = new EntityTag(Integer.toString(hashCode));
-        }
+        // the aggregate's identity and concurrency version change whenever
+        // its state does, so they tag it without loading or hashing it
 
-        return tag;
+        return new EntityTag(aVersion);
     }
 }
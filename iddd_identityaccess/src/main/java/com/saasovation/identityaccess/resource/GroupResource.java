@@ -20,8 +20,10 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import com.saasovation.common.media.OvationsMediaType;
 import com.saasovation.common.serializer.ObjectSerializer;
@@ -42,6 +44,25 @@ public class GroupResource extends AbstractResource {
             @PathParam("groupName") String aGroupName,
             @Context Request aRequest) {
 
+        String version =
+                this.identityApplicationService()
+                    .groupVersion(aTenantId, aGroupName);
+
+        if (version == null) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+
+        EntityTag eTag = this.versionETag(version);
+
+        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+
+        if (conditionalBuilder != null) {
+            return conditionalBuilder
+                    .cacheControl(this.cacheControlFor(30))
+                    .tag(eTag)
+                    .build();
+        }
+
         Group group =
                 this.identityApplicationService()
                     .group(aTenantId, aGroupName);
@@ -50,14 +71,14 @@ public class GroupResource extends AbstractResource {
             throw new WebApplicationException(Response.Status.NOT_FOUND);
         }
 
-        Response response = this.groupResponse(aRequest, group);
+        Response response = this.groupResponse(group, eTag);
 
         return response;
     }
 
     private Response groupResponse(
-            Request aRequest,
-            Group aGroup) {
+            Group aGroup,
+            EntityTag anETag) {
 
         Response response = null;
 
@@ -67,6 +88,7 @@ public class GroupResource extends AbstractResource {
             Response
                 .ok(representation)
                 .cacheControl(this.cacheControlFor(30))
+                .tag(anETag)
                 .build();
 
         return response;
@@ -14,75 +14,287 @@
 
 package com.saasovation.identityaccess.resource;
 
+import com.saasovation.common.media.CachedRepresentation;
 import com.saasovation.common.media.Link;
 import com.saasovation.common.media.OvationsMediaType;
+import com.saasovation.common.media.RepresentationCache;
+import com.saasovation.common.notification.BinaryNotificationSerializer;
 import com.saasovation.common.notification.NotificationLog;
+import com.saasovation.common.notification.NotificationLogFactory;
 import com.saasovation.common.serializer.ObjectSerializer;
 import com.saasovation.identityaccess.application.representation.NotificationLogRepresentation;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 
 @Path("/notifications")
 public class NotificationResource extends AbstractResource {
 
+    // measured in characters of serialized logs, plus bytes of their binary forms
+    private static final int ARCHIVED_LOGS_MAXIMUM_WEIGHT = 16 * 1024 * 1024;
+    private static final int CURRENT_LOGS_MAXIMUM_WEIGHT = 1024 * 1024;
+
+    private static final String BINARY_ETAG_SUFFIX = "-binary";
+    private static final MediaType JSON_MEDIA_TYPE =
+        MediaType.valueOf(OvationsMediaType.ID_OVATION_TYPE);
+
+    // archived logs never change, and a current log
+    // is fixed by the number of events it was made of
+    private static final RepresentationCache archivedNotificationLogs =
+        new RepresentationCache(ARCHIVED_LOGS_MAXIMUM_WEIGHT);
+    private static final RepresentationCache currentNotificationLogs =
+        new RepresentationCache(CURRENT_LOGS_MAXIMUM_WEIGHT);
+
     public NotificationResource() {
         super();
     }
 
     @GET
-    @Produces({OvationsMediaType.ID_OVATION_TYPE})
-    public Response getCurrentNotificationLog(@Context UriInfo aUriInfo) {
-        NotificationLog currentNotificationLog = notificationApplicationService().currentNotificationLog();
-        if (currentNotificationLog == null) {
-            throw new WebApplicationException(Response.Status.NOT_FOUND);
+    @Produces({OvationsMediaType.ID_OVATION_TYPE, OvationsMediaType.ID_OVATION_BINARY_TYPE})
+    public Response getCurrentNotificationLog(
+        @QueryParam("notificationsPerLog") Integer aNotificationsPerLog,
+        @Context UriInfo aUriInfo,
+        @Context HttpHeaders aHeaders,
+        @Context Request aRequest) {
+
+        boolean isBinary = isBinaryPreferred(aHeaders);
+
+        CachedRepresentation log = currentNotificationLog(aNotificationsPerLog, aUriInfo, isBinary);
+
+        if (isBinary) {
+            return cachedBinaryResponse(aRequest, log, 60);
         }
 
-        return currentNotificationLogResponse(currentNotificationLog, aUriInfo);
+        return cachedResponse(aRequest, log, 60);
     }
 
     @GET
     @Path("{notificationId}")
-    @Produces({OvationsMediaType.ID_OVATION_TYPE})
-    public Response getNotificationLog(@PathParam("notificationId") String aNotificationId, @Context UriInfo aUriInfo) {
-        NotificationLog notificationLog = notificationApplicationService().notificationLog(aNotificationId);
-        if (notificationLog == null) {
-            throw new WebApplicationException(Response.Status.NOT_FOUND);
+    @Produces({OvationsMediaType.ID_OVATION_TYPE, OvationsMediaType.ID_OVATION_BINARY_TYPE})
+    public Response getNotificationLog(
+        @PathParam("notificationId") String aNotificationId,
+        @Context UriInfo aUriInfo,
+        @Context HttpHeaders aHeaders,
+        @Context Request aRequest) {
+
+        boolean isBinary = isBinaryPreferred(aHeaders);
+
+        CachedRepresentation log = notificationLog(aNotificationId, aUriInfo, isBinary);
+
+        if (isBinary) {
+            return cachedBinaryResponse(aRequest, log, 3600);
         }
 
-        return notificationLogResponse(notificationLog, aUriInfo);
+        return cachedResponse(aRequest, log, 3600);
     }
 
-    private Response currentNotificationLogResponse(NotificationLog aCurrentNotificationLog, UriInfo aUriInfo) {
+    static void clearCachedNotificationLogs() {
+        archivedNotificationLogs.clear();
+        currentNotificationLogs.clear();
+    }
 
-        NotificationLogRepresentation log = new NotificationLogRepresentation(aCurrentNotificationLog);
-        log.setLinkSelf(selfLink(aCurrentNotificationLog, aUriInfo));
-        log.setLinkPrevious(previousLink(aCurrentNotificationLog, aUriInfo));
+    private CachedRepresentation currentNotificationLog(
+        Integer aNotificationsPerLog,
+        UriInfo aUriInfo,
+        boolean isBinary) {
+
+        int notificationsPerLog =
+            aNotificationsPerLog == null ?
+                notificationApplicationService().notificationsPerLog() :
+                aNotificationsPerLog.intValue();
+
+        if (!NotificationLogFactory.isNotificationsPerLogWithinBounds(notificationsPerLog)) {
+            throw new WebApplicationException(Response.Status.BAD_REQUEST);
+        }
 
-        String serializedLog = ObjectSerializer.instance().serialize(log);
+        // the one high-water mark both keys and makes the log
+        long totalNotifications = notificationApplicationService().totalNotifications();
+
+        String cacheKey =
+            aUriInfo.getBaseUri() + "notifications?notificationsPerLog="
+                + notificationsPerLog + "#" + totalNotifications;
+
+        CachedRepresentation log = currentNotificationLogs.cachedRepresentation(cacheKey);
+
+        if (log == null) {
+            NotificationLog currentNotificationLog =
+                notificationApplicationService()
+                    .currentNotificationLog(totalNotifications, notificationsPerLog);
+
+            if (currentNotificationLog == null) {
+                throw new WebApplicationException(Response.Status.NOT_FOUND);
+            }
+
+            log = currentNotificationLogs.cache(
+                cacheKey,
+                currentNotificationLogRepresentation(currentNotificationLog, aUriInfo));
+        }
+
+        if (isBinary) {
+            log = withBinaryRepresentation(currentNotificationLogs, cacheKey, log);
+        }
+
+        return log;
+    }
+
+    private boolean isBinaryPreferred(HttpHeaders aHeaders) {
+
+        // only clients naming the binary type before any
+        // type matching JSON opt in, so */* remains JSON
+
+        for (MediaType mediaType : aHeaders.getAcceptableMediaTypes()) {
+            String type = mediaType.getType() + "/" + mediaType.getSubtype();
+
+            if (OvationsMediaType.ID_OVATION_BINARY_TYPE.equals(type)) {
+                return true;
+            } else if (mediaType.isCompatible(JSON_MEDIA_TYPE)) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private CachedRepresentation notificationLog(
+        String aNotificationId,
+        UriInfo aUriInfo,
+        boolean isBinary) {
+
+        String cacheKey = aUriInfo.getBaseUri() + "notifications/" + aNotificationId;
+
+        CachedRepresentation log = archivedNotificationLogs.cachedRepresentation(cacheKey);
+
+        if (log == null) {
+            NotificationLog notificationLog = null;
+
+            try {
+                notificationLog = notificationApplicationService().notificationLog(aNotificationId);
+            } catch (IllegalArgumentException e) {
+                // malformed, or sized beyond the bounds
+                throw new WebApplicationException(Response.Status.BAD_REQUEST);
+            }
+
+            if (notificationLog == null) {
+                throw new WebApplicationException(Response.Status.NOT_FOUND);
+            }
+
+            String representation = notificationLogRepresentation(notificationLog, aUriInfo);
+
+            if (notificationLog.isArchived()) {
+                log = archivedNotificationLogs.cache(cacheKey, representation);
+            } else {
+                // not kept, so it is encoded only if it must be sent
+                return new CachedRepresentation(representation);
+            }
+        }
+
+        if (isBinary) {
+            log = withBinaryRepresentation(archivedNotificationLogs, cacheKey, log);
+        }
+
+        return log;
+    }
+
+    private Response cachedBinaryResponse(Request aRequest, CachedRepresentation aLog, int aMaxAge) {
+
+        // the binary form is made from the JSON form alone, so its tag
+        // follows from the JSON tag but must differ for each variant
+
+        EntityTag eTag = new EntityTag(aLog.eTag() + BINARY_ETAG_SUFFIX);
+
+        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+
+        if (conditionalBuilder != null) {
+            return conditionalBuilder
+                .cacheControl(cacheControlFor(aMaxAge))
+                .tag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
+        }
+
+        byte[] representation = aLog.binaryRepresentation();
+
+        if (representation == null) {
+            representation = binaryRepresentationOf(aLog);
+        }
+
+        return Response
+            .ok(representation, OvationsMediaType.ID_OVATION_BINARY_TYPE)
+            .cacheControl(cacheControlFor(aMaxAge))
+            .tag(eTag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+            .build();
+    }
+
+    private byte[] binaryRepresentationOf(CachedRepresentation aLog) {
+        return
+            BinaryNotificationSerializer
+                .instance()
+                .serializeLog(aLog.representation());
+    }
+
+    private Response cachedResponse(Request aRequest, CachedRepresentation aLog, int aMaxAge) {
+        EntityTag eTag = new EntityTag(aLog.eTag());
+
+        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+
+        if (conditionalBuilder != null) {
+            return conditionalBuilder
+                .cacheControl(cacheControlFor(aMaxAge))
+                .tag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build();
+        }
 
         return Response
-            .ok(serializedLog)
-            .cacheControl(cacheControlFor(60))
+            .ok(aLog.representation())
+            .cacheControl(cacheControlFor(aMaxAge))
+            .tag(eTag)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
             .build();
     }
 
-    private Response notificationLogResponse(NotificationLog aNotificationLog, UriInfo aUriInfo) {
+    private String currentNotificationLogRepresentation(NotificationLog aCurrentNotificationLog, UriInfo aUriInfo) {
+
+        NotificationLogRepresentation log = new NotificationLogRepresentation(aCurrentNotificationLog);
+        log.setLinkSelf(selfLink(aCurrentNotificationLog, aUriInfo));
+        log.setLinkPrevious(previousLink(aCurrentNotificationLog, aUriInfo));
+
+        return ObjectSerializer.instance().serialize(log);
+    }
+
+    private String notificationLogRepresentation(NotificationLog aNotificationLog, UriInfo aUriInfo) {
 
         NotificationLogRepresentation log = new NotificationLogRepresentation(aNotificationLog);
         log.setLinkSelf(selfLink(aNotificationLog, aUriInfo));
         log.setLinkNext(nextLink(aNotificationLog, aUriInfo));
         log.setLinkPrevious(previousLink(aNotificationLog, aUriInfo));
 
-        String serializedLog = ObjectSerializer.instance().serialize(log);
+        return ObjectSerializer.instance().serialize(log);
+    }
 
-        return Response
-            .ok(serializedLog)
-            .cacheControl(cacheControlFor(3600))
-            .build();
+    private CachedRepresentation withBinaryRepresentation(
+        RepresentationCache aCache,
+        String aCacheKey,
+        CachedRepresentation aLog) {
+
+        // encoded once and then kept in place of the JSON form alone
+
+        CachedRepresentation log = aLog;
+
+        if (log.binaryRepresentation() == null) {
+            log = aCache.replace(aCacheKey, log, log.withBinaryRepresentation(binaryRepresentationOf(log)));
+        }
+
+        return log;
     }
 
     private Link linkFor(
@@ -19,18 +19,18 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
-
-import org.jboss.resteasy.annotations.cache.Cache;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import com.saasovation.common.media.OvationsMediaType;
 import com.saasovation.common.serializer.ObjectSerializer;
-import com.saasovation.identityaccess.application.ApplicationServiceRegistry;
-import com.saasovation.identityaccess.application.IdentityApplicationService;
 import com.saasovation.identityaccess.domain.model.identity.Tenant;
 
 @Path("/tenants")
-public class TenantResource {
+public class TenantResource extends AbstractResource {
 
     public TenantResource() {
         super();
@@ -39,9 +39,26 @@ public class TenantResource {
     @GET
     @Path("{tenantId}")
     @Produces({ OvationsMediaType.ID_OVATION_TYPE })
-    @Cache(maxAge=3600)
     public Response getTenant(
-            @PathParam("tenantId") String aTenantId) {
+            @PathParam("tenantId") String aTenantId,
+            @Context Request aRequest) {
+
+        String version = this.identityApplicationService().tenantVersion(aTenantId);
+
+        if (version == null) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+
+        EntityTag eTag = this.versionETag(version);
+
+        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+
+        if (conditionalBuilder != null) {
+            return conditionalBuilder
+                    .cacheControl(this.cacheControlFor(3600))
+                    .tag(eTag)
+                    .build();
+        }
 
         Tenant tenant = this.identityApplicationService().tenant(aTenantId);
 
@@ -51,12 +68,13 @@ public class TenantResource {
 
         String tenantRepresentation = ObjectSerializer.instance().serialize(tenant);
 
-        Response response = Response.ok(tenantRepresentation).build();
+        Response response =
+                Response
+                    .ok(tenantRepresentation)
+                    .cacheControl(this.cacheControlFor(3600))
+                    .tag(eTag)
+                    .build();
 
         return response;
     }
-
-    private IdentityApplicationService identityApplicationService() {
-        return ApplicationServiceRegistry.identityApplicationService();
-    }
 }
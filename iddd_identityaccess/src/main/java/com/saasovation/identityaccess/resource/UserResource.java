@@ -14,10 +14,15 @@
 
 package com.saasovation.identityaccess.resource;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.EntityTag;
@@ -30,6 +35,7 @@ import com.saasovation.common.serializer.ObjectSerializer;
 import com.saasovation.identityaccess.application.command.AuthenticateUserCommand;
 import com.saasovation.identityaccess.application.representation.UserInRoleRepresentation;
 import com.saasovation.identityaccess.application.representation.UserRepresentation;
+import com.saasovation.identityaccess.application.representation.UsersInRolesRepresentation;
 import com.saasovation.identityaccess.domain.model.identity.User;
 import com.saasovation.identityaccess.domain.model.identity.UserDescriptor;
 
@@ -74,13 +80,32 @@ public class UserResource extends AbstractResource {
             @PathParam("username") String aUsername,
             @Context Request aRequest) {
 
+        String version =
+                this.identityApplicationService()
+                    .userVersion(aTenantId, aUsername);
+
+        if (version == null) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+
+        EntityTag eTag = this.versionETag(version);
+
+        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+
+        if (conditionalBuilder != null) {
+            return conditionalBuilder
+                    .cacheControl(this.cacheControlFor(3600))
+                    .tag(eTag)
+                    .build();
+        }
+
         User user = this.identityApplicationService().user(aTenantId, aUsername);
 
         if (user == null) {
             throw new WebApplicationException(Response.Status.NOT_FOUND);
         }
 
-        Response response = this.userResponse(aRequest, user);
+        Response response = this.userResponse(user, eTag);
 
         return response;
     }
@@ -116,6 +141,31 @@ public class UserResource extends AbstractResource {
         return response;
     }
 
+    @GET
+    @Path("inRoles")
+    @Produces({ OvationsMediaType.ID_OVATION_TYPE })
+    public Response getUsersInRoles(
+            @PathParam("tenantId") String aTenantId,
+            @QueryParam("username") List<String> aUsernames,
+            @QueryParam("role") List<String> aRoleNames) {
+
+        if (aUsernames.isEmpty() || aRoleNames.isEmpty()) {
+            throw new WebApplicationException(Response.Status.BAD_REQUEST);
+        }
+
+        Map<User, Set<String>> usersInRoles =
+                this.accessApplicationService()
+                    .usersInRoles(
+                            aTenantId,
+                            aUsernames,
+                            aRoleNames);
+
+        Response response =
+                this.usersInRolesResponse(aTenantId, aRoleNames, usersInRoles);
+
+        return response;
+    }
+
     private Response userDescriptorResponse(
             Request aRequest,
             UserDescriptor aUserDescriptor) {
@@ -152,33 +202,41 @@ public class UserResource extends AbstractResource {
         return response;
     }
 
-    private Response userResponse(Request aRequest, User aUser) {
+    private Response usersInRolesResponse(
+            String aTenantId,
+            List<String> aRoleNames,
+            Map<User, Set<String>> aUsersInRoles) {
 
-        Response response = null;
+        UsersInRolesRepresentation usersInRolesRepresentation =
+                new UsersInRolesRepresentation(aTenantId, aRoleNames, aUsersInRoles);
 
-        EntityTag eTag = this.userETag(aUser);
+        String representation =
+                ObjectSerializer
+                    .instance()
+                    .serialize(usersInRolesRepresentation);
 
-        ResponseBuilder conditionalBuilder = aRequest.evaluatePreconditions(eTag);
+        Response response =
+                Response
+                    .ok(representation)
+                    .cacheControl(this.cacheControlFor(60))
+                    .build();
 
-        if (conditionalBuilder != null) {
-            response =
-                    conditionalBuilder
-                        .cacheControl(this.cacheControlFor(3600))
-                        .tag(eTag)
-                        .build();
-        } else {
-            String representation =
-                    ObjectSerializer
-                        .instance()
-                        .serialize(new UserRepresentation(aUser));
-
-            response =
-                    Response
-                        .ok(representation)
-                        .cacheControl(this.cacheControlFor(3600))
-                        .tag(eTag)
-                        .build();
-        }
+        return response;
+    }
+
+    private Response userResponse(User aUser, EntityTag anETag) {
+
+        String representation =
+                ObjectSerializer
+                    .instance()
+                    .serialize(new UserRepresentation(aUser));
+
+        Response response =
+                Response
+                    .ok(representation)
+                    .cacheControl(this.cacheControlFor(3600))
+                    .tag(anETag)
+                    .build();
 
         return response;
     }
@@ -14,9 +14,14 @@
 
 package com.saasovation.identityaccess.application;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
 import com.saasovation.identityaccess.application.command.AssignUserToRoleCommand;
 import com.saasovation.identityaccess.domain.model.DomainRegistry;
 import com.saasovation.identityaccess.domain.model.access.Role;
+import com.saasovation.identityaccess.domain.model.identity.Group;
 import com.saasovation.identityaccess.domain.model.identity.User;
 
 public class AccessApplicationServiceTest extends ApplicationServiceTest {
@@ -107,4 +112,47 @@ public class AccessApplicationServiceTest extends ApplicationServiceTest {
 
         assertNotNull(userInRole);
     }
+
+    public void testUsersInRoles() throws Exception {
+        User user = this.userAggregate();
+        DomainRegistry.userRepository().add(user);
+
+        Group group = this.group1Aggregate();
+        group.addUser(user);
+        DomainRegistry.groupRepository().add(group);
+
+        Role role = this.roleAggregate();
+        role.assignGroup(group, DomainRegistry.groupMemberService());
+        DomainRegistry.roleRepository().add(role);
+
+        Role otherRole =
+                this.tenantAggregate()
+                    .provisionRole("Other Role", "Another test role.", true);
+        DomainRegistry.roleRepository().add(otherRole);
+
+        Map<User, Set<String>> usersInRoles =
+                ApplicationServiceRegistry
+                    .accessApplicationService()
+                    .usersInRoles(
+                            user.tenantId().id(),
+                            Arrays.asList(user.username(), "unknown"),
+                            Arrays.asList(role.name(), otherRole.name(), "No Role"));
+
+        assertEquals(1, usersInRoles.size());
+        assertTrue(usersInRoles.containsKey(user));
+        assertEquals(1, usersInRoles.get(user).size());
+        assertTrue(usersInRoles.get(user).contains(role.name()));
+
+        assertEquals(
+                Boolean.TRUE,
+                DomainRegistry
+                    .authorizationDecisionCache()
+                    .isUserInRole(user.tenantId(), user.username(), role.name()));
+
+        assertEquals(
+                Boolean.FALSE,
+                DomainRegistry
+                    .authorizationDecisionCache()
+                    .isUserInRole(user.tenantId(), user.username(), otherRole.name()));
+    }
 }
@@ -3,7 +3,6 @@ package com.saasovation.identityaccess.application;
 import com.saasovation.common.event.EventStore;
 import com.saasovation.common.event.TestableDomainEvent;
 import com.saasovation.common.notification.NotificationLog;
-import com.saasovation.common.notification.NotificationLogFactory;
 import com.saasovation.common.notification.NotificationLogId;
 import com.saasovation.common.notification.NotificationPublisher;
 
@@ -21,7 +20,7 @@ public class NotificationApplicationServiceTest extends ApplicationServiceTest {
         NotificationLog log =
                 this.notificationApplicationService.currentNotificationLog();
 
-        assertTrue(NotificationLogFactory.notificationsPerLog() >= log.totalNotifications());
+        assertTrue(this.notificationApplicationService.notificationsPerLog() >= log.totalNotifications());
         assertTrue(eventStore.countStoredEvents() >= log.totalNotifications());
         assertFalse(log.hasNextNotificationLog());
         assertTrue(log.hasPreviousNotificationLog());
@@ -29,11 +28,11 @@ public class NotificationApplicationServiceTest extends ApplicationServiceTest {
     }
 
     public void testNotificationLog() throws Exception {
-        NotificationLogId id = NotificationLogId.first(NotificationLogFactory.notificationsPerLog());
+        NotificationLogId id = NotificationLogId.first(this.notificationApplicationService.notificationsPerLog());
 
         NotificationLog log = this.notificationApplicationService.notificationLog(id.encoded());
 
-        assertEquals(NotificationLogFactory.notificationsPerLog(), log.totalNotifications());
+        assertEquals(this.notificationApplicationService.notificationsPerLog(), log.totalNotifications());
         assertTrue(eventStore.countStoredEvents() >= log.totalNotifications());
         assertTrue(log.hasNextNotificationLog());
         assertFalse(log.hasPreviousNotificationLog());
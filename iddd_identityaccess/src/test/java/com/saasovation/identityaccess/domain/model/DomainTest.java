@@ -21,7 +21,9 @@ import org.hibernate.Transaction;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import com.saasovation.common.domain.model.DomainEvent;
 import com.saasovation.common.domain.model.DomainEventPublisher;
+import com.saasovation.common.domain.model.DomainEventSubscriber;
 import com.saasovation.common.spring.SpringHibernateSessionProvider;
 
 public abstract class DomainTest extends TestCase {
@@ -55,6 +57,19 @@ public abstract class DomainTest extends TestCase {
 
         DomainEventPublisher.instance().reset();
 
+        // as the application layer does, index changes seen only by this rolled back transaction
+        DomainEventPublisher
+            .instance()
+            .subscribe(new DomainEventSubscriber<DomainEvent>() {
+                public void handleEvent(DomainEvent aDomainEvent) {
+                    DomainRegistry.groupMembershipIndex().applyPendingChangesOf(aDomainEvent);
+                }
+
+                public Class<DomainEvent> subscribedToEventType() {
+                    return DomainEvent.class; // all domain events
+                }
+            });
+
         System.out.println(">>>>>>>>>>>>>>>>>>>> " + this.getName());
 
         super.setUp();
@@ -64,6 +79,8 @@ public abstract class DomainTest extends TestCase {
 
         this.transaction().rollback();
 
+        DomainRegistry.groupMembershipIndex().discardPendingChanges();
+
         this.setTransaction(null);
 
         this.session().clear();
@@ -0,0 +1,157 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.identityaccess.domain.model.access;
+
+import java.util.Date;
+
+import junit.framework.TestCase;
+
+import com.saasovation.identityaccess.domain.model.identity.Enablement;
+import com.saasovation.identityaccess.domain.model.identity.GroupGroupAdded;
+import com.saasovation.identityaccess.domain.model.identity.GroupUserAdded;
+import com.saasovation.identityaccess.domain.model.identity.TenantId;
+import com.saasovation.identityaccess.domain.model.identity.UserEnablementChanged;
+
+public class AuthorizationDecisionCacheTest extends TestCase {
+
+    private static final TenantId TENANT_ID =
+            new TenantId("8A9D4CB4-3EA3-4E1D-A2F2-9E1D8D8F1E3A");
+
+    private static final TenantId OTHER_TENANT_ID =
+            new TenantId("2B4E1DFA-7C5B-4A17-8D3F-6F7A2C9B0E41");
+
+    public AuthorizationDecisionCacheTest() {
+        super();
+    }
+
+    public void testCachedDecision() throws Exception {
+
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(10);
+
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+
+        cache.cache(TENANT_ID, "jdoe", "Manager", true, null, cache.generation());
+        cache.cache(TENANT_ID, "jdoe", "Director", false, null, cache.generation());
+
+        assertEquals(Boolean.TRUE, cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertEquals(Boolean.FALSE, cache.isUserInRole(TENANT_ID, "jdoe", "Director"));
+        assertNull(cache.isUserInRole(OTHER_TENANT_ID, "jdoe", "Manager"));
+
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    public void testLeastRecentlyUsedDecisionEvicted() throws Exception {
+
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(2);
+
+        cache.cache(TENANT_ID, "jdoe", "Manager", true, null, cache.generation());
+        cache.cache(TENANT_ID, "zoe", "Manager", true, null, cache.generation());
+
+        assertNotNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+
+        cache.cache(TENANT_ID, "bob", "Manager", true, null, cache.generation());
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertNull(cache.isUserInRole(TENANT_ID, "zoe", "Manager"));
+        assertNotNull(cache.isUserInRole(TENANT_ID, "bob", "Manager"));
+    }
+
+    public void testStaleDecisionNotCached() throws Exception {
+
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(10);
+
+        long generation = cache.generation();
+
+        cache.invalidateDecisionsAffectedBy(
+                new GroupUserAdded(TENANT_ID, "Managers", "jdoe"));
+
+        cache.cache(TENANT_ID, "jdoe", "Manager", false, null, generation);
+
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertEquals(0, cache.size());
+    }
+
+    public void testUserDecisionsInvalidated() throws Exception {
+
+        AuthorizationDecisionCache cache = this.populatedCache();
+
+        cache.invalidateDecisionsAffectedBy(
+                new UserEnablementChanged(TENANT_ID, "jdoe", Enablement.indefiniteEnablement()));
+
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Director"));
+        assertNotNull(cache.isUserInRole(TENANT_ID, "zoe", "Manager"));
+        assertNotNull(cache.isUserInRole(OTHER_TENANT_ID, "jdoe", "Manager"));
+    }
+
+    public void testRoleDecisionsInvalidated() throws Exception {
+
+        AuthorizationDecisionCache cache = this.populatedCache();
+
+        cache.invalidateDecisionsAffectedBy(
+                new GroupAssignedToRole(TENANT_ID, "Manager", "Managers"));
+
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertNull(cache.isUserInRole(TENANT_ID, "zoe", "Manager"));
+        assertNotNull(cache.isUserInRole(TENANT_ID, "jdoe", "Director"));
+        assertNotNull(cache.isUserInRole(OTHER_TENANT_ID, "jdoe", "Manager"));
+    }
+
+    public void testTenantDecisionsInvalidated() throws Exception {
+
+        AuthorizationDecisionCache cache = this.populatedCache();
+
+        cache.invalidateDecisionsAffectedBy(
+                new GroupGroupAdded(TENANT_ID, "Managers", "Directors"));
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.isUserInRole(OTHER_TENANT_ID, "jdoe", "Manager"));
+    }
+
+    public void testDecisionExpiresWhenEnablementChanges() throws Exception {
+
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(10);
+
+        Date now = new Date();
+
+        Enablement endingSoon = new Enablement(true, new Date(now.getTime() - 60000L), new Date(now.getTime() + 50L));
+        Enablement startingLater = new Enablement(true, new Date(now.getTime() + 60000L), new Date(now.getTime() + 120000L));
+
+        cache.cache(TENANT_ID, "jdoe", "Manager", true, endingSoon.enablementChangeDate(), cache.generation());
+        cache.cache(TENANT_ID, "zoe", "Manager", false, startingLater.enablementChangeDate(), cache.generation());
+
+        assertEquals(Boolean.FALSE, cache.isUserInRole(TENANT_ID, "zoe", "Manager"));
+
+        Thread.sleep(100L);
+
+        // jdoe's enablement ended after the decision was made
+        assertNull(cache.isUserInRole(TENANT_ID, "jdoe", "Manager"));
+        assertEquals(1, cache.size());
+    }
+
+    private AuthorizationDecisionCache populatedCache() {
+
+        AuthorizationDecisionCache cache = new AuthorizationDecisionCache(10);
+
+        cache.cache(TENANT_ID, "jdoe", "Manager", true, null, cache.generation());
+        cache.cache(TENANT_ID, "jdoe", "Director", false, null, cache.generation());
+        cache.cache(TENANT_ID, "zoe", "Manager", true, null, cache.generation());
+        cache.cache(OTHER_TENANT_ID, "jdoe", "Manager", true, null, cache.generation());
+
+        return cache;
+    }
+}
@@ -0,0 +1,218 @@
+//   Copyright 2012,2013 Vaughn Vernon
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package com.saasovation.identityaccess.domain.model.identity;
+
+import java.util.Collection;
+
+import junit.framework.TestCase;
+
+import com.saasovation.identityaccess.infrastructure.persistence.InMemoryGroupRepository;
+
+public class GroupMembershipIndexTest extends TestCase {
+
+    private static final TenantId TENANT_ID =
+            new TenantId("8A9D4CB4-3EA3-4E1D-A2F2-9E1D8D8F1E3A");
+
+    private GroupRepository groupRepository;
+    private GroupMembershipIndex index;
+
+    public GroupMembershipIndexTest() {
+        super();
+    }
+
+    public void testLoadedClosure() throws Exception {
+
+        // A > B > C > jdoe, and A > D > C
+        this.addGroup("A", "B");
+        this.addGroup("A", "D");
+        this.addGroup("B", "C");
+        this.addGroup("D", "C");
+        this.addUser("C", "jdoe");
+        this.addUser("D", "zoe");
+
+        assertTrue(this.index.isMemberGroup(TENANT_ID, "A", "B"));
+        assertTrue(this.index.isMemberGroup(TENANT_ID, "A", "C"));
+        assertFalse(this.index.isMemberGroup(TENANT_ID, "C", "A"));
+
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "B", "jdoe"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "zoe"));
+        assertFalse(this.index.isMemberUser(TENANT_ID, "B", "zoe"));
+        assertFalse(this.index.isMemberUser(TENANT_ID, "Unknown", "jdoe"));
+    }
+
+    public void testChangesApplied() throws Exception {
+
+        this.addGroup("A", "B");
+        this.addGroup("C", "D");
+        this.addUser("D", "jdoe");
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        this.index.applyChangesOf(new GroupGroupAdded(TENANT_ID, "B", "C"));
+
+        assertTrue(this.index.isMemberGroup(TENANT_ID, "A", "D"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        this.index.applyChangesOf(new GroupUserAdded(TENANT_ID, "D", "zoe"));
+
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "zoe"));
+
+        this.index.applyChangesOf(new GroupUserRemoved(TENANT_ID, "D", "jdoe"));
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "zoe"));
+
+        this.index.applyChangesOf(new GroupGroupRemoved(TENANT_ID, "B", "C"));
+
+        assertFalse(this.index.isMemberGroup(TENANT_ID, "A", "D"));
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "zoe"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "C", "zoe"));
+    }
+
+    public void testRemovalKeepsOtherPaths() throws Exception {
+
+        this.addGroup("A", "B");
+        this.addGroup("A", "C");
+        this.addGroup("B", "D");
+        this.addGroup("C", "D");
+        this.addUser("D", "jdoe");
+
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        this.index.applyChangesOf(new GroupGroupRemoved(TENANT_ID, "B", "D"));
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "B", "jdoe"));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertTrue(this.index.isMemberGroup(TENANT_ID, "A", "D"));
+    }
+
+    public void testInvalidatedTenantReloaded() throws Exception {
+
+        this.addGroup("A", "B");
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertTrue(this.index.isIndexed(TENANT_ID));
+
+        this.addUser("B", "jdoe");
+
+        this.index.invalidate(TENANT_ID);
+
+        assertFalse(this.index.isIndexed(TENANT_ID));
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+    }
+
+    public void testPendingChangesSeenOnlyByTheirThread() throws Exception {
+
+        this.addGroup("A", "B");
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        this.index.applyPendingChangesOf(new GroupUserAdded(TENANT_ID, "B", "jdoe"));
+
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        final boolean[] isMemberElsewhere = new boolean[1];
+
+        Thread otherThread = new Thread() {
+            @Override
+            public void run() {
+                isMemberElsewhere[0] = index.isMemberUser(TENANT_ID, "A", "jdoe");
+            }
+        };
+
+        otherThread.start();
+        otherThread.join();
+
+        assertFalse(isMemberElsewhere[0]);
+
+        this.index.discardPendingChanges();
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+
+        // once committed the change is seen by all
+        this.index.applyChangesOf(new GroupUserAdded(TENANT_ID, "B", "jdoe"));
+
+        assertTrue(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+    }
+
+    public void testPendingChangesNotKeptWhenLoaded() throws Exception {
+
+        this.addGroup("A", "B");
+
+        // the tenant is first loaded within the unit of work
+        this.index.applyPendingChangesOf(new GroupUserAdded(TENANT_ID, "B", "jdoe"));
+
+        assertFalse(this.index.isIndexed(TENANT_ID));
+        assertTrue(this.index.isMemberGroup(TENANT_ID, "A", "B"));
+
+        this.index.discardPendingChanges();
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertTrue(this.index.isIndexed(TENANT_ID));
+    }
+
+    public void testChangeWhileLoadingNotKept() throws Exception {
+
+        this.groupRepository = new InMemoryGroupRepository() {
+            @Override
+            public Collection<Group> allGroups(TenantId aTenantId) {
+                Collection<Group> groups = super.allGroups(aTenantId);
+
+                // committed after the groups were read
+                index.applyChangesOf(new GroupUserAdded(TENANT_ID, "B", "jdoe"));
+
+                return groups;
+            }
+        };
+
+        this.index = new GroupMembershipIndex(this.groupRepository);
+
+        this.addGroup("A", "B");
+
+        assertFalse(this.index.isMemberUser(TENANT_ID, "A", "jdoe"));
+        assertFalse(this.index.isIndexed(TENANT_ID));
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        this.groupRepository = new InMemoryGroupRepository();
+        this.index = new GroupMembershipIndex(this.groupRepository);
+    }
+
+    private void addGroup(String aGroupName, String aNestedGroupName) {
+        this.groupNamed(aGroupName).groupMembers().add(
+                this.groupNamed(aNestedGroupName).toGroupMember());
+    }
+
+    private void addUser(String aGroupName, String aUsername) {
+        this.groupNamed(aGroupName).groupMembers().add(
+                new GroupMember(TENANT_ID, aUsername, GroupMemberType.User));
+    }
+
+    private Group groupNamed(String aName) {
+        Group group = this.groupRepository.groupNamed(TENANT_ID, aName);
+
+        if (group == null) {
+            group = new Group(TENANT_ID, aName, "Group " + aName);
+
+            this.groupRepository.add(group);
+        }
+
+        return group;
+    }
+}
@@ -77,6 +77,15 @@ public class InMemoryGroupRepository implements GroupRepository, CleanableStore
         this.repository().remove(key);
     }
 
+    @Override
+    public String versionOfGroupNamed(TenantId aTenantId, String aName) {
+        Group group = this.groupNamed(aTenantId, aName);
+
+        return group == null
+                ? null
+                : this.keyOf(group) + ":" + group.concurrencyVersion();
+    }
+
     @Override
     public void clean() {
         this.repository().clear();
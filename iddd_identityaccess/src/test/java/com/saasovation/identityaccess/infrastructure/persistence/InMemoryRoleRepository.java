@@ -70,6 +70,21 @@ public class InMemoryRoleRepository implements RoleRepository, CleanableStore {
         return this.repository().get(this.keyOf(aTenantId, aRoleName));
     }
 
+    @Override
+    public Collection<Role> rolesNamed(TenantId aTenantId, Collection<String> aRoleNames) {
+        Collection<Role> roles = new ArrayList<Role>();
+
+        for (String roleName : aRoleNames) {
+            Role role = this.roleNamed(aTenantId, roleName);
+
+            if (role != null) {
+                roles.add(role);
+            }
+        }
+
+        return roles;
+    }
+
     @Override
     public void clean() {
         this.repository().clear();
@@ -19,6 +19,7 @@ import java.util.Map;
 import java.util.UUID;
 
 import com.saasovation.common.persistence.CleanableStore;
+import com.saasovation.identityaccess.domain.model.identity.InvitationDescriptor;
 import com.saasovation.identityaccess.domain.model.identity.Tenant;
 import com.saasovation.identityaccess.domain.model.identity.TenantId;
 import com.saasovation.identityaccess.domain.model.identity.TenantRepository;
@@ -72,6 +73,32 @@ public class InMemoryTenantRepository implements TenantRepository, CleanableStor
         this.repository().remove(key);
     }
 
+    @Override
+    public String versionOfTenantOfId(TenantId aTenantId) {
+        Tenant tenant = this.tenantOfId(aTenantId);
+
+        if (tenant == null) {
+            return null;
+        }
+
+        // nothing versions invitations in memory, so their content stands in
+        int invitationCount = 0;
+        int invitationsHash = 0;
+
+        for (InvitationDescriptor invitation : tenant.allAvailableRegistrationInvitations()) {
+            ++invitationCount;
+            invitationsHash += invitation.hashCode();
+        }
+
+        for (InvitationDescriptor invitation : tenant.allUnavailableRegistrationInvitations()) {
+            ++invitationCount;
+            invitationsHash += invitation.hashCode();
+        }
+
+        return this.keyOf(tenant) + ":" + tenant.concurrencyVersion()
+                + ":" + invitationCount + ":" + invitationsHash;
+    }
+
     @Override
     public void clean() {
         this.repository().clear();
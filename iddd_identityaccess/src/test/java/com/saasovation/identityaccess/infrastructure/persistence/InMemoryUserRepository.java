@@ -110,6 +110,35 @@ public class InMemoryUserRepository implements UserRepository, CleanableStore {
         return null;
     }
 
+    @Override
+    public Collection<User> usersWithUsernames(
+            TenantId aTenantId,
+            Collection<String> aUsernames) {
+
+        Collection<User> users = new ArrayList<User>();
+
+        for (String username : aUsernames) {
+            User user = this.repository().get(this.keyOf(aTenantId, username));
+
+            if (user != null) {
+                users.add(user);
+            }
+        }
+
+        return users;
+    }
+
+    @Override
+    public String versionOfUserWithUsername(TenantId aTenantId, String aUsername) {
+        User user = this.userWithUsername(aTenantId, aUsername);
+
+        return user == null
+                ? null
+                : this.keyOf(user)
+                    + ":" + user.concurrencyVersion()
+                    + ":" + user.person().concurrencyVersion();
+    }
+
     @Override
     public void clean() {
         this.repository().clear();
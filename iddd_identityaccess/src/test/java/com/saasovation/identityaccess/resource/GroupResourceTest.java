@@ -15,6 +15,7 @@
 package com.saasovation.identityaccess.resource;
 
 import org.jboss.resteasy.client.ClientRequest;
+import org.jboss.resteasy.client.ClientResponse;
 
 import com.saasovation.common.media.RepresentationReader;
 import com.saasovation.identityaccess.domain.model.DomainRegistry;
@@ -44,4 +45,28 @@ public class GroupResourceTest extends ResourceTestCase {
         assertEquals(group.tenantId().id(), reader.stringValue("tenantId.id"));
         assertEquals(group.name(), reader.stringValue("name"));
     }
+
+    public void testGetUnmodifiedGroup() throws Exception {
+        Group group = this.group1Aggregate();
+        DomainRegistry.groupRepository().add(group);
+
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}/groups/{groupName}";
+
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", group.tenantId().id());
+        request.pathParameter("groupName", group.name());
+        ClientResponse<String> response = request.get(String.class);
+        String eTag = response.getHeaders().getFirst("ETag");
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(eTag);
+
+        request = new ClientRequest(url);
+        request.pathParameter("tenantId", group.tenantId().id());
+        request.pathParameter("groupName", group.name());
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(304, response.getStatus());
+    }
 }
@@ -19,6 +19,7 @@ import org.jboss.resteasy.client.ClientResponse;
 
 import com.saasovation.common.domain.model.DomainEventPublisher;
 import com.saasovation.common.media.Link;
+import com.saasovation.common.media.OvationsMediaType;
 import com.saasovation.common.notification.NotificationLog;
 import com.saasovation.common.notification.NotificationLogReader;
 import com.saasovation.common.notification.NotificationReader;
@@ -71,6 +72,72 @@ public class NotificationResourceTest extends ResourceTestCase {
         }
     }
 
+    public void testNotModifiedNotificationLogs() throws Exception {
+        this.generateUserEvents();
+
+        String url = "http://localhost:" + PORT + "/notifications";
+
+        ClientRequest request = new ClientRequest(url);
+        ClientResponse<String> response = request.get(String.class);
+        NotificationLogReader log = new NotificationLogReader(response.getEntity());
+        String eTag = response.getHeaders().getFirst("ETag");
+
+        assertNotNull(eTag);
+
+        request = new ClientRequest(url);
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(304, response.getStatus());
+
+        request = new ClientRequest(log.previous().getHref());
+        response = request.get(String.class);
+        eTag = response.getHeaders().getFirst("ETag");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(new NotificationLogReader(response.getEntity()).isArchived());
+
+        request = new ClientRequest(log.previous().getHref());
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(304, response.getStatus());
+    }
+
+    public void testBinaryNotificationLog() throws Exception {
+        this.generateUserEvents();
+
+        String url = "http://localhost:" + PORT + "/notifications";
+
+        ClientRequest request = new ClientRequest(url);
+        ClientResponse<String> response = request.get(String.class);
+        NotificationLogReader jsonLog = new NotificationLogReader(response.getEntity());
+        String jsonETag = response.getHeaders().getFirst("ETag");
+
+        request = new ClientRequest(url);
+        request.accept(OvationsMediaType.ID_OVATION_BINARY_TYPE);
+        ClientResponse<byte[]> binaryResponse = request.get(byte[].class);
+        NotificationLogReader log = new NotificationLogReader(binaryResponse.getEntity());
+        String eTag = binaryResponse.getHeaders().getFirst("ETag");
+
+        assertEquals(200, binaryResponse.getStatus());
+        assertFalse(eTag.equals(jsonETag));
+        assertEquals(jsonLog.id(), log.id());
+        assertEquals(jsonLog.size(), log.size());
+
+        for (int idx = 0; idx < log.size(); ++idx) {
+            assertEquals(jsonLog.get(idx).notificationId(), log.get(idx).notificationId());
+            assertEquals(jsonLog.get(idx).typeName(), log.get(idx).typeName());
+        }
+
+        request = new ClientRequest(url);
+        request.accept(OvationsMediaType.ID_OVATION_BINARY_TYPE);
+        request.header("If-None-Match", eTag);
+        binaryResponse = request.get(byte[].class);
+
+        assertEquals(304, binaryResponse.getStatus());
+    }
+
     public void testPersonContactInformationChangedNotification() throws Exception {
         this.generateUserEvents();
 
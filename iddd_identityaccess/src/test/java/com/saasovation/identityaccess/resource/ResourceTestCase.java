@@ -55,6 +55,8 @@ public abstract class ResourceTestCase extends ApplicationServiceTest {
     protected void setUp() throws Exception {
         super.setUp();
 
+        NotificationResource.clearCachedNotificationLogs();
+
         this.setUpEmbeddedServer();
     }
 
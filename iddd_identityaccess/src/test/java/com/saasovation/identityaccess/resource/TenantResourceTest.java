@@ -14,9 +14,13 @@
 
 package com.saasovation.identityaccess.resource;
 
+import java.util.Date;
+
 import org.jboss.resteasy.client.ClientRequest;
+import org.jboss.resteasy.client.ClientResponse;
 
 import com.saasovation.common.media.RepresentationReader;
+import com.saasovation.identityaccess.domain.model.identity.RegistrationInvitation;
 import com.saasovation.identityaccess.domain.model.identity.Tenant;
 
 public class TenantResourceTest extends ResourceTestCase {
@@ -41,4 +45,57 @@ public class TenantResourceTest extends ResourceTestCase {
         assertEquals(tenant.name(), reader.stringValue("name"));
         assertTrue(reader.booleanValue("active"));
     }
+
+    public void testGetUnmodifiedTenant() throws Exception {
+        Tenant tenant = this.tenantAggregate();
+
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}";
+
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", tenant.tenantId().id());
+        ClientResponse<String> response = request.get(String.class);
+        String eTag = response.getHeaders().getFirst("ETag");
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(eTag);
+
+        request = new ClientRequest(url);
+        request.pathParameter("tenantId", tenant.tenantId().id());
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(304, response.getStatus());
+    }
+
+    public void testGetTenantWithRedefinedInvitation() throws Exception {
+        Tenant tenant = this.tenantAggregate();
+
+        RegistrationInvitation invitation =
+                tenant.offerRegistrationInvitation("Redefined invitation").openEnded();
+
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}";
+
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", tenant.tenantId().id());
+        ClientResponse<String> response = request.get(String.class);
+        String eTag = response.getHeaders().getFirst("ETag");
+
+        assertEquals(200, response.getStatus());
+
+        Date today = new Date();
+
+        // changes only the invitation, not the tenant's own version
+        tenant
+            .redefineRegistrationInvitationAs(invitation.invitationId())
+            .startingOn(today)
+            .until(new Date(today.getTime() + (1000L * 60L * 60L * 24L)));
+
+        request = new ClientRequest(url);
+        request.pathParameter("tenantId", tenant.tenantId().id());
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(200, response.getStatus());
+        assertFalse(eTag.equals(response.getHeaders().getFirst("ETag")));
+    }
 }
@@ -19,9 +19,12 @@ import java.util.UUID;
 import org.jboss.resteasy.client.ClientRequest;
 import org.jboss.resteasy.client.ClientResponse;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import com.saasovation.common.media.RepresentationReader;
 import com.saasovation.identityaccess.domain.model.DomainRegistry;
 import com.saasovation.identityaccess.domain.model.access.Role;
+import com.saasovation.identityaccess.domain.model.identity.Group;
 import com.saasovation.identityaccess.domain.model.identity.User;
 
 public class UserResourceTest extends ResourceTestCase {
@@ -86,6 +89,30 @@ public class UserResourceTest extends ResourceTestCase {
         assertTrue(reader.booleanValue("enabled"));
     }
 
+    public void testGetUnmodifiedUser() throws Exception {
+        User user = this.userAggregate();
+        DomainRegistry.userRepository().add(user);
+
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}/users/{username}";
+
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", user.tenantId().id());
+        request.pathParameter("username", user.username());
+        ClientResponse<String> response = request.get(String.class);
+        String eTag = response.getHeaders().getFirst("ETag");
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(eTag);
+
+        request = new ClientRequest(url);
+        request.pathParameter("tenantId", user.tenantId().id());
+        request.pathParameter("username", user.username());
+        request.header("If-None-Match", eTag);
+        response = request.get(String.class);
+
+        assertEquals(304, response.getStatus());
+    }
+
     public void testGetNonExistingUser() throws Exception {
         User user = this.userAggregate();
         DomainRegistry.userRepository().add(user);
@@ -141,4 +168,52 @@ public class UserResourceTest extends ResourceTestCase {
         ClientResponse<String> response = request.get(String.class);
         assertEquals(204, response.getStatus());
     }
+
+    public void testUsersInRoles() throws Exception {
+        User user = this.userAggregate();
+        DomainRegistry.userRepository().add(user);
+
+        Group group = this.group1Aggregate();
+        group.addUser(user);
+        DomainRegistry.groupRepository().add(group);
+
+        Role role = this.roleAggregate();
+        role.assignGroup(group, DomainRegistry.groupMemberService());
+        DomainRegistry.roleRepository().add(role);
+
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}/users/inRoles";
+
+        System.out.println(">>> GET: " + url);
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", user.tenantId().id());
+        request.queryParameter("username", user.username());
+        request.queryParameter("username", "unknown");
+        request.queryParameter("role", role.name());
+        request.queryParameter("role", "No Role");
+        ClientResponse<String> response = request.get(String.class);
+        assertEquals(200, response.getStatus());
+        String entity = response.getEntity();
+        System.out.println(entity);
+        RepresentationReader reader = new RepresentationReader(entity);
+        assertEquals(user.tenantId().id(), reader.stringValue("tenantId"));
+        assertEquals(2, reader.array("roles").size());
+        JsonArray users = reader.array("users");
+        assertEquals(1, users.size());
+        JsonObject userInRoles = users.get(0).getAsJsonObject();
+        assertEquals(user.username(), userInRoles.get("username").getAsString());
+        assertEquals(user.person().emailAddress().address(), userInRoles.get("emailAddress").getAsString());
+        assertEquals(1, userInRoles.get("roles").getAsJsonArray().size());
+        assertEquals(role.name(), userInRoles.get("roles").getAsJsonArray().get(0).getAsString());
+    }
+
+    public void testUsersInRolesRequiresUsersAndRoles() throws Exception {
+        String url = "http://localhost:" + PORT + "/tenants/{tenantId}/users/inRoles";
+
+        System.out.println(">>> GET: " + url);
+        ClientRequest request = new ClientRequest(url);
+        request.pathParameter("tenantId", UUID.randomUUID().toString().toUpperCase());
+        request.queryParameter("username", "jdoe");
+        ClientResponse<String> response = request.get(String.class);
+        assertEquals(400, response.getStatus());
+    }
 }